@@ -32,6 +32,7 @@ import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import scala.collection.JavaConversions;
+import tarski.ByTypeIndex;
 import tarski.Environment.Env;
 import tarski.Items;
 import tarski.Items.Item;
@@ -46,6 +47,7 @@ import tarski.ValueByItemQuery;
 import utility.Locations.Loc;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.eddysystems.eddy.engine.Utility.log;
 import static tarski.Tokens.abbrevShowFlags;
@@ -650,4 +652,240 @@ public class Tests extends LightCodeInsightFixtureTestCase {
     if (nullaryMethods)
       testMargin("methodByItem.java", "x.foo().bar();", .9);
   }
+
+  public void testLRUCacheOrder() {
+    final LRUCache<Integer,String> cache = new LRUCache<Integer,String>(3);
+    cache.put(1,"a");
+    cache.put(2,"b");
+    cache.put(3,"c");
+    assertEquals("a",cache.get(1)); // 2 is now least recently used
+    cache.put(4,"d");
+    assertNull(cache.get(2));
+    assertTrue(cache.contains(3)); // contains doesn't count as a use
+    cache.put(5,"e");
+    assertFalse(cache.contains(3));
+    assertEquals(3,cache.size());
+    assertEquals("a",cache.get(1));
+    assertEquals("d",cache.get(4));
+    assertEquals("e",cache.get(5));
+  }
+
+  public void testLRUCacheWeight() {
+    final LRUCache<String,String> cache = new LRUCache<String,String>(100,10,new LRUCache.Weigher<String,String>() {
+      @Override public int weight(String k, String v) { return v.length(); }
+    });
+    cache.put("a","aaaa");
+    cache.put("b","bbbb");
+    cache.put("c","cccc"); // Over 10, so a goes
+    assertFalse(cache.contains("a"));
+    assertEquals(8,cache.weight());
+    cache.put("b","bb"); // Replacing updates the weight
+    assertEquals(6,cache.weight());
+
+    // Heavier than the whole limit: rejected, without disturbing anything else
+    cache.put("huge","hhhhhhhhhhh");
+    assertNull(cache.get("huge"));
+    assertEquals(2,cache.size());
+    assertEquals(6,cache.weight());
+
+    // A rejected value also drops the stale one it replaces
+    cache.put("c","ccccccccccc");
+    assertNull(cache.get("c"));
+    assertEquals("bb",cache.get("b"));
+    assertEquals(2,cache.weight());
+  }
+
+  public void testLRUCacheStats() {
+    final LRUCache<Integer,Integer> cache = new LRUCache<Integer,Integer>(2);
+    assertNull(cache.get(1));
+    cache.put(1,1);
+    cache.put(2,2);
+    assertEquals(Integer.valueOf(1),cache.get(1));
+    assertEquals(Integer.valueOf(1),cache.get(1));
+    cache.put(3,3);
+    assertNull(cache.get(2));
+    assertEquals(2,cache.hits());
+    assertEquals(2,cache.misses());
+    assertEquals(1,cache.evictions());
+    cache.clear();
+    assertEquals(0,cache.size());
+    assertEquals(1,cache.evictions()); // Clearing isn't eviction
+  }
+
+  // ByItemIndex against a plain count map, over random changes interleaved with folds and scans.  Folds
+  // are split in two, so that changes can arrive between building a new base and swapping it in.
+  public void testByItemIndex() {
+    for (int seed = 0; seed < 20; seed++)
+      checkByItemIndex(new Random(seed));
+  }
+
+  private static ByTypeIndex buildCounts(final Map<String,Map<String,Integer>> counts) {
+    final ByTypeIndex.Builder b = new ByTypeIndex.Builder();
+    for (final Map.Entry<String,Map<String,Integer>> row : counts.entrySet())
+      for (final Map.Entry<String,Integer> e : row.getValue().entrySet())
+        b.add(row.getKey(),e.getKey(),e.getValue());
+    return b.build();
+  }
+
+  private static Map<String,Map<String,Integer>> copyCounts(final Map<String,Map<String,Integer>> counts) {
+    final Map<String,Map<String,Integer>> c = new HashMap<String,Map<String,Integer>>();
+    for (final Map.Entry<String,Map<String,Integer>> row : counts.entrySet())
+      c.put(row.getKey(),new HashMap<String,Integer>(row.getValue()));
+    return c;
+  }
+
+  private void checkByItemIndex(final Random random) {
+    final String[] types = {"A","B","C","D","E","F"};
+    final String[] names = {"x","y","z","w"};
+    final ChangeTracker<TypeNameItemNamePair> tracker = new ChangeTracker<TypeNameItemNamePair>();
+    final ByItemIndex index = new ByItemIndex(tracker);
+    final Map<String,Map<String,Integer>> counts = new HashMap<String,Map<String,Integer>>();
+    ByItemIndex.Snapshot folding = null; // Snapshot a fold was built from, if one is in flight
+    ByTypeIndex folded = null;
+    Map<String,Map<String,Integer>> scanned = null; // Counts a scan saw, if one is in flight
+    for (int step = 0; step < 2000; step++) {
+      final int op = random.nextInt(20);
+      if (op < 12) {
+        // Change a count.  Removals of absent members are ignored, as from members the scan skipped.
+        final String type = types[random.nextInt(types.length)];
+        final String name = names[random.nextInt(names.length)];
+        final boolean removed = random.nextInt(3) == 0;
+        tracker.add(new TypeNameItemNamePair(type,name,removed));
+        Map<String,Integer> row = counts.get(type);
+        if (row == null) {
+          row = new HashMap<String,Integer>();
+          counts.put(type,row);
+        }
+        final int c = (row.containsKey(name) ? row.get(name) : 0) + (removed ? -1 : 1);
+        if (c > 0) row.put(name,c);
+        else row.remove(name);
+      } else if (op < 15) {
+        final ByItemIndex.Snapshot s = index.snapshot();
+        for (final String type : types) {
+          final Map<String,Integer> row = counts.get(type);
+          final Set<String> expected = new HashSet<String>();
+          for (final String name : names) {
+            final int c = row != null && row.containsKey(name) ? row.get(name) : 0;
+            assertEquals(type + ' ' + name + " at step " + step,c,s.count(type,name));
+            if (c > 0)
+              expected.add(name);
+          }
+          assertEquals(type + " at step " + step,expected.isEmpty() ? null : expected,s.get(type));
+        }
+      } else if (op == 15 && folding == null) {
+        folding = index.snapshot();
+        folded = ByItemIndex.build(folding);
+      } else if (op == 16 && folding != null) {
+        index.swap(folding,folded);
+        folding = null;
+      } else if (op == 17 && scanned == null) {
+        index.startScan();
+        scanned = copyCounts(counts);
+      } else if (op == 18 && scanned != null) {
+        index.finishScan(buildCounts(scanned));
+        scanned = null;
+      } else if (op == 19 && scanned != null) {
+        index.abortScan();
+        scanned = null;
+      }
+    }
+  }
+
+  // Folds on another thread, racing with changes and snapshots.  Every snapshot must still match the counts
+  // of the changes made before it.
+  public void testByItemIndexConcurrentFold() throws InterruptedException {
+    final ChangeTracker<TypeNameItemNamePair> tracker = new ChangeTracker<TypeNameItemNamePair>();
+    final ByItemIndex index = new ByItemIndex(tracker);
+    final int types = 2*ByItemIndex.compactThreshold;
+    final int[][] counts = new int[types][2];
+    final AtomicBoolean done = new AtomicBoolean();
+    final Thread folder = new Thread() {
+      @Override public void run() {
+        while (!done.get())
+          index.fold();
+      }
+    };
+    folder.start();
+    try {
+      final Random random = new Random(7);
+      for (int step = 0; step < 20000; step++) {
+        final int t = random.nextInt(types), n = random.nextInt(2);
+        final boolean removed = random.nextInt(3) == 0;
+        tracker.add(new TypeNameItemNamePair("T"+t,"n"+n,removed));
+        if (!removed) counts[t][n]++;
+        else if (counts[t][n] > 0) counts[t][n]--;
+        if (step % 100 == 0) {
+          final ByItemIndex.Snapshot s = index.snapshot();
+          for (int i = 0; i < 50; i++) {
+            final int u = random.nextInt(types), m = random.nextInt(2);
+            assertEquals("T"+u+" n"+m+" at step "+step,counts[u][m],s.count("T"+u,"n"+m));
+          }
+        }
+      }
+    } finally {
+      done.set(true);
+      folder.join();
+    }
+    index.fold();
+    final ByItemIndex.Snapshot s = index.snapshot();
+    for (int t = 0; t < types; t++)
+      for (int n = 0; n < 2; n++)
+        assertEquals("T"+t+" n"+n,counts[t][n],s.count("T"+t,"n"+n));
+  }
+
+  // Plugin side cost of nullary methods in byItem lookups: ByItemIndex, then findClasses and findMethodsByName.
+  // Holder classes have as many public fields of types Fk as public nullary methods returning types Mk, so
+  // looking up Fk takes only the field path and Mk only the method path.  Logs both costs per lookup, after a
+  // warmup round, and checks that every member is found.  tarski's ByItemBench measures the engine's side.
+  public void testByItemBench() throws Exception {
+    final int holders = 100, types = 50, members = 10, rounds = 5;
+    final Random random = new Random(3117);
+    final int[] fieldCounts = new int[types], methodCounts = new int[types];
+    for (int t = 0; t < types; t++) {
+      myFixture.addClass("package bench; public class F" + t + " {}");
+      myFixture.addClass("package bench; public class M" + t + " {}");
+    }
+    for (int h = 0; h < holders; h++) {
+      final StringBuilder c = new StringBuilder("package bench; public class H" + h + " {\n");
+      for (int k = 0; k < members; k++) {
+        final int f = random.nextInt(types), m = random.nextInt(types);
+        fieldCounts[f]++;
+        methodCounts[m]++;
+        c.append("  public F").append(f).append(" f").append(k).append(";\n");
+        c.append("  public M").append(m).append(" m").append(k).append("() { return null; }\n");
+      }
+      myFixture.addClass(c.append("}").toString());
+    }
+    myFixture.configureByFiles("dummy.java");
+    final Eddy eddy = makeEddy();
+    final Eddy.Input input = eddy.input();
+    final int lastEdit = myFixture.getEditor().getCaretModel().getOffset();
+
+    double fieldTime = 0, methodTime = 0;
+    for (int r = 0; r <= rounds; r++) {
+      final Env env = eddy.env(input,lastEdit); // Fresh ByItem caches each round
+      for (int t = 0; t < types; t++) {
+        final Items.TypeItem F = (Items.TypeItem)env.exactQuery("F"+t).head(),
+                             M = (Items.TypeItem)env.exactQuery("M"+t).head();
+        long start = System.nanoTime();
+        final int fs = env.byItem(F).stream().length();
+        final double ft = System.nanoTime()-start;
+        start = System.nanoTime();
+        final int ms = env.byItem(M).stream().length();
+        final double mt = System.nanoTime()-start;
+        if (r == 0) { // Warmup
+          assertEquals("F"+t,fieldCounts[t],fs);
+          assertEquals("M"+t,methodCounts[t],ms);
+        } else {
+          fieldTime += ft;
+          methodTime += mt;
+        }
+      }
+    }
+    final int n = rounds*types;
+    log("byItem bench: " + holders + " holders, " + holders*members + " fields, " + holders*members + " methods");
+    log("  fields: " + fieldTime/1e6/n + " ms per lookup");
+    log("  methods: " + methodTime/1e6/n + " ms per lookup");
+    log("  cost: " + methodTime/fieldTime + "x");
+  }
 }
@@ -57,6 +57,21 @@ object Grammar {
       f
     }
 
+    // Tokens which can begin (first) or end (last) a nonempty derivation of a symbol
+    lazy val first: Symbol => Set[Symbol] = fixpoint(Set.empty[Symbol], s =>
+      if (isToken(s)) Set(s) else prods(s) flatMap {case (ss,_) => edge(first,ss)})
+    lazy val last: Symbol => Set[Symbol] = fixpoint(Set.empty[Symbol], s =>
+      if (isToken(s)) Set(s) else prods(s) flatMap {case (ss,_) => edge(last,ss.reverse)})
+    private def edge(f: Symbol => Set[Symbol], ss: List[Symbol]): Set[Symbol] = ss match {
+      case Nil => Set.empty
+      case s::ss => if (nullable(s)) f(s) ++ edge(f,ss) else f(s)
+    }
+
+    // Can s derive the nonempty token sequence starting with t0, ending with t1, and of length n?
+    // This is a necessary but not sufficient condition, cheap enough to check for every cell of the chart.
+    def possible(s: Symbol, t0: Symbol, t1: Symbol, n: Int): Boolean =
+      n >= minSize(s) && maxSize(s).forall(n <= _) && first(s).contains(t0) && last(s).contains(t1)
+
     def ty(s: Symbol): Type =
       if (isSimple(s)) throw new RuntimeException(s"Simple token $s has no useful type")
       else if (isToken(s)) s
@@ -67,6 +82,18 @@ object Grammar {
       Grammar(name,preamble,start,token,simple,scored,types,prods)
   }
 
+  // Productions may declare a prior after their action, naming a probability in Pr.  Since binarization
+  // and completion rewrite productions freely, the prior travels as an "@name " prefix of the action.
+  private val priorPat = """^@(\w+) (.*)$""".r
+  def prior(a: Action): Option[String] = a match {
+    case priorPat(p,_) => Some(p)
+    case _ => None
+  }
+  def body(a: Action): Action = a match {
+    case priorPat(_,b) => b
+    case _ => a
+  }
+
   // Split a list of symbols by terminals (t) and nonterminals (n)
   type Divide = (List[Symbol],List[(Symbol,List[Symbol])])
   def divide(G: Grammar, ss: List[Symbol]): Divide = {
@@ -291,8 +318,11 @@ object Grammar {
     val prods = mutable.Map[Symbol,Set[Prod]]()
     val aliases = mutable.Map[Symbol,Symbol]()
 
-    // Split "prod { action }" into prod,action
+    // Split "prod { action } prior?" into prod,action
     def splitProd(line: String, words: List[String]): Prod = words.reverse match {
+      case p :: "}" :: ws if p.forall(_.isLetterOrDigit) =>
+        val (prod,action) = splitProd(line,(p::ws).reverse.init ::: List("}"))
+        (prod,s"@$p $action")
       case "}" :: ws => {
         def search(depth: Int, words: List[String], action: List[String]): Prod =
           words match {
@@ -311,7 +341,7 @@ object Grammar {
           }
         search(1,ws,Nil)
       }
-      case _ => throw new RuntimeException(s"production line must end with }: $line")
+      case _ => throw new RuntimeException(s"production line must end with } or a prior: $line")
     }
 
     // Parse file line by line
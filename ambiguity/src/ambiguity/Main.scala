@@ -18,8 +18,8 @@ object Main {
     G
   }
 
-  def parse(G: Grammar, nop: Boolean = false) =
-    print(Parse.parseGen(G,nop=nop).mkString("\n")+"\n")
+  def parse(G: Grammar, nop: Boolean = false, maxLines: Int = 200) =
+    print(Parse.parseGen(G,nop=nop,maxLines=maxLines).mkString("\n")+"\n")
 
   def actions(G: Grammar) =
     print(Parse.actionGen(G).mkString("\n")+"\n")
@@ -27,6 +27,7 @@ object Main {
   def main(args: Array[String]): Unit = args match {
     case Array(path) => parse(grammar(path))
     case Array("-n",path) => parse(grammar(path),nop=true)
+    case Array("-l",lines,path) => parse(grammar(path),maxLines=lines.toInt) // -l 0 never splits methods
     case Array("-a",path) => actions(grammar(path))
     case Array("-s",path) => actions(grammar(path,binary=false))
     case _ => throw new RuntimeException("one argument expected")
@@ -38,6 +38,14 @@ object Parse {
   def separate(cs: List[Code]): Code =
    intersperse(List(""),cs).flatten
 
+  // Group pieces of code into chunks of at most max lines, without splitting pieces.  max <= 0 means one chunk.
+  def chunks(max: Int, cs: List[Code]): List[Code] =
+    if (max <= 0) List(cs.flatten)
+    else cs.foldLeft(List[Code]())((ks,c) => ks match {
+      case k::ks if k.size+c.size <= max => (k:::c)::ks
+      case _ => c::ks
+    }).reverse
+
   private def actionName(s: Symbol, p: Prod)(implicit G: Grammar): String = {
     val i = G.prods(s).toList.indexOf(p)
     s"$s$i"
@@ -101,7 +109,7 @@ object Parse {
         case ((v,s),i) if (if (r) G.isToken(s) else !G.isSimple(s)) && needsI(a,i,r) => if (r) s"$v: Range" else s"$v: ${G.ty(s)}"
       }
       val ps = (args(vs,r=false) ::: args(vsr,r=true) ::: (if (needsR(a)) List("r: Range") else Nil)) mkString ", "
-      val act = """\$((\d+)(r?)|r\b)""".r.replaceAllIn(a, m => {
+      val act = """\$((\d+)(r?)|r\b)""".r.replaceAllIn(body(a), m => {
         val g = m.group(1)
         if (m.group(1) == "r") "r" else {
           val i = m.group(2).toInt-1
@@ -126,7 +134,9 @@ object Parse {
   // Convert a preamble line to Java
   def javaPreamble(p: String): String = p.replaceAllLiterally("_","*")+";"
 
-  def parseGen(G: Grammar, nop: Boolean = false): Code = {
+  // HotSpot never compiles methods over HugeMethodLimit (8000 bytes of bytecode), so by default parseGen splits
+  // generated methods longer than maxLines into helpers.  200 lines is roughly 4000 bytes.
+  def parseGen(G: Grammar, nop: Boolean = false, maxLines: Int = 200): Code = {
     implicit val _G = G
     val toks = (for ((n,ps) <- G.prods; (p,a) <- ps; t <- p if G.isToken(t)) yield t).toSet
     val nons = sortNons(G)
@@ -150,6 +160,7 @@ object Parse {
       "scala.Tuple4",
       "scala.Option",
       "tarski.Scores.*",
+      "tarski.JavaScores",
       "utility.Interrupts",
       "static utility.Locations.*",
       "static tarski.ParseEddyActions.*"
@@ -158,16 +169,18 @@ object Parse {
 
     // Helper class
     lazy val parser = block(s"private static final class Parser",
-      separate(List(fields,init,toplevel,ids,types,nulls,nonnulls) ::: (nons map nonnull)))
+      separate(List(fields,init,toplevel,scored,stats,ids,types,guards,priors,nulls,nonnulls) ::: (nons map nonnull)))
 
-    lazy val fields = List(
+    lazy val fields = (List(
       s"${G.token}[] input;",
       s"long[] ranges;",
       s"byte[] type;",
       s"ArrayList<Object> values = new ArrayList<Object>();",
       s"TIntLongHashMap slices = new TIntLongHashMap(); // (non,lo,hi) => (start,size)",
       s"static long vMask = (1L<<$valueBits)-1;"
-    ) map (f => s"private final $f")
+    ) map (f => s"private final $f")) ::: List(
+      s"private double[] priors = new double[16]; // Prior probability of each value",
+      s"private long visits; // Cells which passed their guards, for stats")
 
     lazy val init: Code = "// Convert input and allocate working memory" ::
       method("","Parser",List("_input" -> s"List<Loc<${G.token}>>"),List(
@@ -201,6 +214,23 @@ object Parse {
       })
     }
 
+    lazy val scored: Code = "// The entire parse, most likely first" :: {
+      val ty = jty(G.start,Box)
+      method(s"Scored<$ty>","scored",Nil,List(
+        s"types();",
+        s"nulls();",
+        s"nonnulls();",
+        s"final long s = slices.get(${slice(G.start,"0","input.length")});",
+        s"final int lo = (int)(s>>$valueBits);",
+        s"return (Scored)alternatives(lo,lo+(int)(s&vMask),1);"))
+    }
+
+    lazy val stats: Code = "// Cost of the last parse: tokens, cells visited, chart entries, values, ambiguous entries" ::
+      method("long[]","stats",Nil,List(
+        "long ambiguous = 0;",
+        "for (final long s : slices.getValues()) if ((s&vMask) > 1) ambiguous++;",
+        "return new long[]{input.length,visits,slices.size(),values.size(),ambiguous};"))
+
     def id(s: Symbol) = s"i$s"
     lazy val ids = "// Symbol ids" :: ((toks.toList.zipWithIndex++nons.zipWithIndex) map {case (s,i) =>
       s"private static final int ${id(s)} = $i;"
@@ -216,6 +246,61 @@ object Parse {
         )
       )
 
+    // First and last token sets, as bitsets indexed by words*non+(tok>>6).  These let nonnulls skip cells which
+    // a nonterminal can never fill without touching the chart.
+    lazy val words = (toks.size+63)/64
+    lazy val tokIds = toks.toList.zipWithIndex.toMap
+    def edgeGuard(n: Symbol, f: Symbol => Set[Symbol]): Boolean = !toks.subsetOf(f(n))
+    def bits(ts: Set[Symbol]): List[String] = (0 until words).toList map (w =>
+      "0x"+java.lang.Long.toHexString(ts.foldLeft(0L)((b,t) => {
+        val i = tokIds(t)
+        if (i>>6 == w) b|1L<<i else b
+      }))+"L")
+    lazy val guards: Code = "// First and last tokens of each nonterminal" ::
+      List("firsts" -> G.first,"lasts" -> G.last).flatMap {case (name,f) =>
+        s"private static final long[] $name = {" :: (nons map (n =>
+          s"  ${bits(f(n) & toks) mkString ","}, // $n")) ::: List("};")} :::
+      method("private static boolean","in",List("sets" -> "final long[]","n" -> "final int","t" -> "final int"),List(
+        s"return t<${toks.size} && (sets[$words*n+(t>>6)]&1L<<t) != 0;"))
+
+    def guard(n: Symbol): List[String] = {
+      val min = G.minSize(n) max 1
+      (if (min > 1) List(s"size>=$min") else Nil) :::
+      (G.maxSize(n) match { case Some(max) => List(s"size<=$max"); case None => Nil }) :::
+      (if (edgeGuard(n,G.first)) List(s"in(firsts,${id(n)},t0)") else Nil) :::
+      (if (edgeGuard(n,G.last)) List(s"in(lasts,${id(n)},t1)") else Nil)
+    }
+
+    // Each value's prior is the product of its production's prior and the priors of its children.  Ambiguous
+    // scored values are packed with priors relative to the best alternative, which becomes the prior of the pack.
+    def priorOf(prod: Prod, is: List[String]): String =
+      prior(prod._2).map(p => s"Pr.$p()").toList ::: is.map(i => s"priors[$i]") match {
+        case Nil => "1"
+        case fs => fs mkString "*"
+      }
+    lazy val priors: Code = "// Priors" :: separate(List(
+      method("private void","prior",List("p" -> "final double"),List(
+        "final int i = values.size()-1;",
+        "if (i >= priors.length) priors = java.util.Arrays.copyOf(priors,2*i);",
+        "priors[i] = p;")),
+      method("private double","best",List("lo" -> "final int","hi" -> "final int"),List(
+        "double p = 0;",
+        "for (int i=lo;i<hi;i++) p = Math.max(p,priors[i]);",
+        "return p;")),
+      "// Values in [lo,hi) as a Scored, relative to the given prior.  If all priors are equal, values stay in parse order;" ::
+      "// otherwise listGood's heap orders them by probability, and ties come out in no particular order." ::
+      method("private Scored<Object>","alternatives",List("lo" -> "final int","hi" -> "final int","scale" -> "final double"),List(
+        "boolean uniform = true;",
+        "for (int i=lo+1;i<hi;i++) uniform &= priors[i]==priors[lo];",
+        "if (uniform) {",
+        "  Scored<Object> s = (Scored)Empty$.MODULE$;",
+        "  for (int i=hi-1;i>=lo;i--) s = new Best<Object>(Pr.parse()*priors[lo]/scale,values.get(i),s);",
+        "  return s;",
+        "}",
+        "List<Alt<Object>> xs = (List)Nil$.MODULE$;",
+        "for (int i=hi-1;i>=lo;i--) xs = $colon$colon$.MODULE$.<Alt<Object>>apply(new Alt<Object>(Pr.parse()*priors[i]/scale,values.get(i)),xs);",
+        "return JavaScores.listGood(xs);"))))
+
     def slice(n: Symbol, lo: String, hi: String): String = {
       val slo = if (lo == "0") "" else s"|$lo<<$posBits"
       val shi = if (hi == "0") "" else s"|$hi"
@@ -250,12 +335,13 @@ object Parse {
         (nons collect {case n if G.nullable(n) => {
           def ifNull(s: Symbol): Option[Option[String]] = if (!G.nullable(s)) None else Some(
             if (G.isSimple(s)) None
-            else Some(cast(s,s"values.get((int)(slices.get(${slice(s,"0","0")})>>$valueBits))")))
+            else Some(s"(int)(slices.get(${slice(s,"0","0")})>>$valueBits)"))
           val make: Code =
             if (G.isSimple(n)) List(s"// $n is simple")
-            else G.prods(n).toList.flatMap {case prod@(p,_) => allSome(p map ifNull) map (vs => {
+            else G.prods(n).toList.flatMap {case prod@(p,_) => allSome(p map ifNull) map (is => {
               val comment = s"$n -> ${if (prod._1.isEmpty) "\"\"" else prod._1 mkString " "} : ${prod._2}"
-              s"values.add(${act(n,prod,vs.flatten,Nil,None)}); // $comment"
+              val vs = (p zip is) collect {case (s,Some(i)) => cast(s,s"values.get($i)")}
+              s"values.add(${act(n,prod,vs,Nil,None)}); prior(${priorOf(prod,is.flatten)}); // $comment"
             })}
           val (s,set): (String,Code) =
             if (G.isSimple(n)) ("1",Nil)
@@ -265,124 +351,157 @@ object Parse {
         }}).flatten
       )
 
+    def index(n: Symbol, k: String, s: String): List[String] =
+      if (G.isSimple(n)) Nil else List(s"(int)($s>>$valueBits)+$k")
+
     def loop(n: Symbol, k: String, s: String, body: List[String] => Code): Code =
       if (G.isSimple(n)) { assert(!G.isToken(n)); body(Nil) }
       else block(s"for (int $k=0;$k<($s&vMask);$k++)",
              body(List(cast(n,s"values.get((int)($s>>$valueBits)+$k)"))))
 
-    lazy val nonnulls: Code = "// Parse nonnull productions" ::
-      method("private void","nonnulls",Nil,
-        "final int n = input.length;" ::
-        block("for (int lo=n;lo>=0;lo--) for (int hi=lo+1;hi<=n;hi++)",
-          "if (Interrupts.pending != 0) Interrupts.checkInterrupts();" ::
-          "final long range = unionHelper(ranges[lo],ranges[hi-1]);" ::
-          nons.map(n => s"$n(lo,hi,range);")))
-
-    def nonnull(n: Symbol): Code =
-      method("private void",n,List("lo" -> "final int","hi" -> "final int", "range" -> "final long"),{
-        val r = Some("range")
-        def check(ti: (Symbol,String)): String = {
-          val (t,i) = ti
-          s"type[$i]==${id(t)}"
+    lazy val params = List("lo" -> "final int","hi" -> "final int","range" -> "final long")
+    lazy val nonnulls: Code = {
+      val cells = chunks(maxLines,nons collect {case n if G.first(n).nonEmpty => ifs(guard(n),List("visits++;",s"$n(lo,hi,range);"))})
+      val edges = List("t0" -> "final int","t1" -> "final int","size" -> "final int")
+      def call(i: Int) = s"cells$$$i(lo,hi,range,t0,t1,size);"
+      separate(("// Parse nonnull productions" ::
+        method("private void","nonnulls",Nil,
+          "final int n = input.length;" ::
+          block("for (int lo=n;lo>=0;lo--) for (int hi=lo+1;hi<=n;hi++)",
+            "if (Interrupts.pending != 0) Interrupts.checkInterrupts();" ::
+            "final long range = unionHelper(ranges[lo],ranges[hi-1]);" ::
+            "final int t0 = type[lo]&0xff, t1 = type[hi-1]&0xff, size = hi-lo;" ::
+            (if (cells.size == 1) cells.head else cells.indices.toList map call)))) ::
+        (if (cells.size == 1) Nil
+         else cells.zipWithIndex map {case (c,i) => method("private void",s"cells$$$i",params:::edges,c)}))
+    }
+
+    def nonnull(n: Symbol): Code = {
+      val r = Some("range")
+      def check(ti: (Symbol,String)): String = {
+        val (t,i) = ti
+        s"type[$i]==${id(t)}"
+      }
+      def checks(tis: List[(Symbol,String)]) = tis map check
+      def get(t: Symbol, i: String) = cast(t,s"input[$i]")
+      def gets(tis: List[(Symbol,String)]): List[String] =
+        tis collect { case (t,i) if !G.isSimple(t) => get(t,i) }
+      def cached(tis: List[(Symbol,String)], body: List[String] => Code): Code = {
+        val simple = tis filter {case (t,_) => !G.isSimple(t)}
+        if (simple.isEmpty) body(Nil) else {
+          val (vs,cs) = (simple.zipWithIndex map {case ((t,i),j) =>
+            (s"x$j",s"${jty(t,Unbox)} x$j = ${get(t,i)};")}).unzip
+          (cs mkString "; ") :: body(vs)
         }
-        def checks(tis: List[(Symbol,String)]) = tis map check
-        def get(t: Symbol, i: String) = cast(t,s"input[$i]")
-        def gets(tis: List[(Symbol,String)]): List[String] =
-          tis collect { case (t,i) if !G.isSimple(t) => get(t,i) }
-        def cached(tis: List[(Symbol,String)], body: List[String] => Code): Code = {
-          val simple = tis filter {case (t,_) => !G.isSimple(t)}
-          if (simple.isEmpty) body(Nil) else {
-            val (vs,cs) = (simple.zipWithIndex map {case ((t,i),j) =>
-              (s"x$j",s"${jty(t,Unbox)} x$j = ${get(t,i)};")}).unzip
-            (cs mkString "; ") :: body(vs)
-          }
+      }
+      def add(prod: Prod, vs: List[List[String]], rs: List[List[String]], is: List[String]): Code =
+        if (G.isSimple(n)) List("found = true;")
+        else {
+          val a = act(n,prod,vs.flatten,rs.flatten,r)
+          val p = s"prior(${priorOf(prod,is)});"
+          if (G.isNullable(prod._2)) List(s"final ${jty(n,Box)} x = $a;",
+                                          s"if (x != null) { values.add(x); $p }")
+          else List(s"values.add($a);",p)
         }
-        def add(prod: Prod, vs: List[List[String]], rs: List[List[String]]): Code =
-          if (G.isSimple(n)) List("found = true;")
-          else {
-            val a = act(n,prod,vs.flatten,rs.flatten,r)
-            if (G.isNullable(prod._2)) List(s"final ${jty(n,Box)} x = $a;",
-                                            s"if (x != null) values.add(x);")
-            else List(s"values.add($a);")
+      def parse(prod: Prod, d: Divide): Code = {
+        val range = {
+          val lo = prod._1.map(G.minSize).sum
+          val hi = allSome(prod._1.map(G.maxSize)) map (_.sum)
+          hi match {
+            case None => s"hi-lo>=$lo"
+            case Some(hi) if lo==hi => s"hi-lo==$lo"
+            case Some(hi) => s"$lo<=hi-lo && hi-lo<=$hi"
           }
-        def parse(prod: Prod, d: Divide): Code = {
-          val range = {
-            val lo = prod._1.map(G.minSize).sum
-            val hi = allSome(prod._1.map(G.maxSize)) map (_.sum)
-            hi match {
-              case None => s"hi-lo>=$lo"
-              case Some(hi) if lo==hi => s"hi-lo==$lo"
-              case Some(hi) => s"$lo<=hi-lo && hi-lo<=$hi"
-            }
-          }
-          def is[A](xs: List[(A,String)]*): List[List[String]] = xs.toList map (_ map (x => s"ranges[${x._2}]"))
-          d match {
-            case (Nil,Nil) => Nil
-            case (t0,Nil) =>
-              val ti0 = t0.zipWithIndex map {case (t,i) => (t,lo(i))}
-              ifs(range :: checks(ti0),add(prod,List(gets(ti0)),is(ti0)))
-            case (t0,List((n1,t2))) =>
-              val ti0 = t0.zipWithIndex map {case (t,i) => (t,lo(i))}
-              val ti2 = t2.zipWithIndex map {case (t,i) => (t,s"hi-${t2.size-i}")}
-              ifs(range :: checks(ti0) ::: checks(ti2), {
-                s"final long s1 = slices.get(${slice(n1,lo(t0.size),hi(t2.size))});" ::
-                block(s"if (s1 != 0)", cached(ti0++ti2,v02 => {
-                  val (v0,v2) = v02.splitAt(t0.size)
-                  loop(n1,"k","s1",v1 => add(prod,List(v0,v1,v2),is(ti0,ti2)))
-                }))
-              })
-            case (t0,List((n1,t2),(n3,t4))) =>
-              val ti0 = t0.zipWithIndex map {case (t,i) => (t,lo(i))}
-              val ti4 = t4.zipWithIndex map {case (t,i) => (t,s"hi-${t4.size-i}")}
-              ifs(range :: checks(ti0) ::: checks(ti4), cached(ti0++ti4,v04 => {
-                val (v0,v4) = v04.splitAt(t0.size)
-                block(s"for (int j=${lo(t0.size+G.minSize(n1))};j<=${hi(t2.size+G.minSize(n3)+t4.size)};j++)", {
-                  val ti2 = t2.zipWithIndex map {case (t,i) => (t,j(i))}
-                  ifs(checks(ti2),{
-                    List(s"final long s1 = slices.get(${slice(n1,lo(t0.size),"j")}); if (s1 == 0) continue;",
-                         s"final long s3 = slices.get(${slice(n3,j(t2.size),hi(t4.size))}); if (s3 == 0) continue;") :::
-                    cached(ti2,v2 => loop(n1,"k1","s1",v1 => loop(n3,"k3","s3",v3 =>
-                      add(prod,List(v0,v1,v2,v3,v4),is(ti0,ti2,ti4)))))
-                  })
-                })
+        }
+        def is[A](xs: List[(A,String)]*): List[List[String]] = xs.toList map (_ map (x => s"ranges[${x._2}]"))
+        d match {
+          case (Nil,Nil) => Nil
+          case (t0,Nil) =>
+            val ti0 = t0.zipWithIndex map {case (t,i) => (t,lo(i))}
+            ifs(range :: checks(ti0),add(prod,List(gets(ti0)),is(ti0),Nil))
+          case (t0,List((n1,t2))) =>
+            val ti0 = t0.zipWithIndex map {case (t,i) => (t,lo(i))}
+            val ti2 = t2.zipWithIndex map {case (t,i) => (t,s"hi-${t2.size-i}")}
+            ifs(range :: checks(ti0) ::: checks(ti2), {
+              s"final long s1 = slices.get(${slice(n1,lo(t0.size),hi(t2.size))});" ::
+              block(s"if (s1 != 0)", cached(ti0++ti2,v02 => {
+                val (v0,v2) = v02.splitAt(t0.size)
+                loop(n1,"k","s1",v1 => add(prod,List(v0,v1,v2),is(ti0,ti2),index(n1,"k","s1")))
               }))
-            case _ => impossible
-          }
+            })
+          case (t0,List((n1,t2),(n3,t4))) =>
+            val ti0 = t0.zipWithIndex map {case (t,i) => (t,lo(i))}
+            val ti4 = t4.zipWithIndex map {case (t,i) => (t,s"hi-${t4.size-i}")}
+            ifs(range :: checks(ti0) ::: checks(ti4), cached(ti0++ti4,v04 => {
+              val (v0,v4) = v04.splitAt(t0.size)
+              block(s"for (int j=${lo(t0.size+G.minSize(n1))};j<=${hi(t2.size+G.minSize(n3)+t4.size)};j++)", {
+                val ti2 = t2.zipWithIndex map {case (t,i) => (t,j(i))}
+                ifs(checks(ti2),{
+                  List(s"final long s1 = slices.get(${slice(n1,lo(t0.size),"j")}); if (s1 == 0) continue;",
+                       s"final long s3 = slices.get(${slice(n3,j(t2.size),hi(t4.size))}); if (s3 == 0) continue;") :::
+                  cached(ti2,v2 => loop(n1,"k1","s1",v1 => loop(n3,"k3","s3",v3 =>
+                    add(prod,List(v0,v1,v2,v3,v4),is(ti0,ti2,ti4),index(n1,"k1","s1")++index(n3,"k3","s3")))))
+                })
+              })
+            }))
+          case _ => impossible
         }
-        val ps = G.prods(n).toList flatMap {case prod@(ss,_) => parse(prod,divide(G,ss))}
-        val (start,finish) = {
-          val s = slice(n,"lo","hi")
-          val dump = if (debug) "System.out.println(lo+\":\"+hi+\" "+n+"\"); " else ""
-          if (G.isSimple(n))
-            ("boolean found = false;",
-             List(s"if (found) { ${dump}slices.put($s,1); }"))
-          else {
-            val ty = jty(n,Box)
-            val start = "final int prev = values.size();"
-            val slice = s"if (count != 0) { ${dump}slices.put($s,(long)prev<<$valueBits|count); }"
-            if (!G.isScored(ty)) (start,List(
-              "final int count = values.size()-prev;",
-              slice))
-            else (start,
-              "int size = values.size();" ::
-              "int count = size-prev;" ::
-              ifs(List("count > 1"),List(
-                s"Scored<$ty> s = (Scored)Empty$$.MODULE$$;",
-                s"for (int i=0;i<count;i++)",
-                s"  s = new Best<$ty>(Pr.parse(),($ty)values.remove(--size),s);",
-                s"values.add(new Scored$ty(s,range));",
-                s"count = 1;")) :::
-              List(slice))
-          }
+      }
+      val ps = chunks(maxLines,G.prods(n).toList map {case prod@(ss,_) => parse(prod,divide(G,ss))})
+      val (start,finish) = {
+        val s = slice(n,"lo","hi")
+        val dump = if (debug) "System.out.println(lo+\":\"+hi+\" "+n+"\"); " else ""
+        if (G.isSimple(n))
+          ("boolean found = false;",
+           List(s"if (found) { ${dump}slices.put($s,1); }"))
+        else {
+          val ty = jty(n,Box)
+          val start = "final int prev = values.size();"
+          val slice = s"if (count != 0) { ${dump}slices.put($s,(long)prev<<$valueBits|count); }"
+          if (!G.isScored(ty)) (start,List(
+            "final int count = values.size()-prev;",
+            slice))
+          else (start,
+            "final int size = values.size();" ::
+            "int count = size-prev;" ::
+            ifs(List("count > 1"),List(
+              s"final double best = best(prev,size);",
+              s"final Scored<$ty> s = (Scored)alternatives(prev,size,best);",
+              s"values.subList(prev,size).clear();",
+              s"values.add(new Scored$ty(s,range)); prior(best);",
+              s"count = 1;")) :::
+            List(slice))
         }
-        start :: ps ::: finish
-      })
+      }
+      ps match {
+        case Nil|List(_) => method("private void",n,params,start :: ps.flatten ::: finish)
+        case _ =>
+          // Too long for one method: split productions into helpers
+          def part(i: Int) = s"$n$$$i(lo,hi,range)"
+          val parts = ps.zipWithIndex map {case (p,i) =>
+            if (G.isSimple(n)) method("private boolean",s"$n$$$i",params,"boolean found = false;" :: p ::: List("return found;"))
+            else method("private void",s"$n$$$i",params,p)}
+          val body =
+            if (G.isSimple(n)) s"final boolean found = ${ps.indices map part mkString " || "};" :: finish
+            else start :: (ps.indices.toList map (i => part(i)+";")) ::: finish
+          separate(method("private void",n,params,body) :: parts)
+      }
+    }
 
     lazy val parse: Code = "// Parse a token stream" ::
       method(s"public static List<${jty(G.start,Box)}>","parse",List("input" -> s"List<Loc<${G.token}>>"),List(
         if (nop) "return null;"
         else s"return new Parser(input).toplevel();"
-      ))
+      )) ::: "" ::
+      "// Parse a token stream, weighting ambiguous parses by production priors" ::
+      method(s"public static Scored<${jty(G.start,Box)}>","parseScored",List("input" -> s"List<Loc<${G.token}>>"),List(
+        if (nop) "return null;"
+        else s"return new Parser(input).scored();"
+      )) ::: "" ::
+      "// Parse a token stream, returning its cost (see Parser.stats)" ::
+      method("public static long[]","stats",List("input" -> s"List<Loc<${G.token}>>"),
+        if (nop) List("return null;")
+        else List("final Parser p = new Parser(input);","p.toplevel();","return p.stats();"))
 
     lazy val module: Code =
       block(s"class ${G.name}",
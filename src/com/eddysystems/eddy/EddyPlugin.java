@@ -337,7 +337,8 @@ public class EddyPlugin implements ProjectComponent {
   }
 
   public void projectClosed() {
-    // called when project is being closed
+    // called when project is being closed.  Stops the environment's listeners and saves its package index.
+    dropEnv();
   }
 
 }
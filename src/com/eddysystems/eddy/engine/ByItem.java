@@ -1,7 +1,8 @@
 /* ByItem: Lazy lookup of items by type
  *
- * The eddy environment is a mix of precomputed string tables, incremental updates to
- * these string tables, and local values and methods already turned into tarski.Items.Item.
+ * The eddy environment is a mix of incrementally maintained string tables (see ByItemIndex),
+ * string tables for libraries cached on disk (see LibraryIndex), and local values and methods
+ * already turned into tarski.Items.Item.
  * ByItem combines all of these components together into byItem lookups, hiding the expense
  * behind Scored laziness as much as possible.
  */
@@ -9,15 +10,14 @@
 package com.eddysystems.eddy.engine;
 
 import com.eddysystems.eddy.EddyThread;
-import com.intellij.psi.PsiField;
-import com.intellij.psi.PsiMethod;
-import com.intellij.psi.PsiType;
+import com.intellij.psi.*;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.search.ProjectScope;
 import com.intellij.psi.search.PsiShortNamesCache;
 import com.intellij.util.Processor;
 import com.intellij.util.SmartList;
 import com.intellij.util.indexing.IdFilter;
+import org.jetbrains.annotations.Nullable;
 import scala.runtime.AbstractFunction0;
 import tarski.*;
 import tarski.Items.*;
@@ -36,29 +36,36 @@ public class ByItem implements ValueByItemQuery {
   private final Converter converter;
   private final Map<TypeItem,Value[]> localValues;
   private final Map<TypeItem,MethodItem[]> localMethods;
-  private final Map<String,Set<String>> globalFields, globalMethods;
-  private final List<TypeNameItemNamePair> pairFields, pairMethods;
+  private final ByItemIndex.Snapshot globalFields, globalMethods;
+  private final ByTypeIndex libraryFields, libraryMethods;
   private final PsiShortNamesCache psiCache;
-  private final GlobalSearchScope scope;
+  private final JavaPsiFacade facade;
+  private final GlobalSearchScope scope, libraryScope;
   private final IdFilter filter;
   private final EddyThread thread = EddyThread.getEddyThread();
 
   ByItem(final Converter converter,
-         final Map<String,Set<String>> globalFields, final Map<String,Set<String>> globalMethods,
-         final List<TypeNameItemNamePair> pairFields, final List<TypeNameItemNamePair> pairMethods,
+         final ByItemIndex.Snapshot globalFields, final ByItemIndex.Snapshot globalMethods,
+         final ByTypeIndex libraryFields, final ByTypeIndex libraryMethods,
          final List<Item> locals,
-         final GlobalSearchScope scope, final IdFilter filter) {
+         final GlobalSearchScope scope, final IdFilter filter, final GlobalSearchScope libraryScope) {
     this.converter = converter;
     final ByItemMaps maps = JavaItems.valuesByItem(locals, true); // locals byItem map contains an entry for ObjectItem
     this.localValues = maps.values;
     this.localMethods = maps.methods;
     this.globalFields = globalFields;
     this.globalMethods = globalMethods;
-    this.pairFields = pairFields;
-    this.pairMethods = pairMethods;
+    this.libraryFields = libraryFields;
+    this.libraryMethods = libraryMethods;
     this.psiCache = PsiShortNamesCache.getInstance(converter.project);
+    this.facade = JavaPsiFacade.getInstance(converter.project);
     this.scope = scope;
     this.filter = filter;
+    this.libraryScope = libraryScope;
+  }
+
+  private static Set<String> set(final String[] names) {
+    return names == null ? null : new HashSet<String>(Arrays.asList(names));
   }
 
   // Is a method suitable for by item lookup?
@@ -70,6 +77,14 @@ public class ByItem implements ValueByItemQuery {
     return !m.hasTypeParameters() && m.getParameterList().getParametersCount() == 0;
   }
 
+  // Name of a method in the method index: declaring class and method name, so that lookups go
+  // straight to the class instead of searching every method with the same name.
+  static public @Nullable String methodKey(final PsiMethod m) {
+    final PsiClass c = m.getContainingClass();
+    final String qual = c == null ? null : c.getQualifiedName();
+    return qual == null ? null : qual + '#' + m.getName();
+  }
+
   public Scored<ValueOrMethod> query(final TypeItem type) {
     if (cache.containsKey(type))
       return cache.get(type);
@@ -78,8 +93,9 @@ public class ByItem implements ValueByItemQuery {
     // Avoid duplicates
     final Set<ValueOrMethod> seen = new HashSet<ValueOrMethod>();
 
-    // Bias lookup into global map
-    Scored<ValueOrMethod> s = new LazyBiased<ValueOrMethod>(Pr.globalByItem(),new GlobalFields(qual,type,seen));
+    // Bias lookup into global map, and even more into libraries
+    Scored<ValueOrMethod> s = new LazyBiased<ValueOrMethod>(Pr.globalByItem(),new GlobalFields(qual,type,seen,false));
+    s = s.$plus$plus(new LazyBiased<ValueOrMethod>(Pr.libraryByItem(),new GlobalFields(qual,type,seen,true)));
 
     // Add extra values
     {
@@ -125,11 +141,13 @@ public class ByItem implements ValueByItemQuery {
     final String qual;
     final TypeItem type;
     final Set<ValueOrMethod> seen;
+    final boolean library; // Search libraries instead of the project
 
-    GlobalFields(final String qual, final TypeItem type, final Set<ValueOrMethod> seen) {
+    GlobalFields(final String qual, final TypeItem type, final Set<ValueOrMethod> seen, final boolean library) {
       this.qual = qual;
       this.type = type;
       this.seen = seen;
+      this.library = library;
     }
 
     public Scored<ValueOrMethod> apply() {
@@ -146,23 +164,15 @@ public class ByItem implements ValueByItemQuery {
         }
       };
 
-      // Check the current global map
-      final Set<String> names = globalFields == null ? null : globalFields.get(qual);
+      // Check the global map
+      final Set<String> names = library ? set(libraryFields.get(qual)) : globalFields.get(qual);
       if (names != null) {
         if (thread != null) thread.pushSoftInterrupts();
         for (final String name : names)
-          psiCache.processFieldsWithName(name, proc, scope, filter);
+          psiCache.processFieldsWithName(name, proc, library ? libraryScope : scope, library ? null : filter);
         if (thread != null) thread.popSoftInterrupts();
       }
 
-      // Check changes since last global map was constructed
-      for (final TypeNameItemNamePair tn : pairFields)
-        if (tn.type.equals(qual)) {
-          if (thread != null) thread.pushSoftInterrupts();
-          psiCache.processFieldsWithName(tn.item, proc, scope, filter);
-          if (thread != null) thread.popSoftInterrupts();
-        }
-
       // Filter out values that aren't subitems of our desired type.
       // Putting this logic in proc might cause deadlocks since isSubitem can trigger Scala plugin code.
       final int fullSize = results.size();
@@ -177,7 +187,7 @@ public class ByItem implements ValueByItemQuery {
 
       // All done, except for methods
       final Scored<MethodItem> methods = !nullaryMethods ? (Scored<MethodItem>)(Scored)Empty$.MODULE$
-        : new LazyBiased<MethodItem>(Pr.methodByItem(),new GlobalMethods(qual,type,seen));
+        : new LazyBiased<MethodItem>(Pr.methodByItem(),new GlobalMethods(qual,type,seen,library));
       return JavaScores.uniformThen(JavaScores.one,results,(Scored<ValueOrMethod>)(Scored)methods);
     }
   }
@@ -186,11 +196,13 @@ public class ByItem implements ValueByItemQuery {
     final String qual;
     final TypeItem type;
     final Set<ValueOrMethod> seen;
+    final boolean library; // Search libraries instead of the project
 
-    GlobalMethods(final String qual, final TypeItem type, final Set<ValueOrMethod> seen) {
+    GlobalMethods(final String qual, final TypeItem type, final Set<ValueOrMethod> seen, final boolean library) {
       this.qual = qual;
       this.type = type;
       this.seen = seen;
+      this.library = library;
     }
 
     public Scored<MethodItem> apply() {
@@ -209,23 +221,21 @@ public class ByItem implements ValueByItemQuery {
         }
       };
 
-      // Check the current global map
-      final Set<String> names = globalMethods == null ? null : globalMethods.get(qual);
-      if (names != null) {
+      // Check the global map, which names each method by its class
+      final Set<String> keys = library ? set(libraryMethods.get(qual)) : globalMethods.get(qual);
+      if (keys != null) {
         if (thread != null) thread.pushSoftInterrupts();
-        for (final String name : names)
-          psiCache.processMethodsWithName(name, proc, scope, filter);
+        search:
+        for (final String key : keys) {
+          final int hash = key.lastIndexOf('#');
+          for (final PsiClass cls : facade.findClasses(key.substring(0,hash), library ? libraryScope : scope))
+            for (final PsiMethod m : cls.findMethodsByName(key.substring(hash+1), false))
+              if (!proc.process(m))
+                break search;
+        }
         if (thread != null) thread.popSoftInterrupts();
       }
 
-      // Check changes since last global map was constructed
-      for (final TypeNameItemNamePair tn : pairMethods)
-        if (tn.type.equals(qual)) {
-          if (thread != null) thread.pushSoftInterrupts();
-          psiCache.processMethodsWithName(tn.item, proc, scope, filter);
-          if (thread != null) thread.popSoftInterrupts();
-        }
-
       // Filter out values that aren't subitems of our desired type.
       // Putting this logic in proc might cause deadlocks since isSubitem can trigger Scala plugin code.
       final int fullSize = results.size();
@@ -0,0 +1,216 @@
+/* ByItemIndex: Incrementally maintained map from type names to member names
+ *
+ * A full scan of the project maps each type (and all its supertypes) to the names of public
+ * fields or methods of that type, counting declarations per name.  Between scans, additions
+ * and removals from EddyPsiListener arrive through a ChangeTracker and are applied in place as
+ * count deltas, so neither lookups nor updates have to walk the list of changes.
+ * Methods are named by declaring class and name (see ByItem.methodKey).
+ *
+ * Engine threads work on immutable, versioned snapshots.  The base is a compact ByTypeIndex.
+ * Applying a batch of changes copies only the small delta map.  Once the delta grows large,
+ * a pooled thread folds it into a fresh base without holding the lock, and changes which
+ * arrived meanwhile are carried over as the new delta.  The eddy thread never pays for a fold.
+ *
+ * This class is thread safe.
+ */
+
+package com.eddysystems.eddy.engine;
+
+import com.intellij.openapi.application.ApplicationManager;
+import gnu.trove.TObjectIntHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tarski.ByTypeIndex;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ByItemIndex {
+  static final int compactThreshold = 1000; // Number of types in the delta before folding into the base
+
+  // type -> name -> count, for deltas.  Deltas are copied on write a row at a time: every row adjust doesn't
+  // touch stays the same object as in the delta it was copied from.  minus depends on this.
+  public static final class Counts extends HashMap<String,TObjectIntHashMap<String>> {
+    Counts() {}
+    Counts(final Counts c) { super(c); }
+
+    // Add d to the count for (type,name), copying inner maps not in fresh
+    void adjust(final String type, final String name, final int d, final Set<String> fresh) {
+      TObjectIntHashMap<String> m = get(type);
+      if (m == null) {
+        m = new TObjectIntHashMap<String>();
+        put(type,m);
+        fresh.add(type);
+      } else if (fresh.add(type)) {
+        m = (TObjectIntHashMap<String>)m.clone();
+        put(type,m);
+      }
+      final int c = m.get(name)+d;
+      if (c == 0) m.remove(name);
+      else m.put(name,c);
+    }
+  }
+  private static final Counts empty = new Counts();
+
+  public static final class Snapshot {
+    public final long version;
+    private final ByTypeIndex base;
+    private final Counts delta;
+
+    private Snapshot(final long version, final ByTypeIndex base, final Counts delta) {
+      this.version = version;
+      this.base = base;
+      this.delta = delta;
+    }
+
+    int count(final String type, final String name) {
+      return base.count(type,name) + countIn(delta,type,name);
+    }
+
+    // Names of members of the given type, or null if there are none
+    @Nullable public Set<String> get(final String type) {
+      final String[] b = base.get(type);
+      final TObjectIntHashMap<String> d = delta.get(type);
+      if (d == null)
+        return b == null ? null : new HashSet<String>(Arrays.asList(b));
+      final Set<String> names = new HashSet<String>();
+      if (b != null)
+        for (final String n : b)
+          if (count(type,n) > 0)
+            names.add(n);
+      for (final Object n : d.keys())
+        if (count(type,(String)n) > 0)
+          names.add((String)n);
+      return names.isEmpty() ? null : names;
+    }
+  }
+
+  private final ChangeTracker<TypeNameItemNamePair> tracker;
+  private volatile Snapshot current = new Snapshot(0,ByTypeIndex.empty,empty);
+
+  // Changes seen since the current scan started, replayed onto its result
+  private List<TypeNameItemNamePair> replay = null;
+
+  private final AtomicBoolean folding = new AtomicBoolean(); // Is a pooled thread folding the delta?
+
+  public ByItemIndex(@NotNull ChangeTracker<TypeNameItemNamePair> tracker) {
+    this.tracker = tracker;
+  }
+
+  // Apply pending changes and return the current version
+  public synchronized Snapshot snapshot() {
+    final List<TypeNameItemNamePair> changes = tracker.drain();
+    if (!changes.isEmpty()) {
+      if (replay != null)
+        replay.addAll(changes);
+      current = apply(current,changes);
+      if (current.delta.size() > compactThreshold)
+        foldLater();
+    }
+    return current;
+  }
+
+  // Call before a full scan.  Changes from here on are reapplied to the scan's result.
+  public synchronized void startScan() {
+    snapshot();
+    replay = new ArrayList<TypeNameItemNamePair>();
+  }
+
+  // Replace the base with the result of a full scan
+  public synchronized void finishScan(@NotNull ByTypeIndex base) {
+    snapshot();
+    final List<TypeNameItemNamePair> changes = replay == null ? Collections.<TypeNameItemNamePair>emptyList() : replay;
+    replay = null;
+    current = apply(new Snapshot(current.version,base,empty),changes);
+  }
+
+  // Give up on a partial scan, keeping the current base
+  public synchronized void abortScan() {
+    replay = null;
+  }
+
+  private static Snapshot apply(final Snapshot s, final List<TypeNameItemNamePair> changes) {
+    final Counts delta = new Counts(s.delta);
+    final Set<String> fresh = new HashSet<String>();
+    for (final TypeNameItemNamePair c : changes) {
+      // Counts never go below zero, since removals can mention members the scan skipped
+      if (c.removed && s.base.count(c.type,c.item)+countIn(delta,c.type,c.item) <= 0)
+        continue;
+      delta.adjust(c.type,c.item,c.removed ? -1 : 1,fresh);
+    }
+    return new Snapshot(s.version+1,s.base,delta);
+  }
+
+  private void foldLater() {
+    if (!folding.compareAndSet(false,true))
+      return;
+    ApplicationManager.getApplication().executeOnPooledThread(new Runnable() {
+      @Override public void run() {
+        try {
+          fold();
+        } finally {
+          folding.set(false);
+        }
+      }
+    });
+  }
+
+  // Fold the current delta into a new base.  The expensive part runs without the lock, so snapshot()
+  // keeps working on the old base meanwhile.
+  void fold() {
+    final Snapshot s = current;
+    if (s.delta.size() > compactThreshold)
+      swap(s,build(s));
+  }
+
+  // s's base with its delta folded in
+  static ByTypeIndex build(final Snapshot s) {
+    final ByTypeIndex.Builder b = new ByTypeIndex.Builder();
+    b.add(s.base);
+    for (final Map.Entry<String,TObjectIntHashMap<String>> e : s.delta.entrySet()) {
+      final String type = e.getKey();
+      final TObjectIntHashMap<String> d = e.getValue();
+      for (final Object n : d.keys())
+        b.add(type,(String)n,d.get((String)n));
+    }
+    return b.build();
+  }
+
+  // Install base, built from the earlier snapshot s, keeping changes applied since s as the new delta.
+  // Returns false if the fold is stale because a scan or another fold replaced the base meanwhile.
+  synchronized boolean swap(final Snapshot s, final ByTypeIndex base) {
+    final Snapshot c = current;
+    if (c.base != s.base)
+      return false;
+    current = new Snapshot(c.version+1,base,minus(c.delta,s.delta));
+    return true;
+  }
+
+  // The changes in d since the older delta since, which d was built from by apply.  Rows still shared with
+  // since (see Counts) are unchanged, so only copied rows are compared.
+  private static Counts minus(final Counts d, final Counts since) {
+    final Counts r = new Counts();
+    final Set<String> fresh = new HashSet<String>();
+    for (final Map.Entry<String,TObjectIntHashMap<String>> e : d.entrySet()) {
+      final String type = e.getKey();
+      final TObjectIntHashMap<String> now = e.getValue(), old = since.get(type);
+      if (now == old)
+        continue;
+      for (final Object n : now.keys()) {
+        final int c = now.get((String)n) - (old == null ? 0 : old.get((String)n));
+        if (c != 0)
+          r.adjust(type,(String)n,c,fresh);
+      }
+      if (old != null)
+        for (final Object n : old.keys())
+          if (!now.containsKey((String)n))
+            r.adjust(type,(String)n,-old.get((String)n),fresh);
+    }
+    return r;
+  }
+
+  private static int countIn(final Counts m, final String type, final String name) {
+    final TObjectIntHashMap<String> c = m.get(type);
+    return c == null ? 0 : c.get(name);
+  }
+}
@@ -14,12 +14,19 @@ import org.jetbrains.annotations.NotNull;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ChangeTracker<A> {
   private long time = 1; // Current "time" for snapshot and forget purposes
   private final TObjectLongHashMap<A> all = new TObjectLongHashMap<A>(); // Tracked names and their last update time
   private final Object recentLock = new Object();
   private @NotNull List<A> recent = new ArrayList<A>(); // Stuff not yet added to all
+  private final List<Listener<A>> listeners = new CopyOnWriteArrayList<Listener<A>>();
+
+  // For caches which need to hear about each change as it happens
+  public interface Listener<A> {
+    void added(@NotNull A x);
+  }
 
   public ChangeTracker() {}
 
@@ -29,6 +36,18 @@ public class ChangeTracker<A> {
     return (List)Arrays.asList(all.keys());
   }
 
+  // Grab and forget everything, for consumers which apply changes incrementally.
+  // Values added since the last sync come last, in the order they were added.
+  synchronized public List<A> drain() {
+    final List<A> xs = new ArrayList<A>((List)Arrays.asList(all.keys()));
+    all.clear();
+    synchronized (recentLock) {
+      xs.addAll(recent);
+      recent = new ArrayList<A>();
+    }
+    return xs;
+  }
+
   // Take a snapshot of the current set, which can later be forgotten
   synchronized public Snapshot snapshot() {
     sync();
@@ -46,11 +65,17 @@ public class ChangeTracker<A> {
     }
   }
 
-  // Add a new value.  Always very fast.
+  // Add a new value.  Always very fast, as long as listeners are.
   public void add(final @NotNull A x) {
     synchronized (recentLock) {
       recent.add(x);
     }
+    for (final Listener<A> l : listeners)
+      l.added(x);
+  }
+
+  public void addListener(final @NotNull Listener<A> l) {
+    listeners.add(l);
   }
 
   /****** Private stuff below ******/
@@ -9,7 +9,9 @@
  * For example, looking up a class A and accessing A.supers generates A
  * lazily, and then accesses IntelliJ's PsiClass data structure to find
  * supers lazily.  If A.supers is accessed again in the same eddy run,
- * the second access is free.
+ * the second access is free.  Items for declarations outside of code
+ * blocks, and the base environment, are shared across runs through an
+ * ItemCache, which gives each such PsiElement exactly one item.
  *
  * There is one main feature of this lazy setup: IntelliJ data structure
  * accesses may occur at any time during eddy's semantic analysis.  This
@@ -51,23 +53,65 @@ class Converter {
    // cached items
    protected final Map<PsiElement, Item> items;
 
+   // items which outlive this run, if any (see ItemCache), and the generation holding them
+   @Nullable private final ItemCache cache;
+   @Nullable private final ItemCache.Generation gen;
+
    Converter(Project project, final Map<PsiElement, Item> items) {
+     this(project,items,null,null);
+   }
+
+   // A converter for one run, sharing items for cacheable elements through gen
+   Converter(Project project, final Map<PsiElement, Item> items, @Nullable final ItemCache cache,
+             @Nullable final ItemCache.Generation gen) {
      this.project = project;
      this.items = items;
+     this.cache = cache;
+     this.gen = gen;
    }
 
    boolean knows(PsiElement e) {
-     return items.containsKey(e);
+     return lookup(e) != null;
    }
 
    Item lookup(PsiElement e) {
-     return items.get(e);
+     Item i = items.get(e);
+     if (i == null && gen != null) {
+       i = gen.items.get(e);
+       if (i != null && !e.isValid())
+         i = null;
+       if (cache != null)
+         cache.count(i != null);
+       if (i != null)
+         items.put(e,i); // Remember which shared items this run used
+     }
+     return i;
    }
 
    void put(PsiElement e, Item it) {
      items.put(e,it);
    }
 
+   // Every item this run knows about, including the whole base environment
+   List<Item> knownItems() {
+     final List<Item> all = new ArrayList<Item>(items.values());
+     if (gen != null)
+       for (final Map.Entry<PsiElement,Item> e : gen.base.entrySet())
+         if (!items.containsKey(e.getKey()))
+           all.add(e.getValue());
+     return all;
+   }
+
+   // The converter which should create the item for e, or null if it's us
+   private Converter shared(PsiElement e) {
+     return gen != null && ItemCache.cacheable(e) ? gen.converter : null;
+   }
+
+   private <I extends Item> I remember(PsiElement e, I it) {
+     items.put(e,it);
+     return it;
+   }
+
    // return type is null *and* has same name as containing class
    static boolean isConstructor(PsiMethod elem) {
      // elem.isConstructor checks whether the method has a null return type element
@@ -157,7 +201,7 @@ class Converter {
       }
    }
 
-   ParentItem addContainer(PsiElement elem) {
+   synchronized ParentItem addContainer(PsiElement elem) {
      if (elem == null)
        return LocalPkg$.MODULE$;
      {
@@ -165,6 +209,11 @@ class Converter {
        if (i != null)
          return (ParentItem)i;
      }
+     {
+       final Converter shared = shared(elem);
+       if (shared != null)
+         return remember(elem,shared.addContainer(elem));
+     }
 
      // local classes
      if (elem instanceof PsiMethod) {
@@ -188,6 +237,16 @@ class Converter {
      PsiElement psi();
    }
 
+   // Accessibility from the last place asked about.  Replaced as a unit, since shared items are used by several threads.
+   static private final class Access {
+     final Object place;
+     final boolean accessible;
+     Access(Object place, boolean accessible) {
+       this.place = place;
+       this.accessible = accessible;
+     }
+   }
+
    static protected class UnknownContainerItem extends UnknownContainerItemBase implements PsiEquivalent {
 
      final PsiElement elem;
@@ -306,8 +365,9 @@ class Converter {
      private final PsiTypeParameter p;
 
      // Lazy fields
-     private RefType _hi;
-     private scala.collection.immutable.List<RefTypeItem> _superItems;
+     private volatile RefType _hi;
+     private volatile scala.collection.immutable.List<RefTypeItem> _superItems;
+     private volatile Access _access;
 
      LazyTypeVar(Converter env, PsiTypeParameter p) {
        this.env = env;
@@ -354,33 +414,39 @@ class Converter {
         return p;
       }
 
-     Items.ParentItem _place = null;
-     boolean _accessible = false;
      @Override
      public boolean accessible(Environment.PlaceInfo info) {
-       if (info.place() != _place) {
-         _place = info.place();
-         if (info.place() instanceof com.eddysystems.eddy.engine.Converter.PsiEquivalent && p.getOwner() != null) {
-           // Type variables are visible exactly if we are inside their owner
-           _accessible =  PsiTreeUtil.isAncestor(p.getOwner(), ((com.eddysystems.eddy.engine.Converter.PsiEquivalent) _place).psi(), false);
-         } else {
-           //log("can't determine whether " + this + " is accessible from " + info.place());
-           _accessible = false;
-         }
+       final Items.ParentItem place = info.place();
+       final Access a = _access;
+       if (a != null && a.place == place)
+         return a.accessible;
+       final boolean accessible;
+       if (place instanceof com.eddysystems.eddy.engine.Converter.PsiEquivalent && p.getOwner() != null) {
+         // Type variables are visible exactly if we are inside their owner
+         accessible = PsiTreeUtil.isAncestor(p.getOwner(), ((com.eddysystems.eddy.engine.Converter.PsiEquivalent) place).psi(), false);
+       } else {
+         //log("can't determine whether " + this + " is accessible from " + info.place());
+         accessible = false;
        }
-       return _accessible;
+       _access = new Access(place,accessible);
+       return accessible;
      }
 
      // Necessary only due to screwy Java/Scala interop
      public Some safe() { return new Some<RefType>(this); }
    }
 
-   private TypeVar addTypeParam(PsiTypeParameter p) {
+   private synchronized TypeVar addTypeParam(PsiTypeParameter p) {
      {
        Item i = lookup(p);
        if (i != null)
          return (TypeVar)i;
      }
+     {
+       final Converter shared = shared(p);
+       if (shared != null)
+         return remember(p,shared.addTypeParam(p));
+     }
      // Use a maker to break recursion
      TypeVar ti = new LazyTypeVar(this,p);
      put(p, ti);
@@ -395,13 +461,14 @@ class Converter {
      private final boolean _isAbstract;
      private final String _name;
 
-     // Lazy fields
-     private ParentItem _parent;
-     private scala.collection.immutable.List<TypeVar> _tparams;
-     private ClassType _base;
-     private scala.collection.immutable.List<RefType> _supers;
-     private scala.collection.immutable.List<RefTypeItem> _superItems;
-     private ConstructorItem[] _constructors;
+     // Lazy fields.  Shared items are used by several threads, so each is computed into a local and then published.
+     private volatile ParentItem _parent;
+     private volatile scala.collection.immutable.List<TypeVar> _tparams;
+     private volatile ClassType _base; // Always set before _supers
+     private volatile scala.collection.immutable.List<RefType> _supers;
+     private volatile scala.collection.immutable.List<RefTypeItem> _superItems;
+     private volatile ConstructorItem[] _constructors;
+     private volatile Access _access;
 
      LazyClass(Converter env, PsiClass cls) {
        this.env = env;
@@ -444,12 +511,14 @@ class Converter {
      public ParentItem parent() {
        if (_parent == null) {
          PsiElement cont = Place.containing(cls, env.project);
+         ParentItem parent;
          try {
-           _parent = env.addContainer(cont);
+           parent = env.addContainer(cont);
          } catch (UnknownContainerError e) {
            log(e);
-           _parent = new UnknownContainerItem(cont, env);
+           parent = new UnknownContainerItem(cont, env);
          }
+         _parent = parent;
        }
        return _parent;
       }
@@ -462,12 +531,14 @@ class Converter {
 
      public scala.collection.immutable.List<RefType> supers() {
        if (_supers == null) {
+         ClassType base = null;
+         final scala.collection.immutable.List<RefType> result;
          if (cls instanceof PsiAnonymousClass) {
            // Anonymous classes must be handled specially
            final PsiAnonymousClass anon = (PsiAnonymousClass)cls;
            final ClassType sup = (ClassType)env.convertType(anon.getBaseClassType());
-           _base = sup.item().isClass() ? sup : ObjectType$.MODULE$;
-           _supers = JavaUtils.<RefType>scalaList(sup);
+           base = sup.item().isClass() ? sup : ObjectType$.MODULE$;
+           result = JavaUtils.<RefType>scalaList(sup);
          } else {
            ArrayList<RefType> supers = new ArrayList<RefType>();
            for (PsiClassType stype : cls.getSuperTypes()) {
@@ -477,25 +548,27 @@ class Converter {
              // if the code illegally uses an interface in the extends clause, we assume it meant to use that interface in
              // the implements clause. If more than one class are inherited from, use the first one mentioned as base.
              if (stypeClass != null && !stypeClass.isInterface())
-               if (_base == null) // first non-interface in supers is base.
-                 _base = sc;
+               if (base == null) // first non-interface in supers is base.
+                 base = sc;
                else // other non-interfaces in supers
-                 log("multiple class inheritance in " + this + ": at least " + _base + " and " + stypeClass);
+                 log("multiple class inheritance in " + this + ": at least " + base + " and " + stypeClass);
              supers.add(sc);
            }
-           if (_base == null) {
-             PsiClass base = cls.getSuperClass();
-             if (base != null && !base.isInterface())
-               _base = ((ClassItem)env.addClass(base)).inside();
+           if (base == null) {
+             PsiClass sbase = cls.getSuperClass();
+             if (sbase != null && !sbase.isInterface())
+               base = ((ClassItem)env.addClass(sbase)).inside();
              else {
-               if (base != null)
-                 log("class " + this + " extends interface: " + base);
+               if (sbase != null)
+                 log("class " + this + " extends interface: " + sbase);
                // base can be null if JDK is not defined, for Object (should be impossible), and for scala traits
-               _base = ObjectType$.MODULE$;
+               base = ObjectType$.MODULE$;
              }
            }
-           _supers = JavaConversions.asScalaBuffer(supers).toList();
+           result = JavaConversions.asScalaBuffer(supers).toList();
          }
+         _base = base;
+         _supers = result;
        }
        return _supers;
      }
@@ -550,20 +623,21 @@ class Converter {
         return cls;
       }
 
-     Items.ParentItem _place = null;
-     boolean _accessible = false;
      @Override
      public boolean accessible(Environment.PlaceInfo info) {
-       if (info.place() != _place) {
-         _place = info.place();
-         if (info.place() instanceof com.eddysystems.eddy.engine.Converter.PsiEquivalent) {
-           _accessible = !new Place(env.project, ((com.eddysystems.eddy.engine.Converter.PsiEquivalent) _place).psi()).isInaccessible(cls);
-         } else {
-           log("can't determine whether " + this + " is accessible from " + info.place());
-           _accessible = false;
-         }
+       final Items.ParentItem place = info.place();
+       final Access a = _access;
+       if (a != null && a.place == place)
+         return a.accessible;
+       final boolean accessible;
+       if (place instanceof com.eddysystems.eddy.engine.Converter.PsiEquivalent) {
+         accessible = !new Place(env.project, ((com.eddysystems.eddy.engine.Converter.PsiEquivalent) place).psi()).isInaccessible(cls);
+       } else {
+         log("can't determine whether " + this + " is accessible from " + info.place());
+         accessible = false;
        }
-       return _accessible;
+       _access = new Access(place,accessible);
+       return accessible;
      }
    }
 
@@ -575,7 +649,7 @@ class Converter {
      return addClassInner(cls, true);
    }
 
-   private RefTypeItem addClassInner(PsiClass cls, final boolean recurse) {
+   private synchronized RefTypeItem addClassInner(PsiClass cls, final boolean recurse) {
      {
        Item i = lookup(cls);
        if (i != null) {
@@ -589,6 +663,11 @@ class Converter {
 
      if (cls instanceof PsiTypeParameter)
        return addTypeParam((PsiTypeParameter)cls);
+     {
+       final Converter shared = shared(cls);
+       if (shared != null)
+         return remember(cls,shared.addClassInner(cls,recurse));
+     }
 
      ClassItem item = new LazyClass(this,cls);
      put(cls, item);
@@ -639,11 +718,13 @@ class Converter {
      private final Converter env;
      private final PsiMethod method;
 
-     // Lazy fields (null initially)
-     private ClassItem _parent;
-     private scala.collection.immutable.List<TypeVar> _tparams;
-     private scala.collection.immutable.List<Type> _params;
-     private boolean _isVarArgs;
+     private final boolean _isVarArgs;
+
+     // Lazy fields (null initially), published once computed
+     private volatile ClassItem _parent;
+     private volatile scala.collection.immutable.List<TypeVar> _tparams;
+     private volatile scala.collection.immutable.List<Type> _params;
+     private volatile Access _access;
 
      LazyConstructor(Converter env, PsiMethod method) {
        this.env = env;
@@ -677,30 +758,31 @@ class Converter {
             return method;
           }
 
-     PsiElement _place = null;
-     boolean _accessible = false;
      @Override
      public boolean accessible(Environment.PlaceInfo info) {
-       if (info.exactPlace() != _place) {
-         _place = info.exactPlace();
-         _accessible = !new Place(env.project, _place).isInaccessible(method);
-       }
-       return _accessible;
+       final PsiElement place = info.exactPlace();
+       final Access a = _access;
+       if (a != null && a.place == place)
+         return a.accessible;
+       final boolean accessible = !new Place(env.project, place).isInaccessible(method);
+       _access = new Access(place,accessible);
+       return accessible;
      }
    }
 
    protected static class LazyMethod extends MethodItem implements PsiEquivalent {
      final Converter env;
      final PsiMethod method;
-     private String _name;
-     private boolean _isStatic;
-     private boolean _isVarArgs;
+     private final String _name;
+     private final boolean _isStatic;
+     private final boolean _isVarArgs;
 
-     // Lazy fields (null initially)
-     private ClassItem _parent;
-     private scala.collection.immutable.List<TypeVar> _tparams;
-     private scala.collection.immutable.List<Type> _params;
-     private Type _retVal;
+     // Lazy fields (null initially), published once computed
+     private volatile ClassItem _parent;
+     private volatile scala.collection.immutable.List<TypeVar> _tparams;
+     private volatile scala.collection.immutable.List<Type> _params;
+     private volatile Type _retVal;
+     private volatile Access _access;
 
      LazyMethod(Converter env, PsiMethod method) {
        this.env = env;
@@ -748,19 +830,26 @@ class Converter {
        return method;
      }
 
-     PsiElement _place = null;
-     boolean _accessible = false;
      @Override
      public boolean accessible(Environment.PlaceInfo info) {
-       if (info.exactPlace() != _place) {
-         _place = info.exactPlace();
-         _accessible = !new Place(env.project, _place).isInaccessible(method);
-       }
-       return _accessible;
+       final PsiElement place = info.exactPlace();
+       final Access a = _access;
+       if (a != null && a.place == place)
+         return a.accessible;
+       final boolean accessible = !new Place(env.project, place).isInaccessible(method);
+       _access = new Access(place,accessible);
+       return accessible;
      }
    }
 
-   CallableItem addMethod(PsiMethod method) {
+   synchronized CallableItem addMethod(PsiMethod method) {
+     {
+       final Converter shared = shared(method);
+       if (shared != null) {
+         final Item i = lookup(method);
+         return i != null ? (CallableItem)i : remember(method,shared.addMethod(method));
+       }
+     }
      if (isConstructor(method)) {
        // constructors are not stored in locals, but in cons
        ConstructorItem i = (ConstructorItem)lookup(method);
@@ -782,12 +871,13 @@ class Converter {
    protected static class LazyField extends FieldItem implements PsiEquivalent {
      private final Converter env;
      private final PsiField f;
-     private String _name;
-     private boolean _isFinal;
-     private boolean _isStatic;
+     private final String _name;
+     private final boolean _isFinal;
+     private final boolean _isStatic;
 
-     // Lazy fields
-     private Type _inside;
+     // Lazy fields, published once computed
+     private volatile Type _inside;
+     private volatile Access _access;
 
      LazyField(Converter env, PsiField f, boolean isFinal, boolean isStatic) {
        this.env = env;
@@ -826,24 +916,29 @@ class Converter {
             return f;
           }
 
-     PsiElement _place = null;
-     boolean _accessible = false;
      @Override
      public boolean accessible(Environment.PlaceInfo info) {
-       if (info.exactPlace() != _place) {
-         _place = info.exactPlace();
-         _accessible = !new Place(env.project, _place).isInaccessible(f);
-       }
-       return _accessible;
+       final PsiElement place = info.exactPlace();
+       final Access a = _access;
+       if (a != null && a.place == place)
+         return a.accessible;
+       final boolean accessible = !new Place(env.project, place).isInaccessible(f);
+       _access = new Access(place,accessible);
+       return accessible;
      }
    }
 
-  Value addField(PsiField f) {
+  synchronized Value addField(PsiField f) {
     {
       final Item i = lookup(f);
       if (i != null)
         return (Value)i;
     }
+    {
+      final Converter shared = shared(f);
+      if (shared != null)
+        return remember(f,shared.addField(f));
+    }
     final boolean isFinal = f.hasModifierProperty(PsiModifier.FINAL);
     final boolean isStatic = f.hasModifierProperty(PsiModifier.STATIC);
     final Value v = new LazyField(this,f,isFinal,isStatic);
@@ -559,9 +559,11 @@ public class Eddy {
       void compute(final Env env) {
         if (Thread.currentThread().isInterrupted())
           throw new ThreadDeath();
-        final Function2<String,ShowFlags,String> format = new AbstractFunction2<String,ShowFlags,String>() {
-          @Override public String apply(final String sh, final ShowFlags f) {
-            return reformat(input.place,sh);
+        // One formatter per run, whose results are cached across runs
+        final Formatter formatter = new Formatter(project,input.place);
+        final Function2<List<String>,ShowFlags,List<String>> format = new AbstractFunction2<List<String>,ShowFlags,List<String>>() {
+          @Override public List<String> apply(final List<String> shs, final ShowFlags f) {
+            return formatter.reformat(shs);
           }
         };
         final long startTime = System.nanoTime();
@@ -630,9 +632,4 @@ public class Eddy {
     new Helper().safe();
   }
 
-  // The string should be a single syntactically valid statement
-  private String reformat(final PsiElement place, final @NotNull String show) {
-    return new Formatter(project,place).reformat(show);
-  }
-
 }
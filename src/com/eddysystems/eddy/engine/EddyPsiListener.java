@@ -121,8 +121,9 @@ public class EddyPsiListener implements PsiTreeChangeListener, DumbService.DumbM
   // a new field appeared (or a field changed its name)
   private void addField(final PsiField f) {
     // put this field into the string map for its type and all its supertypes
+    // full scans only count public fields, so deltas must agree
     final @Nullable String name = f.getName();
-    if (name != null)
+    if (name != null && f.hasModifierProperty(PsiModifier.PUBLIC))
       for (final String type : superTypes(f.getType())) {
         //log("add field " + f);
         fieldTracker.add(new TypeNameItemNamePair(type, name));
@@ -131,17 +132,38 @@ public class EddyPsiListener implements PsiTreeChangeListener, DumbService.DumbM
 
   // a new method appeared (or a method changed its name)
   private void addMethod(final PsiMethod m) {
-    if (nullaryMethods) {
+    if (nullaryMethods && m.hasModifierProperty(PsiModifier.PUBLIC)) {
       final PsiType type = m.getReturnType();
-      if (ByItem.considerMethod(m, type)) {
+      final @Nullable String key = ByItem.methodKey(m);
+      if (key != null && ByItem.considerMethod(m, type)) {
         // put this method into the string map for its type and all its supertypes
-        final @NotNull String name = m.getName();
         for (final String sup : superTypes(type)) {
           //log("add method " + f);
-          methodTracker.add(new TypeNameItemNamePair(sup, name));
+          methodTracker.add(new TypeNameItemNamePair(sup, key));
+        }
       }
     }
   }
+
+  // a field disappeared (or is about to change its name or type)
+  private void removeField(final PsiField f) {
+    // full scans only count public fields, so only those are removed
+    final @Nullable String name = f.getName();
+    if (name != null && f.hasModifierProperty(PsiModifier.PUBLIC))
+      for (final String type : superTypes(f.getType()))
+        fieldTracker.add(new TypeNameItemNamePair(type, name, true));
+  }
+
+  // a method disappeared (or is about to change its name or return type)
+  private void removeMethod(final PsiMethod m) {
+    if (nullaryMethods && m.hasModifierProperty(PsiModifier.PUBLIC)) {
+      final PsiType type = m.getReturnType();
+      final @Nullable String key = ByItem.methodKey(m);
+      if (key != null && ByItem.considerMethod(m, type)) {
+        for (final String sup : superTypes(type))
+          methodTracker.add(new TypeNameItemNamePair(sup, key, true));
+      }
+    }
   }
 
   // all fields of this type (or any subtype) have to appear in the new superclasses
@@ -155,8 +177,12 @@ public class EddyPsiListener implements PsiTreeChangeListener, DumbService.DumbM
   }
 
   @Override public void beforeChildAddition(@NotNull PsiTreeChangeEvent event) {}
-  @Override public void beforeChildRemoval(@NotNull PsiTreeChangeEvent event) {}
-  @Override public void beforeChildReplacement(@NotNull PsiTreeChangeEvent event) {}
+  @Override public void beforeChildRemoval(@NotNull PsiTreeChangeEvent event) {
+    removeElement(event.getChild());
+  }
+  @Override public void beforeChildReplacement(@NotNull PsiTreeChangeEvent event) {
+    removeElement(event.getOldChild());
+  }
   @Override public void beforeChildMovement(@NotNull PsiTreeChangeEvent event) {}
 
   boolean isName(PsiElement elem) {
@@ -206,13 +232,30 @@ public class EddyPsiListener implements PsiTreeChangeListener, DumbService.DumbM
       addMethod((PsiMethod)elem);
     else if (isBase(elem) && isImplements(elem))
       updateInheritance((PsiClass)elem.getParent().getParent());
+    else if (elem instanceof PsiTypeElement && elem.getParent() instanceof PsiField)
+      addField((PsiField)elem.getParent());
+    else if (elem instanceof PsiTypeElement && elem.getParent() instanceof PsiMethod)
+      addMethod((PsiMethod)elem.getParent());
     else if (isName(elem) && elem.getParent() instanceof PsiClass) {
       // TODO: update class name (but old class name is not available here, needs to be remembered
     }
   }
 
+  // called before elem is removed or replaced, while its types still resolve
   private void removeElement(PsiElement elem) {
-    // we don't actually care enough to track this stuff
+    // in dumb mode we can't resolve types, and removals can't be queued, so the indices keep stale names.
+    // stale names are harmless: lookups check the actual fields and methods.
+    if (elem == null || DumbService.getInstance(elem.getProject()).isDumb())
+      return;
+    final PsiElement parent = elem.getParent();
+    if (elem instanceof PsiField)
+      removeField((PsiField)elem);
+    else if (elem instanceof PsiMethod && !((PsiMethod)elem).isConstructor())
+      removeMethod((PsiMethod)elem);
+    else if ((isName(elem) || elem instanceof PsiTypeElement) && parent instanceof PsiField)
+      removeField((PsiField)parent);
+    else if ((isName(elem) || elem instanceof PsiTypeElement) && parent instanceof PsiMethod)
+      removeMethod((PsiMethod)parent);
   }
 
   @Override
@@ -224,13 +267,11 @@ public class EddyPsiListener implements PsiTreeChangeListener, DumbService.DumbM
   @Override
   public void childRemoved(@NotNull PsiTreeChangeEvent event) {
     //log("child " + event.getChild() + " removed from " + event.getParent());
-    removeElement(event.getChild());
   }
 
   @Override
   public void childReplaced(@NotNull PsiTreeChangeEvent event) {
     //log("child " + event.getOldChild() + " in " + event.getParent() + " replaced with " + event.getNewChild());
-    removeElement(event.getOldChild());
     addElement(event.getNewChild());
   }
 
@@ -112,7 +112,7 @@ class EnvironmentProcessor {
       }
 
       // .values() is undefined if it is modified during iteration, make sure this is thread-safe!
-      localItems.addAll(env.items.values());
+      localItems.addAll(env.knownItems());
     } finally { popScope(); }
 
     // find out which element we are inside (method, class or interface, or package)
@@ -1,6 +1,17 @@
 /* Formatter: A hack around the bugs in the atrocious formatting mess inside Intellij
  *
  * See LightDocument for back story.
+ *
+ * Formatting is far more expensive than anything the engine does, and the same candidate
+ * text comes up again on every keystroke, so results are cached across runs.  The key
+ * includes the code style settings (as written out by IntelliJ, so they compare by value)
+ * and the language level, so changing either misses the cache.
+ *
+ * Several texts can be formatted in a single pass as nested blocks of one block.  Nesting
+ * adds an indent level, so the batch is formatted with the right margin moved out by the
+ * same amount, and each result is checked to carry exactly that extra level before it is
+ * stripped.  The first text of each batch is also formatted alone; if the two disagree,
+ * batching is abandoned for those settings.
  */
 
 package com.eddysystems.eddy.engine;
@@ -15,9 +26,13 @@ import com.intellij.lang.java.parser.JavaParser;
 import com.intellij.lang.java.parser.JavaParserUtil;
 import com.intellij.openapi.editor.ex.DocumentEx;
 import com.intellij.openapi.extensions.Extensions;
+import com.intellij.ide.highlighter.JavaFileType;
 import com.intellij.openapi.fileEditor.impl.FileDocumentManagerImpl;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.JDOMUtil;
 import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.WriteExternalException;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.pom.java.LanguageLevel;
 import com.intellij.psi.*;
 import com.intellij.psi.codeStyle.*;
@@ -31,12 +46,16 @@ import com.intellij.psi.impl.source.codeStyle.PsiBasedFormatterModelWithShiftInd
 import com.intellij.psi.impl.source.tree.TreeElement;
 import com.intellij.psi.util.PsiUtil;
 import com.intellij.util.IncorrectOperationException;
+import org.jdom.Element;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
 
+import static com.eddysystems.eddy.engine.Utility.log;
 import static com.eddysystems.eddy.engine.Utility.logError;
 
 public class Formatter {
@@ -58,6 +77,52 @@ public class Formatter {
   @NotNull final FormatterTagHandler tagHandler;
 
   @NotNull final LanguageLevel context_level;
+  @Nullable final String settings; // Null if the settings couldn't be written out, in which case nothing is cached
+
+  // Formatted text, shared by all runs
+  static final int cacheSize = 4096;
+  static private final LRUCache<Key,String> cache = new LRUCache<Key,String>(cacheSize);
+
+  static private final class Key {
+    final String show;
+    final String settings;
+    final LanguageLevel level;
+
+    Key(final String show, final String settings, final LanguageLevel level) {
+      this.show = show;
+      this.settings = settings;
+      this.level = level;
+    }
+
+    @Override public boolean equals(final Object o) {
+      if (!(o instanceof Key)) return false;
+      final Key k = (Key)o;
+      return level == k.level && show.equals(k.show) && settings.equals(k.settings);
+    }
+
+    @Override public int hashCode() {
+      return 31*(31*show.hashCode() + settings.hashCode()) + level.hashCode();
+    }
+  }
+
+  // The settings as IntelliJ writes them out, which covers nested options by value.  The settings classes
+  // define neither equals nor hashCode, and are changed in place.  Equal settings share one string, so
+  // cache keys don't keep a copy per run and usually compare by reference.  Done once per Formatter.
+  static private String lastSettings;
+  static private volatile String unbatchable; // Settings for which batched formatting disagreed with formatting alone
+  static synchronized @Nullable String settingsText(final @NotNull CodeStyleSettings css) {
+    final Element e = new Element("settings");
+    try {
+      css.writeExternal(e);
+    } catch (WriteExternalException ex) {
+      logError("settingsText()", ex);
+      return null;
+    }
+    final String s = JDOMUtil.writeElement(e,"\n");
+    if (!s.equals(lastSettings))
+      lastSettings = s;
+    return lastSettings;
+  }
 
   static private class VersionIncompatibilityCircumventer {
     static @NotNull CommonCodeStyleSettings.IndentOptions customIndentOptions(@NotNull final CodeStyleSettings css, @NotNull final PsiFile file, @NotNull final TextRange range) {
@@ -93,6 +158,7 @@ public class Formatter {
     tagHandler = new FormatterTagHandler(css);
 
     context_level = place.isValid() ? PsiUtil.getLanguageLevel(place) : LanguageLevel.HIGHEST;
+    settings = settingsText(css);
   }
 
   private @NotNull TextRange preprocess(@NotNull final ASTNode node, @NotNull TextRange range) {
@@ -121,7 +187,7 @@ public class Formatter {
     return result;
   }
 
-  private @NotNull PsiCodeBlock reformatCodeBlock(final @NotNull String blockText) {
+  private @NotNull PsiCodeBlock reformatCodeBlock(final @NotNull String blockText, final @NotNull CodeStyleSettings css) {
     // make a fake document
     @NotNull final DocumentEx doc = new LightDocument(blockText);
     doc.setReadOnly(false);
@@ -151,7 +217,7 @@ public class Formatter {
     assert builder != null;
 
     TextRange range = TextRange.create(startOffset, endOffset);
-    range = preprocess(treeElement, range);
+    range = preprocess(treeElement, range); // Formatter tags always come from this.css, whose clones differ only in margins
 
     // inlining final FormattingModel model = builder.createModel(elementToFormat, css);
     CommonCodeStyleSettings commonSettings = css.getCommonSettings(JavaLanguage.INSTANCE);
@@ -178,11 +244,110 @@ public class Formatter {
     return (PsiCodeBlock)psiElement;
   }
 
+  // The string should be a single syntactically valid statement
   public String reformat(final @NotNull String show) {
-    final String blockText = '{' + show + "\n}";
+    final Key key = settings == null ? null : new Key(show,settings,context_level);
+    final String cached = key == null ? null : cache.get(key);
+    if (cached != null)
+      return cached;
+    final String result = body(reformatCodeBlock('{' + show + "\n}",css));
+    if (key != null)
+      cache.put(key,result);
+    return result;
+  }
+
+  // Reformat several statements, using one formatter pass for all those not already cached if we can
+  public List<String> reformat(final @NotNull List<String> shows) {
+    final List<String> results = new ArrayList<String>(shows.size());
+    final List<Integer> missing = new ArrayList<Integer>();
+    for (int i = 0; i < shows.size(); i++) {
+      final String cached = settings == null ? null : cache.get(new Key(shows.get(i),settings,context_level));
+      results.add(cached);
+      if (cached == null)
+        missing.add(i);
+    }
+    // Batches check one text alone, so they only pay off for three or more
+    if (missing.size() >= 3)
+      batch(shows,missing,results);
+    // Whatever batching didn't fill in is formatted alone
+    for (final int i : missing)
+      if (results.get(i) == null)
+        results.set(i,reformat(shows.get(i)));
+    return results;
+  }
 
-    final PsiCodeBlock block = reformatCodeBlock(blockText);
+  // Format shows[missing] as nested blocks of one outer block, filling in results.  Entries left null must be
+  // formatted alone.  If batching can't be trusted, nothing is filled in.
+  private void batch(final List<String> shows, final List<Integer> missing, final List<String> results) {
+    final CommonCodeStyleSettings.IndentOptions indent = css.getIndentOptions(JavaFileType.INSTANCE);
+    if (settings == null || settings.equals(unbatchable) || indent.USE_TAB_CHARACTER)
+      return;
+    final String unit = StringUtil.repeatSymbol(' ',indent.INDENT_SIZE);
+
+    // Nested blocks start one level further in, so move the right margin out by one level to wrap in the same places
+    final CodeStyleSettings wide = css.clone();
+    wide.RIGHT_MARGIN += unit.length();
+    final CommonCodeStyleSettings common = wide.getCommonSettings(JavaLanguage.INSTANCE);
+    if (common.RIGHT_MARGIN >= 0)
+      common.RIGHT_MARGIN += unit.length();
+
+    final StringBuilder text = new StringBuilder("{");
+    for (final int i : missing)
+      text.append("{").append(shows.get(i)).append("\n}\n");
+    text.append('}');
+    final PsiCodeBlock outer = reformatCodeBlock(text.toString(),wide);
+    final List<PsiCodeBlock> inner = new ArrayList<PsiCodeBlock>(missing.size());
+    for (final PsiStatement s : outer.getStatements())
+      if (s instanceof PsiBlockStatement)
+        inner.add(((PsiBlockStatement)s).getCodeBlock());
+    if (inner.size() != missing.size())
+      return; // Unexpected structure
+
+    final String[] batched = new String[missing.size()];
+    for (int j = 0; j < batched.length; j++)
+      batched[j] = dedent(body(inner.get(j)),unit);
+
+    // Spot check the first entry that dedented against formatting alone.  Entries that didn't dedent say
+    // nothing about the batch; they're just formatted alone later.
+    int check = 0;
+    while (check < batched.length && batched[check] == null)
+      check++;
+    if (check == batched.length)
+      return;
+    final String alone = reformat(shows.get(missing.get(check)));
+    if (!alone.equals(batched[check])) {
+      log("formatter: batched and standalone formatting disagree, no longer batching");
+      unbatchable = settings;
+      return;
+    }
+    for (int j = 0; j < batched.length; j++) {
+      if (batched[j] == null)
+        continue;
+      final int i = missing.get(j);
+      results.set(i,batched[j]);
+      if (j != check) // reformat already cached it
+        cache.put(new Key(shows.get(i),settings,context_level),batched[j]);
+    }
+  }
+
+  // Nested blocks are indented one extra level, so remove one unit from the start of each continuation line.
+  // Returns null if some nonempty line doesn't have it.
+  private static @Nullable String dedent(final String s, final String unit) {
+    final String[] lines = s.split("\n",-1);
+    final StringBuilder result = new StringBuilder(lines[0]);
+    for (int i = 1; i < lines.length; i++) {
+      final String line = lines[i];
+      result.append('\n');
+      if (line.isEmpty())
+        continue;
+      if (!line.startsWith(unit))
+        return null;
+      result.append(line,unit.length(),line.length());
+    }
+    return result.toString();
+  }
 
+  private static String body(final PsiCodeBlock block) {
     // strip whitespace at the beginning and end of the block
     PsiElement elem = block.getFirstBodyElement();
     // skip whitespace at the beginning of the block
@@ -0,0 +1,168 @@
+/* ItemCache: Converted items which outlive a single eddy run
+ *
+ * Each eddy run gets a fresh Converter, so without help every LazyClass, LazyMethod, etc.
+ * and all of their lazily computed supers, type parameters, and constructors would be
+ * rebuilt on every keystroke.  ItemCache keeps the base environment and items for
+ * declarations outside of code blocks (classes, members, type parameters, and packages)
+ * across runs.  All of these live in one map per generation, filled by one shared Converter,
+ * so each such PsiElement has exactly one item no matter whether a base item, a cached item,
+ * or a run reached it first.  Runs only keep locals and code block declarations to themselves.
+ *
+ * Invalidation uses IntelliJ's modification trackers:
+ *   1. When project roots change, a new generation starts from a freshly added base environment.
+ *      Runs already in flight keep the old generation, so they never see two items for one element.
+ *   2. Project items are dropped whenever the Java structure modification count changes.
+ *      Edits inside code blocks don't bump that count, so typing in a method body keeps
+ *      everything.  Structural edits drop all project items, not just those of the edited
+ *      file, since cached supers and signatures point across files.  Any other class whose
+ *      cached transitive supers (ClassItem.allSuperItems) mention a dropped item goes too.
+ *
+ * Runs on different threads may share items.  The shared Converter creates items one at a
+ * time under its own lock, and the lazy items it creates publish their fields safely, so a
+ * cached item may be used by any thread holding a read lock.
+ *
+ * Must be used with a read lock.
+ */
+
+package com.eddysystems.eddy.engine;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tarski.Items.ClassItem;
+import tarski.Items.Item;
+import tarski.Items.RefTypeItem;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.eddysystems.eddy.engine.Utility.log;
+
+class ItemCache {
+  private final Project project;
+
+  // One generation of items: the shared map, the converter which fills it, and the base environment
+  static final class Generation {
+    final Map<PsiElement,Item> items = Collections.synchronizedMap(new HashMap<PsiElement,Item>());
+    final Converter converter;
+    Map<PsiElement,Item> base;
+
+    private Generation(final Project project) {
+      converter = new Converter(project,items);
+    }
+  }
+  private volatile Generation gen = null;
+
+  // Modification counts as of the last validate
+  private long roots = -1;
+  private long structure = -1;
+
+  // Statistics, counted by every run's converter
+  private final AtomicInteger hits = new AtomicInteger(), misses = new AtomicInteger();
+
+  ItemCache(@NotNull Project project) {
+    this.project = project;
+  }
+
+  // Drop stale items and return the current generation.  Throws NoJDKError if a new generation can't find
+  // the base environment, in which case the previous generation (if any) stays current.
+  synchronized Generation prepare() {
+    final long roots = ProjectRootManager.getInstance(project).getModificationCount();
+    final long structure = PsiModificationTracker.SERVICE.getInstance(project).getJavaStructureModificationCount();
+    if (gen == null || roots != this.roots) {
+      final Generation g = new Generation(project);
+      JavaEnvironment.addBase(g.converter);
+      synchronized (g.items) {
+        g.base = Collections.unmodifiableMap(new HashMap<PsiElement,Item>(g.items));
+      }
+      if (gen != null)
+        log("item cache: roots changed, dropping " + gen.items.size() + " items");
+      gen = g;
+    } else if (structure != this.structure)
+      dropProjectItems(gen);
+    this.roots = roots;
+    this.structure = structure;
+    return gen;
+  }
+
+  // Structure changed: drop everything from project content.  Base items are only replaced along with the generation.
+  private void dropProjectItems(final Generation gen) {
+    final ProjectFileIndex index = ProjectRootManager.getInstance(project).getFileIndex();
+    final Set<Item> gone = new HashSet<Item>();
+    synchronized (gen.items) {
+      final Iterator<Map.Entry<PsiElement,Item>> it = gen.items.entrySet().iterator();
+      while (it.hasNext()) {
+        final Map.Entry<PsiElement,Item> e = it.next();
+        if (gen.base.containsKey(e.getKey()))
+          continue;
+        if (!e.getKey().isValid() || inProject(index,e.getKey())) {
+          gone.add(e.getValue());
+          it.remove();
+        }
+      }
+
+      // Surviving classes whose cached hierarchy mentions a dropped item would answer isSubitem from stale supers.
+      // Hierarchies are transitive, so one pass finds them all.
+      if (!gone.isEmpty()) {
+        final Iterator<Map.Entry<PsiElement,Item>> it2 = gen.items.entrySet().iterator();
+        while (it2.hasNext()) {
+          final Item i = it2.next().getValue();
+          if (i instanceof ClassItem && mentions(((ClassItem)i).knownSuperItems(),gone)) {
+            gone.add(i);
+            it2.remove();
+          }
+        }
+      }
+    }
+    if (!gone.isEmpty())
+      log("item cache: structure changed, dropping " + gone.size() + " items");
+  }
+
+  private static boolean mentions(final @Nullable scala.collection.immutable.Set<RefTypeItem> supers, final Set<Item> gone) {
+    if (supers == null)
+      return false;
+    final scala.collection.Iterator<RefTypeItem> it = supers.iterator();
+    while (it.hasNext())
+      if (gone.contains(it.next()))
+        return true;
+    return false;
+  }
+
+  private static boolean inProject(final ProjectFileIndex index, final PsiElement e) {
+    if (e instanceof PsiPackage || e instanceof PsiCompiledElement)
+      return false;
+    final PsiFile file = e.getContainingFile();
+    final VirtualFile vf = file == null ? null : file.getVirtualFile();
+    return vf == null || index.isInContent(vf);
+  }
+
+  // Should the item for e live here?  Everything inside a code block or anonymous class changes too freely.
+  static boolean cacheable(final PsiElement e) {
+    if (!e.isPhysical())
+      return false;
+    if (e instanceof PsiPackage)
+      return true;
+    if (!(e instanceof PsiClass || e instanceof PsiMethod || e instanceof PsiField))
+      return false;
+    if (e instanceof PsiAnonymousClass)
+      return false;
+    if (e instanceof PsiCompiledElement)
+      return true;
+    return PsiTreeUtil.getParentOfType(e,PsiCodeBlock.class,PsiAnonymousClass.class) == null;
+  }
+
+  void count(final boolean hit) {
+    (hit ? hits : misses).incrementAndGet();
+  }
+
+  public String toString() {
+    final Generation g = gen;
+    return "item cache: " + (g == null ? 0 : g.items.size()) + " items, " + hits + " hits, " + misses + " misses";
+  }
+}
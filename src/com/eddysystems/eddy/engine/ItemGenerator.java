@@ -3,32 +3,50 @@
  * The item generator is the second part of the project-wide LazyEnv
  * inside the eddy Env object.  Since storing PsiElement instances such
  * as PsiClass for a long time is verboten, the ItemGenerator builds these
- * lazily via a Converter object at string lookup time.
+ * lazily via a Converter object at string lookup time.  Which classes
+ * and members each name denotes is remembered across runs by NameCache.
+ *
+ * For typo queries, the most likely candidates are prefetched: their PSI is
+ * found on pooled threads while the eddy thread works through the list,
+ * and only the conversion to items happens on the eddy thread.  Like the
+ * background update, prefetch workers check JavaEnvironment.pause and give
+ * up their read lock (and the prefetch) as soon as a write action wants to
+ * start, so they never hold up typing.
  */
 
 package com.eddysystems.eddy.engine;
 
 import com.eddysystems.eddy.EddyThread;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.project.IndexNotReadyException;
 import com.intellij.openapi.project.Project;
-import com.intellij.psi.PsiClass;
-import com.intellij.psi.PsiField;
-import com.intellij.psi.PsiManager;
-import com.intellij.psi.PsiMethod;
+import com.intellij.psi.*;
 import com.intellij.psi.impl.file.PsiPackageImpl;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.search.PsiShortNamesCache;
 import com.intellij.util.Processor;
 import com.intellij.util.indexing.IdFilter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import tarski.Items;
 import tarski.JavaTrie.Generator;
+import tarski.JavaTrie.Prefetcher;
 
-import java.util.HashSet;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
-class ItemGenerator implements Generator<Items.Item> {
+class ItemGenerator implements Generator<Items.Item>, Prefetcher {
 
   static final int cacheSize = 10000;
-  final LRUCache<String, Items.Item[]> cache = new LRUCache<String, Items.Item[]>(cacheSize);
+  static final int cacheWeight = 200000; // Total items across all cached lookups, since names like get have thousands
+  final LRUCache<String, Items.Item[]> cache = new LRUCache<String, Items.Item[]>(cacheSize, cacheWeight,
+    new LRUCache.Weigher<String, Items.Item[]>() {
+      @Override public int weight(String s, Items.Item[] items) { return 1+items.length; }
+    });
 
   final Project project;
   final GlobalSearchScope scope;
@@ -37,8 +55,10 @@ class ItemGenerator implements Generator<Items.Item> {
   final PsiManager psiManager;
   final Converter converter;
   final PackageIndex packageIndex;
+  final NameCache names;
+  final JavaPsiFacade facade;
 
-  ItemGenerator(Project project, GlobalSearchScope scope, Converter conv, PackageIndex packageIndex) {
+  ItemGenerator(Project project, GlobalSearchScope scope, Converter conv, PackageIndex packageIndex, NameCache names) {
     this.project = project;
     this.scope = scope;
     filter = IdFilter.getProjectIdFilter(project, true);
@@ -46,24 +66,156 @@ class ItemGenerator implements Generator<Items.Item> {
     psiManager = PsiManager.getInstance(project);
     converter = conv;
     this.packageIndex = packageIndex;
+    this.names = names;
+    facade = JavaPsiFacade.getInstance(project);
   }
 
-  private Items.Item[] generate(String s) {
+  // PSI found for a name, before conversion.  Finding is thread safe given a read lock; converting isn't.
+  private static final class Found {
+    final List<PsiClass> classes = new ArrayList<PsiClass>();
+    final List<PsiMethod> methods = new ArrayList<PsiMethod>();
+    final List<PsiField> fields = new ArrayList<PsiField>();
+
+    void clear() {
+      classes.clear();
+      methods.clear();
+      fields.clear();
+    }
+  }
+
+  // A find running (or waiting to run) on a pooled thread.  Whoever claims it first does the work:
+  // the worker once it holds a read lock, or the eddy thread if the worker hasn't gotten that far.
+  private static final class Prefetch {
+    final AtomicBoolean claimed = new AtomicBoolean();
+    final CountDownLatch done = new CountDownLatch(1);
+    volatile Found found; // Null if the worker failed
+  }
+
+  static final int maxPrefetches = JavaEnvironment.updateThreads; // Prefetches in flight, across all generators
+  private static final AtomicInteger inFlight = new AtomicInteger();
+  private final ConcurrentHashMap<String,Prefetch> prefetches = new ConcurrentHashMap<String,Prefetch>();
+
+  // Start finding likely typo candidates on pooled threads.  Called on the eddy thread, with a read lock.
+  @Override
+  public void prefetch(final String[] ss) {
     final EddyThread thread = EddyThread.getEddyThread();
+    for (final String s : ss) {
+      if (cache.contains(s) || prefetches.containsKey(s))
+        continue;
+      if (inFlight.incrementAndGet() > maxPrefetches) {
+        inFlight.decrementAndGet();
+        return;
+      }
+      final Prefetch p = new Prefetch();
+      prefetches.put(s,p);
+      ApplicationManager.getApplication().executeOnPooledThread(new Runnable() {
+        @Override public void run() {
+          try {
+            // Don't queue up behind a write action.  The eddy thread will find s itself.
+            if (JavaEnvironment.pause.paused())
+              return;
+            ApplicationManager.getApplication().runReadAction(new Runnable() {
+              @Override public void run() {
+                if (!p.claimed.compareAndSet(false,true))
+                  return;
+                try {
+                  if (!(thread != null && thread.canceled()))
+                    p.found = find(s,thread,true);
+                } catch (ProcessCanceledException e) {
+                  // Canceled, or yielded to a write action.  Leave found null, so the eddy thread looks again
+                } catch (IndexNotReadyException e) {
+                  // Same
+                } finally {
+                  p.done.countDown();
+                }
+              }
+            });
+          } finally {
+            inFlight.decrementAndGet();
+          }
+        }
+      });
+    }
+  }
+
+  // Take over a prefetch: null if it hasn't started (or failed), otherwise wait for the worker, which holds a read lock
+  private static Found claim(final Prefetch p) {
+    if (p.claimed.compareAndSet(false,true))
+      return null;
+    try {
+      p.done.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+    return p.found;
+  }
+
+  // Prefetch workers hold a plain read lock, so they must stop as soon as a write action wants to start.
+  // The pause can't end while we hold the lock, so once this is true it stays true until we let go.
+  private static boolean yielding(final boolean worker) {
+    return worker && JavaEnvironment.pause.paused();
+  }
+
+  // Find classes, methods, and fields named s.  thread is the eddy thread we're working for, if any.
+  // If worker is true, throws ProcessCanceledException to yield to a write action.
+  private Found find(final String s, final @Nullable EddyThread thread, final boolean worker) {
+    final Found found = new Found();
+
+    // Use what an earlier run found for s if we can, and rescan if any of it has moved or vanished
+    final NameCache.Names known = names.get(s);
+    if (known == null || !resolve(s,known,found,worker)) {
+      if (known != null) {
+        names.remove(s);
+        found.clear();
+      }
+      scan(s,found,thread,worker);
+    }
+    return found;
+  }
+
+  private Items.Item[] generate(String s) {
+    final Prefetch p = prefetches.remove(s);
+    Found found = p == null ? null : claim(p);
+    if (found == null) {
+      final EddyThread thread = EddyThread.getEddyThread();
+      if (thread != null) thread.pushSoftInterrupts();
+      try {
+        found = find(s,thread,false);
+      } finally {
+        if (thread != null) thread.popSoftInterrupts();
+      }
+    }
+
     final HashSet<Items.Item> results = new HashSet<Items.Item>();
+    for (final PsiClass cls : found.classes)
+      results.add(converter.addClass(cls));
+    for (final PsiMethod method : found.methods)
+      results.add(converter.addMethod(method));
+    for (final PsiField fld : found.fields)
+      results.add(converter.addField(fld));
 
     // find and add packages
     for (String pkgQualifiedName: packageIndex.get(s)) {
       Items.Package pkg = (Items.Package) converter.addContainer(new PsiPackageImpl(psiManager, pkgQualifiedName));
       results.add(pkg);
     }
+    return results.toArray(new Items.Item[results.size()]);
+  }
+
+  // Find classes, methods, and fields named s via the short name index, and remember where they were
+  private void scan(final String s, final Found found, final @Nullable EddyThread thread, final boolean worker) {
+    final long stamp = names.stamp();
+    final Set<String> classes = new LinkedHashSet<String>(), methods = new LinkedHashSet<String>(), fields = new LinkedHashSet<String>();
+    final boolean[] describable = {true}; // False if something has no qualified name, such as a local class
 
     final Processor<PsiClass> classProc = new Processor<PsiClass>() {
       @Override
       public boolean process(PsiClass cls) {
         // TODO: Ideally we'd check for interrupts here, but can't because our caller grabs fancy locks
-        if (thread != null && thread.canceled()) return false;
-        results.add(converter.addClass(cls));
+        if (thread != null && thread.canceled() || yielding(worker)) return false;
+        found.classes.add(cls);
+        remember(classes,cls,describable);
         return true;
       }
     };
@@ -72,9 +224,11 @@ class ItemGenerator implements Generator<Items.Item> {
       @Override
       public boolean process(PsiMethod method) {
         // TODO: Ideally we'd check for interrupts here, but can't because our caller grabs fancy locks
-        if (thread != null && thread.canceled()) return false;
-        if (!method.isConstructor())
-          results.add(converter.addMethod(method));
+        if (thread != null && thread.canceled() || yielding(worker)) return false;
+        if (!method.isConstructor()) {
+          found.methods.add(method);
+          remember(methods,method.getContainingClass(),describable);
+        }
         return true;
       }
     };
@@ -83,22 +237,70 @@ class ItemGenerator implements Generator<Items.Item> {
       @Override
       public boolean process(PsiField fld) {
         // TODO: Ideally we'd check for interrupts here, but can't because our caller grabs fancy locks
-        if (thread != null && thread.canceled()) return false;
-        results.add(converter.addField(fld));
+        if (thread != null && thread.canceled() || yielding(worker)) return false;
+        found.fields.add(fld);
+        remember(fields,fld.getContainingClass(),describable);
         return true;
       }
     };
 
-    if (thread != null) thread.pushSoftInterrupts();
-    try {
-      final IdFilter filter = null;
-      psiCache.processClassesWithName(s, classProc, scope, filter);
-      psiCache.processMethodsWithName(s, methodProc, scope, filter);
-      psiCache.processFieldsWithName(s, fieldProc, scope, filter);
-    } finally {
-      if (thread != null) thread.popSoftInterrupts();
+    final IdFilter filter = null;
+    psiCache.processClassesWithName(s, classProc, scope, filter);
+    psiCache.processMethodsWithName(s, methodProc, scope, filter);
+    psiCache.processFieldsWithName(s, fieldProc, scope, filter);
+    if (yielding(worker))
+      throw new ProcessCanceledException();
+
+    // Partial results from a canceled scan must not outlive this run
+    if (describable[0] && !(thread != null && thread.canceled()))
+      names.put(s, new NameCache.Names(array(classes),array(methods),array(fields)), stamp);
+  }
+
+  private static void remember(final Set<String> qualified, final PsiClass cls, final boolean[] describable) {
+    final String q = cls == null ? null : cls.getQualifiedName();
+    if (q == null) describable[0] = false;
+    else qualified.add(q);
+  }
+
+  private static String[] array(final Set<String> xs) {
+    return xs.toArray(new String[xs.size()]);
+  }
+
+  // Find PSI from remembered qualified names.  Returns false if any of them no longer resolve.
+  private boolean resolve(final String s, final NameCache.Names known, final Found found, final boolean worker) {
+    if (yielding(worker))
+      throw new ProcessCanceledException();
+    for (final String q : known.classes) {
+      boolean any = false;
+      for (final PsiClass cls : facade.findClasses(q, scope))
+        if (s.equals(cls.getName())) {
+          found.classes.add(cls);
+          any = true;
+        }
+      if (!any) return false;
     }
-    return results.toArray(new Items.Item[results.size()]);
+    for (final String q : known.methods) {
+      boolean any = false;
+      for (final PsiClass cls : facade.findClasses(q, scope))
+        for (final PsiMethod method : cls.findMethodsByName(s, false))
+          if (!method.isConstructor()) {
+            found.methods.add(method);
+            any = true;
+          }
+      if (!any) return false;
+    }
+    for (final String q : known.fields) {
+      boolean any = false;
+      for (final PsiClass cls : facade.findClasses(q, scope)) {
+        final PsiField fld = cls.findFieldByName(s, false);
+        if (fld != null) {
+          found.fields.add(fld);
+          any = true;
+        }
+      }
+      if (!any) return false;
+    }
+    return true;
   }
 
   @Override @NotNull
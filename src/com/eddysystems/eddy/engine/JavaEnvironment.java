@@ -20,6 +20,7 @@ import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ContentIterator;
 import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.Factory;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.pom.java.LanguageLevel;
 import com.intellij.psi.*;
@@ -41,6 +42,8 @@ import java.util.*;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.eddysystems.eddy.engine.ChangeTracker.Snapshot;
 import static com.eddysystems.eddy.engine.Utility.*;
@@ -64,9 +67,16 @@ public class JavaEnvironment {
   @NotNull final GlobalSearchScope byItemScope;
   @NotNull final IdFilter byItemFilter;
 
-  final int rebuildByItemThreshold = 100;
+  // libraries are searched separately, through LibraryIndex
+  @NotNull final GlobalSearchScope libraryScope;
+
   final int rebuildNamesThreshold = 100;
 
+  // Number of threads computing the byItem maps in backgroundUpdate.  1 is the old sequential path.
+  // -Deddy.updateThreads=n overrides the default, for comparing timings in the log.
+  static final int updateThreads = Math.max(1,Integer.getInteger("eddy.updateThreads",
+                                                                   Runtime.getRuntime().availableProcessors()-1));
+
   private boolean _initialized = false;
   public boolean initialized() {
     return _initialized;
@@ -80,15 +90,27 @@ public class JavaEnvironment {
   // a trie encapsulating the global list of all names. This is never edited, so it's safe to use without a lock
   private int[] nameTrie = null;
 
-  // map types to fields and methods of that type.
-  private Map<String, Set<String>> pByItemFields = null;
-  private Map<String, Set<String>> pByItemMethods = null;
+  // map types to fields and methods of that type, kept up to date from fieldTracker and methodTracker
+  @NotNull private final ByItemIndex fieldIndex, methodIndex;
+
+  // map package short names (e.g. math) to a list of all qualified names (java.math, com.google.common.math).
+  // Kept current by VFS events, and saved between sessions.
+  @NotNull private final PackageIndex packageIndex;
 
-  // map package short names (e.g. math) to a list of all qualified names (java.math, com.google.common.math)
-  private PackageIndex packageIndex = null;
+  // Information about imports in our project, by file.  Updated by full scans and for each file eddy runs in.
+  private final ImportTrie.Files importFiles = new ImportTrie.Files();
+  private volatile boolean importsScanned = false;
+  private final AtomicBoolean importsBuilding = new AtomicBoolean(); // Is a pooled thread rebuilding the import trie?
 
-  // Information about imports in our project
-  private ImportTrie imports = null;
+  // The base environment and converted items which survive across eddy runs
+  @NotNull private final ItemCache itemCache;
+
+  // What each short name denotes, for ItemGenerator, invalidated by nameTracker
+  @NotNull private final NameCache nameCache;
+
+  // byItem maps for libraries and the JDK, merged across class roots, and the root keys they came from
+  private volatile ByTypeIndex libraryFields = ByTypeIndex.empty, libraryMethods = ByTypeIndex.empty;
+  private String libraryKeys = null;
 
   // the background update thread
   private Future<?> updateFuture = null;
@@ -102,30 +124,38 @@ public class JavaEnvironment {
     this.nameTracker = nameTracker;
     this.fieldTracker = fieldTracker;
     this.methodTracker = methodTracker;
+    this.fieldIndex = new ByItemIndex(fieldTracker);
+    this.methodIndex = new ByItemIndex(methodTracker);
 
-    final boolean extremelySlow = false; // TODO: Would be really nice if searching everything wasn't extremely slow
+    final boolean extremelySlow = false; // Searching everything is extremely slow, so libraries go through LibraryIndex
     byItemScope = extremelySlow ? ProjectScope.getAllScope(project)
                                 : ProjectScope.getProjectScope(project);
     byItemFilter = IdFilter.getProjectIdFilter(project, true);
+    libraryScope = ProjectScope.getLibrariesScope(project);
+    itemCache = new ItemCache(project);
+    nameCache = new NameCache(project, nameTracker);
+    packageIndex = new PackageIndex(project, nameTracker);
+    packageIndex.listen();
   }
 
   // make sure our background updater is done before we disappear
   public void dispose() {
-    updateFuture.cancel(true);
-    try {
-      // wait for background thread to exit
-      updateFuture.get();
-    } catch (CancellationException e) {
-      // we were cancelled, no shit
-    } catch (InterruptedException e) {
-      // we exited, that's what matters
-    } catch (ExecutionException e) {
-      // we exited, that's what matters
+    if (updateFuture != null) {
+      updateFuture.cancel(true);
+      try {
+        // wait for background thread to exit
+        updateFuture.get();
+      } catch (CancellationException e) {
+        // we were cancelled, no shit
+      } catch (InterruptedException e) {
+        // we exited, that's what matters
+      } catch (ExecutionException e) {
+        // we exited, that's what matters
+      }
     }
+    packageIndex.dispose();
   }
 
-  // TODO: add a single field to valuesByItem (should not have to rebuild completely all the time) -- requires lock!
-
   // request a full update of the global lookups
   public void requestUpdate() {
     requestUpdate(null);
@@ -164,31 +194,32 @@ public class JavaEnvironment {
   private void backgroundUpdate(@Nullable final ProgressIndicator indicator) {
     pushScope("update environment");
     try {
-      // call this once so initialization fails if no JDK is present
-      if (!_initialized) {
-        // we'll spend some time especially at startup, so let people know it's not our fault
-        if (indicator != null)
-          indicator.setText2("waiting for index to be ready");
-
-        // don't throw inside there -- Catch and rethrow to avoid logging
-        RuntimeException error = DumbService.getInstance(project).runReadActionInSmartMode(new Computable<RuntimeException>() {
-          @Override public RuntimeException compute() {
-            try {
-              if (indicator != null)
-                indicator.setText2("adding base environment");
-
-              addBase(new Converter(project, new HashMap<PsiElement, Item>()));
-              return null;
-            } catch (NoJDKError e) {
-              return e;
-            }
+      // we'll spend some time especially at startup, so let people know it's not our fault
+      if (indicator != null)
+        indicator.setText2("waiting for index to be ready");
+
+      // make sure the base environment is current.  It's only recomputed when roots change.
+      // Initialization fails if no JDK is present.
+      // don't throw inside there -- Catch and rethrow to avoid logging
+      RuntimeException error = DumbService.getInstance(project).runReadActionInSmartMode(new Computable<RuntimeException>() {
+        @Override public RuntimeException compute() {
+          try {
+            if (indicator != null)
+              indicator.setText2("adding base environment");
+            itemCache.prepare();
+            return null;
+          } catch (NoJDKError e) {
+            return e;
           }
-        });
+        }
+      });
 
-        if (error != null) {
+      if (error != null) {
+        if (!_initialized) {
           log("No JDK found, aborting initialization.");
           return;
         }
+        log("No JDK found, keeping previous base environment.");
       }
 
       if (indicator != null)
@@ -196,19 +227,18 @@ public class JavaEnvironment {
 
       pushScope("build package index");
       try {
-        // TODO: needs to be updated on file system changes, our current update requests are not the correct ones for this
-        packageIndex = new PackageIndex(project);
+        // loads the saved index at startup, and rebuilds only if roots have changed
+        packageIndex.update();
       } finally { popScope(); }
 
       if (indicator != null)
         indicator.setText2("computing field names");
       final Snapshot[] nameSnap = new Snapshot[1];
-      final Snapshot[] fieldSnap = new Snapshot[1];
       final PsiShortNamesCache cache = PsiShortNamesCache.getInstance(project);
       final String[] fieldNames = DumbService.getInstance(project).runReadActionInSmartMode(new Computable<String[]>() {
         @Override public String[] compute() {
           nameSnap[0] = nameTracker.snapshot();
-          fieldSnap[0] = fieldTracker.snapshot();
+          fieldIndex.startScan();
           return cache.getAllFieldNames();
         }
       });
@@ -218,10 +248,10 @@ public class JavaEnvironment {
 
       if (indicator != null)
         indicator.setText2("computing method names");
-      final Snapshot[] methodSnap = new Snapshot[1];
       final String[] methodNames = DumbService.getInstance(project).runReadActionInSmartMode(new Computable<String[]>() {
         @Override public String[] compute() {
-          methodSnap[0] = methodTracker.snapshot();
+          if (nullaryMethods)
+            methodIndex.startScan();
           return cache.getAllMethodNames();
         }
       });
@@ -236,7 +266,8 @@ public class JavaEnvironment {
 
       if (indicator != null)
         indicator.setText2("scanning imports");
-      imports = scanImports();
+      scanImports(indicator);
+      importsScanned = true;
 
       if (indicator != null) {
         indicator.setText2("computing type map");
@@ -245,30 +276,38 @@ public class JavaEnvironment {
 
       pushScope("make project fields by item");
       try {
-        final ByItemFieldProc fieldProc = new ByItemFieldProc();
-        readLockLoop(fieldNames,indicator,new Processor<String>() {
-          public boolean process(final String name) {
-            return safeProcessFieldsWithName(cache, name, fieldProc, byItemScope, byItemFilter);
-          }
+        final long start = System.nanoTime();
+        final List<FieldNameProc> procs = parallelReadLockLoop(fieldNames,indicator,new Factory<FieldNameProc>() {
+          public FieldNameProc create() { return new FieldNameProc(cache); }
         });
-        pByItemFields = fieldProc.result;
-        fieldTracker.forget(fieldSnap[0]);
+        if (!updateFuture.isCancelled())
+          fieldIndex.finishScan(NameProc.merge(procs));
+        log("fields by item: " + fieldNames.length + " names, " + procs.size() + " threads, "
+          + (System.nanoTime()-start)/1e6 + " ms");
       } finally { popScope(); }
 
       if (nullaryMethods) {
         pushScope("make project methods by item");
         try {
-          final ByItemMethodProc methodProc = new ByItemMethodProc();
-          readLockLoop(methodNames, indicator, new Processor<String>() {
-            public boolean process(final String name) {
-              return safeProcessMethodsWithName(cache, name, methodProc, byItemScope, byItemFilter);
-            }
+          final long start = System.nanoTime();
+          final List<MethodNameProc> procs = parallelReadLockLoop(methodNames,indicator,new Factory<MethodNameProc>() {
+            public MethodNameProc create() { return new MethodNameProc(cache); }
           });
-          pByItemMethods = methodProc.result;
-          methodTracker.forget(methodSnap[0]);
+          if (!updateFuture.isCancelled())
+            methodIndex.finishScan(NameProc.merge(procs));
+          log("methods by item: " + methodNames.length + " names, " + procs.size() + " threads, "
+            + (System.nanoTime()-start)/1e6 + " ms");
         } finally { popScope(); }
       }
+
+      if (indicator != null)
+        indicator.setText2("indexing libraries");
+      updateLibraryIndex(indicator);
     } finally {
+      // Cancellation returns early or throws ProcessCanceledException, leaving scans unfinished.  Forget their replay
+      // lists, or every later snapshot would keep appending to them.  A no-op for finished scans.
+      fieldIndex.abortScan();
+      methodIndex.abortScan();
       popScope();
       if (indicator != null)
         indicator.setIndeterminate(true);
@@ -280,7 +319,8 @@ public class JavaEnvironment {
       scheduleUpdate(null);
   }
 
-  private static void addBase(final Converter converter) {
+  // Add the base environment through converter.  Must be called with a read lock.
+  static void addBase(final Converter converter) {
     pushScope("add base");
     try {
       final GlobalSearchScope scope = ProjectScope.getAllScope(converter.project);
@@ -377,7 +417,7 @@ public class JavaEnvironment {
   public static Pause pause = new Pause();
 
   private static abstract class ByItemProc<A extends PsiMember> implements Processor<A> {
-    final Map<String,Set<String>> result = new HashMap<String,Set<String>>();
+    final ByTypeIndex.Builder result = new ByTypeIndex.Builder();
     private final Stack<PsiType> work = new Stack<PsiType>();
     private final Set<PsiType> seen = new HashSet<PsiType>();
 
@@ -400,13 +440,7 @@ public class JavaEnvironment {
         }
 
         // add to map
-        final String typeName = t.getCanonicalText();
-        Set<String> values = result.get(typeName);
-        if (values == null) {
-          values = new HashSet<String>();
-          result.put(typeName,values);
-        }
-        values.add(name);
+        result.add(t.getCanonicalText(),name,1);
 
         for (final PsiType s : t.getSuperTypes()) {
           if (!seen.contains(s)) {
@@ -441,8 +475,9 @@ public class JavaEnvironment {
         // Restrict to only public methods, those in scope (protected or private) are added to vByItem
         if (m.hasModifierProperty(PsiModifier.PUBLIC)) {
           final PsiType type = m.getReturnType();
-          if (ByItem.considerMethod(m,type))
-            absorb(m.getName(),type);
+          final String key = ByItem.methodKey(m);
+          if (key != null && ByItem.considerMethod(m,type))
+            absorb(key,type);
         }
       } catch (AssertionError e) {
         // If we're in the Scala plugin, log and squash the error.  Otherwise, rethrow.
@@ -453,16 +488,146 @@ public class JavaEnvironment {
     }
   }
 
+  // Name processors for parallelReadLockLoop, each with its own result map
+  private static abstract class NameProc implements Processor<String> {
+    abstract ByTypeIndex.Builder result();
+
+    static ByTypeIndex merge(final List<? extends NameProc> procs) {
+      final ByTypeIndex.Builder result = procs.get(0).result();
+      for (int i=1;i<procs.size();i++)
+        result.add(procs.get(i).result());
+      return result.build();
+    }
+  }
+  private final class FieldNameProc extends NameProc {
+    private final PsiShortNamesCache cache;
+    private final ByItemFieldProc proc = new ByItemFieldProc();
+    FieldNameProc(final PsiShortNamesCache cache) { this.cache = cache; }
+    ByTypeIndex.Builder result() { return proc.result; }
+    public boolean process(final String name) {
+      return safeProcessFieldsWithName(cache, name, proc, byItemScope, byItemFilter);
+    }
+  }
+  private final class MethodNameProc extends NameProc {
+    private final PsiShortNamesCache cache;
+    private final ByItemMethodProc proc = new ByItemMethodProc();
+    MethodNameProc(final PsiShortNamesCache cache) { this.cache = cache; }
+    ByTypeIndex.Builder result() { return proc.result; }
+    public boolean process(final String name) {
+      return safeProcessMethodsWithName(cache, name, proc, byItemScope, byItemFilter);
+    }
+  }
+
+  // Collect public members of public classes in library directories
+  private final class LibraryDirProc implements Processor<VirtualFile> {
+    final ByItemFieldProc fields = new ByItemFieldProc();
+    final ByItemMethodProc methods = new ByItemMethodProc();
+    private final PsiManager manager = PsiManager.getInstance(project);
+    private final JavaDirectoryService dirs = JavaDirectoryService.getInstance();
+
+    public boolean process(final VirtualFile dir) {
+      final PsiDirectory d = manager.findDirectory(dir);
+      if (d != null)
+        for (final PsiClass c : dirs.getClasses(d))
+          if (!absorb(c))
+            return false;
+      return true;
+    }
+
+    private boolean absorb(final PsiClass c) {
+      if (!c.hasModifierProperty(PsiModifier.PUBLIC))
+        return true;
+      for (final PsiField f : c.getFields())
+        if (!fields.process(f))
+          return false;
+      if (nullaryMethods)
+        for (final PsiMethod m : c.getMethods())
+          if (!methods.process(m))
+            return false;
+      for (final PsiClass i : c.getInnerClasses())
+        if (!absorb(i))
+          return false;
+      return true;
+    }
+  }
+
+  // Load or compute the byItem maps of each library class root.  Roots are scanned only if they're new or changed.
+  private void updateLibraryIndex(final @Nullable ProgressIndicator indicator) {
+    pushScope("make library by item");
+    try {
+      final VirtualFile[] roots = DumbService.getInstance(project).runReadActionInSmartMode(new Computable<VirtualFile[]>() {
+        @Override public VirtualFile[] compute() {
+          return LibraryIndex.roots(project);
+        }
+      });
+      final String[] keys = ApplicationManager.getApplication().runReadAction(new Computable<String[]>() {
+        @Override public String[] compute() {
+          final String[] keys = new String[roots.length];
+          for (int i=0;i<roots.length;i++)
+            keys[i] = LibraryIndex.key(roots[i]);
+          return keys;
+        }
+      });
+      final String allKeys = Arrays.toString(keys);
+      if (allKeys.equals(libraryKeys))
+        return;
+
+      final long start = System.nanoTime();
+      final ByTypeIndex.Builder fields = new ByTypeIndex.Builder();
+      final ByTypeIndex.Builder methods = new ByTypeIndex.Builder();
+      int scanned = 0;
+      for (int i=0;i<roots.length;i++) {
+        LibraryIndex index = LibraryIndex.load(keys[i]);
+        if (index == null) {
+          final VirtualFile root = roots[i];
+          if (indicator != null)
+            indicator.setText2("indexing " + root.getPresentableName());
+          final VirtualFile[] dirs = DumbService.getInstance(project).runReadActionInSmartMode(new Computable<VirtualFile[]>() {
+            @Override public VirtualFile[] compute() {
+              return LibraryIndex.directories(root);
+            }
+          });
+          final List<LibraryDirProc> procs = parallelReadLockLoop(dirs,indicator,new Factory<LibraryDirProc>() {
+            public LibraryDirProc create() { return new LibraryDirProc(); }
+          });
+          if (updateFuture.isCancelled())
+            return;
+          final ByTypeIndex.Builder f = new ByTypeIndex.Builder(), m = new ByTypeIndex.Builder();
+          for (final LibraryDirProc p : procs) {
+            f.add(p.fields.result);
+            m.add(p.methods.result);
+          }
+          index = new LibraryIndex(f.build(),m.build());
+          index.save(keys[i]);
+          scanned++;
+        }
+        fields.add(index.fields);
+        methods.add(index.methods);
+      }
+      libraryFields = fields.build();
+      libraryMethods = methods.build();
+      libraryKeys = allKeys;
+      log("library by item: " + roots.length + " roots, " + scanned + " scanned, " + libraryFields.edges() + " fields, "
+        + libraryMethods.edges() + " methods, " + (System.nanoTime()-start)/1e6 + " ms");
+    } finally { popScope(); }
+  }
+
   // Do something for every element of a list, with a bunch of complex logic for handling temporary failure
   private <A> boolean readLockLoop(final A[] values, final @Nullable ProgressIndicator indicator, final Processor<A> proc) {
+    return readLockLoop(values,new AtomicInteger(),new AtomicInteger(),indicator,proc);
+  }
+
+  // Process values[next++] until we run out.  Several threads can share next and progress, each with its own lock and proc.
+  private <A> boolean readLockLoop(final A[] values, final AtomicInteger next, final AtomicInteger progress,
+                                   final @Nullable ProgressIndicator indicator, final Processor<A> proc) {
     final Utility.SmartReadLock lock = new Utility.SmartReadLock(project);
     final double n = values.length;
-    int i = 0;
     try {
-      for (final A s : values) {
+      for (int i; (i = next.getAndIncrement()) < values.length;) {
+        final A s = values[i];
         if (indicator != null) {
           indicator.checkCanceled();
-          indicator.setFraction(i++/n);
+          indicator.setFraction(progress.getAndIncrement()/n);
         }
 
         // pretend we're doing a big read action here, if we get stumped by a dumb mode, repeat until it passes
@@ -506,42 +671,78 @@ public class JavaEnvironment {
     return true;
   }
 
+  // Run readLockLoop over values on several pooled threads, each with its own processor.  Returns the processors.
+  private <A,P extends Processor<A>> List<P> parallelReadLockLoop(final A[] values, final @Nullable ProgressIndicator indicator,
+                                                                   final Factory<P> make) {
+    final int threads = Math.max(1,Math.min(updateThreads,values.length));
+    final List<P> procs = new ArrayList<P>(threads);
+    for (int t=0;t<threads;t++)
+      procs.add(make.create());
+    if (threads == 1) {
+      readLockLoop(values,indicator,procs.get(0));
+      return procs;
+    }
+    final AtomicInteger next = new AtomicInteger(), progress = new AtomicInteger();
+    final List<Future<?>> workers = new ArrayList<Future<?>>(threads);
+    for (final P proc : procs)
+      workers.add(ApplicationManager.getApplication().executeOnPooledThread(new Runnable() {
+        public void run() {
+          readLockLoop(values,next,progress,indicator,proc);
+        }
+      }));
+    try {
+      for (final Future<?> w : workers)
+        w.get();
+    } catch (InterruptedException e) {
+      throw new ProcessCanceledException();
+    } catch (ExecutionException e) {
+      final Throwable c = e.getCause();
+      if (c instanceof RuntimeException) throw (RuntimeException)c;
+      if (c instanceof Error) throw (Error)c;
+      throw new RuntimeException(c);
+    } finally {
+      for (final Future<?> w : workers)
+        w.cancel(true);
+    }
+    return procs;
+  }
+
   // get a combined environment at the given place
   public Environment.Env getLocalEnvironment(@NotNull PsiElement place, final int lastEdit) {
 
     pushScope("get local environment");
     try {
-      final Converter converter = new Converter(project, new HashMap<PsiElement,Item>());
+      // share the base environment and declaration items with other runs, keeping only locals to ourselves
+      final ItemCache.Generation gen = itemCache.prepare();
+      final Converter converter = new Converter(project, new HashMap<PsiElement,Item>(), itemCache, gen);
+      log(itemCache);
+      nameCache.validate();
+      log(nameCache);
 
-      // we could cache the result of addBase, but it doesn't seem like it's worth it.
-      addBase(converter);
-      
       // ep will fill scopeItems (and it has its own store for special non-psi items and constructors)
       final EnvironmentProcessor ep = new EnvironmentProcessor(converter, place, lastEdit);
 
-      // stuff from trackers
-      final List<TypeNameItemNamePair> newFieldPairs = fieldTracker.values();
-      final List<TypeNameItemNamePair> newMethodPairs = methodTracker.values();
+      // stuff from trackers.  Field and method changes are applied to the byItem indices in place.
+      final ByItemIndex.Snapshot fields = fieldIndex.snapshot();
+      final ByItemIndex.Snapshot methods = methodIndex.snapshot();
       final List<String> newNames = nameTracker.values();
 
-      // schedule a background update if the trackers get too large
-      // TODO: split requestUpdate into two
-      if (newFieldPairs.size()+newMethodPairs.size() > rebuildByItemThreshold || newNames.size() > rebuildNamesThreshold) {
-        log("requesting background update for " + newFieldPairs.size() + " fields, "
-          + newMethodPairs.size() + " methods, " + newNames.size() + " names.");
+      // schedule a background update if the name tracker gets too large
+      if (newNames.size() > rebuildNamesThreshold) {
+        log("requesting background update for " + newNames.size() + " names.");
         requestUpdate();
       }
 
       pushScope("make ValueByItemQuery");
       final ValueByItemQuery vbi;
       try {
-        vbi = new ByItem(converter,pByItemFields,pByItemMethods,newFieldPairs,newMethodPairs,
-                         ep.localItems,byItemScope,byItemFilter);
+        vbi = new ByItem(converter,fields,methods,libraryFields,libraryMethods,ep.localItems,
+                         byItemScope,byItemFilter,libraryScope);
       } finally { popScope(); }
 
       // Make trie for global/project name lookup
       final int[] bigStructure = nameTrie;
-      final JavaTrie.Generator<Item> bigGenerator = new ItemGenerator(project, ProjectScope.getAllScope(project), converter, packageIndex);
+      final JavaTrie.Generator<Item> bigGenerator = new ItemGenerator(project, ProjectScope.getAllScope(project), converter, packageIndex, nameCache);
       final Tries.Queriable<Item> bigTrie = new Tries.LazyTrie<Item>(bigStructure, bigGenerator);
 
       // Make a small trie with both locals and recently added names
@@ -606,8 +807,24 @@ public class JavaEnvironment {
         smallTrie = new Tries.LazyTrie<Item>(smallStructure,smallGenerator);
       } finally { popScope(); }
 
-      // Grab any information we have about imports
-      final ImportTrie imports = this.imports != null ? this.imports : tarski.Pr.defaultImports();
+      // Grab any information we have about imports, bringing the current file up to date.  Rebuilding the
+      // trie for the whole project on every keystroke inside an import is too slow, so we use the latest
+      // one and let a pooled thread catch up.
+      final ImportTrie imports;
+      if (importsScanned) {
+        final PsiFile file = place.getContainingFile();
+        final VirtualFile vfile = file.getVirtualFile();
+        if (vfile != null && file instanceof PsiJavaFile)
+          importFiles.update(vfile.getPath(),file.getModificationStamp(),importsOf((PsiJavaFile)file));
+        final ImportTrie latest = importFiles.latest();
+        if (latest == null)
+          imports = importFiles.trie();
+        else {
+          imports = latest;
+          rebuildImports();
+        }
+      } else
+        imports = tarski.Pr.defaultImports();
 
       // Find the language level for this file (don't go through strings, API changed)
       final LanguageLevel llevel = ((PsiJavaFile) place.getContainingFile()).getLanguageLevel();
@@ -630,7 +847,63 @@ public class JavaEnvironment {
     } finally { popScope(); }
   }
 
-  ImportTrie scanImports() {
+  // Rebuild the import trie on a pooled thread if it's out of date and nobody else is
+  private void rebuildImports() {
+    if (!importFiles.stale() || !importsBuilding.compareAndSet(false,true))
+      return;
+    ApplicationManager.getApplication().executeOnPooledThread(new Runnable() {
+      @Override public void run() {
+        try {
+          importFiles.trie();
+        } finally {
+          importsBuilding.set(false);
+        }
+      }
+    });
+  }
+
+  // Qualified names imported by a file.  Must be called with a read lock.
+  static String[] importsOf(final PsiJavaFile java) {
+    final PsiImportList imps = java.getImportList();
+    if (imps == null)
+      return new String[0];
+    final List<String> quals = new ArrayList<String>();
+    for (final PsiImportStatementBase imp : imps.getAllImportStatements()) {
+      final PsiJavaCodeReferenceElement ref = imp.getImportReference();
+      if (ref != null) {
+        final String qual = ref.getQualifiedName();
+        if (qual != null)
+          quals.add(qual);
+      }
+    }
+    return quals.toArray(new String[quals.size()]);
+  }
+
+  // Read the imports of changed files into importFiles.  Stamps come from the PsiFile, not the document, so that
+  // an uncommitted document can't record a new stamp next to the old committed imports.
+  private final class ImportProc implements Processor<VirtualFile> {
+    private final PsiManager manager = PsiManager.getInstance(project);
+    int read = 0;
+
+    public boolean process(final VirtualFile file) {
+      final String path = file.getPath();
+      if (!file.isValid()) {
+        importFiles.remove(path);
+        return true;
+      }
+      final PsiFile java = manager.findFile(file);
+      if (!(java instanceof PsiJavaFile))
+        return true;
+      final long stamp = java.getModificationStamp();
+      if (stamp == importFiles.stamp(path))
+        return true;
+      importFiles.update(path,stamp,importsOf((PsiJavaFile)java));
+      read++;
+      return true;
+    }
+  }
+
+  void scanImports(final @Nullable ProgressIndicator indicator) {
     // Grab list of Java files outside of a read action
     final List<VirtualFile> files = new SmartList<VirtualFile>();
     ProjectRootManager.getInstance(project).getFileIndex().iterateContent(new ContentIterator() {
@@ -641,29 +914,20 @@ public class JavaEnvironment {
       }
     });
 
-    // Process each file inside a separate read action
-    final DumbService dumb = DumbService.getInstance(project);
-    final PsiManager manager = PsiManager.getInstance(project);
-    final ImportTrie imports = new ImportTrie();
+    // Forget files which are gone
+    final Set<String> paths = new HashSet<String>();
     for (final VirtualFile file : files)
-      dumb.runReadActionInSmartMode(new Runnable() { @Override public void run() {
-        if (!file.isValid()) return;
-        final PsiFile java = manager.findFile(file);
-        if (!(java instanceof PsiJavaFile)) return;
-        final PsiImportList imps = ((PsiJavaFile) java).getImportList();
-        if (imps == null) return;
-        for (final PsiImportStatementBase imp : imps.getAllImportStatements()) {
-          final PsiJavaCodeReferenceElement ref = imp.getImportReference();
-          if (ref != null) {
-            final String qual = ref.getQualifiedName();
-            if (qual != null)
-              imports.add(qual);
-          }
-        }
-      }});
-
-    // Nearly done
-    imports.addDefaults();
-    return imports;
+      paths.add(file.getPath());
+    importFiles.retain(paths);
+
+    // Reread only files whose stamps have changed, on several threads
+    final long start = System.nanoTime();
+    final List<ImportProc> procs = parallelReadLockLoop(files.toArray(new VirtualFile[files.size()]),indicator,
+      new Factory<ImportProc>() { public ImportProc create() { return new ImportProc(); }});
+    int read = 0;
+    for (final ImportProc p : procs)
+      read += p.read;
+    importFiles.trie(); // Build now, rather than in the next eddy run
+    log("scanned imports: read " + read + " of " + files.size() + " files in " + (System.nanoTime()-start)/1e6 + " ms");
   }
 }
@@ -1,76 +1,173 @@
-/* LRUCache: A fixed-size, least recently used cache */
+/* LRUCache: A bounded, thread safe, least recently used cache
+ *
+ * Keys are spread by hash over a few segments, each an access-ordered LinkedHashMap behind its
+ * own lock, so get and put are O(1) and threads working on different keys rarely contend.
+ * A segment evicts its least recently used entries whenever it exceeds its share of the entry
+ * limit or, if a weigher is given, the weight limit.  An entry heavier than a segment's whole
+ * share is never stored, since it would flush everything else.  Hits, misses, and evictions
+ * (including such rejected entries) are counted.
+ */
 
 package com.eddysystems.eddy.engine;
 
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.PriorityQueue;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class LRUCache<K,V> {
 
-  private class Entry {
-    long timestamp;
-    V result;
-    Entry(long timestamp, V result) {
-      this.timestamp = timestamp;
-      this.result = result;
+  // Relative cost of an entry, for caches of values with very different sizes
+  public interface Weigher<K,V> {
+    int weight(K key, V value);
+  }
+
+  private static final class Entry<V> {
+    final V value;
+    final int weight;
+    Entry(V value, int weight) {
+      this.value = value;
+      this.weight = weight;
     }
   }
 
-  private class Query implements Comparable<Query> {
-    long timestamp;
-    K s;
+  private static final class Segment<K,V> {
+    final int maxSize;
+    final long maxWeight;
+    final AtomicLong evictions;
+    long weight = 0;
+    final LinkedHashMap<K,Entry<V>> map = new LinkedHashMap<K,Entry<V>>(16,.75f,true);
+
+    Segment(int maxSize, long maxWeight, AtomicLong evictions) {
+      this.maxSize = maxSize;
+      this.maxWeight = maxWeight;
+      this.evictions = evictions;
+    }
+
+    synchronized @Nullable V get(K key) {
+      final Entry<V> e = map.get(key);
+      return e == null ? null : e.value;
+    }
+
+    synchronized void put(K key, V value, int w) {
+      if (w > maxWeight) {
+        // Too heavy to keep without evicting the whole segment.  Drop any older value, which is now stale.
+        remove(key);
+        evictions.incrementAndGet();
+        return;
+      }
+      final Entry<V> old = map.put(key,new Entry<V>(value,w));
+      if (old != null)
+        weight -= old.weight;
+      weight += w;
+      // Oldest entries come first in access order.  Never evict the entry we just added.
+      final Iterator<Entry<V>> it = map.values().iterator();
+      while ((map.size() > maxSize || weight > maxWeight) && map.size() > 1) {
+        weight -= it.next().weight;
+        it.remove();
+        evictions.incrementAndGet();
+      }
+    }
+
+    synchronized boolean contains(K key) {
+      return map.containsKey(key);
+    }
 
-    Query(long timestamp, K s) {
-      this.timestamp = timestamp;
-      this.s = s;
+    synchronized void remove(K key) {
+      final Entry<V> old = map.remove(key);
+      if (old != null)
+        weight -= old.weight;
     }
 
-    @Override
-    public int compareTo(Query o) {
-      return (int)(timestamp - o.timestamp);
+    synchronized void clear() {
+      map.clear();
+      weight = 0;
     }
+
+    synchronized int size() { return map.size(); }
+    synchronized long weight() { return weight; }
   }
 
-  private long timestamp = 0;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final Segment<K,V>[] segments; // Length is a power of two
+  private final @Nullable Weigher<K,V> weigher;
 
-  private final PriorityQueue<Query> lru = new PriorityQueue<Query>();
-  private final Map<K,Entry> cache = new HashMap<K,Entry>();
+  private static final int entriesPerSegment = 256; // Small caches get a single segment
+  private static final int maxSegments = 16;
 
-  private final int maxSize;
+  LRUCache(int maxSize) {
+    this(maxSize,Long.MAX_VALUE,null);
+  }
 
-  LRUCache(int size) {
-    this.maxSize = size;
+  @SuppressWarnings("unchecked")
+  LRUCache(int maxSize, long maxWeight, @Nullable Weigher<K,V> weigher) {
+    if (maxSize < 1 || maxWeight < 1)
+      throw new IllegalArgumentException("LRUCache: limits must be positive");
+    int n = 1;
+    while (2*n <= maxSegments && 2*n*entriesPerSegment <= maxSize)
+      n *= 2;
+    this.weigher = weigher;
+    segments = new Segment[n];
+    for (int i = 0; i < n; i++)
+      segments[i] = new Segment<K,V>((maxSize+n-1)/n, maxWeight == Long.MAX_VALUE ? maxWeight : (maxWeight+n-1)/n, evictions);
   }
 
-  private void clean() {
-    while (cache.size() > maxSize) {
-      cache.remove(lru.poll().s);
-    }
+  private Segment<K,V> segment(@NotNull K key) {
+    int h = key.hashCode();
+    h ^= (h >>> 16);
+    return segments[h & (segments.length-1)];
   }
 
-  public @Nullable
-  V get(K s) {
-    if (!cache.containsKey(s))
-      return null;
-
-    Entry e = cache.get(s);
-    Query q = new Query(e.timestamp,s);
-    lru.remove(q);
-    q.timestamp = timestamp;
-    lru.add(q);
-    e.timestamp = timestamp;
-    timestamp++;
-    return e.result;
+  public @Nullable V get(@NotNull K key) {
+    final V v = segment(key).get(key);
+    (v == null ? misses : hits).incrementAndGet();
+    return v;
   }
 
-  public void put(K s, V v) {
-    cache.put(s, new Entry(timestamp, v));
-    lru.add(new Query(timestamp,s));
-    clean();
-    timestamp++;
+  // Check for a key without counting a hit or miss, or making it recently used
+  public boolean contains(@NotNull K key) {
+    return segment(key).contains(key);
   }
 
+  public void put(@NotNull K key, @NotNull V value) {
+    segment(key).put(key,value,weigher == null ? 1 : weigher.weight(key,value));
+  }
+
+  public void remove(@NotNull K key) {
+    segment(key).remove(key);
+  }
+
+  public void clear() {
+    for (final Segment<K,V> s : segments)
+      s.clear();
+  }
+
+  public int size() {
+    int n = 0;
+    for (final Segment<K,V> s : segments)
+      n += s.size();
+    return n;
+  }
+
+  public long weight() {
+    long w = 0;
+    for (final Segment<K,V> s : segments)
+      w += s.weight();
+    return w;
+  }
+
+  public long hits() { return hits.get(); }
+  public long misses() { return misses.get(); }
+  public long evictions() { return evictions.get(); }
+
+  public String toString() {
+    final long h = hits(), m = misses();
+    return "LRUCache: " + size() + " entries" + (weigher == null ? "" : ", weight " + weight())
+         + ", " + h + " hits, " + m + " misses" + (h+m == 0 ? "" : String.format(" (%.1f%% hit rate)",100.*h/(h+m)))
+         + ", " + evictions() + " evictions";
+  }
 }
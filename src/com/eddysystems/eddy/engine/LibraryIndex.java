@@ -0,0 +1,117 @@
+/* LibraryIndex: byItem maps for libraries and the JDK, cached on disk per library root
+ *
+ * Scanning every library for byItem purposes is far too slow to repeat (see byItemScope in
+ * JavaEnvironment), but library contents almost never change.  So we scan each class root
+ * (jar or directory) once, and store its field and method ByTypeIndex in IntelliJ's system
+ * directory under a key derived from the root's path, size, and modification time, and the
+ * options the scan ran with.  A changed jar or scan gets a new key and is rescanned; stale files
+ * are harmless.
+ */
+
+package com.eddysystems.eddy.engine;
+
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.OrderEnumerator;
+import com.intellij.openapi.vfs.JarFileSystem;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileVisitor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tarski.ByTypeIndex;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.eddysystems.eddy.engine.Utility.log;
+import static tarski.Flags.nullaryMethods;
+
+class LibraryIndex {
+  final ByTypeIndex fields, methods;
+
+  LibraryIndex(@NotNull ByTypeIndex fields, @NotNull ByTypeIndex methods) {
+    this.fields = fields;
+    this.methods = methods;
+  }
+
+  // Class roots of all libraries and SDKs.  Must be called with a read lock.
+  static VirtualFile[] roots(final Project project) {
+    return OrderEnumerator.orderEntries(project).withoutModuleSourceEntries().classes().getRoots();
+  }
+
+  // All directories under a root, for scanning.  Must be called with a read lock.
+  static VirtualFile[] directories(final VirtualFile root) {
+    final List<VirtualFile> dirs = new ArrayList<VirtualFile>();
+    VfsUtilCore.visitChildrenRecursively(root, new VirtualFileVisitor() {
+      @Override public boolean visitFile(@NotNull VirtualFile file) {
+        if (!file.isDirectory())
+          return false;
+        dirs.add(file);
+        return true;
+      }
+    });
+    return dirs.toArray(new VirtualFile[dirs.size()]);
+  }
+
+  // What a scan collects.  Bump the version whenever JavaEnvironment.LibraryDirProc changes what it stores.
+  private static final String scanOptions = "1" + (nullaryMethods ? "m" : "");
+
+  // Cache key for a root: changes whenever the jar or directory does, or the scan.  Must be called with a read lock.
+  static String key(final VirtualFile root) {
+    final VirtualFile jar = JarFileSystem.getInstance().getVirtualFileForJar(root);
+    final VirtualFile f = jar != null ? jar : root;
+    final String id = scanOptions + '\n' + f.getPath() + '\n' + f.getLength() + '\n' + f.getTimeStamp();
+    try {
+      final byte[] hash = MessageDigest.getInstance("MD5").digest(id.getBytes("UTF-8"));
+      return f.getName() + '-' + new BigInteger(1,hash).toString(16);
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    } catch (UnsupportedEncodingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static File file(final String key) {
+    return new File(PathManager.getSystemPath(), "eddy/byitem/" + key + ".idx");
+  }
+
+  // Load a cached index, or return null if it's missing or unreadable
+  static @Nullable LibraryIndex load(final String key) {
+    final File file = file(key);
+    if (!file.exists())
+      return null;
+    try {
+      final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      try {
+        final ByTypeIndex fields = ByTypeIndex.read(in);
+        return new LibraryIndex(fields,ByTypeIndex.read(in));
+      } finally { in.close(); }
+    } catch (IOException e) {
+      log("library index: couldn't read " + file + ": " + e);
+      return null;
+    }
+  }
+
+  void save(final String key) {
+    final File file = file(key);
+    try {
+      file.getParentFile().mkdirs();
+      // Write to a temporary file first, so a crash never leaves a truncated index behind
+      final File tmp = new File(file.getPath() + ".tmp");
+      final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+      try {
+        fields.write(out);
+        methods.write(out);
+      } finally { out.close(); }
+      if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file)))
+        log("library index: couldn't rename " + tmp + " to " + file);
+    } catch (IOException e) {
+      log("library index: couldn't write " + file + ": " + e);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/* NameCache: What each short name denotes, kept across eddy runs
+ *
+ * ItemGenerator turns a name into items by asking PsiShortNamesCache for every class,
+ * method, and field with that name, which is slow and repeats for the same hot names on
+ * every keystroke.  Since PsiElements must not be held for long, NameCache remembers only
+ * strings: the qualified names of the classes called s, and of the classes declaring
+ * methods or fields called s.  A warm lookup resolves these through JavaPsiFacade and
+ * never touches the short name index.
+ *
+ * Invalidation:
+ *   1. A name is dropped whenever nameTracker sees it added (a new or renamed declaration).
+ *   2. Everything is dropped when project roots change.
+ *   3. Deleted or moved declarations leave descriptors that no longer resolve, and
+ *      ItemGenerator rescans any name whose descriptors fail.
+ *
+ * This class is thread safe.
+ */
+
+package com.eddysystems.eddy.engine;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.eddysystems.eddy.engine.Utility.log;
+
+class NameCache implements ChangeTracker.Listener<String> {
+  static final int cacheSize = 50000;
+  static final int cacheWeight = 500000; // Total descriptors
+
+  // Qualified names of the classes named s, and of the classes with methods or fields named s
+  static final class Names {
+    final String[] classes, methods, fields;
+    Names(String[] classes, String[] methods, String[] fields) {
+      this.classes = classes;
+      this.methods = methods;
+      this.fields = fields;
+    }
+  }
+
+  private final Project project;
+  private final LRUCache<String,Names> cache = new LRUCache<String,Names>(cacheSize, cacheWeight,
+    new LRUCache.Weigher<String,Names>() {
+      @Override public int weight(String s, Names n) { return 1+n.classes.length+n.methods.length+n.fields.length; }
+    });
+  private long roots = -1; // Root modification count as of the last check
+  private final AtomicLong changes = new AtomicLong(); // Bumped by every invalidation
+
+  NameCache(@NotNull Project project, @NotNull ChangeTracker<String> nameTracker) {
+    this.project = project;
+    nameTracker.addListener(this);
+  }
+
+  @Override public void added(@NotNull String name) {
+    changes.incrementAndGet();
+    cache.remove(name);
+  }
+
+  // Drop everything if roots have changed.  Must be called with a read lock.
+  synchronized void validate() {
+    final long roots = ProjectRootManager.getInstance(project).getModificationCount();
+    if (roots != this.roots) {
+      if (cache.size() > 0)
+        log("name cache: roots changed, dropping " + cache.size() + " names");
+      changes.incrementAndGet();
+      cache.clear();
+      this.roots = roots;
+    }
+  }
+
+  @Nullable Names get(@NotNull String name) { return cache.get(name); }
+
+  // Read before scanning for a name, and pass to put, so a scan which raced with an edit isn't stored
+  long stamp() { return changes.get(); }
+
+  void put(@NotNull String name, @NotNull Names names, long stamp) {
+    cache.put(name,names);
+    if (changes.get() != stamp)
+      cache.remove(name);
+  }
+
+  void remove(@NotNull String name) { cache.remove(name); }
+
+  public String toString() {
+    return "name cache: " + cache;
+  }
+}
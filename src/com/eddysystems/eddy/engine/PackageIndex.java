@@ -1,87 +1,460 @@
-/* PackageIndex: An index of all package names for environment purposes */
+/* PackageIndex: An index of all package names for environment purposes
+ *
+ * Maps package short names (e.g. math) to all qualified names (java.math, com.google.common.math),
+ * by way of the directory behind each package.  Walking every jar and source root is slow, so:
+ *   1. The index is built once, then kept current by a VFS listener which adds and removes
+ *      package directories as they are created, deleted, moved, or renamed.  Removals are cheap
+ *      and happen right away.  New directories are walked on a pooled thread, one directory per
+ *      read action, so a large checkout or unzip doesn't hold up the write action that made it.
+ *      Directories outside this project's content and library roots are skipped without descending.
+ *   2. It is saved in IntelliJ's system directory on dispose, under a fingerprint of the project's
+ *      roots (see LibraryIndex.key), and loaded on the next startup if the roots are unchanged.
+ *      Sources may have changed while we weren't listening, so after loading, directories which
+ *      no longer exist are dropped and the content source roots are walked again in the background.
+ *      Library contents are covered by the fingerprint.  Events which arrive before the index is
+ *      loaded are replayed on top of it.
+ * Root changes change the fingerprint, and the next update rebuilds from scratch.
+ *
+ * This class is thread safe.
+ */
 
 package com.eddysystems.eddy.engine;
 
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ContentIterator;
 import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.openapi.roots.impl.ProjectFileIndexImpl;
+import com.intellij.openapi.util.Computable;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.util.containers.ArrayListSet;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.*;
 import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.messages.MessageBusConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.jps.model.java.JavaModuleSourceRootTypes;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.io.*;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+import static com.eddysystems.eddy.engine.Utility.log;
 
 public class PackageIndex {
   final Project project;
-  final private Map<String,Set<String>> toQualified = new HashMap<String, Set<String>>();
+  private final ChangeTracker<String> nameTracker;
+
+  // directory url -> qualified package.  Sorted, so each directory's subtree is a contiguous range.
+  private TreeMap<String,String> dirs = new TreeMap<String,String>();
+
+  // qualified package -> number of directories, and short name -> qualified packages
+  private Map<String,int[]> counts = new HashMap<String,int[]>();
+  private Map<String,Set<String>> toQualified = new HashMap<String,Set<String>>();
+
+  // Fingerprint of the roots the index was built for, or null if it hasn't been built or loaded
+  private String fingerprint = null;
+
+  // Changes seen before the first load or during a rebuild, replayed onto its result.
+  // Each is {url,qpkg} for an add or {url} for a removal.
+  private List<String[]> replay = new ArrayList<String[]>();
 
-  PackageIndex(Project project) {
+  // New directories waiting to be walked, and whether a pooled thread is walking them
+  private final ArrayDeque<VirtualFile> pending = new ArrayDeque<VirtualFile>();
+  private boolean walking = false;
+
+  private MessageBusConnection connection = null;
+
+  PackageIndex(@NotNull Project project, @NotNull ChangeTracker<String> nameTracker) {
     this.project = project;
-    // build toQualified by traversing directories
-    //final GlobalSearchScope scope = new ProjectAndLibrariesScope(project);
-    final ProjectRootManager prm = ProjectRootManager.getInstance(project);
-    final ProjectFileIndexImpl idx = (ProjectFileIndexImpl)prm.getFileIndex();
+    this.nameTracker = nameTracker;
+  }
 
+  // Start following directory changes
+  void listen() {
+    connection = project.getMessageBus().connect();
+    connection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener.Adapter() {
+      @Override public void before(@NotNull List<? extends VFileEvent> events) {
+        for (final VFileEvent e : events) {
+          final VirtualFile f = e.getFile();
+          if (f == null || !f.isDirectory())
+            continue;
+          if (e instanceof VFileDeleteEvent || e instanceof VFileMoveEvent || isRename(e))
+            removeTree(f.getUrl());
+        }
+      }
+      @Override public void after(@NotNull List<? extends VFileEvent> events) {
+        for (final VFileEvent e : events) {
+          VirtualFile f = e.getFile();
+          if (e instanceof VFileCopyEvent) {
+            final VFileCopyEvent c = (VFileCopyEvent)e;
+            f = c.getNewParent().findChild(c.getNewChildName());
+          } else if (!(e instanceof VFileCreateEvent || e instanceof VFileMoveEvent || isRename(e)))
+            continue;
+          if (f != null && f.isValid() && f.isDirectory())
+            addTree(f);
+        }
+      }
+    });
+  }
+
+  private static boolean isRename(final VFileEvent e) {
+    return e instanceof VFilePropertyChangeEvent
+        && VirtualFile.PROP_NAME.equals(((VFilePropertyChangeEvent)e).getPropertyName());
+  }
+
+  // Stop listening and save for next time, so that edits since the last rebuild are kept
+  void dispose() {
+    if (connection != null) {
+      connection.disconnect();
+      connection = null;
+    }
+    synchronized (this) {
+      pending.clear();
+    }
+    save();
+  }
+
+  // Make sure the index matches the current roots, loading or rebuilding if not.  Call without a read lock.
+  void update() {
+    final String fp = ApplicationManager.getApplication().runReadAction(new Computable<String>() {
+      @Override public String compute() { return fingerprint(project); }
+    });
+    synchronized (this) {
+      if (fp.equals(fingerprint))
+        return;
+    }
+    if (restore(fp))
+      return;
+    synchronized (this) {
+      replay = new ArrayList<String[]>();
+    }
+    final long start = System.nanoTime();
+    final TreeMap<String,String> fresh = scan();
+    synchronized (this) {
+      final List<String[]> changes = replay;
+      replay = null;
+      dirs = new TreeMap<String,String>();
+      counts = new HashMap<String,int[]>();
+      toQualified = new HashMap<String,Set<String>>();
+      for (final Map.Entry<String,String> d : fresh.entrySet())
+        add(d.getKey(),d.getValue());
+      for (final String[] c : changes) {
+        if (c.length == 2) add(c[0],c[1]);
+        else removeTree(c[0]);
+      }
+      fingerprint = fp;
+      log("package index: rebuilt with " + dirs.size() + " directories, " + counts.size() + " packages in "
+          + (System.nanoTime()-start)/1e6 + " ms");
+    }
+    save();
+  }
+
+  // Walk all indexable files for package directories
+  private TreeMap<String,String> scan() {
+    final ProjectFileIndexImpl idx = (ProjectFileIndexImpl)ProjectRootManager.getInstance(project).getFileIndex();
+    final TreeMap<String,String> found = new TreeMap<String,String>();
     ContentIterator iter = new ContentIterator() {
       @Override
       public boolean processFile(VirtualFile fileOrDir) {
         if (fileOrDir.isDirectory()) {
-          if (idx.isIgnored(fileOrDir))
-            return true;
+          final String qpkg = qualified(idx,fileOrDir);
+          if (qpkg != null)
+            found.put(fileOrDir.getUrl(),qpkg);
+        }
+        return true;
+      }
+    };
+    FileBasedIndex.getInstance().iterateIndexableFiles(iter, project, null);
+    return found;
+  }
 
-          // ignore resource files (some resource directories are just sitting in regular packages. Not
-          // much we can do. Those will just never have classes in them.
-          if (idx.isUnderSourceRootOfType(fileOrDir, JavaModuleSourceRootTypes.RESOURCES))
-            return true;
+  // Qualified package name of a directory, or null if it isn't a package
+  private static @Nullable String qualified(final ProjectFileIndexImpl idx, final VirtualFile dir) {
+    if (idx.isIgnored(dir))
+      return null;
 
-          // source file
-          VirtualFile root = idx.getSourceRootForFile(fileOrDir);
-          // class file
-          if (root == null)
-            root = idx.getClassRootForFile(fileOrDir);
+    // ignore resource files (some resource directories are just sitting in regular packages. Not
+    // much we can do. Those will just never have classes in them.
+    if (idx.isUnderSourceRootOfType(dir, JavaModuleSourceRootTypes.RESOURCES))
+      return null;
 
-          // if not source, not class, or root, ignore
-          if (root == null || root.getUrl().equals(fileOrDir.getUrl()))
-            return true;
+    // source file
+    VirtualFile root = idx.getSourceRootForFile(dir);
+    // class file
+    if (root == null)
+      root = idx.getClassRootForFile(dir);
 
-          String qpkg = fileOrDir.getPath().substring(root.getPath().length()).replace('/','.');
+    // if not source, not class, or root, ignore
+    if (root == null || root.getUrl().equals(dir.getUrl()))
+      return null;
 
-          // hacky, but we know no better way
-          if (qpkg.isEmpty() || qpkg.equals(".") || qpkg.startsWith("META-INF"))
-            return true;
+    String qpkg = dir.getPath().substring(root.getPath().length()).replace('/','.');
 
-          // non-jar classes end up with a '.' in front
-          if (qpkg.charAt(0) == '.')
-            qpkg = qpkg.substring(1);
+    // hacky, but we know no better way
+    if (qpkg.isEmpty() || qpkg.equals(".") || qpkg.startsWith("META-INF"))
+      return null;
 
-          String pkg = qpkg.substring(qpkg.lastIndexOf('.')+1);
+    // non-jar classes end up with a '.' in front
+    if (qpkg.charAt(0) == '.')
+      qpkg = qpkg.substring(1);
+    return qpkg;
+  }
 
-          Set<String> quals = toQualified.get(pkg);
-          if (quals == null) {
-            quals = new ArrayListSet<String>();
-            toQualified.put(pkg,quals);
-          }
-          quals.add(qpkg);
+  // Add a new directory and everything under it, on a pooled thread
+  private void addTree(final VirtualFile top) {
+    synchronized (this) {
+      pending.add(top);
+      if (walking)
+        return;
+      walking = true;
+    }
+    ApplicationManager.getApplication().executeOnPooledThread(new Runnable() {
+      @Override public void run() {
+        walk();
+      }
+    });
+  }
+
+  // Add pending directories one at a time, each in its own read action so writes can get through in between
+  private void walk() {
+    while (true) {
+      final VirtualFile dir;
+      synchronized (this) {
+        dir = pending.poll();
+        if (dir == null || project.isDisposed()) {
+          pending.clear();
+          walking = false;
+          return;
         }
-        return true;
       }
-    };
+      ApplicationManager.getApplication().runReadAction(new Runnable() {
+        @Override public void run() {
+          if (!dir.isValid() || !dir.isDirectory())
+            return;
+          final ProjectFileIndexImpl idx = (ProjectFileIndexImpl)ProjectRootManager.getInstance(project).getFileIndex();
+          // The VFS listener hears about every project, so don't walk checkouts or unzips that aren't ours
+          if (!idx.isInContent(dir) && !idx.isInLibraryClasses(dir))
+            return;
+          final String qpkg = qualified(idx,dir);
+          if (qpkg != null) {
+            final boolean fresh;
+            synchronized (PackageIndex.this) {
+              if (replay != null)
+                replay.add(new String[]{dir.getUrl(),qpkg});
+              fresh = add(dir.getUrl(),qpkg);
+            }
+            // New packages are found through the small trie until the next full update
+            if (fresh)
+              nameTracker.add(shortName(qpkg));
+          }
+          final List<VirtualFile> kids = new ArrayList<VirtualFile>();
+          for (final VirtualFile kid : dir.getChildren())
+            if (kid.isDirectory())
+              kids.add(kid);
+          synchronized (PackageIndex.this) {
+            pending.addAll(kids);
+          }
+        }
+      });
+    }
+  }
 
-    FileBasedIndex.getInstance().iterateIndexableFiles(iter, project, null);
+  // Remove a directory and everything under it
+  private synchronized void removeTree(final String url) {
+    if (replay != null)
+      replay.add(new String[]{url});
+    // The range also holds siblings like url-x, since '-' < '/'
+    final List<Map.Entry<String,String>> range = new ArrayList<Map.Entry<String,String>>(
+      dirs.subMap(url, true, url + '/' + Character.MAX_VALUE, true).entrySet());
+    for (final Map.Entry<String,String> d : range)
+      if (d.getKey().equals(url) || d.getKey().startsWith(url + '/'))
+        remove(d.getKey(),d.getValue());
+  }
+
+  private static String shortName(final String qpkg) {
+    return qpkg.substring(qpkg.lastIndexOf('.')+1);
+  }
+
+  // Returns true if qpkg is a new package
+  private synchronized boolean add(final String url, final String qpkg) {
+    final String old = dirs.put(url,qpkg);
+    if (old != null) {
+      if (old.equals(qpkg))
+        return false;
+      remove(url,old);
+      dirs.put(url,qpkg);
+    }
+    final int[] c = counts.get(qpkg);
+    if (c != null) {
+      c[0]++;
+      return false;
+    }
+    counts.put(qpkg,new int[]{1});
+    final String pkg = shortName(qpkg);
+    Set<String> quals = toQualified.get(pkg);
+    if (quals == null) {
+      quals = new HashSet<String>();
+      toQualified.put(pkg,quals);
+    }
+    quals.add(qpkg);
+    return true;
+  }
+
+  private synchronized void remove(final String url, final String qpkg) {
+    dirs.remove(url);
+    final int[] c = counts.get(qpkg);
+    if (c == null || --c[0] > 0)
+      return;
+    counts.remove(qpkg);
+    final String pkg = shortName(qpkg);
+    final Set<String> quals = toQualified.get(pkg);
+    if (quals != null) {
+      quals.remove(qpkg);
+      if (quals.isEmpty())
+        toQualified.remove(pkg);
+    }
   }
 
   // return all packages that have a qualified name something.or.other.shortName
-  Set<String> get(String shortName) {
+  synchronized Set<String> get(String shortName) {
     Set<String> res = toQualified.get(shortName);
-    return res != null ? res : Collections.<String>emptySet();
+    return res != null ? new HashSet<String>(res) : Collections.<String>emptySet();
   }
 
-  String[] getNames() {
+  synchronized String[] getNames() {
     return toQualified.keySet().toArray(new String[toQualified.size()]);
   }
+
+  /****** Persistence ******/
+
+  // Bump whenever the file layout changes
+  static final int format = 1;
+
+  // Changes whenever any source or class root does.  Must be called with a read lock.
+  static String fingerprint(final Project project) {
+    final StringBuilder id = new StringBuilder();
+    for (final VirtualFile root : ProjectRootManager.getInstance(project).getContentSourceRoots())
+      id.append(root.getUrl()).append('\n');
+    for (final VirtualFile root : LibraryIndex.roots(project))
+      id.append(LibraryIndex.key(root)).append('\n');
+    try {
+      final byte[] hash = MessageDigest.getInstance("MD5").digest(id.toString().getBytes("UTF-8"));
+      return new BigInteger(1,hash).toString(16);
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    } catch (UnsupportedEncodingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private File file() {
+    return new File(PathManager.getSystemPath(), "eddy/packages/" + project.getLocationHash() + ".idx");
+  }
+
+  // Load a saved index if it was made for the given roots, and bring it up to date with changes we didn't see.
+  // Call without a read lock.
+  private boolean restore(final String fp) {
+    synchronized (this) {
+      if (fingerprint != null || !load(fp))
+        return false;
+      // Events from before the load
+      final List<String[]> changes = replay;
+      replay = null;
+      for (final String[] c : changes) {
+        if (c.length == 2) add(c[0],c[1]);
+        else removeTree(c[0]);
+      }
+    }
+
+    // Drop directories deleted while we weren't listening.  Batched into read actions so we can't race with VFS events.
+    final VirtualFileManager vfm = VirtualFileManager.getInstance();
+    final List<String> urls;
+    synchronized (this) {
+      urls = new ArrayList<String>(dirs.keySet());
+    }
+    final int[] dead = {0};
+    for (int i=0;i<urls.size();i+=1000) {
+      final List<String> batch = urls.subList(i,Math.min(urls.size(),i+1000));
+      ApplicationManager.getApplication().runReadAction(new Runnable() {
+        @Override public void run() {
+          for (final String url : batch) {
+            final VirtualFile f = vfm.findFileByUrl(url);
+            if (f == null || !f.isValid() || !f.isDirectory()) {
+              removeTree(url);
+              dead[0]++;
+            }
+          }
+        }
+      });
+    }
+
+    // Find source directories created while we weren't listening
+    final VirtualFile[] sources = ApplicationManager.getApplication().runReadAction(new Computable<VirtualFile[]>() {
+      @Override public VirtualFile[] compute() {
+        return ProjectRootManager.getInstance(project).getContentSourceRoots();
+      }
+    });
+    for (final VirtualFile root : sources)
+      addTree(root);
+    log("package index: dropped " + dead[0] + " missing directories, rescanning " + sources.length + " source roots");
+    return true;
+  }
+
+  // Load a saved index if it was made for the given roots.  Must hold the lock.
+  private boolean load(final String fp) {
+    final File file = file();
+    if (!file.exists())
+      return false;
+    try {
+      final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      try {
+        if (in.readInt() != format || !in.readUTF().equals(fp))
+          return false;
+        final int n = in.readInt();
+        for (int i=0;i<n;i++) {
+          final String url = in.readUTF();
+          add(url,in.readUTF());
+        }
+      } finally { in.close(); }
+    } catch (IOException e) {
+      log("package index: couldn't read " + file + ": " + e);
+      dirs.clear();
+      counts.clear();
+      toQualified.clear();
+      return false;
+    }
+    fingerprint = fp;
+    log("package index: loaded " + dirs.size() + " directories, " + counts.size() + " packages");
+    return true;
+  }
+
+  private synchronized void save() {
+    if (fingerprint == null)
+      return;
+    final File file = file();
+    try {
+      file.getParentFile().mkdirs();
+      // Write to a temporary file first, so a crash never leaves a truncated index behind
+      final File tmp = new File(file.getPath() + ".tmp");
+      final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+      try {
+        out.writeInt(format);
+        out.writeUTF(fingerprint);
+        out.writeInt(dirs.size());
+        for (final Map.Entry<String,String> d : dirs.entrySet()) {
+          out.writeUTF(d.getKey());
+          out.writeUTF(d.getValue());
+        }
+      } finally { out.close(); }
+      if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file)))
+        log("package index: couldn't rename " + tmp + " to " + file);
+    } catch (IOException e) {
+      log("package index: couldn't write " + file + ": " + e);
+    }
+  }
 }
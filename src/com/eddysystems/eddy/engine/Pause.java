@@ -40,11 +40,11 @@ public class Pause {
   // Must be called once for each call to pause()
   public void unpause() {
     synchronized (pauseLock) {
-      // Decrement the pauses counter and notify if we hit zero.
+      // Decrement the pauses counter and wake everyone if we hit zero.  Several update threads may be waiting.
       assert pauses > 0;
       pauses--;
       if (pauses == 0)
-        pauseLock.notify();
+        pauseLock.notifyAll();
     }
   }
 }
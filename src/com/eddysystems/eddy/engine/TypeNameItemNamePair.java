@@ -7,13 +7,19 @@ import org.jetbrains.annotations.NotNull;
 public class TypeNameItemNamePair {
   @NotNull final public String type;
   @NotNull final public String item;
+  final public boolean removed; // true if item no longer has this type
 
   public String toString() {
-    return type + ' ' + item;
+    return (removed ? "-" : "") + type + ' ' + item;
   }
 
   TypeNameItemNamePair(String type, String item) {
+    this(type,item,false);
+  }
+
+  TypeNameItemNamePair(String type, String item, boolean removed) {
     this.type = type;
     this.item = item;
+    this.removed = removed;
   }
 }
@@ -18,6 +18,55 @@ object ArgMatching {
   type Exps = List[Scored[Exp]]
   private implicit val showFlags = abbrevShowFlags
 
+  // Run-scoped memo of resolveOption for generic callables, including failures.  The same (signature,
+  // argument type prefix, expected type) queries recur across the alternatives of the surrounding search.
+  // Resolution depends only on types, so Tarski.fixTake installs a fresh table per run (withRun) on the current thread,
+  // and forcing the run's Scored on that thread reuses it.  hits and inferences count the work saved.
+  // Misses go through one Inference.Prefixes per list of type parameters, so resolving a longer prefix
+  // of the same call backs up along its trail instead of starting over.
+  final class ResolveMemo {
+    private case class Key(tparams: List[TypeVar], params: List[Type], result: Type, ts: List[Type], expects: Option[Type])
+    private val table = new java.util.HashMap[Key,Option[List[TypeArg]]]
+    private val prefixes = new java.util.HashMap[List[TypeVar],Inference.Prefixes]
+    var hits = 0
+    var inferences = 0
+    def apply(f: Signature, ts: List[Type], expects: Option[Type]): Option[List[TypeArg]] = {
+      val k = Key(f.tparams,f.params.slice(0,ts.size),if (expects.isDefined) f.result else null,ts,expects)
+      val r = table.get(k)
+      if (r != null) { hits += 1; r }
+      else {
+        inferences += 1
+        var p = prefixes.get(f.tparams)
+        if (p == null) {
+          p = new Inference.Prefixes(f.tparams,Inference.looseBounds) // resolveOption uses loose bounds
+          prefixes.put(f.tparams,p)
+        }
+        val r = resolvePrefix(p,f,ts,expects)
+        table.put(k,r)
+        r
+      }
+    }
+    def size: Int = table.size
+    override def toString = s"resolve memo: $hits hits, $inferences inferences, $size entries"
+  }
+  private val memos = new ThreadLocal[ResolveMemo]
+  def runMemo: ResolveMemo = memos.get
+
+  // Run f with a fresh memo for this thread, dropping it afterwards even if f throws (interrupts do)
+  def withRun[A](f: => A): A = {
+    val prev = memos.get
+    memos.set(new ResolveMemo)
+    try f
+    finally if (prev == null) memos.remove() else memos.set(prev)
+  }
+
+  // resolveOption, through the run's memo if any.  Nongeneric callables skip inference, so they aren't worth caching.
+  def resolveCall(f: Signature, ts: List[Type], expects: Option[Type]): Option[List[TypeArg]] = {
+    val m = memos.get
+    if (m == null || f.tparams.isEmpty) resolveOption(f,ts,expects)
+    else m(f,ts,expects)
+  }
+
   // A continuation for fiddleCall that requires all arguments to be used.
   def useAll(e: Exp, unused: Exps)(implicit env: Env): Scored[Exp] = unused match {
     case Nil => known(e)
@@ -55,7 +104,7 @@ object ArgMatching {
           def processNext(args: List[Exp], xs: List[Scored[Exp]]) = {
             val tys = args map (_.ty)
             val effectiveExpects = if (checkExpectedEarly || xs.isEmpty) expects else None
-            resolveOption(f,tys,effectiveExpects) match {
+            resolveCall(f,tys,effectiveExpects) match {
               case None => fail(s"Can't apply ${show(f)}: ${f.params} to prefix ${tys mkString ", "}")
               case Some(ts) => process(k+1,ts,args,xs)
             }
@@ -73,7 +122,7 @@ object ArgMatching {
             def checkArrays(ctype: Type): Scored[A] = {
               val singleton = ArrayExp(x.r.before,ctype,x.r.before,List(x),SGroup(x.r.before,x.r.after))
               val args = used :+ singleton
-              if (looseCompatible(f,args map (_.ty),effectiveExpects).isEmpty) Empty
+              if (resolveCall(f,args map (_.ty),effectiveExpects).isEmpty) Empty
               else {
                 val singletonArray = biased(if (variadicParam) Pr.reasonable else Pr.convertToArray, processNext(args,revAppend(prev,next)))
 
@@ -91,7 +140,7 @@ object ArgMatching {
                           case cty:Type => cty
                         }
                         val effectiveExpects = if (checkExpectedEarly || prev.isEmpty && next.isEmpty) expects else None
-                        if (looseCompatible(f,usedtys:+ArrayType(ty),effectiveExpects).isEmpty) Empty
+                        if (resolveCall(f,usedtys:+ArrayType(ty),effectiveExpects).isEmpty) Empty
                         else {
                           val array = ArrayExp(lastArray.nr,ty,lastArray.tr,lastArray.i :+ x,SGroup(lastArray.a.l,x.r.after))
                           // if we have to resort to making Object[], penalize some more
@@ -147,7 +196,7 @@ object ArgMatching {
     }
     def processNullary: Scored[A] = // Special case nullary functions to make sure we do at least one inference round
       if (f.tparams.size == 0) cont(makeApply(f,Nil,a,auto),args)
-      else resolveOption(f,Nil,if (args.isEmpty) expects else None) match {
+      else resolveCall(f,Nil,if (args.isEmpty) expects else None) match {
         case None => fail(s"Can't apply $f to no arguments")
         case Some(ts) => cont(makeApply(Denotations.uncheckedAddTypeArgs(f,ts,a,hide=true),Nil,a,auto),args)
       }
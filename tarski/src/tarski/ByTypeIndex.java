@@ -0,0 +1,223 @@
+/* ByTypeIndex: Compact map from type names to member names
+ *
+ * The byItem maps send each type (and every supertype) to the names of public fields or methods
+ * of that type.  Stored as Map<String,Set<String>>, each member name is repeated once per
+ * supertype in its own hash set.  ByTypeIndex interns type and member names into sorted string
+ * pools and stores the relation in compressed sparse row form: the members of type t have ids
+ * targets[offsets[t]] ... targets[offsets[t+1]-1], sorted, with declaration counts alongside.
+ *
+ * Immutable once built, and therefore thread safe.  Use Builder to make one, or read one
+ * written earlier with write.
+ */
+
+package tarski;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+public final class ByTypeIndex {
+  private final String[] types; // Sorted
+  private final String[] names; // Sorted
+  private final int[] offsets;  // types.length+1 row starts into targets
+  private final int[] targets;  // Name ids, sorted within each row
+  private final int[] counts;   // Declaration counts, parallel to targets
+
+  public static final ByTypeIndex empty = new Builder().build();
+
+  private ByTypeIndex(final String[] types, final String[] names, final int[] offsets, final int[] targets, final int[] counts) {
+    this.types = types;
+    this.names = names;
+    this.offsets = offsets;
+    this.targets = targets;
+    this.counts = counts;
+  }
+
+  public int types() { return types.length; }
+  public int edges() { return targets.length; }
+
+  // Bytes used by the arrays, not counting the pooled strings themselves
+  public long arrayBytes() {
+    return 4L*(types.length+names.length+offsets.length+targets.length+counts.length);
+  }
+
+  // Number of declarations of name with the given type (or a subtype), 0 if none
+  public int count(final String type, final String name) {
+    final int t = Arrays.binarySearch(types,type);
+    if (t < 0)
+      return 0;
+    final int n = Arrays.binarySearch(names,name);
+    if (n < 0)
+      return 0;
+    final int i = Arrays.binarySearch(targets,offsets[t],offsets[t+1],n);
+    return i < 0 ? 0 : counts[i];
+  }
+
+  // Names of members of the given type, or null if there are none
+  public String[] get(final String type) {
+    final int t = Arrays.binarySearch(types,type);
+    if (t < 0)
+      return null;
+    final int lo = offsets[t], hi = offsets[t+1];
+    final String[] ns = new String[hi-lo];
+    for (int i=lo;i<hi;i++)
+      ns[i-lo] = names[targets[i]];
+    return ns;
+  }
+
+  // Serialization.  Bump format whenever the layout changes.
+  static final int format = 1;
+
+  public void write(final DataOutputStream out) throws IOException {
+    out.writeInt(format);
+    writeStrings(out,types);
+    writeStrings(out,names);
+    writeInts(out,offsets);
+    writeInts(out,targets);
+    writeInts(out,counts);
+  }
+
+  // Anything read is checked to be an index Builder could have made, so a corrupt file throws IOException
+  // here rather than something worse later on.
+  public static ByTypeIndex read(final DataInputStream in) throws IOException {
+    final int f = in.readInt();
+    if (f != format)
+      throw new IOException("ByTypeIndex: expected format "+format+", got "+f);
+    final String[] types = readStrings(in), names = readStrings(in);
+    final int[] offsets = readInts(in), targets = readInts(in), counts = readInts(in);
+    if (offsets.length != types.length+1 || counts.length != targets.length)
+      throw new IOException("ByTypeIndex: inconsistent sizes");
+    checkSorted(types);
+    checkSorted(names);
+    if (offsets[0] != 0 || offsets[types.length] != targets.length)
+      throw new IOException("ByTypeIndex: bad row offsets");
+    for (int t=0;t<types.length;t++) {
+      final int lo = offsets[t], hi = offsets[t+1];
+      if (lo > hi)
+        throw new IOException("ByTypeIndex: bad row offsets");
+      for (int i=lo;i<hi;i++)
+        if (targets[i] < 0 || targets[i] >= names.length || i > lo && targets[i] <= targets[i-1] || counts[i] <= 0)
+          throw new IOException("ByTypeIndex: bad entry in row "+t);
+    }
+    return new ByTypeIndex(types,names,offsets,targets,counts);
+  }
+
+  private static void checkSorted(final String[] xs) throws IOException {
+    for (int i=1;i<xs.length;i++)
+      if (xs[i-1].compareTo(xs[i]) >= 0)
+        throw new IOException("ByTypeIndex: string pool out of order");
+  }
+
+  private static void writeStrings(final DataOutputStream out, final String[] xs) throws IOException {
+    out.writeInt(xs.length);
+    for (final String x : xs)
+      out.writeUTF(x);
+  }
+  private static void writeInts(final DataOutputStream out, final int[] xs) throws IOException {
+    out.writeInt(xs.length);
+    for (final int x : xs)
+      out.writeInt(x);
+  }
+  // Lengths come from disk, so arrays grow as data actually arrives: a bogus length hits EOF instead of running out of memory
+  private static final int chunk = 1<<16;
+  private static int readLength(final DataInputStream in) throws IOException {
+    final int n = in.readInt();
+    if (n < 0)
+      throw new IOException("ByTypeIndex: negative length "+n);
+    return n;
+  }
+  private static String[] readStrings(final DataInputStream in) throws IOException {
+    final int n = readLength(in);
+    String[] xs = new String[Math.min(n,chunk)];
+    for (int i=0;i<n;i++) {
+      if (i == xs.length)
+        xs = Arrays.copyOf(xs,(int)Math.min(n,2L*xs.length));
+      xs[i] = in.readUTF();
+    }
+    return xs;
+  }
+  private static int[] readInts(final DataInputStream in) throws IOException {
+    final int n = readLength(in);
+    int[] xs = new int[Math.min(n,chunk)];
+    for (int i=0;i<n;i++) {
+      if (i == xs.length)
+        xs = Arrays.copyOf(xs,(int)Math.min(n,2L*xs.length));
+      xs[i] = in.readInt();
+    }
+    return xs;
+  }
+
+  public static final class Builder {
+    private final Map<String,Map<String,int[]>> rows = new HashMap<String,Map<String,int[]>>();
+
+    // Add count declarations of name to type.  Counts may be negative, as long as the totals aren't.
+    public void add(final String type, final String name, final int count) {
+      Map<String,int[]> row = rows.get(type);
+      if (row == null) {
+        row = new HashMap<String,int[]>();
+        rows.put(type,row);
+      }
+      final int[] c = row.get(name);
+      if (c == null) row.put(name,new int[]{count});
+      else c[0] += count;
+    }
+
+    public void add(final Builder b) {
+      for (final Map.Entry<String,Map<String,int[]>> row : b.rows.entrySet())
+        for (final Map.Entry<String,int[]> e : row.getValue().entrySet())
+          add(row.getKey(),e.getKey(),e.getValue()[0]);
+    }
+
+    public void add(final ByTypeIndex x) {
+      for (int t=0;t<x.types.length;t++)
+        for (int i=x.offsets[t];i<x.offsets[t+1];i++)
+          add(x.types[t],x.names[x.targets[i]],x.counts[i]);
+    }
+
+    public ByTypeIndex build() {
+      // Intern names, dropping entries with nonpositive counts
+      final SortedSet<String> nameSet = new TreeSet<String>();
+      final SortedMap<String,Map<String,int[]>> live = new TreeMap<String,Map<String,int[]>>();
+      for (final Map.Entry<String,Map<String,int[]>> row : rows.entrySet()) {
+        boolean any = false;
+        for (final Map.Entry<String,int[]> e : row.getValue().entrySet())
+          if (e.getValue()[0] > 0) {
+            nameSet.add(e.getKey());
+            any = true;
+          }
+        if (any)
+          live.put(row.getKey(),row.getValue());
+      }
+      final String[] names = nameSet.toArray(new String[nameSet.size()]);
+      final Map<String,Integer> ids = new HashMap<String,Integer>(2*names.length);
+      for (int n=0;n<names.length;n++)
+        ids.put(names[n],n);
+
+      // Fill in rows
+      final String[] types = live.keySet().toArray(new String[live.size()]);
+      final int[] offsets = new int[types.length+1];
+      int edges = 0;
+      for (int t=0;t<types.length;t++) {
+        offsets[t] = edges;
+        for (final int[] c : live.get(types[t]).values())
+          if (c[0] > 0)
+            edges++;
+      }
+      offsets[types.length] = edges;
+      final int[] targets = new int[edges];
+      final int[] counts = new int[edges];
+      for (int t=0;t<types.length;t++) {
+        final Map<String,int[]> row = live.get(types[t]);
+        int i = offsets[t];
+        for (final Map.Entry<String,int[]> e : row.entrySet())
+          if (e.getValue()[0] > 0)
+            targets[i++] = ids.get(e.getKey());
+        Arrays.sort(targets,offsets[t],offsets[t+1]);
+        for (i=offsets[t];i<offsets[t+1];i++)
+          counts[i] = row.get(names[targets[i]])[0];
+      }
+      return new ByTypeIndex(types,names,offsets,targets,counts);
+    }
+  }
+}
@@ -3,15 +3,16 @@
  * These flags should be turned on only for debugging purposes, then
  * turning off before commit.
  *
- * Except for nullaryMethods, that is, which we will hopefully be able
- * to turn on permanently after some speed improvements.
+ * Except for nullaryMethods, which is on: project methods are found through
+ * a return type index, and its cost is measured on the engine side by
+ * ByItemBench and on the plugin side by Tests.testByItemBench.
  */
 
 package tarski;
 
 public class Flags {
-  // Include nullary methods in byItem lookups.  Currently too slow to enable by default.
-  public static final boolean nullaryMethods = false;
+  // Include nullary methods in byItem lookups
+  public static final boolean nullaryMethods = true;
 
   // If true, failure causes are tracked via Bad.  If false, only Empty and Best are used.
   public static final boolean trackErrors = false;
@@ -9,51 +9,45 @@
  * We use a trie so that if a.b.c is imported somewhere and we look up
  * a.b.c.d.e somewhere else, we can base probabilities on the fact that
  * 3 components were imported but not the last two.
+ *
+ * ImportTrie is immutable, and therefore safe to share between threads.  Name
+ * components are interned to ids, and node i's children are the nodes
+ * kidNodes[kidStart[i]] ... kidNodes[kidStart[i+1]-1], sorted by component id.
+ * Use Builder to make one, or Files to keep one up to date as files change.
  */
 
 package tarski;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 import tarski.Items.*;
 
 public final class ImportTrie {
-  private static final class Node {
-    int count = 0;
-    int wilds = 0;
-    Map<String,Node> kids = null;
-
-    Node add(final String name) {
-      if (kids == null)
-        kids = new HashMap<String,Node>();
-      Node n = kids.get(name);
-      if (n == null) {
-        n = new Node();
-        kids.put(name,n);
-      }
-      n.count++;
-      return n;
-    }
-  }
-  private final Node root = new Node();
-
-  // Add a qualified name representing an import
-  public void add(final String qual) {
-    final String[] names = qual.split("\\.");
-    Node n = root;
-    for (final String name : names) {
-      if (name.equals("*"))
-        n.wilds++;
-      else
-        n = n.add(name);
-    }
+  private final Map<String,Integer> ids; // Interned name components
+  private final int[] kidStart; // nodes+1 offsets into kidIds and kidNodes.  Node 0 is the root.
+  private final int[] kidIds;   // Component ids, sorted within each node
+  private final int[] kidNodes;
+  private final int[] counts;   // Imports passing through each node
+  private final int[] wilds;    // Wildcard imports of each node
+
+  private ImportTrie(final Map<String,Integer> ids, final int[] kidStart, final int[] kidIds, final int[] kidNodes,
+                     final int[] counts, final int[] wilds) {
+    this.ids = ids;
+    this.kidStart = kidStart;
+    this.kidIds = kidIds;
+    this.kidNodes = kidNodes;
+    this.counts = counts;
+    this.wilds = wilds;
   }
 
-  // Standard imports
-  public void addDefaults() {
-    add("java.lang.*");
-    add("java.lang.System.out");
-    add("java.lang.Math");
+  public int nodes() { return counts.length; }
+
+  // Child of node with the given name, or -1 if none
+  private int kid(final int node, final String name) {
+    final Integer id = ids.get(name);
+    if (id == null)
+      return -1;
+    final int i = Arrays.binarySearch(kidIds,kidStart[node],kidStart[node+1],id);
+    return i < 0 ? -1 : kidNodes[i];
   }
 
   // Pack and unpack info values
@@ -63,9 +57,9 @@ public final class ImportTrie {
 
   // (n0<<32)|n1, where n0 is the length of item.qualified and n1 is the size of the imported prefix.
   // 0 for anonymous items (which cannot be imported).  The last skip components of the name are ignored.
-  // WARNING: Not thread safe
   public final long info(Item item, final int skip) {
     // Collect names making up the qualified name, in reverse order
+    final String[] stack = workspace.get();
     int count = 0;
     for (int i=0;i<stack.length;i++) {
       stack[count++] = item.name();
@@ -81,20 +75,218 @@ public final class ImportTrie {
     final int size = count-skip;
 
     // Count how many levels of the qualified name were imported somewhere
-    Node node = root;
+    int node = 0;
     for (int k=count-1;k>=skip;k--) {
-      if (node.kids != null) {
-        final Node next = node.kids.get(stack[k]);
-        if (next != null) {
-          node = next;
+      final int next = kid(node,stack[k]);
+      if (next >= 0) {
+        node = next;
+        continue;
+      }
+      return pack(size,count-k-1+(wilds[node]!=0?1:0));
+    }
+    return pack(size,size);
+  }
+
+  // Per-thread workspace for info()
+  private static final ThreadLocal<String[]> workspace = new ThreadLocal<String[]>() {
+    @Override protected String[] initialValue() { return new String[100]; }
+  };
+
+  // Import counts by qualified name, which may go up and down before building
+  public static final class Builder {
+    private final Map<String,int[]> quals = new HashMap<String,int[]>();
+
+    // Add a qualified name representing an import
+    public void add(final String qual) { add(qual,1); }
+
+    // Add count imports of qual.  Counts may be negative, as long as the totals aren't.
+    public void add(final String qual, final int count) {
+      final int[] c = quals.get(qual);
+      if (c == null) quals.put(qual,new int[]{count});
+      else if ((c[0] += count) == 0) quals.remove(qual);
+    }
+
+    // A copy which can be built while this one keeps changing
+    public Builder copy() {
+      final Builder b = new Builder();
+      for (final Map.Entry<String,int[]> e : quals.entrySet())
+        b.quals.put(e.getKey(),new int[]{e.getValue()[0]});
+      return b;
+    }
+
+    // Standard imports
+    public void addDefaults() {
+      add("java.lang.*");
+      add("java.lang.System.out");
+      add("java.lang.Math");
+    }
+
+    private static final class Node {
+      int count = 0;
+      int wilds = 0;
+      int index;
+      TreeMap<Integer,Node> kids = null;
+
+      Node add(final int id, final int count) {
+        if (kids == null)
+          kids = new TreeMap<Integer,Node>();
+        Node n = kids.get(id);
+        if (n == null) {
+          n = new Node();
+          kids.put(id,n);
+        }
+        n.count += count;
+        return n;
+      }
+    }
+
+    public ImportTrie build() {
+      // Build a pointer trie over interned components
+      final Map<String,Integer> ids = new HashMap<String,Integer>();
+      final Node root = new Node();
+      int nodes = 1;
+      for (final Map.Entry<String,int[]> e : quals.entrySet()) {
+        final int count = e.getValue()[0];
+        if (count <= 0)
           continue;
+        Node n = root;
+        for (final String name : e.getKey().split("\\.")) {
+          if (name.equals("*"))
+            n.wilds += count;
+          else {
+            Integer id = ids.get(name);
+            if (id == null) {
+              id = ids.size();
+              ids.put(name,id);
+            }
+            if (n.kids == null || !n.kids.containsKey(id))
+              nodes++;
+            n = n.add(id,count);
+          }
         }
       }
-      return pack(size,count-k-1+(node.wilds!=0?1:0));
+
+      // Flatten in breadth first order
+      final Node[] order = new Node[nodes];
+      order[0] = root;
+      int next = 1;
+      for (int i=0;i<nodes;i++) {
+        order[i].index = i;
+        if (order[i].kids != null)
+          for (final Node k : order[i].kids.values())
+            order[next++] = k;
+      }
+      final int[] kidStart = new int[nodes+1];
+      final int[] kidIds = new int[nodes-1];
+      final int[] kidNodes = new int[nodes-1];
+      final int[] counts = new int[nodes];
+      final int[] wilds = new int[nodes];
+      int edges = 0;
+      for (int i=0;i<nodes;i++) {
+        final Node n = order[i];
+        kidStart[i] = edges;
+        counts[i] = n.count;
+        wilds[i] = n.wilds;
+        if (n.kids != null)
+          for (final Map.Entry<Integer,Node> k : n.kids.entrySet()) {
+            kidIds[edges] = k.getKey();
+            kidNodes[edges++] = k.getValue().index;
+          }
+      }
+      kidStart[nodes] = edges;
+      return new ImportTrie(ids,kidStart,kidIds,kidNodes,counts,wilds);
     }
-    return pack(size,size);
   }
 
-  // Private workspace for depth().  WARNING: Not thread safe.
-  private final String[] stack = new String[100];
+  // Imports of each file in a project, updated one file at a time.  Defaults are always included.
+  // Each file can carry a modification stamp, so callers can skip rereading files which haven't changed.
+  // This class is thread safe.  trie() rebuilds only if something has changed, and builds outside the
+  // lock, so updates never wait for a build.  Callers which can't afford a build, such as an eddy run
+  // after every keystroke, use latest() and leave the rebuild to another thread.
+  public static final class Files {
+    private final Map<String,String[]> files = new HashMap<String,String[]>();
+    private final Map<String,Long> stamps = new HashMap<String,Long>();
+    private final Builder counts = new Builder();
+    private long version = 0; // Bumped by every change to counts
+    private ImportTrie trie = null; // Built from counts as of trieVersion
+    private long trieVersion = -1;
+
+    public Files() {
+      counts.addDefaults();
+    }
+
+    // Set the imports of a file, replacing whatever it had before
+    public void update(final String file, final String[] quals) {
+      update(file,-1,quals);
+    }
+
+    // Same, remembering the file's modification stamp as of reading quals
+    public synchronized void update(final String file, final long stamp, final String[] quals) {
+      stamps.put(file,stamp);
+      final String[] old = files.put(file,quals);
+      if (old == null ? quals.length == 0 : Arrays.equals(old,quals))
+        return;
+      if (old != null)
+        for (final String q : old)
+          counts.add(q,-1);
+      for (final String q : quals)
+        counts.add(q,1);
+      version++;
+    }
+
+    // Forget a deleted file
+    public synchronized void remove(final String file) {
+      stamps.remove(file);
+      final String[] old = files.remove(file);
+      if (old != null) {
+        for (final String q : old)
+          counts.add(q,-1);
+        version++;
+      }
+    }
+
+    // Forget all files not in keep
+    public synchronized void retain(final Set<String> keep) {
+      final List<String> gone = new ArrayList<String>();
+      for (final String file : files.keySet())
+        if (!keep.contains(file))
+          gone.add(file);
+      for (final String file : gone)
+        remove(file);
+    }
+
+    // Stamp recorded by the last update of file, or -1 if unknown
+    public synchronized long stamp(final String file) {
+      final Long s = stamps.get(file);
+      return s == null ? -1 : s;
+    }
+
+    public synchronized int size() { return files.size(); }
+
+    // The current trie, building it if anything has changed
+    public ImportTrie trie() {
+      final Builder snap;
+      final long v;
+      synchronized (this) {
+        if (trieVersion == version)
+          return trie;
+        snap = counts.copy();
+        v = version;
+      }
+      final ImportTrie t = snap.build();
+      synchronized (this) {
+        if (v > trieVersion) {
+          trie = t;
+          trieVersion = v;
+        }
+      }
+      return t;
+    }
+
+    // The most recently built trie, which may miss recent updates, or null if none has been built
+    public synchronized ImportTrie latest() { return trie; }
+
+    // Have there been updates since the latest trie was built?
+    public synchronized boolean stale() { return trieVersion != version; }
+  }
 }
@@ -5,6 +5,11 @@
  * eddy could make use of fancier type inference, but we would still need a copy
  * of the native Java type inference algorithm to know what can be safely pretty
  * printed.
+ *
+ * Inference.Slow is the original version over immutable Map bounds.  It is kept as
+ * the specification; when checkInfer is on, every inference also runs Slow on the
+ * same captured arguments and throws if they disagree.  TestInfer and TestDen turn
+ * it on.
  */
 
 package tarski
@@ -17,6 +22,7 @@ import tarski.Tokens._
 import tarski.Flags.debugInfer
 import tarski.Environment.Env
 import scala.annotation.tailrec
+import scala.util.{Try,Success,Failure}
 import scala.language.implicitConversions
 
 object Inference {
@@ -27,7 +33,6 @@ object Inference {
 
   // Bounds: 18.1.3.  Each of these refers to an ambient type variable s
   type Var = TypeVar
-  type Bounds = Map[Var,Bound] // Failure is handled by throwing InferError
   sealed abstract class Bound
   case class Fixed(t: RefType) extends Bound // s == t
   case class Bounded(lo: Set[RefType], hi: Set[RefType]) extends Bound // lo <: s <: hi
@@ -37,7 +42,7 @@ object Inference {
   // Pretty printing support
   private implicit val emptyEnv = Env(Array())
   private implicit val r = SRange.unknown
-  implicit def prettyBounds(bs: Bounds): (Fixity,Tokens) = (HighestFix, Loc(IdentTok("Bounds"),r)
+  implicit def prettyStore(bs: Store): (Fixity,Tokens) = (HighestFix, Loc(IdentTok("Bounds"),r)
     :: Loc(LParenTok,r) :: commasApprox(bs.toList,r) ::: List(Loc(RParenTok,r)))
   implicit def prettyBound(vb: (Var,Bound)): (Fixity,Tokens) = (HighestFix, vb match {
     case (v,Fixed(t)) => tokens(v) ::: Loc(EqTok,r) :: tokens(t)
@@ -65,10 +70,52 @@ object Inference {
     throw InferError
   }
 
-  // Construct initial bounds for some type parameters
+  // Bounds for the variables being inferred, one slot per variable, updated in place.  Every update is
+  // logged on a trail, so undo(mark) restores the store as it was when mark was taken.  Failure is handled
+  // by throwing InferError.
   // TODO: Handle bounds on type parameters
-  def startBounds(vs: List[Var]): Bounds =
-    vs.map(v => (v,Bounded(Set(),Set(ObjectType)))).toMap
+  final class Store(val vs: Array[Var]) {
+    private val bounds = Array.fill[Bound](vs.length)(Bounded(Set(),Set(ObjectType)))
+    private var trailSlots = new Array[Int](16)
+    private var trailBounds = new Array[Bound](16)
+    private var trailSize = 0
+
+    // Calls have only a few type parameters, so a scan beats hashing.  TypeVars use reference equality.
+    def slot(v: Var): Int = {
+      var i = 0
+      while (i < vs.length) {
+        if (vs(i) eq v) return i
+        i += 1
+      }
+      -1
+    }
+    def size: Int = vs.length
+    def contains(v: Var): Boolean = slot(v) >= 0
+    def apply(v: Var): Bound = bounds(slot(v))
+    def bound(i: Int): Bound = bounds(i)
+    def update(v: Var, b: Bound): Unit = {
+      val i = slot(v)
+      if (trailSize == trailSlots.length) {
+        trailSlots = java.util.Arrays.copyOf(trailSlots,2*trailSize)
+        trailBounds = java.util.Arrays.copyOf(trailBounds,2*trailSize)
+      }
+      trailSlots(trailSize) = i
+      trailBounds(trailSize) = bounds(i)
+      trailSize += 1
+      bounds(i) = b
+    }
+
+    // Backtracking
+    def mark: Int = trailSize
+    def undo(mark: Int): Unit =
+      while (trailSize > mark) {
+        trailSize -= 1
+        bounds(trailSlots(trailSize)) = trailBounds(trailSize)
+        trailBounds(trailSize) = null
+      }
+
+    def toList: List[(Var,Bound)] = (vs.toList,bounds.toList).zipped.toList
+  }
 
   // TODO: Not sure what I'm actually supposed to do if occurs checks fail
   def occurs(s: Var, t: TypeArg): Boolean = t match {
@@ -84,13 +131,13 @@ object Inference {
   }
 
   // Is an inference variable fixed yet?
-  def isFixed(bs: Bounds, v: Var): Boolean = bs(v) match {
+  def isFixed(bs: Store, v: Var): Boolean = bs(v) match {
     case Fixed(_) => true
     case Bounded(_,_) => false
   }
 
   // All inference variables mentioned in a type
-  def vars(bs: Bounds, t: TypeArg): Set[Var] = t match {
+  def vars(bs: Store, t: TypeArg): Set[Var] = t match {
     case t:ClassType => t.args.toSet flatMap ((a: TypeArg) => vars(bs,a))
     case ArrayType(t) => t match {
       case t:RefType => vars(bs,t)
@@ -103,98 +150,92 @@ object Inference {
   }
 
   // Incorporate bounds: 18.3
-  def matchSupers(bs: Bounds, s: RefType, t: RefType): Bounds = {
+  def matchSupers(bs: Store, s: RefType, t: RefType): Unit = {
     val sg = supers(s).toList collect {case g:GenericType => g}
     val tg = supers(t).toList collect {case g:GenericType => g}
-    log(s"matchSupers: bs $bs, s $s, t $t, sg $sg, tg $tg")
-    forms(bs,sg)((bs,sg) => forms(bs,tg)((bs,tg) =>
+    log(s"matchSupers: bs ${show(bs)}, s $s, t $t, sg $sg, tg $tg")
+    for (sg <- sg; tg <- tg)
       if (sg.item == tg.item)
-        if (sg.parent == tg.parent) forms(bs,sg.args,tg.args)(equalForm)
+        if (sg.parent == tg.parent) forms(sg.args,tg.args)(equalForm(bs,_,_))
         else fail(s"matchSupers: parents don't match: s ${show(s)}, t ${show(t)}")
-      else bs))
   }
-  def incorporateSub(bs: Bounds, s: Var, t: RefType): Bounds = bs(s) match {
-    case Fixed(st) => if (isSubtype(st,t)) bs else subForm(bs,st,t)
+  def incorporateSub(bs: Store, s: Var, t: RefType): Unit = bs(s) match {
+    case Fixed(st) => if (!isSubtype(st,t)) subForm(bs,st,t)
     case Bounded(lo,hi) =>
       if (occurs(s,t)) throw new NotImplementedError("not sure what to do about occurs checks")
-      else if (hi contains t) bs
-      else {
-        log(s"incorporateSub: bs $bs, s $s, t $t")
-        val bs2 = bs+((s,Bounded(lo,hi+t)))
-        forms(forms(bs2,lo.toList)(subForm(_,_,t))
-                       ,hi.toList)(matchSupers(_,_,t))
+      else if (!hi.contains(t)) {
+        log(s"incorporateSub: bs ${show(bs)}, s $s, t $t")
+        bs(s) = Bounded(lo,hi+t)
+        lo foreach (subForm(bs,_,t))
+        hi foreach (matchSupers(bs,_,t))
       }
   }
-  def incorporateSub(bs: Bounds, s: RefType, t: Var): Bounds = bs(t) match {
-    case Fixed(tt) => if (isSubtype(s,tt)) bs else subForm(bs,s,tt)
+  def incorporateSub(bs: Store, s: RefType, t: Var): Unit = bs(t) match {
+    case Fixed(tt) => if (!isSubtype(s,tt)) subForm(bs,s,tt)
     case Bounded(lo,hi) =>
       if (occurs(t,s)) throw new NotImplementedError("not sure what to do about occurs checks")
-      else if (lo contains s) bs
-      else {
-        val bs2 = bs+((t,Bounded(lo+s,hi)))
-        forms(bs2,hi.toList)(subForm(_,s,_))
+      else if (!lo.contains(s)) {
+        bs(t) = Bounded(lo+s,hi)
+        hi foreach (subForm(bs,s,_))
       }
   }
-  def incorporateEqual(bs: Bounds, s: Var, t: RefType): Bounds = bs(s) match {
-    case Fixed(u) => if (t == u) bs else equalForm(bs,t,u)
+  def incorporateEqual(bs: Store, s: Var, t: RefType): Unit = bs(s) match {
+    case Fixed(u) => if (t != u) equalForm(bs,t,u)
     case Bounded(lo,hi) =>
       if (occurs(s,t))
         throw new NotImplementedError("not sure what to do about occurs checks")
       else {
         implicit val env = Map(s -> Some(t))
         log(s"incorporateEqual: fixing ${show(s)} = ${show(t)}")
-        val bs2 = bs+((s,Fixed(t)))
-        def sub(bs: Bounds, ub: (Var,Bound)): Bounds = {
-          val (u,b) = ub
-          b match {
-            case Fixed(v) => incorporateEqual(bs,u,v.substitute)
-            case Bounded(lo,hi) => forms(forms(bs,lo.toList)((bs,t) => incorporateSub(bs,t.substitute,u))
-                                                 ,hi.toList)((bs,t) => incorporateSub(bs,u,t.substitute))
-          }
+        bs(s) = Fixed(t)
+        bs.toList foreach {
+          case (u,Fixed(v)) => incorporateEqual(bs,u,v.substitute)
+          case (u,Bounded(ulo,uhi)) =>
+            ulo foreach (l => incorporateSub(bs,l.substitute,u))
+            uhi foreach (h => incorporateSub(bs,u,h.substitute))
         }
-        forms(forms(forms(bs2,bs2.toList)(sub)
-                             ,lo.toList)(subForm(_,_,t))
-                             ,hi.toList)(subForm(_,t,_))
+        lo foreach (subForm(bs,_,t))
+        hi foreach (subForm(bs,t,_))
       }
   }
 
   // Does t contain any inference variables?
-  def isProper(bs: Bounds, t: RefType): Boolean = t match {
+  def isProper(bs: Store, t: RefType): Boolean = t match {
     case t:ClassType => t.args.forall(isProper(bs,_)) && isProper(bs,t.parent)
     case ArrayType(t) => isProper(bs,t)
     case IntersectType(ts) => ts forall (isProper(bs,_))
     case v:TypeVar => !bs.contains(v)
     case NullType => true
   }
-  def isProper(bs: Bounds, t: Type): Boolean = t match {
+  def isProper(bs: Store, t: Type): Boolean = t match {
     case t:RefType => isProper(bs,t)
     case _:LangType => true
   }
-  def isProper(bs: Bounds, t: Parent): Boolean = t match {
+  def isProper(bs: Store, t: Parent): Boolean = t match {
     case _:SimpleParent => true
     case t:ClassType => t.args.forall(isProper(bs,_)) && isProper(bs,t.parent)
     case ArrayType(t) => isProper(bs,t)
   }
-  def isProper(bs: Bounds, t: TypeArg): Boolean = t match {
+  def isProper(bs: Store, t: TypeArg): Boolean = t match {
     case t:RefType => isProper(bs,t)
     case _:Wildcard => false
   }
 
   // Turn a compatibility constraint s -> t into bounds: 18.2.2
-  def compatForm(bs: Bounds, s: Type, t: Type): Bounds = {
+  def compatForm(bs: Store, s: Type, t: Type): Unit = {
     log(s"compatForm: bs ${show(bs)}, s ${show(s)}, t ${show(t)}, proper(s) ${isProper(bs,s)}, proper(t) ${isProper(bs,t)}")
-    if (isProper(bs,s) && isProper(bs,t))
-      if (looseInvokeContext(s,t)) bs else fail(s"compatForm: proper ${show(s)} -> ${show(t)} invalid")
-    else (s,t) match {
+    if (isProper(bs,s) && isProper(bs,t)) {
+      if (!looseInvokeContext(s,t)) fail(s"compatForm: proper ${show(s)} -> ${show(t)} invalid")
+    } else (s,t) match {
       case (VoidType,_)|(_,VoidType) => fail("compatForm: void invalid")
       case (s:PrimType,t) => compatForm(bs,s.box,t)
       case (s:RefType,t:PrimType) => equalForm(bs,s,t.box)
       case (s:RefType,t:RefType) =>
         // Complicated loop required to handle raw type cases (bullets 4 and 5 in 18.2.2)
-        @tailrec def loop(s: RefType, t: RefType): Bounds = (s,t) match {
+        @tailrec def loop(s: RefType, t: RefType): Unit = (s,t) match {
           case (ArrayType(s:RefType),ArrayType(t:RefType)) => loop(s,t)
           case (s,t:GenericType) => subItemType(s,t.item) match {
-            case Some(s:RawType) if s.parent == t.parent => bs
+            case Some(s:RawType) if s.parent == t.parent => ()
             case _ => subForm(bs,s,t)
           }
           case _ => subForm(bs,s,t)
@@ -204,43 +245,43 @@ object Inference {
   }
 
   // Turn a subtyping constraint s <: t into bounds: 18.2.3
-  def subForm(bs: Bounds, s: RefType, t: RefType): Bounds = {
+  def subForm(bs: Store, s: RefType, t: RefType): Unit = {
     log(s"subForm: bs ${show(bs)}, s ${show(s)}, t ${show(t)}")
-    if (isProper(bs,s) && isProper(bs,t))
-      if (isSubtype(s,t)) bs else fail(s"subForm: proper ${show(s)} !<: proper ${show(t)}")
-    else (s,t) match {
-      case (NullType,_) => bs
+    if (isProper(bs,s) && isProper(bs,t)) {
+      if (!isSubtype(s,t)) fail(s"subForm: proper ${show(s)} !<: proper ${show(t)}")
+    } else (s,t) match {
+      case (NullType,_) => ()
       case (_,NullType) => fail(s"subForm: ${show(s)} !<: nulltype")
       case (s:TypeVar,t) if bs contains s => incorporateSub(bs,s,t)
       case (s,t:TypeVar) if bs contains t => incorporateSub(bs,s,t)
       case (s,t:GenericType) => subItemType(s,t.item) match {
         case Some(ss:GenericType) =>
-          if (ss.parent == t.parent) forms(bs,ss.args,t.args)(containForm)
+          if (ss.parent == t.parent) forms(ss.args,t.args)(containForm(bs,_,_))
           else fail(s"subForm: ${show(s)} has item ${show(ss)} matching ${show(t)}, but parents don't match")
         case _ => fail(s"subForm: ${show(s)} has no super similar to ${show(t)}")
       }
       case (s,t:ClassType) => subItemType(s,t.item) match {
-        case Some(ss) if s == t => bs
+        case Some(ss) if s == t => ()
         case _ => fail(s"subForm: supers(${show(s)} lacks ${show(t)}")
       }
       case (s,ArrayType(t)) => s match {
         case ArrayType(s) => (s,t) match {
           case (s:RefType,t:RefType) => subForm(bs,s,t) // Java arrays are covariant, even though they shouldn't be
-          case _ => if (s == t) bs else fail(s"subForm: different primitive array types ${show(s)} and ${show(t)}")
+          case _ => if (s != t) fail(s"subForm: different primitive array types ${show(s)} and ${show(t)}")
         }
         case _ => fail(s"subForm: ${show(s)} is not an array type, ArrayType(${show(t)} is")
       }
       case (s,_:TypeVar) => s match {
-        case IntersectType(ss) if ss contains t => bs
+        case IntersectType(ss) if ss contains t => ()
         // TODO: Handle case where t has a lower bound
         case _ => fail(s"subForm: ${show(s)} does not contain ${show(t)}")
       }
-      case (s,IntersectType(ts)) => forms(bs,ts.toList)(subForm(_,s,_))
+      case (s,IntersectType(ts)) => ts foreach (subForm(bs,s,_))
     }
   }
 
   // Turn a containment constraint s <= t into bounds: 18.2.3 (second half)
-  def containForm(bs: Bounds, s: TypeArg, t: TypeArg): Bounds = {
+  def containForm(bs: Store, s: TypeArg, t: TypeArg): Unit = {
     log(s"containForm: bs ${show(bs)}, s ${show(s)}, t ${show(t)}")
     (s,t) match {
       case (s:RefType,   t:RefType) => equalForm(bs,s,t)
@@ -254,63 +295,59 @@ object Inference {
     }
   }
 
-  def equalForm(bs: Bounds, s: RefType, t: RefType): Bounds = {
+  def equalForm(bs: Store, s: RefType, t: RefType): Unit = {
     log(s"equalForm: bs ${show(bs)}, s ${show(s)}, t ${show(t)}")
-    if (isProper(bs,s) && isProper(bs,t))
-      if (s == t) bs else fail(s"equalForm: proper ${show(s)} != ${show(t)}")
-    else (s,t) match {
+    if (isProper(bs,s) && isProper(bs,t)) {
+      if (s != t) fail(s"equalForm: proper ${show(s)} != ${show(t)}")
+    } else (s,t) match {
       case (s:TypeVar,t) if bs contains s => incorporateEqual(bs,s,t)
       case (s,t:TypeVar) if bs contains t => incorporateEqual(bs,t,s)
       case (s:GenericType,t:GenericType) =>
-        if (s.item == t.item && s.parent == t.parent) forms(bs,s.args,t.args)(equalForm)
+        if (s.item == t.item && s.parent == t.parent) forms(s.args,t.args)(equalForm(bs,_,_))
         else fail(s"equalForm: class ${show(s.parent)}.${show(s.item)} != ${show(t.parent)}.${show(t.item)}")
       case (ArrayType(s),ArrayType(t)) => equalForm(bs,s,t)
       case _ => fail(s"equalForm: skipping ${show(s)}, ${show(t)}") // IntersectType intentionally skipped as per spec
     }
   }
-  def equalForm(bs: Bounds, s: Type, t: Type): Bounds = (s,t) match {
+  def equalForm(bs: Store, s: Type, t: Type): Unit = (s,t) match {
     case (s:RefType,t:RefType) => equalForm(bs,s,t)
-    case (s,t) => if (s == t) bs else fail(s"equalForm: nonref ${show(s)} != ${show(t)}")
+    case (s,t) => if (s != t) fail(s"equalForm: nonref ${show(s)} != ${show(t)}")
   }
-  def equalForm(bs: Bounds, s: TypeArg, t: TypeArg): Bounds = (s,t) match {
+  def equalForm(bs: Store, s: TypeArg, t: TypeArg): Unit = (s,t) match {
     case (s:RefType,t:RefType) => equalForm(bs,s,t)
     case (_:Wildcard,_)|(_,_:Wildcard) => impossible // Wildcards should have been eliminated before inference
   }
 
   // Resolution: 18.4
-  def resolve(bs: Bounds, vs: List[Var]): Bounds = {
+  def resolve(bs: Store, vs: List[Var]): Unit = {
     log(s"resolve: bs ${show(bs)}, vs ${shows(vs)}")
     // Determine dependencies, without ensuring reflexivity or transitivity
-    val depends = bs mapValues {
+    val depends = Array.tabulate(bs.size)(i => bs.bound(i) match {
       case Fixed(t) => vars(bs,t)
-      case Bounded(lo,hi) => (lo++hi).toSet.flatMap((t: RefType) => vars(bs,t)) // TODO: Respect capture constraints
-    }
+      case Bounded(lo,hi) => (lo++hi).flatMap((t: RefType) => vars(bs,t)) // TODO: Respect capture constraints
+    })
     // Iteratively resolve
-    def iterate(bs: Bounds, vs: List[Var]): Bounds = vs match {
-      case Nil => bs
-      case v::rest =>
-        // Generate a candidate set
-        def expand(vs: Set[Var], v: Var): Set[Var] =
-          if (vs.contains(v) || isFixed(bs,v)) vs
-          else depends(v).foldLeft(vs+v)(expand)
-        val alpha = expand(Set(),v)
-        // Add new bounds for each alpha.  We compute bounds via bs, not bs2; I believe this matches the spec.
-        def freeze(bs2: Bounds, a: Var): Bounds = bs(a) match {
-          case Fixed(_) => bs2
-          case Bounded(lo,hi) => incorporateEqual(bs2, a, lo.toList filter (isProper(bs,_)) match {
-            case lop@(_::_) => lub(lop)
-            // TODO: Handle throws bounds
-            case Nil => glb(hi.toList filter (isProper(bs,_)))
-          })
-        }
-        iterate(forms(bs,alpha.toList)(freeze),rest)
+    for (v <- vs) {
+      // Generate a candidate set
+      def expand(as: Set[Var], v: Var): Set[Var] =
+        if (as.contains(v) || isFixed(bs,v)) as
+        else depends(bs.slot(v)).foldLeft(as+v)(expand)
+      // Add new bounds for each alpha.  We compute bounds from before this round; I believe this matches the spec.
+      val alpha = expand(Set(),v).toList map (a => (a,bs(a)))
+      alpha foreach {
+        case (_,Fixed(_)) => ()
+        case (a,Bounded(lo,hi)) => incorporateEqual(bs, a, lo.toList filter (isProper(bs,_)) match {
+          case lop@(_::_) => lub(lop)
+          // TODO: Handle throws bounds
+          case Nil => glb(hi.toList filter (isProper(bs,_)))
+        })
       }
-    iterate(bs,vs)
+    }
   }
 
   // Extract proper types for inference variables
   // TODO: This probably needs to change for infinite types
-  def extract(bs: Bounds, ps: List[Var]): List[TypeArg] = {
+  def extract(bs: Store, ps: List[Var]): List[TypeArg] = {
     def cleanV(t: TypeVar): TypeArg =
       if (!t.isFresh) { assert(!bs.contains(t)); t }
       else if (t.lo == NullType) WildSub(t.hi)
@@ -350,37 +387,423 @@ object Inference {
     })
   }
 
-  // List combinators
-  @tailrec def forms[A](bs: Bounds, ts: List[A])(f: (Bounds,A) => Bounds): Bounds = ts match {
-    case Nil => bs
-    case t::ts => forms(f(bs,t),ts)(f)
-  }
-  @tailrec def forms[A,B](bs: Bounds, ss: List[A], ts: List[B])(f: (Bounds,A,B) => Bounds): Bounds = (ss,ts) match {
-    case (Nil,Nil) => bs
-    case (s::ss,t::ts) => forms(f(bs,s,t),ss,ts)(f)
+  // List combinator
+  @tailrec def forms[A,B](ss: List[A], ts: List[B])(f: (A,B) => Unit): Unit = (ss,ts) match {
+    case (Nil,Nil) => ()
+    case (s::ss,t::ts) => f(s,t); forms(ss,ts)(f)
     case _ => throw new RuntimeException("arity mismatch")
   }
 
   // Can type s be used in a type t context (loose or strict)?
   // TODO: Replace s with an expression to handle poly expressions
-  def strictBounds(bs: Bounds, s: Type, t: Type): Bounds = (s,t) match {
+  // These are vals so that Slow can find its own version of each.
+  type Form = (Store,Type,Type) => Unit
+  val strictBounds: Form = (bs,s,t) => (s,t) match {
     case (VoidType,_)|(_,VoidType) => fail(s"strictBounds: void")
     case (_:PrimType,_:RefType)|(_:RefType|_:PrimType,_:PrimType) => fail(s"strictBounds: prim vs. ref: $s, $t")
     case (s:RefType,t:RefType) => subForm(bs,s,t)
   }
-  def looseBounds(bs: Bounds, s: Type, t: Type): Bounds = compatForm(bs,s,t)
+  val looseBounds: Form = compatForm(_,_,_)
 
   // Given a function with type parameters ps and parameter types ts, called with argument types as,
   // is there a satisfying assignment?
   // TODO: Handle variable arity
   // TODO: We do not incorporate return type information as described in 18.5.2.
-  type Form = (Bounds,Type,Type) => Bounds
   def infer(ps: List[Var], ts: List[Type], as: List[Type])(form: Form): Option[List[TypeArg]] = {
     log(s"infer:\n  ps ${shows(ps)}\n  ts ${shows(ts)}\n  as ${shows(as)}")
     // TODO: Freshen variables ps to handle recursion correctly
-    val start = startBounds(ps)
-    log(s"start: ${show(start)}")
-    try Some(extract(resolve(forms(start,as map (_.captureAll),ts)(form),ps),ps))
-    catch { case InferError => None }
+    val cs = as map (_.captureAll)
+    checked(ps,ts,cs,form) {
+      val bs = new Store(ps.toArray)
+      try {
+        forms(cs,ts)(form(bs,_,_))
+        resolve(bs,ps)
+        Some(extract(bs,ps))
+      } catch { case InferError => None }
+    }
+  }
+
+  // Check every inference against Slow.  Tests turn this on; it is too slow for production.
+  @volatile var checkInfer = false
+
+  // Thrown if the two versions disagree.  An Error, so that code expecting unhandled cases doesn't swallow it.
+  class InferMismatch(s: String) extends AssertionError(s)
+
+  // Run f, and if checkInfer is on, also Slow on the same captured arguments cs, and complain if they disagree.
+  // Other exceptions (unhandled cases) must match in class.
+  private def checked(ps: List[Var], ts: List[Type], cs: => List[Type], form: Form)
+                     (f: => Option[List[TypeArg]]): Option[List[TypeArg]] =
+    if (!checkInfer) f
+    else {
+      val as = cs // Before f, which may capture more
+      val fast = Try(f)
+      val slow = Try(Slow.infer(ps,ts,as)(Slow.form(form)))
+      (fast,slow) match {
+        case (Success(x),Success(y)) if x == y => x
+        case (Failure(x),Failure(y)) if x.getClass == y.getClass => throw x
+        case _ => throw new InferMismatch(s"infer mismatch: ps ${shows(ps)}, ts ${shows(ts)}, as ${shows(as)}: store $fast, slow $slow")
+      }
+    }
+
+  // infer for a sequence of calls with growing argument lists, as fiddleCall makes while it tries each argument
+  // prefix of each overload.  Bounds for the constraints applied so far stay on one store, and each call backs
+  // up along the trail to the longest prefix it shares with the previous one, so a prefix only pays for its last
+  // argument.  Resolution is always undone afterwards.  The answers are exactly those of infer.  Not thread safe.
+  final class Prefixes(ps: List[Var], form: Form) {
+    private val bs = new Store(ps.toArray)
+    private val applied = new scala.collection.mutable.ArrayBuffer[(Type,Type)] // (argument,parameter) pairs
+    private val captured = new scala.collection.mutable.ArrayBuffer[Type] // The argument of each applied pair, captured
+    private val marks = new scala.collection.mutable.ArrayBuffer[Int] // bs.mark before each applied pair
+
+    def apply(ts: List[Type], as: List[Type]): Option[List[TypeArg]] = {
+      if (ts.size != as.size) throw new RuntimeException("arity mismatch")
+      val cs = (as,ts).zipped.toArray
+      var n = 0
+      while (n < applied.size && n < cs.length && applied(n) == cs(n)) n += 1
+      back(n)
+      val fresh = cs.drop(n) map (_._1.captureAll)
+      checked(ps,ts,captured.toList ::: fresh.toList,form) {
+        try {
+          var i = 0
+          while (i < fresh.length) {
+            push(cs(n+i),fresh(i))
+            i += 1
+          }
+          val m = bs.mark
+          try {
+            resolve(bs,ps)
+            Some(extract(bs,ps))
+          } finally bs.undo(m)
+        } catch { case InferError => None }
+      }
+    }
+
+    // Apply one constraint with its argument captured as a, leaving the store untouched if it fails
+    private def push(c: (Type,Type), a: Type): Unit = {
+      val m = bs.mark
+      try form(bs,a,c._2)
+      catch { case e:Throwable => bs.undo(m); throw e }
+      marks += m
+      applied += c
+      captured += a
+    }
+
+    private def back(n: Int): Unit =
+      if (n < applied.size) {
+        bs.undo(marks(n))
+        applied.reduceToSize(n)
+        captured.reduceToSize(n)
+        marks.reduceToSize(n)
+      }
+  }
+
+  // The original algorithm over immutable Map bounds, kept as the specification for the Store version above.
+  // Used only when checkInfer is on.
+  object Slow {
+    type Bounds = Map[Var,Bound] // Failure is handled by throwing InferError
+    type Form = (Bounds,Type,Type) => Bounds
+
+    implicit def prettyBounds(bs: Bounds): (Fixity,Tokens) = (HighestFix, Loc(IdentTok("Bounds"),r)
+      :: Loc(LParenTok,r) :: commasApprox(bs.toList,r) ::: List(Loc(RParenTok,r)))
+
+    // Construct initial bounds for some type parameters
+    def startBounds(vs: List[Var]): Bounds =
+      vs.map(v => (v,Bounded(Set(),Set(ObjectType)))).toMap
+
+    def isFixed(bs: Bounds, v: Var): Boolean = bs(v) match {
+      case Fixed(_) => true
+      case Bounded(_,_) => false
+    }
+
+    def vars(bs: Bounds, t: TypeArg): Set[Var] = t match {
+      case t:ClassType => t.args.toSet flatMap ((a: TypeArg) => vars(bs,a))
+      case ArrayType(t) => t match {
+        case t:RefType => vars(bs,t)
+        case _ => Set()
+      }
+      case IntersectType(ts) => ts flatMap (vars(bs,_))
+      case v:TypeVar => if (bs contains v) Set(v) else Set()
+      case t:Wildcard => vars(bs,t.t)
+      case NullType => Set()
+    }
+
+    // Incorporate bounds: 18.3
+    def matchSupers(bs: Bounds, s: RefType, t: RefType): Bounds = {
+      val sg = supers(s).toList collect {case g:GenericType => g}
+      val tg = supers(t).toList collect {case g:GenericType => g}
+      log(s"matchSupers: bs $bs, s $s, t $t, sg $sg, tg $tg")
+      forms(bs,sg)((bs,sg) => forms(bs,tg)((bs,tg) =>
+        if (sg.item == tg.item)
+          if (sg.parent == tg.parent) forms(bs,sg.args,tg.args)(equalForm)
+          else fail(s"matchSupers: parents don't match: s ${show(s)}, t ${show(t)}")
+        else bs))
+    }
+    def incorporateSub(bs: Bounds, s: Var, t: RefType): Bounds = bs(s) match {
+      case Fixed(st) => if (isSubtype(st,t)) bs else subForm(bs,st,t)
+      case Bounded(lo,hi) =>
+        if (occurs(s,t)) throw new NotImplementedError("not sure what to do about occurs checks")
+        else if (hi contains t) bs
+        else {
+          log(s"incorporateSub: bs $bs, s $s, t $t")
+          val bs2 = bs+((s,Bounded(lo,hi+t)))
+          forms(forms(bs2,lo.toList)(subForm(_,_,t))
+                         ,hi.toList)(matchSupers(_,_,t))
+        }
+    }
+    def incorporateSub(bs: Bounds, s: RefType, t: Var): Bounds = bs(t) match {
+      case Fixed(tt) => if (isSubtype(s,tt)) bs else subForm(bs,s,tt)
+      case Bounded(lo,hi) =>
+        if (occurs(t,s)) throw new NotImplementedError("not sure what to do about occurs checks")
+        else if (lo contains s) bs
+        else {
+          val bs2 = bs+((t,Bounded(lo+s,hi)))
+          forms(bs2,hi.toList)(subForm(_,s,_))
+        }
+    }
+    def incorporateEqual(bs: Bounds, s: Var, t: RefType): Bounds = bs(s) match {
+      case Fixed(u) => if (t == u) bs else equalForm(bs,t,u)
+      case Bounded(lo,hi) =>
+        if (occurs(s,t))
+          throw new NotImplementedError("not sure what to do about occurs checks")
+        else {
+          implicit val env = Map(s -> Some(t))
+          log(s"incorporateEqual: fixing ${show(s)} = ${show(t)}")
+          val bs2 = bs+((s,Fixed(t)))
+          def sub(bs: Bounds, ub: (Var,Bound)): Bounds = {
+            val (u,b) = ub
+            b match {
+              case Fixed(v) => incorporateEqual(bs,u,v.substitute)
+              case Bounded(lo,hi) => forms(forms(bs,lo.toList)((bs,t) => incorporateSub(bs,t.substitute,u))
+                                                   ,hi.toList)((bs,t) => incorporateSub(bs,u,t.substitute))
+            }
+          }
+          forms(forms(forms(bs2,bs2.toList)(sub)
+                               ,lo.toList)(subForm(_,_,t))
+                               ,hi.toList)(subForm(_,t,_))
+        }
+    }
+
+    // Does t contain any inference variables?
+    def isProper(bs: Bounds, t: RefType): Boolean = t match {
+      case t:ClassType => t.args.forall(isProper(bs,_)) && isProper(bs,t.parent)
+      case ArrayType(t) => isProper(bs,t)
+      case IntersectType(ts) => ts forall (isProper(bs,_))
+      case v:TypeVar => !bs.contains(v)
+      case NullType => true
+    }
+    def isProper(bs: Bounds, t: Type): Boolean = t match {
+      case t:RefType => isProper(bs,t)
+      case _:LangType => true
+    }
+    def isProper(bs: Bounds, t: Parent): Boolean = t match {
+      case _:SimpleParent => true
+      case t:ClassType => t.args.forall(isProper(bs,_)) && isProper(bs,t.parent)
+      case ArrayType(t) => isProper(bs,t)
+    }
+    def isProper(bs: Bounds, t: TypeArg): Boolean = t match {
+      case t:RefType => isProper(bs,t)
+      case _:Wildcard => false
+    }
+
+    // Turn a compatibility constraint s -> t into bounds: 18.2.2
+    def compatForm(bs: Bounds, s: Type, t: Type): Bounds = {
+      log(s"compatForm: bs ${show(bs)}, s ${show(s)}, t ${show(t)}, proper(s) ${isProper(bs,s)}, proper(t) ${isProper(bs,t)}")
+      if (isProper(bs,s) && isProper(bs,t))
+        if (looseInvokeContext(s,t)) bs else fail(s"compatForm: proper ${show(s)} -> ${show(t)} invalid")
+      else (s,t) match {
+        case (VoidType,_)|(_,VoidType) => fail("compatForm: void invalid")
+        case (s:PrimType,t) => compatForm(bs,s.box,t)
+        case (s:RefType,t:PrimType) => equalForm(bs,s,t.box)
+        case (s:RefType,t:RefType) =>
+          // Complicated loop required to handle raw type cases (bullets 4 and 5 in 18.2.2)
+          @tailrec def loop(s: RefType, t: RefType): Bounds = (s,t) match {
+            case (ArrayType(s:RefType),ArrayType(t:RefType)) => loop(s,t)
+            case (s,t:GenericType) => subItemType(s,t.item) match {
+              case Some(s:RawType) if s.parent == t.parent => bs
+              case _ => subForm(bs,s,t)
+            }
+            case _ => subForm(bs,s,t)
+          }
+          loop(s,t)
+      }
+    }
+
+    // Turn a subtyping constraint s <: t into bounds: 18.2.3
+    def subForm(bs: Bounds, s: RefType, t: RefType): Bounds = {
+      log(s"subForm: bs ${show(bs)}, s ${show(s)}, t ${show(t)}")
+      if (isProper(bs,s) && isProper(bs,t))
+        if (isSubtype(s,t)) bs else fail(s"subForm: proper ${show(s)} !<: proper ${show(t)}")
+      else (s,t) match {
+        case (NullType,_) => bs
+        case (_,NullType) => fail(s"subForm: ${show(s)} !<: nulltype")
+        case (s:TypeVar,t) if bs contains s => incorporateSub(bs,s,t)
+        case (s,t:TypeVar) if bs contains t => incorporateSub(bs,s,t)
+        case (s,t:GenericType) => subItemType(s,t.item) match {
+          case Some(ss:GenericType) =>
+            if (ss.parent == t.parent) forms(bs,ss.args,t.args)(containForm)
+            else fail(s"subForm: ${show(s)} has item ${show(ss)} matching ${show(t)}, but parents don't match")
+          case _ => fail(s"subForm: ${show(s)} has no super similar to ${show(t)}")
+        }
+        case (s,t:ClassType) => subItemType(s,t.item) match {
+          case Some(ss) if s == t => bs
+          case _ => fail(s"subForm: supers(${show(s)} lacks ${show(t)}")
+        }
+        case (s,ArrayType(t)) => s match {
+          case ArrayType(s) => (s,t) match {
+            case (s:RefType,t:RefType) => subForm(bs,s,t) // Java arrays are covariant, even though they shouldn't be
+            case _ => if (s == t) bs else fail(s"subForm: different primitive array types ${show(s)} and ${show(t)}")
+          }
+          case _ => fail(s"subForm: ${show(s)} is not an array type, ArrayType(${show(t)} is")
+        }
+        case (s,_:TypeVar) => s match {
+          case IntersectType(ss) if ss contains t => bs
+          // TODO: Handle case where t has a lower bound
+          case _ => fail(s"subForm: ${show(s)} does not contain ${show(t)}")
+        }
+        case (s,IntersectType(ts)) => forms(bs,ts.toList)(subForm(_,s,_))
+      }
+    }
+
+    // Turn a containment constraint s <= t into bounds: 18.2.3 (second half)
+    def containForm(bs: Bounds, s: TypeArg, t: TypeArg): Bounds = {
+      log(s"containForm: bs ${show(bs)}, s ${show(s)}, t ${show(t)}")
+      (s,t) match {
+        case (s:RefType,   t:RefType) => equalForm(bs,s,t)
+        case (s:Wildcard,  t:RefType) => fail(s"Types do not contain wildcards: ${show(s)} !<= ${show(t)}")
+        case (s:RefType,   WildSub(t)) => subForm(bs,s,t)
+        case (WildSub(s),  WildSub(t)) => subForm(bs,s,t)
+        case (WildSuper(s),WildSub(t)) => equalForm(bs,ObjectType,t)
+        case (s:RefType,   WildSuper(t)) => subForm(bs,t,s)
+        case (WildSuper(s),WildSuper(t)) => subForm(bs,t,s)
+        case (WildSub(s),  WildSuper(t)) => fail(s"Incompatible wildcards: ${show(s)} !<= ${show(t)}")
+      }
+    }
+
+    def equalForm(bs: Bounds, s: RefType, t: RefType): Bounds = {
+      log(s"equalForm: bs ${show(bs)}, s ${show(s)}, t ${show(t)}")
+      if (isProper(bs,s) && isProper(bs,t))
+        if (s == t) bs else fail(s"equalForm: proper ${show(s)} != ${show(t)}")
+      else (s,t) match {
+        case (s:TypeVar,t) if bs contains s => incorporateEqual(bs,s,t)
+        case (s,t:TypeVar) if bs contains t => incorporateEqual(bs,t,s)
+        case (s:GenericType,t:GenericType) =>
+          if (s.item == t.item && s.parent == t.parent) forms(bs,s.args,t.args)(equalForm)
+          else fail(s"equalForm: class ${show(s.parent)}.${show(s.item)} != ${show(t.parent)}.${show(t.item)}")
+        case (ArrayType(s),ArrayType(t)) => equalForm(bs,s,t)
+        case _ => fail(s"equalForm: skipping ${show(s)}, ${show(t)}") // IntersectType intentionally skipped as per spec
+      }
+    }
+    def equalForm(bs: Bounds, s: Type, t: Type): Bounds = (s,t) match {
+      case (s:RefType,t:RefType) => equalForm(bs,s,t)
+      case (s,t) => if (s == t) bs else fail(s"equalForm: nonref ${show(s)} != ${show(t)}")
+    }
+    def equalForm(bs: Bounds, s: TypeArg, t: TypeArg): Bounds = (s,t) match {
+      case (s:RefType,t:RefType) => equalForm(bs,s,t)
+      case (_:Wildcard,_)|(_,_:Wildcard) => impossible // Wildcards should have been eliminated before inference
+    }
+
+    // Resolution: 18.4
+    def resolve(bs: Bounds, vs: List[Var]): Bounds = {
+      log(s"resolve: bs ${show(bs)}, vs ${shows(vs)}")
+      // Determine dependencies, without ensuring reflexivity or transitivity
+      val depends = bs mapValues {
+        case Fixed(t) => vars(bs,t)
+        case Bounded(lo,hi) => (lo++hi).toSet.flatMap((t: RefType) => vars(bs,t)) // TODO: Respect capture constraints
+      }
+      // Iteratively resolve
+      def iterate(bs: Bounds, vs: List[Var]): Bounds = vs match {
+        case Nil => bs
+        case v::rest =>
+          // Generate a candidate set
+          def expand(vs: Set[Var], v: Var): Set[Var] =
+            if (vs.contains(v) || isFixed(bs,v)) vs
+            else depends(v).foldLeft(vs+v)(expand)
+          val alpha = expand(Set(),v)
+          // Add new bounds for each alpha.  We compute bounds via bs, not bs2; I believe this matches the spec.
+          def freeze(bs2: Bounds, a: Var): Bounds = bs(a) match {
+            case Fixed(_) => bs2
+            case Bounded(lo,hi) => incorporateEqual(bs2, a, lo.toList filter (isProper(bs,_)) match {
+              case lop@(_::_) => lub(lop)
+              // TODO: Handle throws bounds
+              case Nil => glb(hi.toList filter (isProper(bs,_)))
+            })
+          }
+          iterate(forms(bs,alpha.toList)(freeze),rest)
+        }
+      iterate(bs,vs)
+    }
+
+    // Extract proper types for inference variables
+    def extract(bs: Bounds, ps: List[Var]): List[TypeArg] = {
+      def cleanV(t: TypeVar): TypeArg =
+        if (!t.isFresh) { assert(!bs.contains(t)); t }
+        else if (t.lo == NullType) WildSub(t.hi)
+        else if (t.hi == ObjectType) WildSuper(t.lo)
+        else WildSub()
+      def cleanR(t: RefType): TypeArg = t match {
+        case GenericType(c,ts,p) => GenericType(c,ts map cleanA,p)
+        case t:TypeVar => cleanV(t)
+        case IntersectType(ts) =>
+          @tailrec def loop(prev: List[RefType], next: List[TypeArg], wild: Boolean): TypeArg = next match {
+            case Nil =>
+              val int = IntersectType(prev.toSet)
+              if (wild) WildSub(int) else int
+            case (t:RefType)::ts => loop(t::prev,ts,wild)
+            case WildSub(t)::ts => loop(t::prev,ts,wild=true)
+            case WildSuper(t)::_ => WildSub()
+          }
+          loop(Nil,ts.toList map cleanR,wild=false)
+        case ArrayType(t) => t match {
+          case t:RefType => cleanR(t) match {
+            case t:RefType => ArrayType(t)
+            case WildSub(t) => WildSub(ArrayType(t))
+            case WildSuper(t) => WildSuper(ArrayType(t))
+          }
+          case t:LangType => ArrayType(t)
+        }
+        case NullType|ObjectType|_:RawType|_:SimpleType => t
+      }
+      def cleanA(t: TypeArg): TypeArg = t match {
+        case t:TypeVar => cleanV(t)
+        case t:RefType => cleanR(t)
+        case t:Wildcard => impossible
+      }
+      ps map (bs(_)) map {
+        case Fixed(t) => cleanR(t)
+        case Bounded(_,_) => throw new RuntimeException("can't extract unresolved inference variable")
+      }
+    }
+
+    // List combinators
+    @tailrec def forms[A](bs: Bounds, ts: List[A])(f: (Bounds,A) => Bounds): Bounds = ts match {
+      case Nil => bs
+      case t::ts => forms(f(bs,t),ts)(f)
+    }
+    @tailrec def forms[A,B](bs: Bounds, ss: List[A], ts: List[B])(f: (Bounds,A,B) => Bounds): Bounds = (ss,ts) match {
+      case (Nil,Nil) => bs
+      case (s::ss,t::ts) => forms(f(bs,s,t),ss,ts)(f)
+      case _ => throw new RuntimeException("arity mismatch")
+    }
+
+    def strictBounds(bs: Bounds, s: Type, t: Type): Bounds = (s,t) match {
+      case (VoidType,_)|(_,VoidType) => fail(s"strictBounds: void")
+      case (_:PrimType,_:RefType)|(_:RefType|_:PrimType,_:PrimType) => fail(s"strictBounds: prim vs. ref: $s, $t")
+      case (s:RefType,t:RefType) => subForm(bs,s,t)
+    }
+    def looseBounds(bs: Bounds, s: Type, t: Type): Bounds = compatForm(bs,s,t)
+
+    // The version of a Store form
+    def form(f: Inference.Form): Form =
+      if (f eq Inference.strictBounds) strictBounds
+      else if (f eq Inference.looseBounds) looseBounds
+      else throw new RuntimeException("no slow version of form")
+
+    // Arguments are already captured
+    def infer(ps: List[Var], ts: List[Type], as: List[Type])(form: Form): Option[List[TypeArg]] = {
+      val start = startBounds(ps)
+      log(s"start: ${show(start)}")
+      try Some(extract(resolve(forms(start,as,ts)(form),ps),ps))
+      catch { case InferError => None }
+    }
   }
 }
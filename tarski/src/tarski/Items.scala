@@ -164,6 +164,25 @@ object Items {
     def base: ClassType
     def supers: List[RefType]
 
+    // All transitive super items, so that isSubitem is a set lookup.  Items can outlive an environment, so
+    // whoever keeps them must drop any item whose knownSuperItems mention an item it drops (see ItemCache).
+    @volatile private[this] var _allSuperItems: Set[RefTypeItem] = null
+    def allSuperItems: Set[RefTypeItem] = {
+      var all = _allSuperItems
+      if (all == null) {
+        @tailrec def loop(work: List[RefTypeItem], seen: Set[RefTypeItem]): Set[RefTypeItem] = work match {
+          case Nil => seen
+          case t::ts => if (seen contains t) loop(ts,seen) else loop(t.superItems ::: ts,seen+t)
+        }
+        all = loop(superItems,Set.empty)
+        _allSuperItems = all
+      }
+      all
+    }
+
+    // allSuperItems if it has been computed, otherwise null
+    def knownSuperItems: Set[RefTypeItem] = _allSuperItems
+
     // Can we unbox to a primitive type?
     def unbox: Option[PrimType] = None
     def unboxNumeric: Option[NumType] = None
@@ -200,7 +219,7 @@ object Items {
       if (arity != args.size)
         throw new ArityMismatchException(name, arity, args)
       if (arity == 0) SimpleType(this,par)
-      else GenericType(this,args,par)
+      else intern(GenericType(this,args,par))
     }
 
     def generic(args: List[TypeArg]): ClassType = generic(args,if (isStatic) parent.raw else parent.simple)
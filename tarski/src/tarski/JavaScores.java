@@ -20,6 +20,7 @@ import scala.collection.immutable.Nil$;
 import scala.collection.Traversable;
 import scala.runtime.AbstractFunction1;
 import tarski.JavaTrie.Generator;
+import tarski.JavaTrie.Prefetcher;
 import tarski.Scores.*;
 import utility.Interrupts;
 
@@ -371,6 +372,19 @@ public class JavaScores {
     public GeneratorState(final Generator<A> gen, final Collection<Alt<String>> input) {
       this.gen = gen;
       this.heap = new PriorityQueue<Alt<String>>(input);
+      if (gen instanceof Prefetcher && input.size() > 1)
+        ((Prefetcher)gen).prefetch(top(heap,prefetchCount));
+    }
+
+    // Number of most likely candidates to hand to a Prefetcher
+    static final int prefetchCount = 8;
+
+    private static String[] top(final PriorityQueue<Alt<String>> heap, final int n) {
+      final PriorityQueue<Alt<String>> copy = new PriorityQueue<Alt<String>>(heap);
+      final String[] ss = new String[Math.min(n,copy.size())];
+      for (int i=0;i<ss.length;i++)
+        ss[i] = copy.poll().x();
+      return ss;
     }
 
     public double p() {
@@ -239,6 +239,11 @@ public class JavaTrie {
     public V[] lookup(final String s);
   }
 
+  // A Generator which can start on likely lookups early (e.g., on other threads), before they're asked for
+  public static interface Prefetcher {
+    public void prefetch(final String[] ss);
+  }
+
   // Find approximate matches for a string.  Exact matches are ignored.
   // We take char[] instead of String for typed to avoid string allocations (use _.toCharArray to convert)
   public static <V> Scored<V>
@@ -1,12 +1,14 @@
-/* Lexer: An extremely slow Java lexer
+/* Lexer: Java lexers independent of IntelliJ
  *
- * This lexer is used only for unit test purposes so allow us to interpret
- * strings without depending on IntelliJ.  As a consequence, it is extremely
- * slow: quadratic time in the length of the string.
+ * lex runs a DFA built once from the token regular expressions below, taking the
+ * longest match at each position with ties going to the earlier pattern.  It is a
+ * single pass over the input, so the tarski engine can lex whole files without
+ * depending on IntelliJ.  Backtracking happens only after an unterminated block
+ * comment, which rescans the comment body as ordinary tokens.
  *
- * All production use relies on the IntelliJ lexer for now.  The IntelliJ
- * lexer isn't very smart (e.g., it doesn't like mismatched quotes), so this
- * will need to be replaced at some point.
+ * slowLex is the original regex lexer: it tries every prefix of the remaining
+ * string against one big pattern, so it is quadratic time.  It is kept as the
+ * specification; TestParse.dfaLexer checks that the two agree on test-data.
  */
 
 package tarski
@@ -15,29 +17,31 @@ import java.util.regex.Pattern
 import utility.Locations._
 import utility.Utility._
 import tarski.Tokens._
+import scala.annotation.tailrec
+import scala.collection.mutable
 import scala.util.matching.Regex
 import scala.util.matching.Regex.Match
 
 object Lexer {
-  private val (pattern,factories): (Regex,List[(Int,String => Token)]) = {
-    // Fixed tokens
-    val fixed: List[SimpleToken] = List(
-      // Keywords
-      AbstractTok,AssertTok,BooleanTok,BreakTok,ByteTok,CaseTok,CatchTok,CharTok,ClassTok,ConstTok,ContinueTok,
-      DefaultTok,DoTok,DoubleTok,ElseTok,EnumTok,ExtendsTok,FinalTok,FinallyTok,FloatTok,ForTok,IfTok,GotoTok,
-      ImplementsTok,ImportTok,InstanceofTok,IntTok,InterfaceTok,LongTok,NativeTok,NewTok,PackageTok,PrivateTok,
-      ProtectedTok,PublicTok,ReturnTok,ShortTok,StaticTok,StrictfpTok,SuperTok,SwitchTok,SynchronizedTok,ThisTok,
-      ThrowTok,ThrowsTok,TransientTok,TryTok,VoidTok,VolatileTok,WhileTok,
-      // Literals and separators
-      NullTok,BoolLitTok(true),BoolLitTok(false),LParenTok,RParenTok,LCurlyTok,RCurlyTok,LBrackTok,
-      RBrackTok,SemiTok,CommaTok,DotTok,EllipsisTok,AtTok,ColonColonTok,
-      // Operators
-      EqTok,GtTok,LtTok,NotTok,CompTok,QuestionTok,ColonTok,ArrowTok,EqEqTok,GeTok,LeTok,NeTok,AndAndTok,OrOrTok,
-      PlusPlusTok,MinusMinusTok,PlusTok,MinusTok,MulTok,DivTok,AndTok,OrTok,XorTok,ModTok,LShiftTok,RShiftTok,
-      UnsignedRShiftTok,PlusEqTok,MinusEqTok,MulEqTok,DivEqTok,AndEqTok,OrEqTok,XorEqTok,ModEqTok,LShiftEqTok,
-      RShiftEqTok,UnsignedRShiftEqTok)
-    val fixedMap = fixed.map(t => (t.s,t)).toMap
+  // Fixed tokens
+  private val fixed: List[SimpleToken] = List(
+    // Keywords
+    AbstractTok,AssertTok,BooleanTok,BreakTok,ByteTok,CaseTok,CatchTok,CharTok,ClassTok,ConstTok,ContinueTok,
+    DefaultTok,DoTok,DoubleTok,ElseTok,EnumTok,ExtendsTok,FinalTok,FinallyTok,FloatTok,ForTok,IfTok,GotoTok,
+    ImplementsTok,ImportTok,InstanceofTok,IntTok,InterfaceTok,LongTok,NativeTok,NewTok,PackageTok,PrivateTok,
+    ProtectedTok,PublicTok,ReturnTok,ShortTok,StaticTok,StrictfpTok,SuperTok,SwitchTok,SynchronizedTok,ThisTok,
+    ThrowTok,ThrowsTok,TransientTok,TryTok,VoidTok,VolatileTok,WhileTok,
+    // Literals and separators
+    NullTok,BoolLitTok(true),BoolLitTok(false),LParenTok,RParenTok,LCurlyTok,RCurlyTok,LBrackTok,
+    RBrackTok,SemiTok,CommaTok,DotTok,EllipsisTok,AtTok,ColonColonTok,
+    // Operators
+    EqTok,GtTok,LtTok,NotTok,CompTok,QuestionTok,ColonTok,ArrowTok,EqEqTok,GeTok,LeTok,NeTok,AndAndTok,OrOrTok,
+    PlusPlusTok,MinusMinusTok,PlusTok,MinusTok,MulTok,DivTok,AndTok,OrTok,XorTok,ModTok,LShiftTok,RShiftTok,
+    UnsignedRShiftTok,PlusEqTok,MinusEqTok,MulEqTok,DivEqTok,AndEqTok,OrEqTok,XorEqTok,ModEqTok,LShiftEqTok,
+    RShiftEqTok,UnsignedRShiftEqTok)
+  private val fixedMap: Map[String,Token] = fixed.map(t => (t.s,t)).toMap
 
+  private lazy val (pattern,factories): (Regex,List[(Int,String => Token)]) = {
     // Regular expressions to factories
     val subs = List(
       // Digits
@@ -79,7 +83,7 @@ object Lexer {
     (pattern,factories)
   }
 
-  def lex(input: String): List[Loc[Token]] = {
+  def slowLex(input: String): List[Loc[Token]] = {
     def loop(lo: Int, s: String, ts: List[Loc[Token]]): List[Loc[Token]] = if (s.isEmpty) ts else {
       def longest(n: Int, best: Option[Match]): Option[Match] = {
         if (n > s.length) best
@@ -96,4 +100,163 @@ object Lexer {
     }
     loop(0,input,Nil).reverse
   }
+
+  // Regular expressions for the DFA lexer, over symbols: ASCII chars, then other, high surrogate, low surrogate.
+  // Outside ASCII, \s, \w and \d never match, so all other chars behave alike.
+  private val other = 128
+  private val high = 129
+  private val low = 130
+  private val symbols = 131
+  private def symbol(c: Char): Int =
+    if (c < 128) c
+    else if (Character.isHighSurrogate(c)) high
+    else if (Character.isLowSurrogate(c)) low
+    else other
+
+  private sealed abstract class RE {
+    def ~(y: RE): RE = Cat(this,y)
+    def |(y: RE): RE = Or(this,y)
+    def * : RE = Star(this)
+    def + : RE = this ~ Star(this)
+    def ? : RE = this | Eps
+  }
+  private case object Eps extends RE
+  private case class Chars(cs: Int => Boolean) extends RE
+  private case class Cat(x: RE, y: RE) extends RE
+  private case class Or(x: RE, y: RE) extends RE
+  private case class Star(x: RE) extends RE
+
+  private def chars(s: String): RE = Chars(c => c < 128 && s.contains(c.toChar))
+  private def except(s: String): RE = Chars(c => c >= 128 || !s.contains(c.toChar))
+  private def range(lo: Char, hi: Char): RE = Chars(c => lo <= c && c <= hi)
+  private def str(s: String): RE = s.foldRight(Eps:RE)((c,r) => chars(c.toString) ~ r)
+
+  // The same languages as the slowLex patterns, in the same order
+  private val (res,dfaFactories): (List[RE],Array[String => Token]) = {
+    def seps(d: RE, sep: RE) = d ~ ((d|sep).* ~ d).? // Digits with internal underscores
+    val digit = range('0','9')
+    val ds = seps(digit,chars("_"))
+    val bs = seps(chars("01"),chars("_"))
+    val hd = digit | range('a','f') | range('A','F')
+    val hs = seps(hd,chars("_"))
+    val int = digit | range('1','9') ~ chars("_").* ~ ds | chars("0") ~ chars("xX") ~ hs |
+              chars("0") ~ (range('0','7') | chars("_")).* ~ range('0','7') | chars("0") ~ chars("bB") ~ bs
+    val e = chars("eE") ~ chars("+-").? ~ ds
+    val p = chars("pP") ~ chars("+-").? ~ ds
+    def float(ff: RE, of: RE) =
+      ds ~ chars(".") ~ ds.? ~ e.? ~ of | chars(".") ~ ds ~ e.? ~ of | ds ~ (e ~ of | e.? ~ ff) |
+      chars("0") ~ chars("xX") ~ (hs ~ chars(".") | hs.? ~ chars(".") ~ hs) ~ p ~ of
+    val esc = chars("\\") ~ chars("btnfr\"'\\") | chars("\\") ~ range('0','7').+
+    val letter = range('a','z') | range('A','Z') | chars("$")
+    val unit = Chars(c => c != high && c != low && (c >= 128 || c != '\'' && c != '\\')) | // One code point
+               Chars(_ == high) ~ Chars(_ == low) | Chars(_ == high) | Chars(_ == low)
+    val star = chars("*")
+    val patterns: List[(RE,String => Token)] = List(
+      str("//") ~ except("\n").* -> EOLCommentTok,
+      str("/*") ~ (except("*") | star.+ ~ except("*/")).* ~ star.+ ~ chars("/") -> CCommentTok,
+      fixed.map(t => str(t.s)).reduce(_|_) -> fixedMap,
+      chars(" \t\n\u000b\f\r").+ -> WhitespaceTok,
+      letter ~ (letter | digit | chars("_")).* -> IdentTok,
+      int -> IntLitTok,
+      int ~ chars("lL") -> LongLitTok,
+      float(chars("fF"),chars("fF")) -> FloatLitTok,
+      float(chars("dD"),chars("dD").?) -> DoubleLitTok,
+      chars("'") ~ (unit | esc) ~ chars("'") -> CharLitTok,
+      chars("\"") ~ (except("\"\\") | esc).* ~ chars("\"") -> StringLitTok)
+    (patterns map (_._1),patterns.map(_._2).toArray)
+  }
+
+  // DFA transitions (state*classes+class, -1 for dead) and accepted pattern per state (-1 for none), where
+  // symbols with the same transitions share a class.  Built by the subset construction from a Thompson NFA,
+  // so ties go to the earliest pattern.
+  private val (classOf,classes,transitions,accepts): (Array[Int],Int,Array[Int],Array[Int]) = {
+    val eps = mutable.ArrayBuffer[List[Int]]()
+    val edges = mutable.ArrayBuffer[Int => Boolean]()
+    val targets = mutable.ArrayBuffer[Int]()
+    val done = mutable.ArrayBuffer[Int]()
+    def state(): Int = { eps += Nil; edges += null; targets += -1; done += -1; eps.size-1 }
+    // Add x starting at s, returning its final state
+    def add(x: RE, s: Int): Int = x match {
+      case Eps => s
+      case Chars(cs) => val a = state(); val t = state(); eps(s) ::= a; edges(a) = cs; targets(a) = t; t
+      case Cat(x,y) => add(y,add(x,s))
+      case Or(x,y) => val t = state()
+        for (z <- List(x,y)) { val a = state(); eps(s) ::= a; eps(add(z,a)) ::= t }
+        t
+      case Star(x) => val a = state(); val t = state()
+        eps(s) ::= a; eps(a) ::= t
+        eps(add(x,a)) ::= a
+        t
+    }
+    val start = state()
+    for ((x,i) <- res.zipWithIndex) {
+      val a = state(); eps(start) ::= a
+      done(add(x,a)) = i
+    }
+
+    // Symbol classes: symbols accepted by exactly the same edges
+    val moving = edges.indices.filter(edges(_) != null).toArray
+    val signatures = (0 until symbols) map (c => moving filter (s => edges(s)(c)) toList)
+    val classIds = signatures.distinct.zipWithIndex.toMap
+    val classOf = signatures.map(classIds).toArray
+    val classes = classIds.size
+    val accepted = Array.fill(eps.size)(List[Int]()) // Classes accepted by each edge
+    for ((sig,k) <- classIds; s <- sig) accepted(s) ::= k
+
+    // DFA states are epsilon closed sets of NFA states, keeping only those with edges or accepts
+    val seen = new Array[Int](eps.size)
+    var stamp = 0
+    def closure(ss: Iterable[Int]): Vector[Int] = {
+      stamp += 1
+      val out = mutable.ArrayBuffer[Int]()
+      def visit(s: Int): Unit = if (seen(s) != stamp) {
+        seen(s) = stamp
+        if (edges(s) != null || done(s) >= 0) out += s
+        eps(s) foreach visit
+      }
+      ss foreach visit
+      out.sorted.toVector
+    }
+    val ids = mutable.Map[Vector[Int],Int]()
+    val todo = mutable.Queue[Vector[Int]]()
+    val trans = mutable.ArrayBuffer[Int]()
+    val acc = mutable.ArrayBuffer[Int]()
+    def id(ss: Vector[Int]): Int = ids.getOrElseUpdate(ss,{
+      todo += ss
+      trans ++= Array.fill(classes)(-1)
+      val ds = ss map done filter (_ >= 0)
+      acc += (if (ds.isEmpty) -1 else ds.min)
+      ids.size
+    })
+    val moves = mutable.Map[List[Int],Int]() // Memoized id(closure(_)), since most moves repeat
+    id(closure(List(start)))
+    while (todo.nonEmpty) {
+      val ss = todo.dequeue()
+      val d = ids(ss)
+      val next = Array.fill(classes)(List[Int]())
+      for (s <- ss; k <- accepted(s)) next(k) ::= targets(s)
+      for (k <- 0 until classes if next(k).nonEmpty)
+        trans(d*classes+k) = moves.getOrElseUpdate(next(k).sorted,id(closure(next(k))))
+    }
+    (classOf,classes,trans.toArray,acc.toArray)
+  }
+
+  def lex(input: String): List[Loc[Token]] = {
+    val n = input.length
+    // Longest match starting at lo, as (end,pattern)
+    @tailrec def longest(s: Int, i: Int, end: Int, pattern: Int): (Int,Int) =
+      if (i == n) (end,pattern) else {
+        val t = transitions(s*classes+classOf(symbol(input.charAt(i))))
+        if (t < 0) (end,pattern)
+        else if (accepts(t) >= 0) longest(t,i+1,i+1,accepts(t))
+        else longest(t,i+1,end,pattern)
+      }
+    @tailrec def loop(lo: Int, ts: List[Loc[Token]]): List[Loc[Token]] = if (lo == n) ts.reverse else {
+      val (hi,pattern) = longest(0,lo,-1,-1)
+      if (hi < 0) throw new RuntimeException(
+        "Scan failed, column "+(lo+1)+": "+escape(input)+", "+escape(input.substring(lo))+", "+ts.reverse)
+      loop(hi,Loc(dfaFactories(pattern)(input.substring(lo,hi)),SRange(SLoc(lo),SLoc(hi)))::ts)
+    }
+    loop(0,Nil)
+  }
 }
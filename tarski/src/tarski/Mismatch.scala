@@ -108,16 +108,93 @@ object Mismatch {
     loop(ts map (_.x),Nil,0)
   }
 
-  def repair(ts: List[Loc[Token]]): Scored[List[Loc[Token]]] = if (ts.isEmpty) known(ts) else {
-    val rs = ensure(segmentBy(ts)(_.x==_.x) map {
+  // Minimum cost repair by dynamic programming, like weighted edit distance over the grouping segments.
+  // best(k,d,n) is the highest probability (product of pr) with which segments k and on can close depth d
+  // using at most n mutations.  Repairs are enumerated best first with best as an exact A* heuristic, so
+  // no work is spent on prefixes which cannot be matched.  Scores are exactly those of mutate.
+  private final class Repairs(segs: Array[Seg], budget: Int) {
+    private val size = segs.length
+    private val maxD = budget + (segs collect { case Seg(_:LeftTok,_,_,ps) => ps.size }).sum
+    private def at(k: Int, d: Int, n: Int) = (k*(maxD+1)+d)*(budget+1)+n
+
+    // Choices for segment k at depth d with n mutations left, as (new size,pr,new depth,mutations left).
+    // Nongrouping segments have the single choice -1.
+    private def options(k: Int, d: Int, n: Int): List[(Int,Prob,Int,Int)] = segs(k) match {
+      case Seg(_:LeftTok,_,after,is) => val i = is.size
+        (for (j <- max(0,i-n) to min(i+n,maxD-d)) yield (j,pr(i,j,after),d+j,n-abs(i-j))).toList
+      case Seg(_:RightTok,_,after,is) => val i = is.size
+        (for (j <- max(0,i-n) to min(i+n,d)) yield (j,pr(i,j,after),d-j,n-abs(i-j))).toList
+      case _ => List((-1,Prob("nongrouping",1),d,n))
+    }
+
+    private val best: Array[Double] = {
+      val b = new Array[Double]((size+1)*(maxD+1)*(budget+1))
+      for (n <- 0 to budget) b(at(size,0,n)) = 1
+      for (k <- size-1 to 0 by -1; d <- 0 to maxD; n <- 0 to budget)
+        b(at(k,d,n)) = options(k,d,n).foldLeft(0.0)((m,o) => max(m,pp(o._2)*b(at(k+1,o._3,o._4))))
+      b
+    }
+
+    // Partial repairs with choices for segments before k, in reverse order
+    private final class Partial(val k: Int, val d: Int, val n: Int, val q: Double, val js: List[(Int,Prob)]) extends HasProb {
+      val p = q*best(at(k,d,n))
+    }
+    private val partials = new java.util.PriorityQueue[Partial]
+    private val done = new java.util.PriorityQueue[Alt[List[Loc[Token]]]]
+    if (best(at(0,0,budget)) > 0)
+      partials.add(new Partial(0,0,budget,1,Nil))
+
+    private def complete(js: List[(Int,Prob)]): Unit = {
+      // Multiply right to left, as the nested flatMaps in mutate do
+      val q = js.foldLeft(Prob("known",1))((q,j) => pmul(j._2,q))
+      val ts = (segs.toList zip js.reverse) flatMap {
+        case (Seg(t,r,_,is),(j,_)) => if (j < 0) is else tweak(t,r,is,j)
+      }
+      done.add(Alt(pmul(q,Prob("kind errors",pow(.25,kindErrors(ts)))),ts))
+    }
+    private def expand(x: Partial): Unit =
+      if (x.k == size) complete(x.js)
+      else for ((j,q,d,n) <- options(x.k,x.d,x.n); if best(at(x.k+1,d,n)) > 0)
+        partials.add(new Partial(x.k+1,d,n,x.q*pp(q),(j,q)::x.js))
+
+    // Kind errors only lower probabilities, so a finished repair is next once it beats every partial bound
+    private def bound: Double = max(if (partials.isEmpty) 0 else partials.peek.p,
+                                    if (done.isEmpty) 0 else done.peek.p)
+    private def next(): Scored[List[Loc[Token]]] = {
+      while (!partials.isEmpty && (done.isEmpty || partials.peek.p > done.peek.p))
+        expand(partials.poll())
+      if (done.isEmpty) Empty
+      else {
+        val a = done.poll()
+        Best(a.dp,a.x,if (bound > 0) new Rest else Empty)
+      }
+    }
+    private final class Rest extends LazyScored[List[Loc[Token]]] {
+      val p = bound
+      private[this] var s: Scored[List[Loc[Token]]] = null
+      def force(hi: Double) = {
+        if (s eq null) s = next()
+        s
+      }
+    }
+
+    def scored: Scored[List[Loc[Token]]] =
+      if (best(at(0,0,budget)) == 0) fail("Mismatched parentheses")
+      else next()
+  }
+
+  private def segments(ts: List[Loc[Token]]): Segments =
+    ensure(segmentBy(ts)(_.x==_.x) map {
       case ps@(Loc(t,r)::_) => Seg(t,r,after=false,ps)
       case _ => impossible
     })
+
+  def repair(ts: List[Loc[Token]]): Scored[List[Loc[Token]]] = if (ts.isEmpty) known(ts) else {
+    val rs = segments(ts)
     if (matched(rs)) known(ts)
     else {
       // Mutate at most 2 times
-      val ts0 = mutate(rs,2).filter(matched,"Mismatched parentheses") map (s => s.map(_.ps).flatten)
-      val ts1 = ts0 flatMap (ts => single(ts,Prob("kind errors",pow(.25,kindErrors(ts)))))
+      val ts1 = new Repairs(rs.toArray,2).scored
       if (false) {
         println("repaired to:")
         implicit val f = fullShowFlags
@@ -127,4 +204,15 @@ object Mismatch {
       ts1
     }
   }
+
+  // Repair by enumerating all mutations and filtering, which is exponential in the number of grouping segments.
+  // Kept as the specification for repair.
+  def slowRepair(ts: List[Loc[Token]]): Scored[List[Loc[Token]]] = if (ts.isEmpty) known(ts) else {
+    val rs = segments(ts)
+    if (matched(rs)) known(ts)
+    else {
+      val ts0 = mutate(rs,2).filter(matched,"Mismatched parentheses") map (s => s.map(_.ps).flatten)
+      ts0 flatMap (ts => single(ts,Prob("kind errors",pow(.25,kindErrors(ts)))))
+    }
+  }
 }
@@ -16,6 +16,7 @@ import scala.Tuple3;
 import scala.Tuple4;
 import scala.Option;
 import tarski.Scores.*;
+import tarski.JavaScores;
 import utility.Interrupts;
 import static utility.Locations.*;
 import static tarski.ParseEddyActions.*;
@@ -26,6 +27,18 @@ class ParseEddy {
     return new Parser(input).toplevel();
   }
 
+  // Parse a token stream, weighting ambiguous parses by production priors
+  public static Scored<List<AStmt>> parseScored(List<Loc<Token>> input) {
+    return new Parser(input).scored();
+  }
+
+  // Parse a token stream, returning its cost (see Parser.stats)
+  public static long[] stats(List<Loc<Token>> input) {
+    final Parser p = new Parser(input);
+    p.toplevel();
+    return p.stats();
+  }
+
   private static final class Parser {
     private final Token[] input;
     private final long[] ranges;
@@ -33,6 +46,8 @@ class ParseEddy {
     private final ArrayList<Object> values = new ArrayList<Object>();
     private final TIntLongHashMap slices = new TIntLongHashMap(); // (non,lo,hi) => (start,size)
     private final static long vMask = (1L<<32)-1;
+    private double[] priors = new double[16]; // Prior probability of each value
+    private long visits; // Cells which passed their guards, for stats
 
     // Convert input and allocate working memory
     Parser(List<Loc<Token>> _input) {
@@ -64,6 +79,23 @@ class ParseEddy {
       return xs;
     }
 
+    // The entire parse, most likely first
+    Scored<List<AStmt>> scored() {
+      types();
+      nulls();
+      nonnulls();
+      final long s = slices.get(iStmts<<24|input.length);
+      final int lo = (int)(s>>32);
+      return (Scored)alternatives(lo,lo+(int)(s&vMask),1);
+    }
+
+    // Cost of the last parse: tokens, cells visited, chart entries, values, ambiguous entries
+    long[] stats() {
+      long ambiguous = 0;
+      for (final long s : slices.getValues()) if ((s&vMask) > 1) ambiguous++;
+      return new long[]{input.length,visits,slices.size(),values.size(),ambiguous};
+    }
+
     // Symbol ids
     private static final int iPlusEqTok = 0;
     private static final int iOrTok = 1;
@@ -454,82 +486,503 @@ class ParseEddy {
       }
     }
 
+    // First and last tokens of each nonterminal
+    private static final long[] firsts = {
+      0x88814c21819429c8L,0x4944520L, // Commas2_ExpAssignNC
+      0x400000000000L,0x0L, // Dims
+      0x412000020000000L,0x0L, // Right__ExpUnary_ExpJuxt
+      0x2000000000000000L,0x8000000L, // GtSep
+      0x88804421819408c8L,0x904120L, // ExpHigh__Left
+      0x88804421819408c8L,0x904520L, // Juxts2_ExpWild
+      0x88814c21819429c8L,0x4944520L, // Juxts2_ExpAssignNC
+      0x1000L,0x0L, // DotTok__Option_TypeArgs__Ident
+      0x140000604400001L,0x1042a000L, // AssignOp
+      0x8000000000008000L,0x800020L, // Instanceof__Type
+      0x400804040L,0x0L, // ForeachSep__ExpAssign
+      0x400400804040L,0x0L, // Dims__ForeachSep__ExpAssign
+      0x200000000000000L,0x0L, // ForTok__Left__ForInfo
+      0x4080L,0x4L, // WildcardBounds
+      0x1080000002100L,0x4040000L, // PreOp
+      0x412000020000000L,0x0L, // Right__ClassBody
+      0x8c934c21a19429c8L,0x4944520L, // List_ExpAssignNC__Right__ClassBody
+      0x88814c21819429c8L,0x4944520L, // ExpAssignNP__Then
+      0x10000000000L,0x0L, // DoTok__MaybeColon__MaybeStmt
+      0x10000004000L,0x0L, // Do__Stmt
+      0x400400000000L,0x0L, // Dims__EqTok__Option_ExpCommas
+      0x0L,0x1000000L, // ClassBody
+      0x402100000000L,0x0L, // ParenExp
+      0x402100000000L,0x0L, // ParenExp__MaybeThen
+      0x0L,0x200L, // FinallyBlock
+      0x0L,0x200L, // Option_FinallyBlock
+      0x4L,0x0L, // SynchronizedTok__ExpAssignNP
+      0x0L,0x40L, // CatchTok__Left__Ident__ColonTok__Juxts0_Mod
+      0x1080000000000L,0x0L, // PostOp
+      0x4000L,0x100L, // Then
+      0x88804421819408c8L,0x904520L, // Commas2_Type
+      0x4000000000000L,0x0L, // TryTok__MaybeColon__Stmt
+      0x88804421819408c8L,0x904520L, // Juxts2_ExpWildNA
+      0x2000000000L,0x0L, // ExpParens
+      0x800000L,0x0L, // TypeArgs
+      0x800000L,0x0L, // Option_TypeArgs
+      0x88804421819408c8L,0x904120L, // ExpNew__Left
+      0x88000000001000c8L,0x804120L, // Juxts2_VarDecl
+      0x4000L,0x100L, // MaybeThen
+      0x400000000000L,0x0L, // DimExps
+      0x400100000000L,0x0L, // LeftNP
+      0x0L,0x80L, // ElseTok__MaybeColon__Stmt
+      0x8aa57d79d9b72fccL,0x6b44db1L, // MaybeStmt__ElseTok__MaybeColon__Stmt
+      0x0L,0x400L, // QuestionTok__ExpAssign__ColonTok__ExpCond_ExpJuxt
+      0x0L,0x40L, // CatchTok__Left
+      0x4000L,0x100L, // Then__Stmt
+      0x4000L,0x0L, // MaybeColon
+      0x88814c21819429c8L,0x4944520L, // ExpAssign__Right
+      0x402100000000L,0x0L, // Left
+      0x4000000008L,0x0L, // WhileUntil
+      0x200810220604L,0x2200001L, // Mod
+      0x200810220604L,0x2200001L, // Juxts1_Mod
+      0x200810220604L,0x2200001L, // Juxts0_Mod
+      0x80000000L,0x0L, // NewTok__Option_TypeArgs
+      0x0L,0x40L, // CatchTok__Ident__ColonTok__Juxts0_Mod
+      0x412000020000000L,0x0L, // Right__MaybeDo__Stmt
+      0x88000000001000c8L,0x804120L, // Ident__Right
+      0x88000000001000c8L,0x804120L, // Ident__Right__MaybeColon__MaybeStmt
+      0x88000000001000c8L,0x804120L, // Ident__ColonTok__Juxts0_Mod
+      0x10000004000L,0x0L, // Do
+      0x88814c21819429c8L,0x4944520L, // Commas2_ExpCond_ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ArrayInteriorN1
+      0x88804421819408c8L,0x904520L, // Juxts2_Type
+      0x2000000000L,0x0L, // LParenTok__Type
+      0x0L,0x40L, // CatchTok__Left__Juxts0_Mod__Type
+      0x4L,0x0L, // SynchronizedTok__ParenExp
+      0x140000604400001L,0x1042a000L, // AssignOp__ExpAssign
+      0x88804421819408c8L,0x904120L, // ExpHigh__DotTok__NewTok__Option_TypeArgs
+      0x80040001040800L,0x100000L, // Lit
+      0x400000000000L,0x0L, // LBrackTok__Option_ExpAssign
+      0x0L,0x40L, // CatchTok__Left__EllipsisTok__Right
+      0x0L,0x40L, // CatchBlock
+      0x0L,0x40L, // CatchBlocks
+      0x0L,0x240L, // CatchBlocks__Option_FinallyBlock
+      0x10000004000L,0x0L, // MaybeDo
+      0x4000000008L,0x0L, // WhileUntil__ParenExp
+      0x0L,0x40L, // CatchTok__Juxts0_Mod__Type
+      0x140000000L,0x0L, // Block
+      0x8000000000008000L,0x800020L, // Instanceof
+      0x412000020000000L,0x0L, // Right
+      0x8c934c21a19429c8L,0x4944520L, // ArrayInterior__Right
+      0x412000020000000L,0x0L, // Right__DimExps
+      0x8c934c21a19429c8L,0x4944520L, // List_ExpAssignNC__Right
+      0x412000020000000L,0x0L, // Right__MaybeDo
+      0x8aa57d79d9b72fccL,0x6b44db1L, // MaybeStmt__ElseTok__MaybeColon
+      0x88000000001000c8L,0x804120L, // Ident
+      0x88804421819408c8L,0x904120L, // ExpPrimary
+      0x88804421819408c8L,0x904120L, // ExpNew
+      0x88804421819408c8L,0x904120L, // ExpHighNA
+      0x88804421819408c8L,0x904120L, // ExpHighNP
+      0x88804421819408c8L,0x904120L, // ExpHigh
+      0x88804421819408c8L,0x904520L, // ExpWild
+      0x88804421819408c8L,0x904520L, // Juxts1_ExpWild
+      0x88804421819408c8L,0x904520L, // ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ExpUnary_ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ExpMul_ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ExpAdd_ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ExpShift_ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ExpRel_ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ExpEq_ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ExpAnd_ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ExpXor_ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ExpOr_ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ExpAndAnd_ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ExpOrOr_ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ExpCond_ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ExpAssignNC
+      0x88814c21819429c8L,0x4944520L, // List1_ExpAssignNC
+      0x88814c21819429c8L,0x4944520L, // List_ExpAssignNC
+      0x88814c21819429c8L,0x4944520L, // Commas1_ExpAssignNC
+      0x88814c21819429c8L,0x4944520L, // Commas0_ExpAssignNC
+      0x88814c21819429c8L,0x4944520L, // Juxts1_ExpAssignNC
+      0x88814c21819429c8L,0x4944520L, // ExpCommas
+      0x88814c21819429c8L,0x4944520L, // ExpAssign
+      0x8aa56d79d9b72fccL,0x6b44d31L, // StmtHelperBS
+      0x8aa56d79d9b72fccL,0x6b44d31L, // Commas1_StmtHelperBS
+      0x8aa56d79d9b72fccL,0x6b44d31L, // Commas0_StmtHelperBS
+      0x8aa56d79d9b72fccL,0x6b44d31L, // StmtHelper
+      0x8aa57d79d9b72fccL,0x6b44d31L, // Stmt
+      0x8aa57d79d9b76fccL,0x6b44d31L, // MaybeDo__Stmt
+      0x8aa57d79d9b76fccL,0x6b44d31L, // MaybeThen__Stmt
+      0x8aa57d79d9b72fccL,0x6b44d31L, // MaybeStmt
+      0x8aa57d79d9b76fccL,0x6b44d31L, // MaybeColon__MaybeStmt
+      0x8aa57d79d9b72fccL,0x6b44d31L, // Stmts
+      0x88814c21819429c8L,0x4944520L, // Option_ExpAssign
+      0x88814c21819429c8L,0x4944520L, // Option_ExpCommas
+      0x88814c21819429c8L,0x4944520L, // Commas1_ExpCond_ExpJuxt
+      0x88814c21819429c8L,0x4944520L, // ExpUnary_ExpWild
+      0x88814c21819429c8L,0x4944520L, // ExpMul_ExpWild
+      0x88814c21819429c8L,0x4944520L, // ExpAdd_ExpWild
+      0x88814c21819429c8L,0x4944520L, // ExpShift_ExpWild
+      0x88814c21819429c8L,0x4944520L, // ExpRel_ExpWild
+      0x88814c21819429c8L,0x4944520L, // ExpEq_ExpWild
+      0x88814c21819429c8L,0x4944520L, // ExpAnd_ExpWild
+      0x88814c21819429c8L,0x4944520L, // ExpXor_ExpWild
+      0x88814c21819429c8L,0x4944520L, // ExpOr_ExpWild
+      0x88814c21819429c8L,0x4944520L, // ExpAndAnd_ExpWild
+      0x88814c21819429c8L,0x4944520L, // ExpOrOr_ExpWild
+      0x88814c21819429c8L,0x4944520L, // ExpCond_ExpWild
+      0x88814c21819429c8L,0x4944520L, // ArrayInterior
+      0x88804421819408c8L,0x904520L, // Type
+      0x88804421819408c8L,0x904520L, // Juxts1_Type
+      0x8880642991b60eccL,0x2b04521L, // Juxts0_Mod__Type
+      0x88804421819408c8L,0x904520L, // List1_Type
+      0x88804421819408c8L,0x904520L, // List_Type
+      0x88804421819408c8L,0x904520L, // Option_Type
+      0x88804421819408c8L,0x904520L, // Commas1_Type
+      0x88804421819408c8L,0x904520L, // Type__MaybeColon__MaybeStmt
+      0x88804421819408c8L,0x904520L, // ExpWildNP
+      0x88804421819408c8L,0x904520L, // ExpJuxtNP
+      0x88814c21819429c8L,0x4944520L, // ExpUnary_ExpJuxtNP
+      0x88814c21819429c8L,0x4944520L, // ExpMul_ExpJuxtNP
+      0x88814c21819429c8L,0x4944520L, // ExpAdd_ExpJuxtNP
+      0x88814c21819429c8L,0x4944520L, // ExpShift_ExpJuxtNP
+      0x88814c21819429c8L,0x4944520L, // ExpRel_ExpJuxtNP
+      0x88814c21819429c8L,0x4944520L, // ExpEq_ExpJuxtNP
+      0x88814c21819429c8L,0x4944520L, // ExpAnd_ExpJuxtNP
+      0x88814c21819429c8L,0x4944520L, // ExpXor_ExpJuxtNP
+      0x88814c21819429c8L,0x4944520L, // ExpOr_ExpJuxtNP
+      0x88814c21819429c8L,0x4944520L, // ExpAndAnd_ExpJuxtNP
+      0x88814c21819429c8L,0x4944520L, // ExpOrOr_ExpJuxtNP
+      0x88814c21819429c8L,0x4944520L, // ExpCond_ExpJuxtNP
+      0x88814c21819429c8L,0x4944520L, // ExpAssignNP
+      0x88814c21819429c8L,0x4944520L, // AfterIfB
+      0x88814c21819429c8L,0x4944520L, // MaybeParenExp
+      0x88814c21819429c8L,0x4944520L, // MaybeParenExp__MaybeDo
+      0x88814c21819429c8L,0x4944520L, // AfterIfA
+      0x88814c21819429c8L,0x4944520L, // AfterIf
+      0x88804421819408c8L,0x904520L, // ExpWildNA
+      0x88804421819408c8L,0x904520L, // SingleJuxt1_ExpWildNA
+      0x88804421819408c8L,0x904520L, // Juxts1_ExpWildNA
+      0x88804421819408c8L,0x904120L, // ExpPrimary__DimExps
+      0x88000000001000c8L,0x804120L, // VarDecl
+      0x88000000001000c8L,0x804120L, // Juxts1_VarDecl
+      0x88000000001000c8L,0x804120L, // Commas1_VarDecl
+      0x88000000001000c8L,0x804120L, // Ident__MaybeColon__MaybeStmt
+      0x88804421819408c8L,0x904520L, // Option_Type__Ident
+      0x8880642991b60eccL,0x2b04521L, // Juxts0_Mod__Option_Type__Ident
+      0x88000000001000c8L,0x804120L, // Option_Ident
+      0x400804040L,0x0L, // ForeachSep
+      0x100000000000L,0x0L, // SemiTok__Option_ExpAssign__SemiTok__Commas0_ExpAssignNC
+      0x8aa57d79d9b72fccL,0x6b44d31L, // ForInfo
+      0x88000000001000c8L,0x804120L, // Commas2_VarDecl
+      0x88000000001000c8L,0x804120L, // List1_VarDecl
+      0x88804421819408c8L,0x904520L, // Option_Type__List1_VarDecl
+      0x4000000008L,0x0L, // WhileUntil__MaybeParenExp
+      0x800000000000000L,0x0L, // ElifTok__MaybeColon__AfterIf
+      0x8aa57d79d9b72fccL,0x6b44d31L, // MaybeStmt__ElifTok__MaybeColon__AfterIf
+      0x200000000000000L,0x0L, // ForTok__ForInfo
+      0x88804421819408c8L,0x904520L, // Type__Right
+      0x88804421819408c8L,0x904520L, // Type__Right__MaybeColon__MaybeStmt
+      0x4000000008L,0x0L, // WhileUntil__ExpAssignNP
+    };
+    private static final long[] lasts = {
+      0xcc930c00211408e8L,0x1904520L, // Commas2_ExpAssignNC
+      0x412000020000000L,0x0L, // Dims
+      0xcc930c00211408c8L,0x1904520L, // Right__ExpUnary_ExpJuxt
+      0x2000000000000000L,0x8000000L, // GtSep
+      0x402100000000L,0x0L, // ExpHigh__Left
+      0xcc920400211408c8L,0x1904520L, // Juxts2_ExpWild
+      0xcc930c00211408e8L,0x1904520L, // Juxts2_ExpAssignNC
+      0x88000000001000c8L,0x804120L, // DotTok__Option_TypeArgs__Ident
+      0x140000604400001L,0x1042a000L, // AssignOp
+      0xcc920400211408c8L,0x1904520L, // Instanceof__Type
+      0xcc930c00211408e8L,0x1904520L, // ForeachSep__ExpAssign
+      0xcc930c00211408e8L,0x1904520L, // Dims__ForeachSep__ExpAssign
+      0xcc931c00211408e8L,0x1904520L, // ForTok__Left__ForInfo
+      0xcc920400211408c8L,0x1904520L, // WildcardBounds
+      0x1080000002100L,0x4040000L, // PreOp
+      0x0L,0x1000000L, // Right__ClassBody
+      0x0L,0x1000000L, // List_ExpAssignNC__Right__ClassBody
+      0x4000L,0x100L, // ExpAssignNP__Then
+      0xdc931d14691548e8L,0x19047a0L, // DoTok__MaybeColon__MaybeStmt
+      0xdc931d14691548e8L,0x19047a0L, // Do__Stmt
+      0xcc930c04211408e8L,0x1904520L, // Dims__EqTok__Option_ExpCommas
+      0x0L,0x1000000L, // ClassBody
+      0x412000020000000L,0x0L, // ParenExp
+      0x412000020004000L,0x100L, // ParenExp__MaybeThen
+      0xdc931d14691548e8L,0x19047a0L, // FinallyBlock
+      0xdc931d14691548e8L,0x19047a0L, // Option_FinallyBlock
+      0xcc930c00211408e8L,0x1904520L, // SynchronizedTok__ExpAssignNP
+      0x88002008103246ccL,0x2804121L, // CatchTok__Left__Ident__ColonTok__Juxts0_Mod
+      0x1080000000000L,0x0L, // PostOp
+      0x4000L,0x100L, // Then
+      0xcc920400211408e8L,0x1904520L, // Commas2_Type
+      0xdc931d14691548e8L,0x19047a0L, // TryTok__MaybeColon__Stmt
+      0xcc920400211408c8L,0x1904520L, // Juxts2_ExpWildNA
+      0x412000020000000L,0x0L, // ExpParens
+      0x4000000000000000L,0x0L, // TypeArgs
+      0x4000000000000000L,0x0L, // Option_TypeArgs
+      0x402100000000L,0x0L, // ExpNew__Left
+      0xcc930c04211408e8L,0x1904520L, // Juxts2_VarDecl
+      0x4000L,0x100L, // MaybeThen
+      0x412000020000000L,0x0L, // DimExps
+      0x400100000000L,0x0L, // LeftNP
+      0xdc931d14691548e8L,0x19047a0L, // ElseTok__MaybeColon__Stmt
+      0xdc931d14691548e8L,0x19047a0L, // MaybeStmt__ElseTok__MaybeColon__Stmt
+      0xcc930c00211408c8L,0x1904520L, // QuestionTok__ExpAssign__ColonTok__ExpCond_ExpJuxt
+      0x402100000000L,0x0L, // CatchTok__Left
+      0xdc931d14691548e8L,0x19047a0L, // Then__Stmt
+      0x4000L,0x0L, // MaybeColon
+      0x412000020000000L,0x0L, // ExpAssign__Right
+      0x402100000000L,0x0L, // Left
+      0x4000000008L,0x0L, // WhileUntil
+      0x88002008103206ccL,0x2804121L, // Mod
+      0x88002008103206ccL,0x2804121L, // Juxts1_Mod
+      0x88002008103206ccL,0x2804121L, // Juxts0_Mod
+      0x4000000080000000L,0x0L, // NewTok__Option_TypeArgs
+      0x88002008103246ccL,0x2804121L, // CatchTok__Ident__ColonTok__Juxts0_Mod
+      0xdc931d14691548e8L,0x19047a0L, // Right__MaybeDo__Stmt
+      0x412000020000000L,0x0L, // Ident__Right
+      0xdc931d14691548e8L,0x19047a0L, // Ident__Right__MaybeColon__MaybeStmt
+      0x88002008103246ccL,0x2804121L, // Ident__ColonTok__Juxts0_Mod
+      0x10000004000L,0x0L, // Do
+      0xcc930c00211408e8L,0x1904520L, // Commas2_ExpCond_ExpJuxt
+      0xcc930c00211408e8L,0x1904520L, // ArrayInteriorN1
+      0xcc920400211408c8L,0x1904520L, // Juxts2_Type
+      0xcc920400211408c8L,0x1904520L, // LParenTok__Type
+      0xcc920400211408c8L,0x1904520L, // CatchTok__Left__Juxts0_Mod__Type
+      0x412000020000000L,0x0L, // SynchronizedTok__ParenExp
+      0xcc930c00211408e8L,0x1904520L, // AssignOp__ExpAssign
+      0x4000000080000000L,0x0L, // ExpHigh__DotTok__NewTok__Option_TypeArgs
+      0x80040001040800L,0x100000L, // Lit
+      0xcc934c00211408e8L,0x1904520L, // LBrackTok__Option_ExpAssign
+      0x412000020000000L,0x0L, // CatchTok__Left__EllipsisTok__Right
+      0xdc931d14691548e8L,0x19047a0L, // CatchBlock
+      0xdc931d14691548e8L,0x19047a0L, // CatchBlocks
+      0xdc931d14691548e8L,0x19047a0L, // CatchBlocks__Option_FinallyBlock
+      0x10000004000L,0x0L, // MaybeDo
+      0x412000020000000L,0x0L, // WhileUntil__ParenExp
+      0xcc920400211408c8L,0x1904520L, // CatchTok__Juxts0_Mod__Type
+      0x412000060000000L,0x0L, // Block
+      0x8000000000008000L,0x800020L, // Instanceof
+      0x412000020000000L,0x0L, // Right
+      0x412000020000000L,0x0L, // ArrayInterior__Right
+      0x412000020000000L,0x0L, // Right__DimExps
+      0x412000020000000L,0x0L, // List_ExpAssignNC__Right
+      0x412010020004000L,0x0L, // Right__MaybeDo
+      0x4000L,0x80L, // MaybeStmt__ElseTok__MaybeColon
+      0x88000000001000c8L,0x804120L, // Ident
+      0xcc920400211408c8L,0x1904120L, // ExpPrimary
+      0xcc920400211408c8L,0x1904120L, // ExpNew
+      0xcc920400211408c8L,0x1904120L, // ExpHighNA
+      0xcc920400211408c8L,0x1904120L, // ExpHighNP
+      0xcc920400211408c8L,0x1904120L, // ExpHigh
+      0xcc920400211408c8L,0x1904520L, // ExpWild
+      0xcc920400211408c8L,0x1904520L, // Juxts1_ExpWild
+      0xcc920400211408c8L,0x1904520L, // ExpJuxt
+      0xcc930c00211408c8L,0x1904520L, // ExpUnary_ExpJuxt
+      0xcc930c00211408c8L,0x1904520L, // ExpMul_ExpJuxt
+      0xcc930c00211408c8L,0x1904520L, // ExpAdd_ExpJuxt
+      0xcc930c00211408c8L,0x1904520L, // ExpShift_ExpJuxt
+      0xcc930c00211408c8L,0x1904520L, // ExpRel_ExpJuxt
+      0xcc930c00211408c8L,0x1904520L, // ExpEq_ExpJuxt
+      0xcc930c00211408c8L,0x1904520L, // ExpAnd_ExpJuxt
+      0xcc930c00211408c8L,0x1904520L, // ExpXor_ExpJuxt
+      0xcc930c00211408c8L,0x1904520L, // ExpOr_ExpJuxt
+      0xcc930c00211408c8L,0x1904520L, // ExpAndAnd_ExpJuxt
+      0xcc930c00211408c8L,0x1904520L, // ExpOrOr_ExpJuxt
+      0xcc930c00211408c8L,0x1904520L, // ExpCond_ExpJuxt
+      0xcc930c00211408e8L,0x1904520L, // ExpAssignNC
+      0xcc930c00211408e8L,0x1904520L, // List1_ExpAssignNC
+      0xcc930c00211408e8L,0x1904520L, // List_ExpAssignNC
+      0xcc930c00211408e8L,0x1904520L, // Commas1_ExpAssignNC
+      0xcc930c00211408e8L,0x1904520L, // Commas0_ExpAssignNC
+      0xcc930c00211408e8L,0x1904520L, // Juxts1_ExpAssignNC
+      0xcc930c00211408e8L,0x1904520L, // ExpCommas
+      0xcc930c00211408e8L,0x1904520L, // ExpAssign
+      0xdc931d14691548e8L,0x19047a0L, // StmtHelperBS
+      0xdc931d14691548e8L,0x19047a0L, // Commas1_StmtHelperBS
+      0xdc931d14691548e8L,0x19047a0L, // Commas0_StmtHelperBS
+      0xdc931d14691548e8L,0x19047a0L, // StmtHelper
+      0xdc931d14691548e8L,0x19047a0L, // Stmt
+      0xdc931d14691548e8L,0x19047a0L, // MaybeDo__Stmt
+      0xdc931d14691548e8L,0x19047a0L, // MaybeThen__Stmt
+      0xdc931d14691548e8L,0x19047a0L, // MaybeStmt
+      0xdc931d14691548e8L,0x19047a0L, // MaybeColon__MaybeStmt
+      0xdc931d14691548e8L,0x19047a0L, // Stmts
+      0xcc930c00211408e8L,0x1904520L, // Option_ExpAssign
+      0xcc930c00211408e8L,0x1904520L, // Option_ExpCommas
+      0xcc930c00211408e8L,0x1904520L, // Commas1_ExpCond_ExpJuxt
+      0xcc930c00211408c8L,0x1904520L, // ExpUnary_ExpWild
+      0xcc930c00211408c8L,0x1904520L, // ExpMul_ExpWild
+      0xcc930c00211408c8L,0x1904520L, // ExpAdd_ExpWild
+      0xcc930c00211408c8L,0x1904520L, // ExpShift_ExpWild
+      0xcc930c00211408c8L,0x1904520L, // ExpRel_ExpWild
+      0xcc930c00211408c8L,0x1904520L, // ExpEq_ExpWild
+      0xcc930c00211408c8L,0x1904520L, // ExpAnd_ExpWild
+      0xcc930c00211408c8L,0x1904520L, // ExpXor_ExpWild
+      0xcc930c00211408c8L,0x1904520L, // ExpOr_ExpWild
+      0xcc930c00211408c8L,0x1904520L, // ExpAndAnd_ExpWild
+      0xcc930c00211408c8L,0x1904520L, // ExpOrOr_ExpWild
+      0xcc930c00211408c8L,0x1904520L, // ExpCond_ExpWild
+      0xcc930c00211408e8L,0x1904520L, // ArrayInterior
+      0xcc920400211408c8L,0x1904520L, // Type
+      0xcc920400211408c8L,0x1904520L, // Juxts1_Type
+      0xcc920400211408c8L,0x1904520L, // Juxts0_Mod__Type
+      0xcc920400211408e8L,0x1904520L, // List1_Type
+      0xcc920400211408e8L,0x1904520L, // List_Type
+      0xcc920400211408c8L,0x1904520L, // Option_Type
+      0xcc920400211408e8L,0x1904520L, // Commas1_Type
+      0xdc931d14691548e8L,0x19047a0L, // Type__MaybeColon__MaybeStmt
+      0xcc920400211408c8L,0x1904520L, // ExpWildNP
+      0xcc920400211408c8L,0x1904520L, // ExpJuxtNP
+      0xcc930c00211408c8L,0x1904520L, // ExpUnary_ExpJuxtNP
+      0xcc930c00211408c8L,0x1904520L, // ExpMul_ExpJuxtNP
+      0xcc930c00211408c8L,0x1904520L, // ExpAdd_ExpJuxtNP
+      0xcc930c00211408c8L,0x1904520L, // ExpShift_ExpJuxtNP
+      0xcc930c00211408c8L,0x1904520L, // ExpRel_ExpJuxtNP
+      0xcc930c00211408c8L,0x1904520L, // ExpEq_ExpJuxtNP
+      0xcc930c00211408c8L,0x1904520L, // ExpAnd_ExpJuxtNP
+      0xcc930c00211408c8L,0x1904520L, // ExpXor_ExpJuxtNP
+      0xcc930c00211408c8L,0x1904520L, // ExpOr_ExpJuxtNP
+      0xcc930c00211408c8L,0x1904520L, // ExpAndAnd_ExpJuxtNP
+      0xcc930c00211408c8L,0x1904520L, // ExpOrOr_ExpJuxtNP
+      0xcc930c00211408c8L,0x1904520L, // ExpCond_ExpJuxtNP
+      0xcc930c00211408e8L,0x1904520L, // ExpAssignNP
+      0xdc931d14691548e8L,0x19047a0L, // AfterIfB
+      0xcc930c00211408e8L,0x1904520L, // MaybeParenExp
+      0xcc930d00211448e8L,0x1904520L, // MaybeParenExp__MaybeDo
+      0xcc930c00211448e8L,0x19045a0L, // AfterIfA
+      0xdc931d14691548e8L,0x19047a0L, // AfterIf
+      0xcc920400211408c8L,0x1904520L, // ExpWildNA
+      0xcc920400211408c8L,0x1904520L, // SingleJuxt1_ExpWildNA
+      0xcc920400211408c8L,0x1904520L, // Juxts1_ExpWildNA
+      0xcc920400211408c8L,0x1904120L, // ExpPrimary__DimExps
+      0xcc930c04211408e8L,0x1904520L, // VarDecl
+      0xcc930c04211408e8L,0x1904520L, // Juxts1_VarDecl
+      0xcc930c04211408e8L,0x1904520L, // Commas1_VarDecl
+      0xdc931d14691548e8L,0x19047a0L, // Ident__MaybeColon__MaybeStmt
+      0x88000000001000c8L,0x804120L, // Option_Type__Ident
+      0x88000000001000c8L,0x804120L, // Juxts0_Mod__Option_Type__Ident
+      0x88000000001000c8L,0x804120L, // Option_Ident
+      0x400004040L,0x4000000L, // ForeachSep
+      0xcc931c00211408e8L,0x1904520L, // SemiTok__Option_ExpAssign__SemiTok__Commas0_ExpAssignNC
+      0xcc931c00211408e8L,0x1904520L, // ForInfo
+      0xcc930c04211408e8L,0x1904520L, // Commas2_VarDecl
+      0xcc930c04211408e8L,0x1904520L, // List1_VarDecl
+      0xcc930c04211408e8L,0x1904520L, // Option_Type__List1_VarDecl
+      0xcc930c00211408e8L,0x1904520L, // WhileUntil__MaybeParenExp
+      0xdc931d14691548e8L,0x19047a0L, // ElifTok__MaybeColon__AfterIf
+      0xdc931d14691548e8L,0x19047a0L, // MaybeStmt__ElifTok__MaybeColon__AfterIf
+      0xcc931c00211408e8L,0x1904520L, // ForTok__ForInfo
+      0x412000020000000L,0x0L, // Type__Right
+      0xdc931d14691548e8L,0x19047a0L, // Type__Right__MaybeColon__MaybeStmt
+      0xcc930c00211408e8L,0x1904520L, // WhileUntil__ExpAssignNP
+    };
+    private static boolean in(final long[] sets, final int n, final int t) {
+      return t<93 && (sets[2*n+(t>>6)]&1L<<t) != 0;
+    }
+
+    // Priors
+    private void prior(final double p) {
+      final int i = values.size()-1;
+      if (i >= priors.length) priors = java.util.Arrays.copyOf(priors,2*i);
+      priors[i] = p;
+    }
+
+    private double best(final int lo, final int hi) {
+      double p = 0;
+      for (int i=lo;i<hi;i++) p = Math.max(p,priors[i]);
+      return p;
+    }
+
+    // Values in [lo,hi) as a Scored, relative to the given prior.  If all priors are equal, values stay in parse order;
+    // otherwise listGood's heap orders them by probability, and ties come out in no particular order.
+    private Scored<Object> alternatives(final int lo, final int hi, final double scale) {
+      boolean uniform = true;
+      for (int i=lo+1;i<hi;i++) uniform &= priors[i]==priors[lo];
+      if (uniform) {
+        Scored<Object> s = (Scored)Empty$.MODULE$;
+        for (int i=hi-1;i>=lo;i--) s = new Best<Object>(Pr.parse()*priors[lo]/scale,values.get(i),s);
+        return s;
+      }
+      List<Alt<Object>> xs = (List)Nil$.MODULE$;
+      for (int i=hi-1;i>=lo;i--) xs = $colon$colon$.MODULE$.<Alt<Object>>apply(new Alt<Object>(Pr.parse()*priors[i]/scale,values.get(i)),xs);
+      return JavaScores.listGood(xs);
+    }
+
     // Parse null productions
     private void nulls() {
       final int n = input.length;
       long slice;
       int next = values.size();
-      values.add(Dims1()); // Dims -> "" : Nil
+      values.add(Dims1()); prior(1); // Dims -> "" : Nil
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iDims<<24|i<<12|i,slice);
       // GtSep is simple
       for (int i=0;i<=n;i++) slices.put(iGtSep<<24|i<<12|i,1);
-      values.add(WildcardBounds3()); // WildcardBounds -> "" : None
+      values.add(WildcardBounds3()); prior(1); // WildcardBounds -> "" : None
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iWildcardBounds<<24|i<<12|i,slice);
-      values.add(Option_FinallyBlock1()); // Option_FinallyBlock -> "" : None
+      values.add(Option_FinallyBlock1()); prior(1); // Option_FinallyBlock -> "" : None
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iOption_FinallyBlock<<24|i<<12|i,slice);
-      values.add(Option_TypeArgs1()); // Option_TypeArgs -> "" : None
+      values.add(Option_TypeArgs1()); prior(1); // Option_TypeArgs -> "" : None
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iOption_TypeArgs<<24|i<<12|i,slice);
-      values.add(MaybeThen3()); // MaybeThen -> "" : None
+      values.add(MaybeThen3()); prior(1); // MaybeThen -> "" : None
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iMaybeThen<<24|i<<12|i,slice);
-      values.add(DimExps1()); // DimExps -> "" : Nil
+      values.add(DimExps1()); prior(1); // DimExps -> "" : Nil
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iDimExps<<24|i<<12|i,slice);
       // MaybeColon is simple
       for (int i=0;i<=n;i++) slices.put(iMaybeColon<<24|i<<12|i,1);
-      values.add(Juxts0_Mod1()); // Juxts0_Mod -> "" : Nil
+      values.add(Juxts0_Mod1()); prior(1); // Juxts0_Mod -> "" : Nil
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iJuxts0_Mod<<24|i<<12|i,slice);
-      values.add(ArrayInteriorN12()); // ArrayInteriorN1 -> "" : EmptyList
+      values.add(ArrayInteriorN12()); prior(1); // ArrayInteriorN1 -> "" : EmptyList
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iArrayInteriorN1<<24|i<<12|i,slice);
-      values.add(CatchBlocks1()); // CatchBlocks -> "" : Nil
+      values.add(CatchBlocks1()); prior(1); // CatchBlocks -> "" : Nil
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iCatchBlocks<<24|i<<12|i,slice);
-      values.add(CatchBlocks__Option_FinallyBlock0((List)values.get((int)(slices.get(iCatchBlocks<<24)>>32)),(Option)values.get((int)(slices.get(iOption_FinallyBlock<<24)>>32)))); // CatchBlocks__Option_FinallyBlock -> CatchBlocks Option_FinallyBlock : ($1,$2)
+      values.add(CatchBlocks__Option_FinallyBlock0((List)values.get((int)(slices.get(iCatchBlocks<<24)>>32)),(Option)values.get((int)(slices.get(iOption_FinallyBlock<<24)>>32)))); prior(priors[(int)(slices.get(iCatchBlocks<<24)>>32)]*priors[(int)(slices.get(iOption_FinallyBlock<<24)>>32)]); // CatchBlocks__Option_FinallyBlock -> CatchBlocks Option_FinallyBlock : ($1,$2)
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iCatchBlocks__Option_FinallyBlock<<24|i<<12|i,slice);
-      values.add(MaybeDo2()); // MaybeDo -> "" : None
+      values.add(MaybeDo2()); prior(1); // MaybeDo -> "" : None
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iMaybeDo<<24|i<<12|i,slice);
-      values.add(List_ExpAssignNC1()); // List_ExpAssignNC -> "" : EmptyList
+      values.add(List_ExpAssignNC1()); prior(1); // List_ExpAssignNC -> "" : EmptyList
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iList_ExpAssignNC<<24|i<<12|i,slice);
-      values.add(Commas0_ExpAssignNC1()); // Commas0_ExpAssignNC -> "" : EmptyList
+      values.add(Commas0_ExpAssignNC1()); prior(1); // Commas0_ExpAssignNC -> "" : EmptyList
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iCommas0_ExpAssignNC<<24|i<<12|i,slice);
-      values.add(Commas0_StmtHelperBS1()); // Commas0_StmtHelperBS -> "" : EmptyList
+      values.add(Commas0_StmtHelperBS1()); prior(1); // Commas0_StmtHelperBS -> "" : EmptyList
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iCommas0_StmtHelperBS<<24|i<<12|i,slice);
-      values.add(MaybeStmt1()); // MaybeStmt -> "" : HoleAStmt(SRange.empty)
+      values.add(MaybeStmt1()); prior(1); // MaybeStmt -> "" : HoleAStmt(SRange.empty)
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iMaybeStmt<<24|i<<12|i,slice);
-      values.add(MaybeColon__MaybeStmt0((AStmt)values.get((int)(slices.get(iMaybeStmt<<24)>>32)))); // MaybeColon__MaybeStmt -> MaybeColon MaybeStmt : $2
+      values.add(MaybeColon__MaybeStmt0((AStmt)values.get((int)(slices.get(iMaybeStmt<<24)>>32)))); prior(priors[(int)(slices.get(iMaybeStmt<<24)>>32)]); // MaybeColon__MaybeStmt -> MaybeColon MaybeStmt : $2
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iMaybeColon__MaybeStmt<<24|i<<12|i,slice);
-      values.add(Stmts3()); // Stmts -> "" : Nil
+      values.add(Stmts3()); prior(1); // Stmts -> "" : Nil
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iStmts<<24|i<<12|i,slice);
-      values.add(Option_ExpAssign1()); // Option_ExpAssign -> "" : None
+      values.add(Option_ExpAssign1()); prior(1); // Option_ExpAssign -> "" : None
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iOption_ExpAssign<<24|i<<12|i,slice);
-      values.add(Option_ExpCommas1()); // Option_ExpCommas -> "" : None
+      values.add(Option_ExpCommas1()); prior(1); // Option_ExpCommas -> "" : None
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iOption_ExpCommas<<24|i<<12|i,slice);
-      values.add(ArrayInterior0((KList)values.get((int)(slices.get(iArrayInteriorN1<<24)>>32)))); // ArrayInterior -> ArrayInteriorN1 : $1
+      values.add(ArrayInterior0((KList)values.get((int)(slices.get(iArrayInteriorN1<<24)>>32)))); prior(priors[(int)(slices.get(iArrayInteriorN1<<24)>>32)]); // ArrayInterior -> ArrayInteriorN1 : $1
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iArrayInterior<<24|i<<12|i,slice);
-      values.add(List_Type1()); // List_Type -> "" : EmptyList
+      values.add(List_Type1()); prior(1); // List_Type -> "" : EmptyList
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iList_Type<<24|i<<12|i,slice);
-      values.add(Option_Type1()); // Option_Type -> "" : None
+      values.add(Option_Type1()); prior(1); // Option_Type -> "" : None
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iOption_Type<<24|i<<12|i,slice);
-      values.add(Option_Ident1()); // Option_Ident -> "" : None
+      values.add(Option_Ident1()); prior(1); // Option_Ident -> "" : None
       slice = (long)next<<32|1; next += 1;
       for (int i=0;i<=n;i++) slices.put(iOption_Ident<<24|i<<12|i,slice);
     }
@@ -540,197 +993,790 @@ class ParseEddy {
       for (int lo=n;lo>=0;lo--) for (int hi=lo+1;hi<=n;hi++) {
         if (Interrupts.pending != 0) Interrupts.checkInterrupts();
         final long range = unionHelper(ranges[lo],ranges[hi-1]);
+        final int t0 = type[lo]&0xff, t1 = type[hi-1]&0xff, size = hi-lo;
+        cells$0(lo,hi,range,t0,t1,size);
+        cells$1(lo,hi,range,t0,t1,size);
+        cells$2(lo,hi,range,t0,t1,size);
+        cells$3(lo,hi,range,t0,t1,size);
+      }
+    }
+
+    private void cells$0(final int lo, final int hi, final long range, final int t0, final int t1, final int size) {
+      if (size>=3 && in(firsts,iCommas2_ExpAssignNC,t0) && in(lasts,iCommas2_ExpAssignNC,t1)) {
+        visits++;
         Commas2_ExpAssignNC(lo,hi,range);
+      }
+      if (in(firsts,iDims,t0) && in(lasts,iDims,t1)) {
+        visits++;
         Dims(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iRight__ExpUnary_ExpJuxt,t0) && in(lasts,iRight__ExpUnary_ExpJuxt,t1)) {
+        visits++;
         Right__ExpUnary_ExpJuxt(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iGtSep,t0) && in(lasts,iGtSep,t1)) {
+        visits++;
         GtSep(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iExpHigh__Left,t0) && in(lasts,iExpHigh__Left,t1)) {
+        visits++;
         ExpHigh__Left(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iJuxts2_ExpWild,t0) && in(lasts,iJuxts2_ExpWild,t1)) {
+        visits++;
         Juxts2_ExpWild(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iJuxts2_ExpAssignNC,t0) && in(lasts,iJuxts2_ExpAssignNC,t1)) {
+        visits++;
         Juxts2_ExpAssignNC(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iDotTok__Option_TypeArgs__Ident,t0) && in(lasts,iDotTok__Option_TypeArgs__Ident,t1)) {
+        visits++;
         DotTok__Option_TypeArgs__Ident(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iAssignOp,t0) && in(lasts,iAssignOp,t1)) {
+        visits++;
         AssignOp(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iInstanceof__Type,t0) && in(lasts,iInstanceof__Type,t1)) {
+        visits++;
         Instanceof__Type(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iForeachSep__ExpAssign,t0) && in(lasts,iForeachSep__ExpAssign,t1)) {
+        visits++;
         ForeachSep__ExpAssign(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iDims__ForeachSep__ExpAssign,t0) && in(lasts,iDims__ForeachSep__ExpAssign,t1)) {
+        visits++;
         Dims__ForeachSep__ExpAssign(lo,hi,range);
+      }
+      if (size>=4 && in(firsts,iForTok__Left__ForInfo,t0) && in(lasts,iForTok__Left__ForInfo,t1)) {
+        visits++;
         ForTok__Left__ForInfo(lo,hi,range);
+      }
+      if (in(firsts,iWildcardBounds,t0) && in(lasts,iWildcardBounds,t1)) {
+        visits++;
         WildcardBounds(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iPreOp,t0) && in(lasts,iPreOp,t1)) {
+        visits++;
         PreOp(lo,hi,range);
+      }
+      if (size>=2 && size<=2 && in(firsts,iRight__ClassBody,t0) && in(lasts,iRight__ClassBody,t1)) {
+        visits++;
         Right__ClassBody(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iList_ExpAssignNC__Right__ClassBody,t0) && in(lasts,iList_ExpAssignNC__Right__ClassBody,t1)) {
+        visits++;
         List_ExpAssignNC__Right__ClassBody(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iExpAssignNP__Then,t0) && in(lasts,iExpAssignNP__Then,t1)) {
+        visits++;
         ExpAssignNP__Then(lo,hi,range);
+      }
+      if (in(firsts,iDoTok__MaybeColon__MaybeStmt,t0) && in(lasts,iDoTok__MaybeColon__MaybeStmt,t1)) {
+        visits++;
         DoTok__MaybeColon__MaybeStmt(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iDo__Stmt,t0) && in(lasts,iDo__Stmt,t1)) {
+        visits++;
         Do__Stmt(lo,hi,range);
+      }
+      if (in(firsts,iDims__EqTok__Option_ExpCommas,t0) && in(lasts,iDims__EqTok__Option_ExpCommas,t1)) {
+        visits++;
         Dims__EqTok__Option_ExpCommas(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iClassBody,t0) && in(lasts,iClassBody,t1)) {
+        visits++;
         ClassBody(lo,hi,range);
+      }
+      if (size>=3 && in(firsts,iParenExp,t0) && in(lasts,iParenExp,t1)) {
+        visits++;
         ParenExp(lo,hi,range);
+      }
+      if (size>=3 && in(firsts,iParenExp__MaybeThen,t0) && in(lasts,iParenExp__MaybeThen,t1)) {
+        visits++;
         ParenExp__MaybeThen(lo,hi,range);
+      }
+      if (in(firsts,iFinallyBlock,t0) && in(lasts,iFinallyBlock,t1)) {
+        visits++;
         FinallyBlock(lo,hi,range);
+      }
+      if (in(firsts,iOption_FinallyBlock,t0) && in(lasts,iOption_FinallyBlock,t1)) {
+        visits++;
         Option_FinallyBlock(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iSynchronizedTok__ExpAssignNP,t0) && in(lasts,iSynchronizedTok__ExpAssignNP,t1)) {
+        visits++;
         SynchronizedTok__ExpAssignNP(lo,hi,range);
+      }
+      if (size>=4 && in(firsts,iCatchTok__Left__Ident__ColonTok__Juxts0_Mod,t0) && in(lasts,iCatchTok__Left__Ident__ColonTok__Juxts0_Mod,t1)) {
+        visits++;
         CatchTok__Left__Ident__ColonTok__Juxts0_Mod(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iPostOp,t0) && in(lasts,iPostOp,t1)) {
+        visits++;
         PostOp(lo,hi,range);
+      }
+      if (size<=2 && in(firsts,iThen,t0) && in(lasts,iThen,t1)) {
+        visits++;
         Then(lo,hi,range);
+      }
+      if (size>=3 && in(firsts,iCommas2_Type,t0) && in(lasts,iCommas2_Type,t1)) {
+        visits++;
         Commas2_Type(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iTryTok__MaybeColon__Stmt,t0) && in(lasts,iTryTok__MaybeColon__Stmt,t1)) {
+        visits++;
         TryTok__MaybeColon__Stmt(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iJuxts2_ExpWildNA,t0) && in(lasts,iJuxts2_ExpWildNA,t1)) {
+        visits++;
         Juxts2_ExpWildNA(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iExpParens,t0) && in(lasts,iExpParens,t1)) {
+        visits++;
         ExpParens(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iTypeArgs,t0) && in(lasts,iTypeArgs,t1)) {
+        visits++;
         TypeArgs(lo,hi,range);
+      }
+      if (in(firsts,iOption_TypeArgs,t0) && in(lasts,iOption_TypeArgs,t1)) {
+        visits++;
         Option_TypeArgs(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iExpNew__Left,t0) && in(lasts,iExpNew__Left,t1)) {
+        visits++;
         ExpNew__Left(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iJuxts2_VarDecl,t0) && in(lasts,iJuxts2_VarDecl,t1)) {
+        visits++;
         Juxts2_VarDecl(lo,hi,range);
+      }
+      if (size<=2 && in(firsts,iMaybeThen,t0) && in(lasts,iMaybeThen,t1)) {
+        visits++;
         MaybeThen(lo,hi,range);
+      }
+      if (in(firsts,iDimExps,t0) && in(lasts,iDimExps,t1)) {
+        visits++;
         DimExps(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iLeftNP,t0) && in(lasts,iLeftNP,t1)) {
+        visits++;
         LeftNP(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iElseTok__MaybeColon__Stmt,t0) && in(lasts,iElseTok__MaybeColon__Stmt,t1)) {
+        visits++;
         ElseTok__MaybeColon__Stmt(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iMaybeStmt__ElseTok__MaybeColon__Stmt,t0) && in(lasts,iMaybeStmt__ElseTok__MaybeColon__Stmt,t1)) {
+        visits++;
         MaybeStmt__ElseTok__MaybeColon__Stmt(lo,hi,range);
+      }
+      if (size>=4 && in(firsts,iQuestionTok__ExpAssign__ColonTok__ExpCond_ExpJuxt,t0) && in(lasts,iQuestionTok__ExpAssign__ColonTok__ExpCond_ExpJuxt,t1)) {
+        visits++;
         QuestionTok__ExpAssign__ColonTok__ExpCond_ExpJuxt(lo,hi,range);
+      }
+      if (size>=2 && size<=2 && in(firsts,iCatchTok__Left,t0) && in(lasts,iCatchTok__Left,t1)) {
+        visits++;
         CatchTok__Left(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iThen__Stmt,t0) && in(lasts,iThen__Stmt,t1)) {
+        visits++;
         Then__Stmt(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iMaybeColon,t0) && in(lasts,iMaybeColon,t1)) {
+        visits++;
         MaybeColon(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iExpAssign__Right,t0) && in(lasts,iExpAssign__Right,t1)) {
+        visits++;
         ExpAssign__Right(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iLeft,t0) && in(lasts,iLeft,t1)) {
+        visits++;
         Left(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iWhileUntil,t0) && in(lasts,iWhileUntil,t1)) {
+        visits++;
         WhileUntil(lo,hi,range);
+      }
+    }
+
+    private void cells$1(final int lo, final int hi, final long range, final int t0, final int t1, final int size) {
+      if (size<=2 && in(firsts,iMod,t0) && in(lasts,iMod,t1)) {
+        visits++;
         Mod(lo,hi,range);
+      }
+      if (in(firsts,iJuxts1_Mod,t0) && in(lasts,iJuxts1_Mod,t1)) {
+        visits++;
         Juxts1_Mod(lo,hi,range);
+      }
+      if (in(firsts,iJuxts0_Mod,t0) && in(lasts,iJuxts0_Mod,t1)) {
+        visits++;
         Juxts0_Mod(lo,hi,range);
+      }
+      if (in(firsts,iNewTok__Option_TypeArgs,t0) && in(lasts,iNewTok__Option_TypeArgs,t1)) {
+        visits++;
         NewTok__Option_TypeArgs(lo,hi,range);
+      }
+      if (size>=3 && in(firsts,iCatchTok__Ident__ColonTok__Juxts0_Mod,t0) && in(lasts,iCatchTok__Ident__ColonTok__Juxts0_Mod,t1)) {
+        visits++;
         CatchTok__Ident__ColonTok__Juxts0_Mod(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iRight__MaybeDo__Stmt,t0) && in(lasts,iRight__MaybeDo__Stmt,t1)) {
+        visits++;
         Right__MaybeDo__Stmt(lo,hi,range);
+      }
+      if (size>=2 && size<=2 && in(firsts,iIdent__Right,t0) && in(lasts,iIdent__Right,t1)) {
+        visits++;
         Ident__Right(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iIdent__Right__MaybeColon__MaybeStmt,t0) && in(lasts,iIdent__Right__MaybeColon__MaybeStmt,t1)) {
+        visits++;
         Ident__Right__MaybeColon__MaybeStmt(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iIdent__ColonTok__Juxts0_Mod,t0) && in(lasts,iIdent__ColonTok__Juxts0_Mod,t1)) {
+        visits++;
         Ident__ColonTok__Juxts0_Mod(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iDo,t0) && in(lasts,iDo,t1)) {
+        visits++;
         Do(lo,hi,range);
+      }
+      if (size>=3 && in(firsts,iCommas2_ExpCond_ExpJuxt,t0) && in(lasts,iCommas2_ExpCond_ExpJuxt,t1)) {
+        visits++;
         Commas2_ExpCond_ExpJuxt(lo,hi,range);
+      }
+      if (in(firsts,iArrayInteriorN1,t0) && in(lasts,iArrayInteriorN1,t1)) {
+        visits++;
         ArrayInteriorN1(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iJuxts2_Type,t0) && in(lasts,iJuxts2_Type,t1)) {
+        visits++;
         Juxts2_Type(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iLParenTok__Type,t0) && in(lasts,iLParenTok__Type,t1)) {
+        visits++;
         LParenTok__Type(lo,hi,range);
+      }
+      if (size>=3 && in(firsts,iCatchTok__Left__Juxts0_Mod__Type,t0) && in(lasts,iCatchTok__Left__Juxts0_Mod__Type,t1)) {
+        visits++;
         CatchTok__Left__Juxts0_Mod__Type(lo,hi,range);
+      }
+      if (size>=4 && in(firsts,iSynchronizedTok__ParenExp,t0) && in(lasts,iSynchronizedTok__ParenExp,t1)) {
+        visits++;
         SynchronizedTok__ParenExp(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iAssignOp__ExpAssign,t0) && in(lasts,iAssignOp__ExpAssign,t1)) {
+        visits++;
         AssignOp__ExpAssign(lo,hi,range);
+      }
+      if (size>=3 && in(firsts,iExpHigh__DotTok__NewTok__Option_TypeArgs,t0) && in(lasts,iExpHigh__DotTok__NewTok__Option_TypeArgs,t1)) {
+        visits++;
         ExpHigh__DotTok__NewTok__Option_TypeArgs(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iLit,t0) && in(lasts,iLit,t1)) {
+        visits++;
         Lit(lo,hi,range);
+      }
+      if (in(firsts,iLBrackTok__Option_ExpAssign,t0) && in(lasts,iLBrackTok__Option_ExpAssign,t1)) {
+        visits++;
         LBrackTok__Option_ExpAssign(lo,hi,range);
+      }
+      if (size>=4 && size<=4 && in(firsts,iCatchTok__Left__EllipsisTok__Right,t0) && in(lasts,iCatchTok__Left__EllipsisTok__Right,t1)) {
+        visits++;
         CatchTok__Left__EllipsisTok__Right(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iCatchBlock,t0) && in(lasts,iCatchBlock,t1)) {
+        visits++;
         CatchBlock(lo,hi,range);
+      }
+      if (in(firsts,iCatchBlocks,t0) && in(lasts,iCatchBlocks,t1)) {
+        visits++;
         CatchBlocks(lo,hi,range);
+      }
+      if (in(firsts,iCatchBlocks__Option_FinallyBlock,t0) && in(lasts,iCatchBlocks__Option_FinallyBlock,t1)) {
+        visits++;
         CatchBlocks__Option_FinallyBlock(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iMaybeDo,t0) && in(lasts,iMaybeDo,t1)) {
+        visits++;
         MaybeDo(lo,hi,range);
+      }
+      if (size>=4 && in(firsts,iWhileUntil__ParenExp,t0) && in(lasts,iWhileUntil__ParenExp,t1)) {
+        visits++;
         WhileUntil__ParenExp(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iCatchTok__Juxts0_Mod__Type,t0) && in(lasts,iCatchTok__Juxts0_Mod__Type,t1)) {
+        visits++;
         CatchTok__Juxts0_Mod__Type(lo,hi,range);
+      }
+      if (in(firsts,iBlock,t0) && in(lasts,iBlock,t1)) {
+        visits++;
         Block(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iInstanceof,t0) && in(lasts,iInstanceof,t1)) {
+        visits++;
         Instanceof(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iRight,t0) && in(lasts,iRight,t1)) {
+        visits++;
         Right(lo,hi,range);
+      }
+      if (in(firsts,iArrayInterior__Right,t0) && in(lasts,iArrayInterior__Right,t1)) {
+        visits++;
         ArrayInterior__Right(lo,hi,range);
+      }
+      if (in(firsts,iRight__DimExps,t0) && in(lasts,iRight__DimExps,t1)) {
+        visits++;
         Right__DimExps(lo,hi,range);
+      }
+      if (in(firsts,iList_ExpAssignNC__Right,t0) && in(lasts,iList_ExpAssignNC__Right,t1)) {
+        visits++;
         List_ExpAssignNC__Right(lo,hi,range);
+      }
+      if (size<=2 && in(firsts,iRight__MaybeDo,t0) && in(lasts,iRight__MaybeDo,t1)) {
+        visits++;
         Right__MaybeDo(lo,hi,range);
+      }
+      if (in(firsts,iMaybeStmt__ElseTok__MaybeColon,t0) && in(lasts,iMaybeStmt__ElseTok__MaybeColon,t1)) {
+        visits++;
         MaybeStmt__ElseTok__MaybeColon(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iIdent,t0) && in(lasts,iIdent,t1)) {
+        visits++;
         Ident(lo,hi,range);
+      }
+      if (in(firsts,iExpPrimary,t0) && in(lasts,iExpPrimary,t1)) {
+        visits++;
         ExpPrimary(lo,hi,range);
+      }
+      if (in(firsts,iExpNew,t0) && in(lasts,iExpNew,t1)) {
+        visits++;
         ExpNew(lo,hi,range);
+      }
+      if (in(firsts,iExpHighNA,t0) && in(lasts,iExpHighNA,t1)) {
+        visits++;
         ExpHighNA(lo,hi,range);
+      }
+      if (in(firsts,iExpHighNP,t0) && in(lasts,iExpHighNP,t1)) {
+        visits++;
         ExpHighNP(lo,hi,range);
+      }
+      if (in(firsts,iExpHigh,t0) && in(lasts,iExpHigh,t1)) {
+        visits++;
         ExpHigh(lo,hi,range);
+      }
+      if (in(firsts,iExpWild,t0) && in(lasts,iExpWild,t1)) {
+        visits++;
         ExpWild(lo,hi,range);
+      }
+      if (in(firsts,iJuxts1_ExpWild,t0) && in(lasts,iJuxts1_ExpWild,t1)) {
+        visits++;
         Juxts1_ExpWild(lo,hi,range);
+      }
+      if (in(firsts,iExpJuxt,t0) && in(lasts,iExpJuxt,t1)) {
+        visits++;
         ExpJuxt(lo,hi,range);
+      }
+      if (in(firsts,iExpUnary_ExpJuxt,t0) && in(lasts,iExpUnary_ExpJuxt,t1)) {
+        visits++;
         ExpUnary_ExpJuxt(lo,hi,range);
+      }
+      if (in(firsts,iExpMul_ExpJuxt,t0) && in(lasts,iExpMul_ExpJuxt,t1)) {
+        visits++;
         ExpMul_ExpJuxt(lo,hi,range);
+      }
+      if (in(firsts,iExpAdd_ExpJuxt,t0) && in(lasts,iExpAdd_ExpJuxt,t1)) {
+        visits++;
         ExpAdd_ExpJuxt(lo,hi,range);
+      }
+      if (in(firsts,iExpShift_ExpJuxt,t0) && in(lasts,iExpShift_ExpJuxt,t1)) {
+        visits++;
         ExpShift_ExpJuxt(lo,hi,range);
+      }
+      if (in(firsts,iExpRel_ExpJuxt,t0) && in(lasts,iExpRel_ExpJuxt,t1)) {
+        visits++;
         ExpRel_ExpJuxt(lo,hi,range);
+      }
+      if (in(firsts,iExpEq_ExpJuxt,t0) && in(lasts,iExpEq_ExpJuxt,t1)) {
+        visits++;
         ExpEq_ExpJuxt(lo,hi,range);
+      }
+    }
+
+    private void cells$2(final int lo, final int hi, final long range, final int t0, final int t1, final int size) {
+      if (in(firsts,iExpAnd_ExpJuxt,t0) && in(lasts,iExpAnd_ExpJuxt,t1)) {
+        visits++;
         ExpAnd_ExpJuxt(lo,hi,range);
+      }
+      if (in(firsts,iExpXor_ExpJuxt,t0) && in(lasts,iExpXor_ExpJuxt,t1)) {
+        visits++;
         ExpXor_ExpJuxt(lo,hi,range);
+      }
+      if (in(firsts,iExpOr_ExpJuxt,t0) && in(lasts,iExpOr_ExpJuxt,t1)) {
+        visits++;
         ExpOr_ExpJuxt(lo,hi,range);
+      }
+      if (in(firsts,iExpAndAnd_ExpJuxt,t0) && in(lasts,iExpAndAnd_ExpJuxt,t1)) {
+        visits++;
         ExpAndAnd_ExpJuxt(lo,hi,range);
+      }
+      if (in(firsts,iExpOrOr_ExpJuxt,t0) && in(lasts,iExpOrOr_ExpJuxt,t1)) {
+        visits++;
         ExpOrOr_ExpJuxt(lo,hi,range);
+      }
+      if (in(firsts,iExpCond_ExpJuxt,t0) && in(lasts,iExpCond_ExpJuxt,t1)) {
+        visits++;
         ExpCond_ExpJuxt(lo,hi,range);
+      }
+      if (in(firsts,iExpAssignNC,t0) && in(lasts,iExpAssignNC,t1)) {
+        visits++;
         ExpAssignNC(lo,hi,range);
+      }
+      if (in(firsts,iList1_ExpAssignNC,t0) && in(lasts,iList1_ExpAssignNC,t1)) {
+        visits++;
         List1_ExpAssignNC(lo,hi,range);
+      }
+      if (in(firsts,iList_ExpAssignNC,t0) && in(lasts,iList_ExpAssignNC,t1)) {
+        visits++;
         List_ExpAssignNC(lo,hi,range);
+      }
+      if (in(firsts,iCommas1_ExpAssignNC,t0) && in(lasts,iCommas1_ExpAssignNC,t1)) {
+        visits++;
         Commas1_ExpAssignNC(lo,hi,range);
+      }
+      if (in(firsts,iCommas0_ExpAssignNC,t0) && in(lasts,iCommas0_ExpAssignNC,t1)) {
+        visits++;
         Commas0_ExpAssignNC(lo,hi,range);
+      }
+      if (in(firsts,iJuxts1_ExpAssignNC,t0) && in(lasts,iJuxts1_ExpAssignNC,t1)) {
+        visits++;
         Juxts1_ExpAssignNC(lo,hi,range);
+      }
+      if (in(firsts,iExpCommas,t0) && in(lasts,iExpCommas,t1)) {
+        visits++;
         ExpCommas(lo,hi,range);
+      }
+      if (in(firsts,iExpAssign,t0) && in(lasts,iExpAssign,t1)) {
+        visits++;
         ExpAssign(lo,hi,range);
+      }
+      if (in(firsts,iStmtHelperBS,t0) && in(lasts,iStmtHelperBS,t1)) {
+        visits++;
         StmtHelperBS(lo,hi,range);
+      }
+      if (in(firsts,iCommas1_StmtHelperBS,t0) && in(lasts,iCommas1_StmtHelperBS,t1)) {
+        visits++;
         Commas1_StmtHelperBS(lo,hi,range);
+      }
+      if (in(firsts,iCommas0_StmtHelperBS,t0) && in(lasts,iCommas0_StmtHelperBS,t1)) {
+        visits++;
         Commas0_StmtHelperBS(lo,hi,range);
+      }
+      if (in(firsts,iStmtHelper,t0) && in(lasts,iStmtHelper,t1)) {
+        visits++;
         StmtHelper(lo,hi,range);
+      }
+      if (in(firsts,iStmt,t0) && in(lasts,iStmt,t1)) {
+        visits++;
         Stmt(lo,hi,range);
+      }
+      if (in(firsts,iMaybeDo__Stmt,t0) && in(lasts,iMaybeDo__Stmt,t1)) {
+        visits++;
         MaybeDo__Stmt(lo,hi,range);
+      }
+      if (in(firsts,iMaybeThen__Stmt,t0) && in(lasts,iMaybeThen__Stmt,t1)) {
+        visits++;
         MaybeThen__Stmt(lo,hi,range);
+      }
+      if (in(firsts,iMaybeStmt,t0) && in(lasts,iMaybeStmt,t1)) {
+        visits++;
         MaybeStmt(lo,hi,range);
+      }
+      if (in(firsts,iMaybeColon__MaybeStmt,t0) && in(lasts,iMaybeColon__MaybeStmt,t1)) {
+        visits++;
         MaybeColon__MaybeStmt(lo,hi,range);
+      }
+      if (in(firsts,iStmts,t0) && in(lasts,iStmts,t1)) {
+        visits++;
         Stmts(lo,hi,range);
+      }
+      if (in(firsts,iOption_ExpAssign,t0) && in(lasts,iOption_ExpAssign,t1)) {
+        visits++;
         Option_ExpAssign(lo,hi,range);
+      }
+      if (in(firsts,iOption_ExpCommas,t0) && in(lasts,iOption_ExpCommas,t1)) {
+        visits++;
         Option_ExpCommas(lo,hi,range);
+      }
+      if (in(firsts,iCommas1_ExpCond_ExpJuxt,t0) && in(lasts,iCommas1_ExpCond_ExpJuxt,t1)) {
+        visits++;
         Commas1_ExpCond_ExpJuxt(lo,hi,range);
+      }
+      if (in(firsts,iExpUnary_ExpWild,t0) && in(lasts,iExpUnary_ExpWild,t1)) {
+        visits++;
         ExpUnary_ExpWild(lo,hi,range);
+      }
+      if (in(firsts,iExpMul_ExpWild,t0) && in(lasts,iExpMul_ExpWild,t1)) {
+        visits++;
         ExpMul_ExpWild(lo,hi,range);
+      }
+      if (in(firsts,iExpAdd_ExpWild,t0) && in(lasts,iExpAdd_ExpWild,t1)) {
+        visits++;
         ExpAdd_ExpWild(lo,hi,range);
+      }
+      if (in(firsts,iExpShift_ExpWild,t0) && in(lasts,iExpShift_ExpWild,t1)) {
+        visits++;
         ExpShift_ExpWild(lo,hi,range);
+      }
+      if (in(firsts,iExpRel_ExpWild,t0) && in(lasts,iExpRel_ExpWild,t1)) {
+        visits++;
         ExpRel_ExpWild(lo,hi,range);
+      }
+      if (in(firsts,iExpEq_ExpWild,t0) && in(lasts,iExpEq_ExpWild,t1)) {
+        visits++;
         ExpEq_ExpWild(lo,hi,range);
+      }
+      if (in(firsts,iExpAnd_ExpWild,t0) && in(lasts,iExpAnd_ExpWild,t1)) {
+        visits++;
         ExpAnd_ExpWild(lo,hi,range);
+      }
+      if (in(firsts,iExpXor_ExpWild,t0) && in(lasts,iExpXor_ExpWild,t1)) {
+        visits++;
         ExpXor_ExpWild(lo,hi,range);
+      }
+      if (in(firsts,iExpOr_ExpWild,t0) && in(lasts,iExpOr_ExpWild,t1)) {
+        visits++;
         ExpOr_ExpWild(lo,hi,range);
+      }
+      if (in(firsts,iExpAndAnd_ExpWild,t0) && in(lasts,iExpAndAnd_ExpWild,t1)) {
+        visits++;
         ExpAndAnd_ExpWild(lo,hi,range);
+      }
+      if (in(firsts,iExpOrOr_ExpWild,t0) && in(lasts,iExpOrOr_ExpWild,t1)) {
+        visits++;
         ExpOrOr_ExpWild(lo,hi,range);
+      }
+      if (in(firsts,iExpCond_ExpWild,t0) && in(lasts,iExpCond_ExpWild,t1)) {
+        visits++;
         ExpCond_ExpWild(lo,hi,range);
+      }
+      if (in(firsts,iArrayInterior,t0) && in(lasts,iArrayInterior,t1)) {
+        visits++;
         ArrayInterior(lo,hi,range);
+      }
+      if (in(firsts,iType,t0) && in(lasts,iType,t1)) {
+        visits++;
         Type(lo,hi,range);
+      }
+      if (in(firsts,iJuxts1_Type,t0) && in(lasts,iJuxts1_Type,t1)) {
+        visits++;
         Juxts1_Type(lo,hi,range);
+      }
+      if (in(firsts,iJuxts0_Mod__Type,t0) && in(lasts,iJuxts0_Mod__Type,t1)) {
+        visits++;
         Juxts0_Mod__Type(lo,hi,range);
+      }
+      if (in(firsts,iList1_Type,t0) && in(lasts,iList1_Type,t1)) {
+        visits++;
         List1_Type(lo,hi,range);
+      }
+      if (in(firsts,iList_Type,t0) && in(lasts,iList_Type,t1)) {
+        visits++;
         List_Type(lo,hi,range);
+      }
+      if (in(firsts,iOption_Type,t0) && in(lasts,iOption_Type,t1)) {
+        visits++;
         Option_Type(lo,hi,range);
+      }
+      if (in(firsts,iCommas1_Type,t0) && in(lasts,iCommas1_Type,t1)) {
+        visits++;
         Commas1_Type(lo,hi,range);
+      }
+      if (in(firsts,iType__MaybeColon__MaybeStmt,t0) && in(lasts,iType__MaybeColon__MaybeStmt,t1)) {
+        visits++;
         Type__MaybeColon__MaybeStmt(lo,hi,range);
+      }
+      if (in(firsts,iExpWildNP,t0) && in(lasts,iExpWildNP,t1)) {
+        visits++;
         ExpWildNP(lo,hi,range);
+      }
+      if (in(firsts,iExpJuxtNP,t0) && in(lasts,iExpJuxtNP,t1)) {
+        visits++;
         ExpJuxtNP(lo,hi,range);
+      }
+    }
+
+    private void cells$3(final int lo, final int hi, final long range, final int t0, final int t1, final int size) {
+      if (in(firsts,iExpUnary_ExpJuxtNP,t0) && in(lasts,iExpUnary_ExpJuxtNP,t1)) {
+        visits++;
         ExpUnary_ExpJuxtNP(lo,hi,range);
+      }
+      if (in(firsts,iExpMul_ExpJuxtNP,t0) && in(lasts,iExpMul_ExpJuxtNP,t1)) {
+        visits++;
         ExpMul_ExpJuxtNP(lo,hi,range);
+      }
+      if (in(firsts,iExpAdd_ExpJuxtNP,t0) && in(lasts,iExpAdd_ExpJuxtNP,t1)) {
+        visits++;
         ExpAdd_ExpJuxtNP(lo,hi,range);
+      }
+      if (in(firsts,iExpShift_ExpJuxtNP,t0) && in(lasts,iExpShift_ExpJuxtNP,t1)) {
+        visits++;
         ExpShift_ExpJuxtNP(lo,hi,range);
+      }
+      if (in(firsts,iExpRel_ExpJuxtNP,t0) && in(lasts,iExpRel_ExpJuxtNP,t1)) {
+        visits++;
         ExpRel_ExpJuxtNP(lo,hi,range);
+      }
+      if (in(firsts,iExpEq_ExpJuxtNP,t0) && in(lasts,iExpEq_ExpJuxtNP,t1)) {
+        visits++;
         ExpEq_ExpJuxtNP(lo,hi,range);
+      }
+      if (in(firsts,iExpAnd_ExpJuxtNP,t0) && in(lasts,iExpAnd_ExpJuxtNP,t1)) {
+        visits++;
         ExpAnd_ExpJuxtNP(lo,hi,range);
+      }
+      if (in(firsts,iExpXor_ExpJuxtNP,t0) && in(lasts,iExpXor_ExpJuxtNP,t1)) {
+        visits++;
         ExpXor_ExpJuxtNP(lo,hi,range);
+      }
+      if (in(firsts,iExpOr_ExpJuxtNP,t0) && in(lasts,iExpOr_ExpJuxtNP,t1)) {
+        visits++;
         ExpOr_ExpJuxtNP(lo,hi,range);
+      }
+      if (in(firsts,iExpAndAnd_ExpJuxtNP,t0) && in(lasts,iExpAndAnd_ExpJuxtNP,t1)) {
+        visits++;
         ExpAndAnd_ExpJuxtNP(lo,hi,range);
+      }
+      if (in(firsts,iExpOrOr_ExpJuxtNP,t0) && in(lasts,iExpOrOr_ExpJuxtNP,t1)) {
+        visits++;
         ExpOrOr_ExpJuxtNP(lo,hi,range);
+      }
+      if (in(firsts,iExpCond_ExpJuxtNP,t0) && in(lasts,iExpCond_ExpJuxtNP,t1)) {
+        visits++;
         ExpCond_ExpJuxtNP(lo,hi,range);
+      }
+      if (in(firsts,iExpAssignNP,t0) && in(lasts,iExpAssignNP,t1)) {
+        visits++;
         ExpAssignNP(lo,hi,range);
+      }
+      if (in(firsts,iAfterIfB,t0) && in(lasts,iAfterIfB,t1)) {
+        visits++;
         AfterIfB(lo,hi,range);
+      }
+      if (in(firsts,iMaybeParenExp,t0) && in(lasts,iMaybeParenExp,t1)) {
+        visits++;
         MaybeParenExp(lo,hi,range);
+      }
+      if (in(firsts,iMaybeParenExp__MaybeDo,t0) && in(lasts,iMaybeParenExp__MaybeDo,t1)) {
+        visits++;
         MaybeParenExp__MaybeDo(lo,hi,range);
+      }
+      if (in(firsts,iAfterIfA,t0) && in(lasts,iAfterIfA,t1)) {
+        visits++;
         AfterIfA(lo,hi,range);
+      }
+      if (in(firsts,iAfterIf,t0) && in(lasts,iAfterIf,t1)) {
+        visits++;
         AfterIf(lo,hi,range);
+      }
+      if (in(firsts,iExpWildNA,t0) && in(lasts,iExpWildNA,t1)) {
+        visits++;
         ExpWildNA(lo,hi,range);
+      }
+      if (in(firsts,iSingleJuxt1_ExpWildNA,t0) && in(lasts,iSingleJuxt1_ExpWildNA,t1)) {
+        visits++;
         SingleJuxt1_ExpWildNA(lo,hi,range);
+      }
+      if (in(firsts,iJuxts1_ExpWildNA,t0) && in(lasts,iJuxts1_ExpWildNA,t1)) {
+        visits++;
         Juxts1_ExpWildNA(lo,hi,range);
+      }
+      if (in(firsts,iExpPrimary__DimExps,t0) && in(lasts,iExpPrimary__DimExps,t1)) {
+        visits++;
         ExpPrimary__DimExps(lo,hi,range);
+      }
+      if (in(firsts,iVarDecl,t0) && in(lasts,iVarDecl,t1)) {
+        visits++;
         VarDecl(lo,hi,range);
+      }
+      if (in(firsts,iJuxts1_VarDecl,t0) && in(lasts,iJuxts1_VarDecl,t1)) {
+        visits++;
         Juxts1_VarDecl(lo,hi,range);
+      }
+      if (in(firsts,iCommas1_VarDecl,t0) && in(lasts,iCommas1_VarDecl,t1)) {
+        visits++;
         Commas1_VarDecl(lo,hi,range);
+      }
+      if (in(firsts,iIdent__MaybeColon__MaybeStmt,t0) && in(lasts,iIdent__MaybeColon__MaybeStmt,t1)) {
+        visits++;
         Ident__MaybeColon__MaybeStmt(lo,hi,range);
+      }
+      if (in(firsts,iOption_Type__Ident,t0) && in(lasts,iOption_Type__Ident,t1)) {
+        visits++;
         Option_Type__Ident(lo,hi,range);
+      }
+      if (in(firsts,iJuxts0_Mod__Option_Type__Ident,t0) && in(lasts,iJuxts0_Mod__Option_Type__Ident,t1)) {
+        visits++;
         Juxts0_Mod__Option_Type__Ident(lo,hi,range);
+      }
+      if (size<=1 && in(firsts,iOption_Ident,t0) && in(lasts,iOption_Ident,t1)) {
+        visits++;
         Option_Ident(lo,hi,range);
+      }
+      if (size<=2 && in(firsts,iForeachSep,t0) && in(lasts,iForeachSep,t1)) {
+        visits++;
         ForeachSep(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iSemiTok__Option_ExpAssign__SemiTok__Commas0_ExpAssignNC,t0) && in(lasts,iSemiTok__Option_ExpAssign__SemiTok__Commas0_ExpAssignNC,t1)) {
+        visits++;
         SemiTok__Option_ExpAssign__SemiTok__Commas0_ExpAssignNC(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iForInfo,t0) && in(lasts,iForInfo,t1)) {
+        visits++;
         ForInfo(lo,hi,range);
+      }
+      if (size>=3 && in(firsts,iCommas2_VarDecl,t0) && in(lasts,iCommas2_VarDecl,t1)) {
+        visits++;
         Commas2_VarDecl(lo,hi,range);
+      }
+      if (in(firsts,iList1_VarDecl,t0) && in(lasts,iList1_VarDecl,t1)) {
+        visits++;
         List1_VarDecl(lo,hi,range);
+      }
+      if (in(firsts,iOption_Type__List1_VarDecl,t0) && in(lasts,iOption_Type__List1_VarDecl,t1)) {
+        visits++;
         Option_Type__List1_VarDecl(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iWhileUntil__MaybeParenExp,t0) && in(lasts,iWhileUntil__MaybeParenExp,t1)) {
+        visits++;
         WhileUntil__MaybeParenExp(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iElifTok__MaybeColon__AfterIf,t0) && in(lasts,iElifTok__MaybeColon__AfterIf,t1)) {
+        visits++;
         ElifTok__MaybeColon__AfterIf(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iMaybeStmt__ElifTok__MaybeColon__AfterIf,t0) && in(lasts,iMaybeStmt__ElifTok__MaybeColon__AfterIf,t1)) {
+        visits++;
         MaybeStmt__ElifTok__MaybeColon__AfterIf(lo,hi,range);
+      }
+      if (size>=3 && in(firsts,iForTok__ForInfo,t0) && in(lasts,iForTok__ForInfo,t1)) {
+        visits++;
         ForTok__ForInfo(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iType__Right,t0) && in(lasts,iType__Right,t1)) {
+        visits++;
         Type__Right(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iType__Right__MaybeColon__MaybeStmt,t0) && in(lasts,iType__Right__MaybeColon__MaybeStmt,t1)) {
+        visits++;
         Type__Right__MaybeColon__MaybeStmt(lo,hi,range);
+      }
+      if (size>=2 && in(firsts,iWhileUntil__ExpAssignNP,t0) && in(lasts,iWhileUntil__ExpAssignNP,t1)) {
+        visits++;
         WhileUntil__ExpAssignNP(lo,hi,range);
       }
     }
@@ -743,8 +1789,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAssignNC<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iCommas1_ExpAssignNC<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Commas2_ExpAssignNC0((AExp)values.get((int)(s1>>32)+k1),(CommaList1)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -761,8 +1809,10 @@ class ParseEddy {
             final long s1 = slices.get(iRight<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iDims<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Dims0((Loc)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3),ranges[lo]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -779,8 +1829,10 @@ class ParseEddy {
             final long s1 = slices.get(iRight<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpUnary_ExpJuxt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Right__ExpUnary_ExpJuxt0((Loc)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -806,8 +1858,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpHigh<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iLeft<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpHigh__Left0((AExp)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -824,8 +1878,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpWild<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iJuxts1_ExpWild<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Juxts2_ExpWild0((AExp)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -842,8 +1898,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAssignNC<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iJuxts1_ExpAssignNC<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Juxts2_ExpAssignNC0((AExp)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -860,8 +1918,10 @@ class ParseEddy {
             final long s1 = slices.get(iOption_TypeArgs<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iIdent<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(DotTok__Option_TypeArgs__Ident0((Option)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3),ranges[lo]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -872,30 +1932,54 @@ class ParseEddy {
 
     private void AssignOp(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==1 && type[lo]==iOrEqTok)
+      if (hi-lo==1 && type[lo]==iOrEqTok) {
         values.add(AssignOp0(range));
-      if (hi-lo==1 && type[lo]==iPlusEqTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iPlusEqTok) {
         values.add(AssignOp1(range));
-      if (hi-lo==1 && type[lo]==iMinusEqTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iMinusEqTok) {
         values.add(AssignOp2(range));
-      if (hi-lo==1 && type[lo]==iModEqTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iModEqTok) {
         values.add(AssignOp3(range));
-      if (hi-lo==1 && type[lo]==iAndEqTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iAndEqTok) {
         values.add(AssignOp4(range));
-      if (hi-lo==1 && type[lo]==iEqTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iEqTok) {
         values.add(AssignOp5(range));
-      if (hi-lo==1 && type[lo]==iUnsignedRShiftEqTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iUnsignedRShiftEqTok) {
         values.add(AssignOp6(range));
-      if (hi-lo==1 && type[lo]==iRShiftEqTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iRShiftEqTok) {
         values.add(AssignOp7(range));
-      if (hi-lo==1 && type[lo]==iMulEqTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iMulEqTok) {
         values.add(AssignOp8(range));
-      if (hi-lo==1 && type[lo]==iDivEqTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iDivEqTok) {
         values.add(AssignOp9(range));
-      if (hi-lo==1 && type[lo]==iLShiftEqTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iLShiftEqTok) {
         values.add(AssignOp10(range));
-      if (hi-lo==1 && type[lo]==iXorEqTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iXorEqTok) {
         values.add(AssignOp11(range));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iAssignOp<<24|lo<<12|hi,(long)prev<<32|count); }
     }
@@ -908,8 +1992,10 @@ class ParseEddy {
             final long s1 = slices.get(iInstanceof<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iType<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Instanceof__Type0((Loc)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -926,8 +2012,10 @@ class ParseEddy {
             final long s1 = slices.get(iForeachSep<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAssign<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ForeachSep__ExpAssign0((Long)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -944,8 +2032,10 @@ class ParseEddy {
             final long s1 = slices.get(iDims<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iForeachSep__ExpAssign<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Dims__ForeachSep__ExpAssign0((List)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -962,8 +2052,10 @@ class ParseEddy {
             final long s1 = slices.get(iLeft<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iForInfo<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ForTok__Left__ForInfo0((Loc)values.get((int)(s1>>32)+k1),(ForInfo)values.get((int)(s3>>32)+k3),ranges[lo]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -977,22 +2069,28 @@ class ParseEddy {
       if (hi-lo>=2 && type[lo]==iSuperTok) {
         final long s1 = slices.get(iType<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(WildcardBounds0((AExp)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=2 && type[lo]==iColonTok) {
         final long s1 = slices.get(iType<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(WildcardBounds1((AExp)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=2 && type[lo]==iExtendsTok) {
         final long s1 = slices.get(iType<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(WildcardBounds2((AExp)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -1001,18 +2099,30 @@ class ParseEddy {
 
     private void PreOp(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==1 && type[lo]==iMinusTok)
+      if (hi-lo==1 && type[lo]==iMinusTok) {
         values.add(PreOp0(range));
-      if (hi-lo==1 && type[lo]==iNotTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iNotTok) {
         values.add(PreOp1(range));
-      if (hi-lo==1 && type[lo]==iMinusMinusTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iMinusMinusTok) {
         values.add(PreOp2(range));
-      if (hi-lo==1 && type[lo]==iPlusTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iPlusTok) {
         values.add(PreOp3(range));
-      if (hi-lo==1 && type[lo]==iPlusPlusTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iPlusPlusTok) {
         values.add(PreOp4(range));
-      if (hi-lo==1 && type[lo]==iCompTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iCompTok) {
         values.add(PreOp5(range));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iPreOp<<24|lo<<12|hi,(long)prev<<32|count); }
     }
@@ -1025,8 +2135,10 @@ class ParseEddy {
             final long s1 = slices.get(iRight<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iClassBody<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Right__ClassBody0((Loc)values.get((int)(s1>>32)+k1),(AClassBody)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1043,8 +2155,10 @@ class ParseEddy {
             final long s1 = slices.get(iList_ExpAssignNC<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight__ClassBody<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(List_ExpAssignNC__Right__ClassBody0((KList)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1060,18 +2174,20 @@ class ParseEddy {
           {
             final long s1 = slices.get(iExpAssignNP<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iThen<<24|j<<12|hi); if (s3 == 0) continue;
-            for (int k1=0;k1<(s1&vMask);k1++)
+            for (int k1=0;k1<(s1&vMask);k1++) {
               values.add(ExpAssignNP__Then0((AExp)values.get((int)(s1>>32)+k1)));
+              prior(priors[(int)(s1>>32)+k1]);
+            }
           }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpAssignNP__Then<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -1084,8 +2200,10 @@ class ParseEddy {
           {
             final long s1 = slices.get(iMaybeColon<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeStmt<<24|j<<12|hi); if (s3 == 0) continue;
-            for (int k3=0;k3<(s3&vMask);k3++)
+            for (int k3=0;k3<(s3&vMask);k3++) {
               values.add(DoTok__MaybeColon__MaybeStmt0((AStmt)values.get((int)(s3>>32)+k3),ranges[lo]));
+              prior(priors[(int)(s3>>32)+k3]);
+            }
           }
         }
       }
@@ -1100,18 +2218,20 @@ class ParseEddy {
           {
             final long s1 = slices.get(iDo<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iStmt<<24|j<<12|hi); if (s3 == 0) continue;
-            for (int k3=0;k3<(s3&vMask);k3++)
+            for (int k3=0;k3<(s3&vMask);k3++) {
               values.add(Do__Stmt0((AStmt)values.get((int)(s3>>32)+k3)));
+              prior(priors[(int)(s3>>32)+k3]);
+            }
           }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AStmt> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AStmt>(Pr.parse(),(AStmt)values.remove(--size),s);
-        values.add(new ScoredAStmt(s,range));
+        final double best = best(prev,size);
+        final Scored<AStmt> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAStmt(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iDo__Stmt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -1125,8 +2245,10 @@ class ParseEddy {
             final long s1 = slices.get(iDims<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iOption_ExpCommas<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Dims__EqTok__Option_ExpCommas0((List)values.get((int)(s1>>32)+k1),(Option)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1137,8 +2259,10 @@ class ParseEddy {
 
     private void ClassBody(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==1 && type[lo]==iAnonBodyTok)
+      if (hi-lo==1 && type[lo]==iAnonBodyTok) {
         values.add(ClassBody0((AnonBodyTok)input[lo],ranges[lo]));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iClassBody<<24|lo<<12|hi,(long)prev<<32|count); }
     }
@@ -1151,8 +2275,10 @@ class ParseEddy {
             final long s1 = slices.get(iLeft<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAssign__Right<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ParenExp0((Loc)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1169,8 +2295,10 @@ class ParseEddy {
             final long s1 = slices.get(iParenExp<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeThen<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ParenExp__MaybeThen0((Tuple2)values.get((int)(s1>>32)+k1)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1186,8 +2314,10 @@ class ParseEddy {
           {
             final long s1 = slices.get(iMaybeColon<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeStmt<<24|j<<12|hi); if (s3 == 0) continue;
-            for (int k3=0;k3<(s3&vMask);k3++)
+            for (int k3=0;k3<(s3&vMask);k3++) {
               values.add(FinallyBlock0((AStmt)values.get((int)(s3>>32)+k3),ranges[lo]));
+              prior(priors[(int)(s3>>32)+k3]);
+            }
           }
         }
       }
@@ -1200,8 +2330,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iFinallyBlock<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Option_FinallyBlock0((Tuple2)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -1213,8 +2345,10 @@ class ParseEddy {
       if (hi-lo>=2 && type[lo]==iSynchronizedTok) {
         final long s1 = slices.get(iExpAssignNP<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(SynchronizedTok__ExpAssignNP0((AExp)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -1229,8 +2363,10 @@ class ParseEddy {
             final long s1 = slices.get(iCatchTok__Left<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iIdent__ColonTok__Juxts0_Mod<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(CatchTok__Left__Ident__ColonTok__Juxts0_Mod0((Tuple2)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1241,10 +2377,14 @@ class ParseEddy {
 
     private void PostOp(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==1 && type[lo]==iMinusMinusTok)
+      if (hi-lo==1 && type[lo]==iMinusMinusTok) {
         values.add(PostOp0(range));
-      if (hi-lo==1 && type[lo]==iPlusPlusTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iPlusPlusTok) {
         values.add(PostOp1(range));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iPostOp<<24|lo<<12|hi,(long)prev<<32|count); }
     }
@@ -1268,8 +2408,10 @@ class ParseEddy {
             final long s1 = slices.get(iType<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iCommas1_Type<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Commas2_Type0((AExp)values.get((int)(s1>>32)+k1),(CommaList1)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1285,8 +2427,10 @@ class ParseEddy {
           {
             final long s1 = slices.get(iMaybeColon<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iStmt<<24|j<<12|hi); if (s3 == 0) continue;
-            for (int k3=0;k3<(s3&vMask);k3++)
+            for (int k3=0;k3<(s3&vMask);k3++) {
               values.add(TryTok__MaybeColon__Stmt0((AStmt)values.get((int)(s3>>32)+k3),ranges[lo]));
+              prior(priors[(int)(s3>>32)+k3]);
+            }
           }
         }
       }
@@ -1302,8 +2446,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpWildNA<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iJuxts1_ExpWildNA<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Juxts2_ExpWildNA0((AExp)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1320,8 +2466,10 @@ class ParseEddy {
             final long s1 = slices.get(iArrayInteriorN1<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpParens0((KList)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3),ranges[lo]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1332,19 +2480,21 @@ class ParseEddy {
             final long s1 = slices.get(iExpAssignNC<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpParens1((AExp)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3),ranges[lo]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpParens<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -1357,8 +2507,10 @@ class ParseEddy {
           {
             final long s1 = slices.get(iList_Type<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iGtSep<<24|j<<12|hi-1); if (s3 == 0) continue;
-            for (int k1=0;k1<(s1&vMask);k1++)
+            for (int k1=0;k1<(s1&vMask);k1++) {
               values.add(TypeArgs0((KList)values.get((int)(s1>>32)+k1),ranges[lo],ranges[hi-1]));
+              prior(priors[(int)(s1>>32)+k1]);
+            }
           }
         }
       }
@@ -1371,8 +2523,10 @@ class ParseEddy {
       if (hi-lo>=2) {
         final long s1 = slices.get(iTypeArgs<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Option_TypeArgs0((Grouped)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -1387,8 +2541,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpNew<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iLeft<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpNew__Left0((AExp)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1405,8 +2561,10 @@ class ParseEddy {
             final long s1 = slices.get(iVarDecl<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iJuxts1_VarDecl<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Juxts2_VarDecl0((AVarDecl)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1417,12 +2575,18 @@ class ParseEddy {
 
     private void MaybeThen(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==2 && type[lo]==iThenTok && type[lo+1]==iColonTok)
+      if (hi-lo==2 && type[lo]==iThenTok && type[lo+1]==iColonTok) {
         values.add(MaybeThen0(ranges[lo],ranges[lo+1]));
-      if (hi-lo==1 && type[lo]==iColonTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iColonTok) {
         values.add(MaybeThen1(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iThenTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iThenTok) {
         values.add(MaybeThen2(ranges[lo]));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iMaybeThen<<24|lo<<12|hi,(long)prev<<32|count); }
     }
@@ -1435,8 +2599,10 @@ class ParseEddy {
             final long s1 = slices.get(iLBrackTok__Option_ExpAssign<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight__DimExps<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(DimExps0((Tuple2)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1447,10 +2613,14 @@ class ParseEddy {
 
     private void LeftNP(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==1 && type[lo]==iLCurlyTok)
+      if (hi-lo==1 && type[lo]==iLCurlyTok) {
         values.add(LeftNP0(range));
-      if (hi-lo==1 && type[lo]==iLBrackTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iLBrackTok) {
         values.add(LeftNP1(range));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iLeftNP<<24|lo<<12|hi,(long)prev<<32|count); }
     }
@@ -1462,8 +2632,10 @@ class ParseEddy {
           {
             final long s1 = slices.get(iMaybeColon<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iStmt<<24|j<<12|hi); if (s3 == 0) continue;
-            for (int k3=0;k3<(s3&vMask);k3++)
+            for (int k3=0;k3<(s3&vMask);k3++) {
               values.add(ElseTok__MaybeColon__Stmt0((AStmt)values.get((int)(s3>>32)+k3),ranges[lo]));
+              prior(priors[(int)(s3>>32)+k3]);
+            }
           }
         }
       }
@@ -1479,8 +2651,10 @@ class ParseEddy {
             final long s1 = slices.get(iMaybeStmt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iElseTok__MaybeColon__Stmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(MaybeStmt__ElseTok__MaybeColon__Stmt0((AStmt)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1497,8 +2671,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAssign<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpCond_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(QuestionTok__ExpAssign__ColonTok__ExpCond_ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[lo],ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1512,8 +2688,10 @@ class ParseEddy {
       if (hi-lo==2 && type[lo]==iCatchTok) {
         final long s1 = slices.get(iLeft<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(CatchTok__Left0((Loc)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -1527,18 +2705,20 @@ class ParseEddy {
           {
             final long s1 = slices.get(iThen<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iStmt<<24|j<<12|hi); if (s3 == 0) continue;
-            for (int k3=0;k3<(s3&vMask);k3++)
+            for (int k3=0;k3<(s3&vMask);k3++) {
               values.add(Then__Stmt0((AStmt)values.get((int)(s3>>32)+k3)));
+              prior(priors[(int)(s3>>32)+k3]);
+            }
           }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AStmt> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AStmt>(Pr.parse(),(AStmt)values.remove(--size),s);
-        values.add(new ScoredAStmt(s,range));
+        final double best = best(prev,size);
+        final Scored<AStmt> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAStmt(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iThen__Stmt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -1559,8 +2739,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAssign<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAssign__Right0((AExp)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1571,55 +2753,87 @@ class ParseEddy {
 
     private void Left(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==1 && type[lo]==iLCurlyTok)
+      if (hi-lo==1 && type[lo]==iLCurlyTok) {
         values.add(Left0(range));
-      if (hi-lo==1 && type[lo]==iLBrackTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iLBrackTok) {
         values.add(Left1(range));
-      if (hi-lo==1 && type[lo]==iLParenTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iLParenTok) {
         values.add(Left2(range));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iLeft<<24|lo<<12|hi,(long)prev<<32|count); }
     }
 
     private void WhileUntil(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==1 && type[lo]==iUntilTok)
+      if (hi-lo==1 && type[lo]==iUntilTok) {
         values.add(WhileUntil0(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iWhileTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iWhileTok) {
         values.add(WhileUntil1(ranges[lo]));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iWhileUntil<<24|lo<<12|hi,(long)prev<<32|count); }
     }
 
     private void Mod(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==1 && type[lo]==iTransientTok)
+      if (hi-lo==1 && type[lo]==iTransientTok) {
         values.add(Mod0(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iAbstractTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iAbstractTok) {
         values.add(Mod1(ranges[lo]));
+        prior(1);
+      }
       if (hi-lo==2 && type[lo]==iAtTok) {
         final long s1 = slices.get(iIdent<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Mod2((Loc)values.get((int)(s1>>32)+k),ranges[lo],range));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      if (hi-lo==1 && type[lo]==iStrictfpTok)
+      if (hi-lo==1 && type[lo]==iStrictfpTok) {
         values.add(Mod3(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iFinalTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iFinalTok) {
         values.add(Mod4(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iProtectedTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iProtectedTok) {
         values.add(Mod5(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iStaticTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iStaticTok) {
         values.add(Mod6(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iPrivateTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iPrivateTok) {
         values.add(Mod7(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iPublicTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iPublicTok) {
         values.add(Mod8(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iSynchronizedTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iSynchronizedTok) {
         values.add(Mod9(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iVolatileTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iVolatileTok) {
         values.add(Mod10(ranges[lo]));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iMod<<24|lo<<12|hi,(long)prev<<32|count); }
     }
@@ -1632,8 +2846,10 @@ class ParseEddy {
             final long s1 = slices.get(iMod<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iJuxts1_Mod<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Juxts1_Mod0((Loc)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1641,8 +2857,10 @@ class ParseEddy {
       if (1<=hi-lo && hi-lo<=2) {
         final long s1 = slices.get(iMod<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Juxts1_Mod1((Loc)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -1654,8 +2872,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iJuxts1_Mod<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Juxts0_Mod0((List)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -1667,8 +2887,10 @@ class ParseEddy {
       if (hi-lo>=1 && type[lo]==iNewTok) {
         final long s1 = slices.get(iOption_TypeArgs<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(NewTok__Option_TypeArgs0((Option)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -1683,8 +2905,10 @@ class ParseEddy {
             final long s1 = slices.get(iIdent<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iJuxts0_Mod<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(CatchTok__Ident__ColonTok__Juxts0_Mod0((Loc)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3),ranges[lo]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1701,8 +2925,10 @@ class ParseEddy {
             final long s1 = slices.get(iRight<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeDo__Stmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Right__MaybeDo__Stmt0((Loc)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1719,8 +2945,10 @@ class ParseEddy {
             final long s1 = slices.get(iIdent<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Ident__Right0((Loc)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1737,8 +2965,10 @@ class ParseEddy {
             final long s1 = slices.get(iIdent__Right<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeColon__MaybeStmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Ident__Right__MaybeColon__MaybeStmt0((Tuple2)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1755,8 +2985,10 @@ class ParseEddy {
             final long s1 = slices.get(iIdent<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iJuxts0_Mod<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Ident__ColonTok__Juxts0_Mod0((Loc)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1782,8 +3014,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpCond_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iCommas1_ExpCond_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Commas2_ExpCond_ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(CommaList1)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1797,15 +3031,19 @@ class ParseEddy {
       if (hi-lo>=2) {
         final long s1 = slices.get(iJuxts2_ExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ArrayInteriorN10((List)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=3) {
         final long s1 = slices.get(iCommas2_ExpCond_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ArrayInteriorN11((CommaList2)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -1820,8 +3058,10 @@ class ParseEddy {
             final long s1 = slices.get(iType<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iJuxts1_Type<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Juxts2_Type0((AExp)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1835,8 +3075,10 @@ class ParseEddy {
       if (hi-lo>=2 && type[lo]==iLParenTok) {
         final long s1 = slices.get(iType<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(LParenTok__Type0((AExp)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -1851,8 +3093,10 @@ class ParseEddy {
             final long s1 = slices.get(iCatchTok__Left<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iJuxts0_Mod__Type<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(CatchTok__Left__Juxts0_Mod__Type0((Tuple2)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1866,8 +3110,10 @@ class ParseEddy {
       if (hi-lo>=4 && type[lo]==iSynchronizedTok) {
         final long s1 = slices.get(iParenExp<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(SynchronizedTok__ParenExp0((Tuple2)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -1882,8 +3128,10 @@ class ParseEddy {
             final long s1 = slices.get(iAssignOp<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAssign<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(AssignOp__ExpAssign0((Loc)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1900,8 +3148,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpHigh<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iOption_TypeArgs<<24|j+2<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpHigh__DotTok__NewTok__Option_TypeArgs0((AExp)values.get((int)(s1>>32)+k1),(Option)values.get((int)(s3>>32)+k3),ranges[j+1]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1912,18 +3162,30 @@ class ParseEddy {
 
     private void Lit(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==1 && type[lo]==iIntLitTok)
+      if (hi-lo==1 && type[lo]==iIntLitTok) {
         values.add(Lit0((IntLitTok)input[lo],range));
-      if (hi-lo==1 && type[lo]==iDoubleLitTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iDoubleLitTok) {
         values.add(Lit1((DoubleLitTok)input[lo],range));
-      if (hi-lo==1 && type[lo]==iFloatLitTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iFloatLitTok) {
         values.add(Lit2((FloatLitTok)input[lo],range));
-      if (hi-lo==1 && type[lo]==iLongLitTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iLongLitTok) {
         values.add(Lit3((LongLitTok)input[lo],range));
-      if (hi-lo==1 && type[lo]==iStringLitTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iStringLitTok) {
         values.add(Lit4((StringLitTok)input[lo],range));
-      if (hi-lo==1 && type[lo]==iCharLitTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iCharLitTok) {
         values.add(Lit5((CharLitTok)input[lo],range));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iLit<<24|lo<<12|hi,(long)prev<<32|count); }
     }
@@ -1933,8 +3195,10 @@ class ParseEddy {
       if (hi-lo>=1 && type[lo]==iLBrackTok) {
         final long s1 = slices.get(iOption_ExpAssign<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(LBrackTok__Option_ExpAssign0((Option)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -1949,8 +3213,10 @@ class ParseEddy {
             final long s1 = slices.get(iLeft<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(CatchTok__Left__EllipsisTok__Right0((Loc)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3),ranges[lo]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1967,8 +3233,10 @@ class ParseEddy {
             final long s1 = slices.get(iCatchTok__Left__Ident__ColonTok__Juxts0_Mod<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iType__Right__MaybeColon__MaybeStmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(CatchBlock0((Tuple4)values.get((int)(s1>>32)+k1),(Tuple3)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1979,8 +3247,10 @@ class ParseEddy {
             final long s1 = slices.get(iCatchTok__Left__EllipsisTok__Right<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeColon__MaybeStmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(CatchBlock1((Tuple3)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -1991,8 +3261,10 @@ class ParseEddy {
             final long s1 = slices.get(iCatchTok__Ident__ColonTok__Juxts0_Mod<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iType__MaybeColon__MaybeStmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(CatchBlock2((Tuple3)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2003,8 +3275,10 @@ class ParseEddy {
             final long s1 = slices.get(iCatchTok__Juxts0_Mod__Type<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iIdent__MaybeColon__MaybeStmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(CatchBlock3((Tuple3)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2014,8 +3288,10 @@ class ParseEddy {
           {
             final long s1 = slices.get(iMaybeColon<<24|lo+2<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeStmt<<24|j<<12|hi); if (s3 == 0) continue;
-            for (int k3=0;k3<(s3&vMask);k3++)
+            for (int k3=0;k3<(s3&vMask);k3++) {
               values.add(CatchBlock4((AStmt)values.get((int)(s3>>32)+k3),ranges[lo],ranges[lo+1]));
+              prior(priors[(int)(s3>>32)+k3]);
+            }
           }
         }
       }
@@ -2025,8 +3301,10 @@ class ParseEddy {
             final long s1 = slices.get(iCatchTok__Left__Juxts0_Mod__Type<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iIdent__Right__MaybeColon__MaybeStmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(CatchBlock5((Tuple4)values.get((int)(s1>>32)+k1),(Tuple3)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2043,8 +3321,10 @@ class ParseEddy {
             final long s1 = slices.get(iCatchBlock<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iCatchBlocks<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(CatchBlocks0((Tuple2)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2061,8 +3341,10 @@ class ParseEddy {
             final long s1 = slices.get(iCatchBlocks<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iOption_FinallyBlock<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(CatchBlocks__Option_FinallyBlock0((List)values.get((int)(s1>>32)+k1),(Option)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2073,10 +3355,14 @@ class ParseEddy {
 
     private void MaybeDo(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==1 && type[lo]==iColonTok)
+      if (hi-lo==1 && type[lo]==iColonTok) {
         values.add(MaybeDo0(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iDoTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iDoTok) {
         values.add(MaybeDo1(ranges[lo]));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iMaybeDo<<24|lo<<12|hi,(long)prev<<32|count); }
     }
@@ -2089,8 +3375,10 @@ class ParseEddy {
             final long s1 = slices.get(iWhileUntil<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iParenExp<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(WhileUntil__ParenExp0((Loc)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2107,8 +3395,10 @@ class ParseEddy {
             final long s1 = slices.get(iJuxts0_Mod<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iType<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(CatchTok__Juxts0_Mod__Type0((List)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[lo]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2125,21 +3415,25 @@ class ParseEddy {
             final long s1 = slices.get(iStmts<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Block0((List)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3),ranges[lo]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
       }
-      if (hi-lo==1 && type[lo]==iStmtTok)
+      if (hi-lo==1 && type[lo]==iStmtTok) {
         values.add(Block1((StmtTok)input[lo],ranges[lo]));
-      int size = values.size();
+        prior(1);
+      }
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AStmt> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AStmt>(Pr.parse(),(AStmt)values.remove(--size),s);
-        values.add(new ScoredAStmt(s,range));
+        final double best = best(prev,size);
+        final Scored<AStmt> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAStmt(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iBlock<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2147,28 +3441,44 @@ class ParseEddy {
 
     private void Instanceof(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==1 && type[lo]==iIsTok)
+      if (hi-lo==1 && type[lo]==iIsTok) {
         values.add(Instanceof0(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iInstanceTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iInstanceTok) {
         values.add(Instanceof1(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iIsinstanceTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iIsinstanceTok) {
         values.add(Instanceof2(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iInstanceofTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iInstanceofTok) {
         values.add(Instanceof3(ranges[lo]));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iInstanceof<<24|lo<<12|hi,(long)prev<<32|count); }
     }
 
     private void Right(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==1 && type[lo]==iRCurlyTok)
+      if (hi-lo==1 && type[lo]==iRCurlyTok) {
         values.add(Right0(range));
-      if (hi-lo==1 && type[lo]==iRBrackTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iRBrackTok) {
         values.add(Right1(range));
-      if (hi-lo==1 && type[lo]==iRParenTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iRParenTok) {
         values.add(Right2(range));
-      if (hi-lo==1 && type[lo]==iRightAnyTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iRightAnyTok) {
         values.add(Right3(range));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iRight<<24|lo<<12|hi,(long)prev<<32|count); }
     }
@@ -2181,8 +3491,10 @@ class ParseEddy {
             final long s1 = slices.get(iArrayInterior<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ArrayInterior__Right0((KList)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2199,8 +3511,10 @@ class ParseEddy {
             final long s1 = slices.get(iRight<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iDimExps<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Right__DimExps0((Loc)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2217,8 +3531,10 @@ class ParseEddy {
             final long s1 = slices.get(iList_ExpAssignNC<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(List_ExpAssignNC__Right0((KList)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2235,8 +3551,10 @@ class ParseEddy {
             final long s1 = slices.get(iRight<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeDo<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Right__MaybeDo0((Loc)values.get((int)(s1>>32)+k1)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2252,8 +3570,10 @@ class ParseEddy {
           if (type[j]==iElseTok) {
             final long s1 = slices.get(iMaybeStmt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeColon<<24|j+1<<12|hi); if (s3 == 0) continue;
-            for (int k1=0;k1<(s1&vMask);k1++)
+            for (int k1=0;k1<(s1&vMask);k1++) {
               values.add(MaybeStmt__ElseTok__MaybeColon0((AStmt)values.get((int)(s1>>32)+k1),ranges[j]));
+              prior(priors[(int)(s1>>32)+k1]);
+            }
           }
         }
       }
@@ -2263,26 +3583,46 @@ class ParseEddy {
 
     private void Ident(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==1 && type[lo]==iUntilTok)
+      if (hi-lo==1 && type[lo]==iUntilTok) {
         values.add(Ident0(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iInstanceTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iInstanceTok) {
         values.add(Ident1(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iInTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iInTok) {
         values.add(Ident2(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iThenTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iThenTok) {
         values.add(Ident3(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iElifTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iElifTok) {
         values.add(Ident4((ElifTok)input[lo],ranges[lo]));
-      if (hi-lo==1 && type[lo]==iIdentTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iIdentTok) {
         values.add(Ident5((IdentTok)input[lo],ranges[lo]));
-      if (hi-lo==1 && type[lo]==iSuperTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iSuperTok) {
         values.add(Ident6(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iIsTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iIsTok) {
         values.add(Ident7(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iIsinstanceTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iIsinstanceTok) {
         values.add(Ident8(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iThisTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iThisTok) {
         values.add(Ident9(ranges[lo]));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iIdent<<24|lo<<12|hi,(long)prev<<32|count); }
     }
@@ -2295,8 +3635,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpNew<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iClassBody<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpPrimary0((AExp)values.get((int)(s1>>32)+k1),(AClassBody)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2304,8 +3646,10 @@ class ParseEddy {
       if (hi-lo==1) {
         final long s1 = slices.get(iIdent<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpPrimary1((Loc)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=3) {
@@ -2314,8 +3658,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpHigh<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iDotTok__Option_TypeArgs__Ident<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpPrimary2((AExp)values.get((int)(s1>>32)+k1),(Tuple3)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2326,8 +3672,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpHigh__DotTok__NewTok__Option_TypeArgs<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpPrimary__DimExps<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpPrimary3((Tuple3)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2335,8 +3683,10 @@ class ParseEddy {
       if (hi-lo==1) {
         final long s1 = slices.get(iLit<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpPrimary4((ALit)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=3) {
@@ -2345,8 +3695,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpHigh<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iTypeArgs<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpPrimary5((AExp)values.get((int)(s1>>32)+k1),(Grouped)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2357,19 +3709,21 @@ class ParseEddy {
             final long s1 = slices.get(iExpNew__Left<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iList_ExpAssignNC__Right__ClassBody<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpPrimary6((Tuple2)values.get((int)(s1>>32)+k1),(Tuple3)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpPrimary<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2383,8 +3737,10 @@ class ParseEddy {
             final long s1 = slices.get(iNewTok__Option_TypeArgs<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpPrimary__DimExps<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpNew0((Tuple2)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2395,8 +3751,10 @@ class ParseEddy {
             final long s1 = slices.get(iTypeArgs<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpPrimary<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpNew1((Grouped)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2404,17 +3762,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpPrimary<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpNew2((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpNew<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2430,7 +3790,7 @@ class ParseEddy {
             for (int k1=0;k1<(s1&vMask);k1++) {
               for (int k3=0;k3<(s3&vMask);k3++) {
                 final AExp x = ExpHighNA0((Tuple2)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3));
-                if (x != null) values.add(x);
+                if (x != null) { values.add(x); prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]); }
               }
             }
           }
@@ -2439,17 +3799,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpNew<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpHighNA1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpHighNA<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2463,8 +3825,10 @@ class ParseEddy {
             final long s1 = slices.get(iLeftNP<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iArrayInterior__Right<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpHighNP0((Loc)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2472,17 +3836,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpHighNA<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpHighNP1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpHighNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2493,24 +3859,28 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpHighNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpHigh0((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=2) {
         final long s1 = slices.get(iExpParens<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpHigh1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpHigh<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2521,24 +3891,28 @@ class ParseEddy {
       if (hi-lo>=1 && type[lo]==iQuestionTok) {
         final long s1 = slices.get(iWildcardBounds<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpWild0((Option)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpHigh<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpWild1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpWild<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2552,8 +3926,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpWild<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iJuxts1_ExpWild<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Juxts1_ExpWild0((AExp)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2561,8 +3937,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Juxts1_ExpWild1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -2579,7 +3957,7 @@ class ParseEddy {
             for (int k1=0;k1<(s1&vMask);k1++) {
               for (int k3=0;k3<(s3&vMask);k3++) {
                 final AExp x = ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(JuxtList)values.get((int)(s3>>32)+k3));
-                if (x != null) values.add(x);
+                if (x != null) { values.add(x); prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]); }
               }
             }
           }
@@ -2588,17 +3966,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpJuxt1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpJuxt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2612,8 +3992,10 @@ class ParseEddy {
             final long s1 = slices.get(iLParenTok__Type<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight__ExpUnary_ExpJuxt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpUnary_ExpJuxt0((Tuple2)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2624,8 +4006,10 @@ class ParseEddy {
             final long s1 = slices.get(iPreOp<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpUnary_ExpJuxt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpUnary_ExpJuxt1((Loc)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2636,8 +4020,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpUnary_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iPostOp<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpUnary_ExpJuxt2((AExp)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2645,17 +4031,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpUnary_ExpJuxt3((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpUnary_ExpJuxt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2669,8 +4057,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpMul_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpUnary_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpMul_ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2681,8 +4071,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpMul_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpUnary_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpMul_ExpJuxt1((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2693,8 +4085,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpMul_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpUnary_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpMul_ExpJuxt2((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2702,17 +4096,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpUnary_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpMul_ExpJuxt3((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpMul_ExpJuxt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2726,8 +4122,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAdd_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpMul_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAdd_ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2738,8 +4136,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAdd_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpMul_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAdd_ExpJuxt1((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2747,17 +4147,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpMul_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpAdd_ExpJuxt2((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpAdd_ExpJuxt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2771,8 +4173,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpShift_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAdd_ExpJuxt<<24|j+5<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpShift_ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j],ranges[j+4]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2783,8 +4187,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpShift_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAdd_ExpJuxt<<24|j+3<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpShift_ExpJuxt1((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j],ranges[j+2]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2795,8 +4201,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpShift_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAdd_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpShift_ExpJuxt2((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2804,17 +4212,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAdd_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpShift_ExpJuxt3((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpShift_ExpJuxt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2828,8 +4238,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpShift_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2840,8 +4252,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iInstanceof__Type<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpJuxt1((AExp)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2852,8 +4266,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpShift_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpJuxt2((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2864,8 +4280,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpShift_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpJuxt3((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2876,8 +4294,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpShift_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpJuxt4((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2885,17 +4305,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpShift_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpRel_ExpJuxt5((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpRel_ExpJuxt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2909,8 +4331,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpEq_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpRel_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpEq_ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2921,8 +4345,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpEq_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpRel_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpEq_ExpJuxt1((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2930,17 +4356,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpEq_ExpJuxt2((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpEq_ExpJuxt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2954,8 +4382,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAnd_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpEq_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAnd_ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2963,17 +4393,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpEq_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpAnd_ExpJuxt1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpAnd_ExpJuxt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -2987,8 +4419,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpXor_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAnd_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpXor_ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -2996,17 +4430,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAnd_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpXor_ExpJuxt1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpXor_ExpJuxt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3020,8 +4456,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpOr_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpXor_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpOr_ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3029,17 +4467,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpXor_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpOr_ExpJuxt1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpOr_ExpJuxt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3053,8 +4493,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAndAnd_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpOr_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAndAnd_ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3062,17 +4504,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpOr_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpAndAnd_ExpJuxt1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpAndAnd_ExpJuxt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3086,8 +4530,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpOrOr_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAndAnd_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpOrOr_ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3095,17 +4541,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAndAnd_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpOrOr_ExpJuxt1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpOrOr_ExpJuxt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3119,8 +4567,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpOrOr_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iQuestionTok__ExpAssign__ColonTok__ExpCond_ExpJuxt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpCond_ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(Tuple4)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3128,17 +4578,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpOrOr_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpCond_ExpJuxt1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpCond_ExpJuxt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3152,8 +4604,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iAssignOp__ExpAssign<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAssignNC0((AExp)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3161,17 +4615,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpCond_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpAssignNC1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpAssignNC<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3182,22 +4638,28 @@ class ParseEddy {
       if (hi-lo>=2) {
         final long s1 = slices.get(iJuxts2_ExpAssignNC<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(List1_ExpAssignNC0((List)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=3) {
         final long s1 = slices.get(iCommas2_ExpAssignNC<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(List1_ExpAssignNC1((CommaList2)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAssignNC<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(List1_ExpAssignNC2((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -3209,8 +4671,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iList1_ExpAssignNC<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(List_ExpAssignNC0((KList)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -3225,8 +4689,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAssignNC<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iCommas1_ExpAssignNC<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Commas1_ExpAssignNC0((AExp)values.get((int)(s1>>32)+k1),(CommaList1)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3234,15 +4700,19 @@ class ParseEddy {
       if (hi-lo>=2 && type[hi-1]==iCommaTok) {
         final long s1 = slices.get(iExpAssignNC<<24|lo<<12|hi-1);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Commas1_ExpAssignNC1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAssignNC<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Commas1_ExpAssignNC2((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -3254,8 +4724,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iCommas1_ExpAssignNC<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Commas0_ExpAssignNC0((CommaList1)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -3270,8 +4742,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAssignNC<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iJuxts1_ExpAssignNC<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Juxts1_ExpAssignNC0((AExp)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3279,8 +4753,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAssignNC<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Juxts1_ExpAssignNC1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -3292,24 +4768,28 @@ class ParseEddy {
       if (hi-lo>=3) {
         final long s1 = slices.get(iCommas2_ExpCond_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpCommas0((CommaList2)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpCond_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpCommas1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpCommas<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3323,8 +4803,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iAssignOp__ExpAssign<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAssign0((AExp)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3332,17 +4814,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpCommas<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpAssign1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpAssign<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3350,14 +4834,31 @@ class ParseEddy {
 
     private void StmtHelperBS(final int lo, final int hi, final long range) {
       final int prev = values.size();
+      StmtHelperBS$0(lo,hi,range);
+      StmtHelperBS$1(lo,hi,range);
+      final int size = values.size();
+      int count = size-prev;
+      if (count > 1) {
+        final double best = best(prev,size);
+        final Scored<AStmt> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAStmt(s,range)); prior(best);
+        count = 1;
+      }
+      if (count != 0) { slices.put(iStmtHelperBS<<24|lo<<12|hi,(long)prev<<32|count); }
+    }
+
+    private void StmtHelperBS$0(final int lo, final int hi, final long range) {
       if (hi-lo>=5) {
         for (int j=lo+3;j<=hi-2;j++) {
           {
             final long s1 = slices.get(iForTok__ForInfo<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iDo__Stmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelperBS0((Tuple2)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3368,36 +4869,44 @@ class ParseEddy {
             final long s1 = slices.get(iType<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iList1_VarDecl<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelperBS1((AExp)values.get((int)(s1>>32)+k1),(KList)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
       }
-      if (hi-lo>=2 && type[lo]==iThrowTok) {
-        final long s1 = slices.get(iExpJuxt<<24|lo+1<<12|hi);
-        if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
-            values.add(StmtHelperBS2((AExp)values.get((int)(s1>>32)+k),ranges[lo]));
-        }
-      }
       if (hi-lo>=3 && type[lo]==iLParenTok) {
         for (int j=lo+2;j<=hi-1;j++) {
           {
             final long s1 = slices.get(iStmt<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
-                values.add(StmtHelperBS3((AStmt)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3),ranges[lo]));
+              for (int k3=0;k3<(s3&vMask);k3++) {
+                values.add(StmtHelperBS2((AStmt)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3),ranges[lo]));
+                prior(Pr.parenStmt()*priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
       }
+      if (hi-lo>=2 && type[lo]==iThrowTok) {
+        final long s1 = slices.get(iExpJuxt<<24|lo+1<<12|hi);
+        if (s1 != 0) {
+          for (int k=0;k<(s1&vMask);k++) {
+            values.add(StmtHelperBS3((AExp)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
+        }
+      }
       if (1<=hi-lo && hi-lo<=2 && type[lo]==iBreakTok) {
         final long s1 = slices.get(iOption_Ident<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(StmtHelperBS4((Option)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=2) {
@@ -3406,8 +4915,10 @@ class ParseEddy {
             final long s1 = slices.get(iTryTok__MaybeColon__Stmt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iCatchBlocks__Option_FinallyBlock<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelperBS5((Tuple2)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3418,8 +4929,10 @@ class ParseEddy {
             final long s1 = slices.get(iForTok__Left__ForInfo<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight__MaybeDo__Stmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelperBS6((Tuple3)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3432,7 +4945,7 @@ class ParseEddy {
             for (int k1=0;k1<(s1&vMask);k1++) {
               for (int k3=0;k3<(s3&vMask);k3++) {
                 final AStmt x = StmtHelperBS7((Loc)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3));
-                if (x != null) values.add(x);
+                if (x != null) { values.add(x); prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]); }
               }
             }
           }
@@ -3444,8 +4957,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAssign<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAssign<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelperBS8((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[lo],ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3456,8 +4971,10 @@ class ParseEddy {
             final long s1 = slices.get(iSynchronizedTok__ExpAssignNP<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeDo__Stmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelperBS9((Tuple2)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3465,8 +4982,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iBlock<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(StmtHelperBS10((AStmt)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=2) {
@@ -3475,8 +4994,10 @@ class ParseEddy {
             final long s1 = slices.get(iJuxts1_Mod<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iOption_Type__List1_VarDecl<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelperBS11((List)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3487,8 +5008,10 @@ class ParseEddy {
             final long s1 = slices.get(iWhileUntil__ParenExp<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeDo__Stmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelperBS12((Tuple2)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3496,29 +5019,40 @@ class ParseEddy {
       if (hi-lo>=2 && type[lo]==iIfTok) {
         final long s1 = slices.get(iAfterIfB<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(StmtHelperBS13((PreIf)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAssign<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(StmtHelperBS14((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=2 && type[lo]==iAssertTok) {
         final long s1 = slices.get(iExpAssign<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(StmtHelperBS15((AExp)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
+    }
+
+    private void StmtHelperBS$1(final int lo, final int hi, final long range) {
       if (hi-lo>=1 && type[lo]==iReturnTok) {
         final long s1 = slices.get(iOption_ExpAssign<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(StmtHelperBS16((Option)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=5) {
@@ -3527,8 +5061,10 @@ class ParseEddy {
             final long s1 = slices.get(iSynchronizedTok__ParenExp<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeDo__Stmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelperBS17((Tuple2)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3536,8 +5072,10 @@ class ParseEddy {
       if (1<=hi-lo && hi-lo<=2 && type[lo]==iContinueTok) {
         final long s1 = slices.get(iOption_Ident<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(StmtHelperBS18((Option)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=3) {
@@ -3546,8 +5084,10 @@ class ParseEddy {
             final long s1 = slices.get(iDoTok__MaybeColon__MaybeStmt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iWhileUntil__MaybeParenExp<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelperBS19((Tuple2)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3558,22 +5098,14 @@ class ParseEddy {
             final long s1 = slices.get(iWhileUntil__ExpAssignNP<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iDo__Stmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelperBS20((Tuple2)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
       }
-      int size = values.size();
-      int count = size-prev;
-      if (count > 1) {
-        Scored<AStmt> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AStmt>(Pr.parse(),(AStmt)values.remove(--size),s);
-        values.add(new ScoredAStmt(s,range));
-        count = 1;
-      }
-      if (count != 0) { slices.put(iStmtHelperBS<<24|lo<<12|hi,(long)prev<<32|count); }
     }
 
     private void Commas1_StmtHelperBS(final int lo, final int hi, final long range) {
@@ -3584,8 +5116,10 @@ class ParseEddy {
             final long s1 = slices.get(iStmtHelperBS<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iCommas1_StmtHelperBS<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Commas1_StmtHelperBS0((AStmt)values.get((int)(s1>>32)+k1),(CommaList1)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3593,15 +5127,19 @@ class ParseEddy {
       if (hi-lo>=2 && type[hi-1]==iCommaTok) {
         final long s1 = slices.get(iStmtHelperBS<<24|lo<<12|hi-1);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Commas1_StmtHelperBS1((AStmt)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iStmtHelperBS<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Commas1_StmtHelperBS2((AStmt)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -3613,8 +5151,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iCommas1_StmtHelperBS<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Commas0_StmtHelperBS0((CommaList1)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -3626,8 +5166,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iStmtHelperBS<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(StmtHelper0((AStmt)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=3 && type[lo]==iForTok) {
@@ -3636,8 +5178,10 @@ class ParseEddy {
             final long s1 = slices.get(iForInfo<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeDo<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelper1((ForInfo)values.get((int)(s1>>32)+k1),ranges[lo]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3648,8 +5192,10 @@ class ParseEddy {
             final long s1 = slices.get(iMaybeParenExp<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeDo<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelper2((Tuple2)values.get((int)(s1>>32)+k1),ranges[lo]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3657,8 +5203,10 @@ class ParseEddy {
       if (hi-lo>=2 && type[lo]==iIfTok) {
         final long s1 = slices.get(iAfterIfA<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(StmtHelper3((PreIf)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=2) {
@@ -3667,8 +5215,10 @@ class ParseEddy {
             final long s1 = slices.get(iWhileUntil<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeParenExp__MaybeDo<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelper4((Loc)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3679,19 +5229,21 @@ class ParseEddy {
             final long s1 = slices.get(iForTok__Left__ForInfo<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight__MaybeDo<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(StmtHelper5((Tuple3)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AStmt> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AStmt>(Pr.parse(),(AStmt)values.remove(--size),s);
-        values.add(new ScoredAStmt(s,range));
+        final double best = best(prev,size);
+        final Scored<AStmt> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAStmt(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iStmtHelper<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3702,26 +5254,32 @@ class ParseEddy {
       if (hi-lo>=2 && type[hi-1]==iSemiTok) {
         final long s1 = slices.get(iStmtHelperBS<<24|lo<<12|hi-1);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Stmt0((AStmt)values.get((int)(s1>>32)+k),ranges[hi-1]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iStmtHelper<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Stmt1((AStmt)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      if (hi-lo==1 && type[lo]==iSemiTok)
+      if (hi-lo==1 && type[lo]==iSemiTok) {
         values.add(Stmt2(ranges[lo]));
-      int size = values.size();
+        prior(1);
+      }
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AStmt> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AStmt>(Pr.parse(),(AStmt)values.remove(--size),s);
-        values.add(new ScoredAStmt(s,range));
+        final double best = best(prev,size);
+        final Scored<AStmt> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAStmt(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iStmt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3735,19 +5293,21 @@ class ParseEddy {
             final long s1 = slices.get(iMaybeDo<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iStmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(MaybeDo__Stmt0((AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AStmt> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AStmt>(Pr.parse(),(AStmt)values.remove(--size),s);
-        values.add(new ScoredAStmt(s,range));
+        final double best = best(prev,size);
+        final Scored<AStmt> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAStmt(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iMaybeDo__Stmt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3761,19 +5321,21 @@ class ParseEddy {
             final long s1 = slices.get(iMaybeThen<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iStmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(MaybeThen__Stmt0((AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AStmt> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AStmt>(Pr.parse(),(AStmt)values.remove(--size),s);
-        values.add(new ScoredAStmt(s,range));
+        final double best = best(prev,size);
+        final Scored<AStmt> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAStmt(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iMaybeThen__Stmt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3784,17 +5346,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iStmt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(MaybeStmt0((AStmt)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AStmt> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AStmt>(Pr.parse(),(AStmt)values.remove(--size),s);
-        values.add(new ScoredAStmt(s,range));
+        final double best = best(prev,size);
+        final Scored<AStmt> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAStmt(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iMaybeStmt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3807,18 +5371,20 @@ class ParseEddy {
           {
             final long s1 = slices.get(iMaybeColon<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeStmt<<24|j<<12|hi); if (s3 == 0) continue;
-            for (int k3=0;k3<(s3&vMask);k3++)
+            for (int k3=0;k3<(s3&vMask);k3++) {
               values.add(MaybeColon__MaybeStmt0((AStmt)values.get((int)(s3>>32)+k3)));
+              prior(priors[(int)(s3>>32)+k3]);
+            }
           }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AStmt> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AStmt>(Pr.parse(),(AStmt)values.remove(--size),s);
-        values.add(new ScoredAStmt(s,range));
+        final double best = best(prev,size);
+        final Scored<AStmt> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAStmt(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iMaybeColon__MaybeStmt<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3832,8 +5398,10 @@ class ParseEddy {
             final long s1 = slices.get(iStmtHelperBS<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iStmts<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Stmts0((AStmt)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3841,15 +5409,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iStmtHelper<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Stmts1((AStmt)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1 && type[lo]==iSemiTok) {
         final long s1 = slices.get(iStmts<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Stmts2((List)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -3861,8 +5433,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAssign<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Option_ExpAssign0((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -3874,8 +5448,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpCommas<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Option_ExpCommas0((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -3890,8 +5466,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpCond_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iCommas1_ExpCond_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Commas1_ExpCond_ExpJuxt0((AExp)values.get((int)(s1>>32)+k1),(CommaList1)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3899,15 +5477,19 @@ class ParseEddy {
       if (hi-lo>=2 && type[hi-1]==iCommaTok) {
         final long s1 = slices.get(iExpCond_ExpJuxt<<24|lo<<12|hi-1);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Commas1_ExpCond_ExpJuxt1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpCond_ExpJuxt<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Commas1_ExpCond_ExpJuxt2((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -3922,8 +5504,10 @@ class ParseEddy {
             final long s1 = slices.get(iLParenTok__Type<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight__ExpUnary_ExpJuxt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpUnary_ExpWild0((Tuple2)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3934,8 +5518,10 @@ class ParseEddy {
             final long s1 = slices.get(iPreOp<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpUnary_ExpJuxt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpUnary_ExpWild1((Loc)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3946,8 +5532,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpUnary_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iPostOp<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpUnary_ExpWild2((AExp)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3955,17 +5543,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpUnary_ExpWild3((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpUnary_ExpWild<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -3979,8 +5569,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpMul_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpUnary_ExpWild<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpMul_ExpWild0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -3991,8 +5583,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpMul_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpUnary_ExpWild<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpMul_ExpWild1((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4003,8 +5597,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpMul_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpUnary_ExpWild<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpMul_ExpWild2((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4012,17 +5608,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpUnary_ExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpMul_ExpWild3((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpMul_ExpWild<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4036,8 +5634,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAdd_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpMul_ExpWild<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAdd_ExpWild0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4048,8 +5648,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAdd_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpMul_ExpWild<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAdd_ExpWild1((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4057,17 +5659,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpMul_ExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpAdd_ExpWild2((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpAdd_ExpWild<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4081,8 +5685,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpShift_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAdd_ExpJuxt<<24|j+5<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpShift_ExpWild0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j],ranges[j+4]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4093,8 +5699,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpShift_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAdd_ExpJuxt<<24|j+3<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpShift_ExpWild1((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j],ranges[j+2]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4105,8 +5713,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpShift_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAdd_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpShift_ExpWild2((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4114,17 +5724,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAdd_ExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpShift_ExpWild3((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpShift_ExpWild<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4138,8 +5750,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpShift_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpWild0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4150,8 +5764,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iInstanceof__Type<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpWild1((AExp)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4162,8 +5778,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpShift_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpWild2((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4174,8 +5792,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpShift_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpWild3((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4186,8 +5806,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpShift_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpWild4((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4195,17 +5817,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpShift_ExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpRel_ExpWild5((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpRel_ExpWild<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4219,8 +5843,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpEq_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpRel_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpEq_ExpWild0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4231,8 +5857,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpEq_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpRel_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpEq_ExpWild1((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4240,17 +5868,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpRel_ExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpEq_ExpWild2((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpEq_ExpWild<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4264,8 +5894,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAnd_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpEq_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAnd_ExpWild0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4273,17 +5905,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpEq_ExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpAnd_ExpWild1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpAnd_ExpWild<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4297,8 +5931,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpXor_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAnd_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpXor_ExpWild0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4306,17 +5942,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAnd_ExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpXor_ExpWild1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpXor_ExpWild<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4330,8 +5968,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpOr_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpXor_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpOr_ExpWild0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4339,17 +5979,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpXor_ExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpOr_ExpWild1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpOr_ExpWild<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4363,8 +6005,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAndAnd_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpOr_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAndAnd_ExpWild0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4372,17 +6016,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpOr_ExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpAndAnd_ExpWild1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpAndAnd_ExpWild<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4396,8 +6042,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpOrOr_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAndAnd_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpOrOr_ExpWild0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4405,17 +6053,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAndAnd_ExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpOrOr_ExpWild1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpOrOr_ExpWild<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4429,8 +6079,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpOrOr_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iQuestionTok__ExpAssign__ColonTok__ExpCond_ExpJuxt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpCond_ExpWild0((AExp)values.get((int)(s1>>32)+k1),(Tuple4)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4438,17 +6090,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpOrOr_ExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpCond_ExpWild1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpCond_ExpWild<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4459,15 +6113,19 @@ class ParseEddy {
       if (hi-lo>=0) {
         final long s1 = slices.get(iArrayInteriorN1<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ArrayInterior0((KList)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpCond_ExpWild<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ArrayInterior1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -4479,24 +6137,28 @@ class ParseEddy {
       if (hi-lo>=1 && type[lo]==iQuestionTok) {
         final long s1 = slices.get(iWildcardBounds<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Type0((Option)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpHigh<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Type1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iType<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4510,8 +6172,10 @@ class ParseEddy {
             final long s1 = slices.get(iType<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iJuxts1_Type<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Juxts1_Type0((AExp)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4519,8 +6183,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iType<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Juxts1_Type1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -4535,8 +6201,10 @@ class ParseEddy {
             final long s1 = slices.get(iJuxts0_Mod<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iType<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Juxts0_Mod__Type0((List)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4550,22 +6218,28 @@ class ParseEddy {
       if (hi-lo>=2) {
         final long s1 = slices.get(iJuxts2_Type<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(List1_Type0((List)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=3) {
         final long s1 = slices.get(iCommas2_Type<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(List1_Type1((CommaList2)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iType<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(List1_Type2((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -4577,8 +6251,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iList1_Type<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(List_Type0((KList)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -4590,8 +6266,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iType<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Option_Type0((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -4606,8 +6284,10 @@ class ParseEddy {
             final long s1 = slices.get(iType<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iCommas1_Type<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Commas1_Type0((AExp)values.get((int)(s1>>32)+k1),(CommaList1)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4615,15 +6295,19 @@ class ParseEddy {
       if (hi-lo>=2 && type[hi-1]==iCommaTok) {
         final long s1 = slices.get(iType<<24|lo<<12|hi-1);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Commas1_Type1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iType<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Commas1_Type2((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -4638,8 +6322,10 @@ class ParseEddy {
             final long s1 = slices.get(iType<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeColon__MaybeStmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Type__MaybeColon__MaybeStmt0((AExp)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4653,24 +6339,28 @@ class ParseEddy {
       if (hi-lo>=1 && type[lo]==iQuestionTok) {
         final long s1 = slices.get(iWildcardBounds<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpWildNP0((Option)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpHighNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpWildNP1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpWildNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4686,7 +6376,7 @@ class ParseEddy {
             for (int k1=0;k1<(s1&vMask);k1++) {
               for (int k3=0;k3<(s3&vMask);k3++) {
                 final AExp x = ExpJuxtNP0((AExp)values.get((int)(s1>>32)+k1),(JuxtList)values.get((int)(s3>>32)+k3));
-                if (x != null) values.add(x);
+                if (x != null) { values.add(x); prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]); }
               }
             }
           }
@@ -4695,17 +6385,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpWildNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpJuxtNP1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpJuxtNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4719,8 +6411,10 @@ class ParseEddy {
             final long s1 = slices.get(iLParenTok__Type<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight__ExpUnary_ExpJuxt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpUnary_ExpJuxtNP0((Tuple2)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4731,8 +6425,10 @@ class ParseEddy {
             final long s1 = slices.get(iPreOp<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpUnary_ExpJuxt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpUnary_ExpJuxtNP1((Loc)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4743,8 +6439,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpUnary_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iPostOp<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpUnary_ExpJuxtNP2((AExp)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4752,17 +6450,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpJuxtNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpUnary_ExpJuxtNP3((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpUnary_ExpJuxtNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4776,8 +6476,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpMul_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpUnary_ExpJuxtNP<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpMul_ExpJuxtNP0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4788,8 +6490,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpMul_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpUnary_ExpJuxtNP<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpMul_ExpJuxtNP1((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4800,8 +6504,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpMul_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpUnary_ExpJuxtNP<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpMul_ExpJuxtNP2((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4809,17 +6515,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpUnary_ExpJuxtNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpMul_ExpJuxtNP3((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpMul_ExpJuxtNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4833,8 +6541,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAdd_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpMul_ExpJuxtNP<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAdd_ExpJuxtNP0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4845,8 +6555,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAdd_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpMul_ExpJuxtNP<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAdd_ExpJuxtNP1((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4854,17 +6566,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpMul_ExpJuxtNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpAdd_ExpJuxtNP2((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpAdd_ExpJuxtNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4878,8 +6592,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpShift_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAdd_ExpJuxt<<24|j+5<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpShift_ExpJuxtNP0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j],ranges[j+4]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4890,8 +6606,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpShift_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAdd_ExpJuxt<<24|j+3<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpShift_ExpJuxtNP1((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j],ranges[j+2]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4902,8 +6620,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpShift_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAdd_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpShift_ExpJuxtNP2((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4911,17 +6631,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAdd_ExpJuxtNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpShift_ExpJuxtNP3((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpShift_ExpJuxtNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -4935,8 +6657,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpShift_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpJuxtNP0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4947,8 +6671,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iInstanceof__Type<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpJuxtNP1((AExp)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4959,8 +6685,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpShift_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpJuxtNP2((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4971,8 +6699,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpShift_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpJuxtNP3((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4983,8 +6713,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpRel_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpShift_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpRel_ExpJuxtNP4((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -4992,17 +6724,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpShift_ExpJuxtNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpRel_ExpJuxtNP5((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpRel_ExpJuxtNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -5016,8 +6750,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpEq_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpRel_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpEq_ExpJuxtNP0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5028,8 +6764,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpEq_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpRel_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpEq_ExpJuxtNP1((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5037,17 +6775,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpRel_ExpJuxtNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpEq_ExpJuxtNP2((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpEq_ExpJuxtNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -5061,8 +6801,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAnd_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpEq_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAnd_ExpJuxtNP0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5070,17 +6812,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpEq_ExpJuxtNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpAnd_ExpJuxtNP1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpAnd_ExpJuxtNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -5094,8 +6838,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpXor_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAnd_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpXor_ExpJuxtNP0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5103,17 +6849,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAnd_ExpJuxtNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpXor_ExpJuxtNP1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpXor_ExpJuxtNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -5127,8 +6875,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpOr_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpXor_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpOr_ExpJuxtNP0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5136,17 +6886,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpXor_ExpJuxtNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpOr_ExpJuxtNP1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpOr_ExpJuxtNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -5160,8 +6912,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAndAnd_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpOr_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAndAnd_ExpJuxtNP0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5169,17 +6923,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpOr_ExpJuxtNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpAndAnd_ExpJuxtNP1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpAndAnd_ExpJuxtNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -5193,8 +6949,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpOrOr_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAndAnd_ExpJuxt<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpOrOr_ExpJuxtNP0((AExp)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5202,17 +6960,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAndAnd_ExpJuxtNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpOrOr_ExpJuxtNP1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpOrOr_ExpJuxtNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -5226,8 +6986,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpOrOr_ExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iQuestionTok__ExpAssign__ColonTok__ExpCond_ExpJuxt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpCond_ExpJuxtNP0((AExp)values.get((int)(s1>>32)+k1),(Tuple4)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5235,17 +6997,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpOrOr_ExpJuxtNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpCond_ExpJuxtNP1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpCond_ExpJuxtNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -5259,8 +7023,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpJuxt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iAssignOp__ExpAssign<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpAssignNP0((AExp)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5268,17 +7034,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpCond_ExpJuxtNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpAssignNP1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpAssignNP<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -5286,14 +7054,25 @@ class ParseEddy {
 
     private void AfterIfB(final int lo, final int hi, final long range) {
       final int prev = values.size();
+      if (hi-lo>=1) {
+        final long s1 = slices.get(iExpAssignNP<<24|lo<<12|hi);
+        if (s1 != 0) {
+          for (int k=0;k<(s1&vMask);k++) {
+            values.add(AfterIfB0((AExp)values.get((int)(s1>>32)+k)));
+            prior(Pr.ifElseHole()*priors[(int)(s1>>32)+k]);
+          }
+        }
+      }
       if (hi-lo>=3) {
         for (int j=lo+1;j<=hi-2;j++) {
           {
             final long s1 = slices.get(iExpAssignNP<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iThen__Stmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
-                values.add(AfterIfB0((AExp)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+              for (int k3=0;k3<(s3&vMask);k3++) {
+                values.add(AfterIfB1((AExp)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5304,8 +7083,10 @@ class ParseEddy {
             final long s1 = slices.get(iParenExp__MaybeThen<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeStmt__ElseTok__MaybeColon__Stmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
-                values.add(AfterIfB1((Tuple2)values.get((int)(s1>>32)+k1),(Tuple3)values.get((int)(s3>>32)+k3)));
+              for (int k3=0;k3<(s3&vMask);k3++) {
+                values.add(AfterIfB2((Tuple2)values.get((int)(s1>>32)+k1),(Tuple3)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5313,8 +7094,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpAssignNP<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
-            values.add(AfterIfB2((AExp)values.get((int)(s1>>32)+k)));
+          for (int k=0;k<(s1&vMask);k++) {
+            values.add(AfterIfB3((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=4) {
@@ -5323,8 +7106,10 @@ class ParseEddy {
             final long s1 = slices.get(iParenExp<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeThen__Stmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
-                values.add(AfterIfB3((Tuple2)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+              for (int k3=0;k3<(s3&vMask);k3++) {
+                values.add(AfterIfB4((Tuple2)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5335,8 +7120,10 @@ class ParseEddy {
             final long s1 = slices.get(iParenExp__MaybeThen<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeStmt__ElifTok__MaybeColon__AfterIf<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
-                values.add(AfterIfB4((Tuple2)values.get((int)(s1>>32)+k1),(Tuple3)values.get((int)(s3>>32)+k3)));
+              for (int k3=0;k3<(s3&vMask);k3++) {
+                values.add(AfterIfB5((Tuple2)values.get((int)(s1>>32)+k1),(Tuple3)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5347,8 +7134,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAssignNP<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iBlock<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
-                values.add(AfterIfB5((AExp)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+              for (int k3=0;k3<(s3&vMask);k3++) {
+                values.add(AfterIfB6((AExp)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5359,8 +7148,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAssignNP__Then<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeStmt__ElifTok__MaybeColon__AfterIf<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
-                values.add(AfterIfB6((AExp)values.get((int)(s1>>32)+k1),(Tuple3)values.get((int)(s3>>32)+k3)));
+              for (int k3=0;k3<(s3&vMask);k3++) {
+                values.add(AfterIfB7((AExp)values.get((int)(s1>>32)+k1),(Tuple3)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5371,19 +7162,14 @@ class ParseEddy {
             final long s1 = slices.get(iExpAssignNP__Then<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeStmt__ElseTok__MaybeColon__Stmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
-                values.add(AfterIfB7((AExp)values.get((int)(s1>>32)+k1),(Tuple3)values.get((int)(s3>>32)+k3)));
+              for (int k3=0;k3<(s3&vMask);k3++) {
+                values.add(AfterIfB8((AExp)values.get((int)(s1>>32)+k1),(Tuple3)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
       }
-      if (hi-lo>=1) {
-        final long s1 = slices.get(iExpAssignNP<<24|lo<<12|hi);
-        if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
-            values.add(AfterIfB8((AExp)values.get((int)(s1>>32)+k)));
-        }
-      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iAfterIfB<<24|lo<<12|hi,(long)prev<<32|count); }
     }
@@ -5393,8 +7179,10 @@ class ParseEddy {
       if (hi-lo>=3) {
         final long s1 = slices.get(iParenExp<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(MaybeParenExp0((Tuple2)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
@@ -5402,7 +7190,7 @@ class ParseEddy {
         if (s1 != 0) {
           for (int k=0;k<(s1&vMask);k++) {
             final Tuple2<AExp,Around> x = MaybeParenExp1((AExp)values.get((int)(s1>>32)+k));
-            if (x != null) values.add(x);
+            if (x != null) { values.add(x); prior(priors[(int)(s1>>32)+k]); }
           }
         }
       }
@@ -5418,8 +7206,10 @@ class ParseEddy {
             final long s1 = slices.get(iMaybeParenExp<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeDo<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(MaybeParenExp__MaybeDo0((Tuple2)values.get((int)(s1>>32)+k1),(Option)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5436,8 +7226,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpAssignNP__Then<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeStmt__ElseTok__MaybeColon<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(AfterIfA0((AExp)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5448,8 +7240,10 @@ class ParseEddy {
             final long s1 = slices.get(iParenExp__MaybeThen<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeStmt__ElseTok__MaybeColon<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(AfterIfA1((Tuple2)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5460,8 +7254,10 @@ class ParseEddy {
             final long s1 = slices.get(iMaybeParenExp<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeThen<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(AfterIfA2((Tuple2)values.get((int)(s1>>32)+k1),(Option)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5475,15 +7271,19 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iAfterIfB<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(AfterIf0((PreIf)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iAfterIfA<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(AfterIf1((PreIf)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -5495,24 +7295,28 @@ class ParseEddy {
       if (hi-lo>=1 && type[lo]==iQuestionTok) {
         final long s1 = slices.get(iWildcardBounds<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpWildNA0((Option)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpHighNA<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ExpWildNA1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
-      int size = values.size();
+      final int size = values.size();
       int count = size-prev;
       if (count > 1) {
-        Scored<AExp> s = (Scored)Empty$.MODULE$;
-        for (int i=0;i<count;i++)
-          s = new Best<AExp>(Pr.parse(),(AExp)values.remove(--size),s);
-        values.add(new ScoredAExp(s,range));
+        final double best = best(prev,size);
+        final Scored<AExp> s = (Scored)alternatives(prev,size,best);
+        values.subList(prev,size).clear();
+        values.add(new ScoredAExp(s,range)); prior(best);
         count = 1;
       }
       if (count != 0) { slices.put(iExpWildNA<<24|lo<<12|hi,(long)prev<<32|count); }
@@ -5523,15 +7327,19 @@ class ParseEddy {
       if (hi-lo>=2) {
         final long s1 = slices.get(iJuxts2_ExpWildNA<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(SingleJuxt1_ExpWildNA0((List)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpWildNA<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(SingleJuxt1_ExpWildNA1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -5546,8 +7354,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpWildNA<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iJuxts1_ExpWildNA<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Juxts1_ExpWildNA0((AExp)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5555,8 +7365,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iExpWildNA<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Juxts1_ExpWildNA1((AExp)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -5571,8 +7383,10 @@ class ParseEddy {
             final long s1 = slices.get(iExpPrimary<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iDimExps<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ExpPrimary__DimExps0((AExp)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5589,8 +7403,10 @@ class ParseEddy {
             final long s1 = slices.get(iIdent<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iDims__EqTok__Option_ExpCommas<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(VarDecl0((Loc)values.get((int)(s1>>32)+k1),(Tuple3)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5601,8 +7417,10 @@ class ParseEddy {
             final long s1 = slices.get(iIdent<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iDims<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(VarDecl1((Loc)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5619,8 +7437,10 @@ class ParseEddy {
             final long s1 = slices.get(iVarDecl<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iJuxts1_VarDecl<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Juxts1_VarDecl0((AVarDecl)values.get((int)(s1>>32)+k1),(List)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5628,8 +7448,10 @@ class ParseEddy {
       if (hi-lo>=1) {
         final long s1 = slices.get(iVarDecl<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Juxts1_VarDecl1((AVarDecl)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -5644,8 +7466,10 @@ class ParseEddy {
             final long s1 = slices.get(iVarDecl<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iCommas1_VarDecl<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Commas1_VarDecl0((AVarDecl)values.get((int)(s1>>32)+k1),(CommaList1)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5653,15 +7477,19 @@ class ParseEddy {
       if (hi-lo>=2 && type[hi-1]==iCommaTok) {
         final long s1 = slices.get(iVarDecl<<24|lo<<12|hi-1);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Commas1_VarDecl1((AVarDecl)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iVarDecl<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Commas1_VarDecl2((AVarDecl)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -5676,8 +7504,10 @@ class ParseEddy {
             final long s1 = slices.get(iIdent<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeColon__MaybeStmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Ident__MaybeColon__MaybeStmt0((Loc)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5694,8 +7524,10 @@ class ParseEddy {
             final long s1 = slices.get(iOption_Type<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iIdent<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Option_Type__Ident0((Option)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5712,8 +7544,10 @@ class ParseEddy {
             final long s1 = slices.get(iJuxts0_Mod<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iOption_Type__Ident<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Juxts0_Mod__Option_Type__Ident0((List)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5727,8 +7561,10 @@ class ParseEddy {
       if (hi-lo==1) {
         final long s1 = slices.get(iIdent<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(Option_Ident0((Loc)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -5737,14 +7573,22 @@ class ParseEddy {
 
     private void ForeachSep(final int lo, final int hi, final long range) {
       final int prev = values.size();
-      if (hi-lo==1 && type[lo]==iInTok)
+      if (hi-lo==1 && type[lo]==iInTok) {
         values.add(ForeachSep0(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iColonTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iColonTok) {
         values.add(ForeachSep1(ranges[lo]));
-      if (hi-lo==1 && type[lo]==iEqTok)
+        prior(1);
+      }
+      if (hi-lo==1 && type[lo]==iEqTok) {
         values.add(ForeachSep2(ranges[lo]));
-      if (hi-lo==2 && type[lo]==iLtTok && type[lo+1]==iMinusTok)
+        prior(1);
+      }
+      if (hi-lo==2 && type[lo]==iLtTok && type[lo+1]==iMinusTok) {
         values.add(ForeachSep3(ranges[lo],ranges[lo+1]));
+        prior(1);
+      }
       final int count = values.size()-prev;
       if (count != 0) { slices.put(iForeachSep<<24|lo<<12|hi,(long)prev<<32|count); }
     }
@@ -5757,8 +7601,10 @@ class ParseEddy {
             final long s1 = slices.get(iOption_ExpAssign<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iCommas0_ExpAssignNC<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(SemiTok__Option_ExpAssign__SemiTok__Commas0_ExpAssignNC0((Option)values.get((int)(s1>>32)+k1),(CommaList)values.get((int)(s3>>32)+k3),ranges[lo],ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5775,8 +7621,10 @@ class ParseEddy {
             final long s1 = slices.get(iJuxts0_Mod__Option_Type__Ident<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iDims__ForeachSep__ExpAssign<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ForInfo0((Tuple3)values.get((int)(s1>>32)+k1),(Tuple3)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5787,8 +7635,10 @@ class ParseEddy {
             final long s1 = slices.get(iCommas0_StmtHelperBS<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iSemiTok__Option_ExpAssign__SemiTok__Commas0_ExpAssignNC<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(ForInfo1((CommaList)values.get((int)(s1>>32)+k1),(Tuple4)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5805,8 +7655,10 @@ class ParseEddy {
             final long s1 = slices.get(iVarDecl<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iCommas1_VarDecl<<24|j+1<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Commas2_VarDecl0((AVarDecl)values.get((int)(s1>>32)+k1),(CommaList1)values.get((int)(s3>>32)+k3),ranges[j]));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5820,22 +7672,28 @@ class ParseEddy {
       if (hi-lo>=2) {
         final long s1 = slices.get(iJuxts2_VarDecl<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(List1_VarDecl0((List)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=3) {
         final long s1 = slices.get(iCommas2_VarDecl<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(List1_VarDecl1((CommaList2)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       if (hi-lo>=1) {
         final long s1 = slices.get(iVarDecl<<24|lo<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(List1_VarDecl2((AVarDecl)values.get((int)(s1>>32)+k)));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -5850,8 +7708,10 @@ class ParseEddy {
             final long s1 = slices.get(iOption_Type<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iList1_VarDecl<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Option_Type__List1_VarDecl0((Option)values.get((int)(s1>>32)+k1),(KList)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5868,8 +7728,10 @@ class ParseEddy {
             final long s1 = slices.get(iWhileUntil<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeParenExp<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(WhileUntil__MaybeParenExp0((Loc)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5886,8 +7748,10 @@ class ParseEddy {
           {
             final long s1 = slices.get(iMaybeColon<<24|lo+1<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iAfterIf<<24|j<<12|hi); if (s3 == 0) continue;
-            for (int k3=0;k3<(s3&vMask);k3++)
+            for (int k3=0;k3<(s3&vMask);k3++) {
               values.add(ElifTok__MaybeColon__AfterIf0(x0,(PreIf)values.get((int)(s3>>32)+k3),ranges[lo]));
+              prior(priors[(int)(s3>>32)+k3]);
+            }
           }
         }
       }
@@ -5903,8 +7767,10 @@ class ParseEddy {
             final long s1 = slices.get(iMaybeStmt<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iElifTok__MaybeColon__AfterIf<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(MaybeStmt__ElifTok__MaybeColon__AfterIf0((AStmt)values.get((int)(s1>>32)+k1),(Tuple2)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5918,8 +7784,10 @@ class ParseEddy {
       if (hi-lo>=3 && type[lo]==iForTok) {
         final long s1 = slices.get(iForInfo<<24|lo+1<<12|hi);
         if (s1 != 0) {
-          for (int k=0;k<(s1&vMask);k++)
+          for (int k=0;k<(s1&vMask);k++) {
             values.add(ForTok__ForInfo0((ForInfo)values.get((int)(s1>>32)+k),ranges[lo]));
+            prior(priors[(int)(s1>>32)+k]);
+          }
         }
       }
       final int count = values.size()-prev;
@@ -5934,8 +7802,10 @@ class ParseEddy {
             final long s1 = slices.get(iType<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iRight<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Type__Right0((AExp)values.get((int)(s1>>32)+k1),(Loc)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5952,8 +7822,10 @@ class ParseEddy {
             final long s1 = slices.get(iType__Right<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iMaybeColon__MaybeStmt<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(Type__Right__MaybeColon__MaybeStmt0((Tuple2)values.get((int)(s1>>32)+k1),(AStmt)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -5970,8 +7842,10 @@ class ParseEddy {
             final long s1 = slices.get(iWhileUntil<<24|lo<<12|j); if (s1 == 0) continue;
             final long s3 = slices.get(iExpAssignNP<<24|j<<12|hi); if (s3 == 0) continue;
             for (int k1=0;k1<(s1&vMask);k1++) {
-              for (int k3=0;k3<(s3&vMask);k3++)
+              for (int k3=0;k3<(s3&vMask);k3++) {
                 values.add(WhileUntil__ExpAssignNP0((Loc)values.get((int)(s1>>32)+k1),(AExp)values.get((int)(s3>>32)+k3)));
+                prior(priors[(int)(s1>>32)+k1]*priors[(int)(s3>>32)+k3]);
+              }
             }
           }
         }
@@ -112,8 +112,8 @@ object ParseEddyActions {
   def ExpOrOr_ExpJuxtNP1(x1: AExp): AExp = x1
   def StmtHelperBS0(x1: (Long,ForInfo), x2: AStmt): AStmt = ForAStmt(x1._1,x1._2,NoAround(x1._2.r),x2)
   def StmtHelperBS1(x1: AExp, x2: KList[AVarDecl]): AStmt = VarAStmt(Nil,Some(x1),x2)
-  def StmtHelperBS2(x2: AExp, x1r: Range): AStmt = ThrowAStmt(x1r,x2)
-  def StmtHelperBS3(x2: AStmt, x3: Loc[Group], x1r: Range): AStmt = ParenAStmt(x2,Around(Paren,x1r,x3))
+  def StmtHelperBS2(x2: AStmt, x3: Loc[Group], x1r: Range): AStmt = ParenAStmt(x2,Around(Paren,x1r,x3))
+  def StmtHelperBS3(x2: AExp, x1r: Range): AStmt = ThrowAStmt(x1r,x2)
   def StmtHelperBS4(x2: Option[Loc[String]], x1r: Range): AStmt = BreakAStmt(x1r,x2)
   def StmtHelperBS5(x1: (Long,AStmt), x2: (List[(CatchInfo,AStmt)],Option[(SRange,AStmt)])): AStmt = TryAStmt(x1._1,x1._2,x2._1,x2._2)
   def StmtHelperBS6(x1: (Long,Loc[Group],ForInfo), x2: (Loc[Group],AStmt)): AStmt = ForAStmt(x1._1,x1._3,Around(x1._2,x2._1),x2._2)
@@ -203,15 +203,15 @@ object ParseEddyActions {
   def ExpParens1(x2: AExp, x3: Loc[Group], x1r: Range): AExp = ParenAExp(x2,Around(Paren,x1r,x3))
   def MaybeStmt0(x1: AStmt): AStmt = x1
   def MaybeStmt1(): AStmt = HoleAStmt(SRange.empty)
-  def AfterIfB0(x1: AExp, x2: AStmt): PreIf = PreIf(ir => IfAStmt(ir,x1,NoAround(x1.r),x2))
-  def AfterIfB1(x1: (AExp,Around), x2: (AStmt,Long,AStmt)): PreIf = PreIf(ir => IfElseAStmt(ir,x1._1,x1._2,x2._1,x2._2,x2._3))
-  def AfterIfB2(x1: AExp): PreIf = { val er = x1.r; PreIf(ir => IfAStmt(ir,x1,NoAround(er),EmptyAStmt(er.after))) }
-  def AfterIfB3(x1: (AExp,Around), x2: AStmt): PreIf = PreIf(ir => IfAStmt(ir,x1._1,x1._2,x2))
-  def AfterIfB4(x1: (AExp,Around), x2: (AStmt,Loc[ElifTok],PreIf)): PreIf = PreIf(ir => IfElseAStmt(ir,x1._1,x1._2,x2._1,x2._2.r,x2._3(x2._2.r)))
-  def AfterIfB5(x1: AExp, x2: AStmt): PreIf = PreIf(ir => IfAStmt(ir,x1,NoAround(x1.r),x2))
-  def AfterIfB6(x1: AExp, x2: (AStmt,Loc[ElifTok],PreIf)): PreIf = PreIf(ir => IfElseAStmt(ir,x1,NoAround(x1.r),x2._1,x2._2.r,x2._3(x2._2.r)))
-  def AfterIfB7(x1: AExp, x2: (AStmt,Long,AStmt)): PreIf = PreIf(ir => IfElseAStmt(ir,x1,NoAround(x1.r),x2._1,x2._2,x2._3))
-  def AfterIfB8(x1: AExp): PreIf = { val er = x1.r; PreIf(ir => IfElseAStmt(ir,x1,NoAround(er),EmptyAStmt(er.after),er.after,HoleAStmt(er.after))) }
+  def AfterIfB0(x1: AExp): PreIf = { val er = x1.r; PreIf(ir => IfElseAStmt(ir,x1,NoAround(er),EmptyAStmt(er.after),er.after,HoleAStmt(er.after))) }
+  def AfterIfB1(x1: AExp, x2: AStmt): PreIf = PreIf(ir => IfAStmt(ir,x1,NoAround(x1.r),x2))
+  def AfterIfB2(x1: (AExp,Around), x2: (AStmt,Long,AStmt)): PreIf = PreIf(ir => IfElseAStmt(ir,x1._1,x1._2,x2._1,x2._2,x2._3))
+  def AfterIfB3(x1: AExp): PreIf = { val er = x1.r; PreIf(ir => IfAStmt(ir,x1,NoAround(er),EmptyAStmt(er.after))) }
+  def AfterIfB4(x1: (AExp,Around), x2: AStmt): PreIf = PreIf(ir => IfAStmt(ir,x1._1,x1._2,x2))
+  def AfterIfB5(x1: (AExp,Around), x2: (AStmt,Loc[ElifTok],PreIf)): PreIf = PreIf(ir => IfElseAStmt(ir,x1._1,x1._2,x2._1,x2._2.r,x2._3(x2._2.r)))
+  def AfterIfB6(x1: AExp, x2: AStmt): PreIf = PreIf(ir => IfAStmt(ir,x1,NoAround(x1.r),x2))
+  def AfterIfB7(x1: AExp, x2: (AStmt,Loc[ElifTok],PreIf)): PreIf = PreIf(ir => IfElseAStmt(ir,x1,NoAround(x1.r),x2._1,x2._2.r,x2._3(x2._2.r)))
+  def AfterIfB8(x1: AExp, x2: (AStmt,Long,AStmt)): PreIf = PreIf(ir => IfElseAStmt(ir,x1,NoAround(x1.r),x2._1,x2._2,x2._3))
   def TypeArgs0(x2: KList[AExp], x1r: Range, x4r: Range): Grouped[KList[AExp]] = Grouped(x2,SGroup(x1r,x4r))
   def ExpOr_ExpJuxt0(x1: AExp, x3: AExp, x2r: Range): AExp = BinaryAExp(OrOp,x2r,x1,x3)
   def ExpOr_ExpJuxt1(x1: AExp): AExp = x1
@@ -227,6 +227,8 @@ object Pr {
   val typo = Prob("typo",.5)
   assert(pp(exact) > pp(typo))
   val globalByItem = Prob("global by item",.6)
+  val libraryByItem = Prob("library by item",.3)
+  assert(pp(globalByItem) > pp(libraryByItem))
   val methodByItem = Prob("method by item",.2)
 
   // ArgMatching
@@ -240,6 +242,10 @@ object Pr {
   val convertToArray = Prob("convert to array",.5)
   val specialCall = Prob("special call",.1) // x[f] or (x f) instead of x.f, x f y instead of x.f(y), etc.
 
+  // Parsing priors, named by productions in eddy.gram
+  val parenStmt = Prob("parenthesized statement",.5) // (x = 1) is more likely an expression than a statement
+  val ifElseHole = Prob("if else hole",.5) // if x is rarely an if with an empty then and a missing else
+
   // Named simple values
   val parse = Prob("parse",1)
   val forwardThis = Prob("forward this",1)
@@ -251,9 +257,9 @@ object Pr {
 
   // Default imports
   val defaultImports = {
-    val imports = new ImportTrie
+    val imports = new ImportTrie.Builder
     imports.addDefaults()
-    imports
+    imports.build()
   }
 
   def qualifiedPrior(i: Item, skip: Int)(implicit env: Env): Prob = {
@@ -32,8 +32,30 @@ object Tarski {
   }
 
   // (show(s),s.toString,fullFormat,abbrevFormat) for a list of statements s.
-  // Once we convert Stmt to ShowStmts, Env can be discarded.
-  case class ShowStmts(ss: List[Stmt], show: String, den: String, full: String, abbrev: String, fullTokens: List[Loc[Token]]) {
+  // Once we convert Stmt to ShowStmts, Env can be discarded.  Formatting is expensive and most alternatives
+  // are never shown, so everything is computed lazily; key is a cheap fingerprint for merging duplicates.
+  final class ShowStmts(val ss: List[Stmt], sp: List[Loc[SpaceTok]], private val format: Format) {
+    private lazy val tokens = Pretty.tokens(ss)(Pretty.prettyStmts)
+    lazy val key: List[Token] = tokens map (_.x)
+    lazy val show: String = Tokens.show(ss)(Pretty.prettyStmts,abbrevShowFlags).trim
+    lazy val den: String = ss.toString
+    lazy val fullTokens: List[Loc[Token]] = insertSpaces(tokens,sp)
+    private lazy val fullText = Tokens.print(fullTokens map (_.x))(fullShowFlags)
+    private lazy val sentinel = Tokens.show(ss)(Pretty.prettyStmts,sentinelShowFlags).trim
+
+    // Filled in by ShowStmts.force
+    @volatile private var _full: String = null
+    @volatile private var _abbrev: String = null
+    def full: String = { if (_full == null) ShowStmts.force(List(this)); _full }
+    def abbrev: String = { if (_abbrev == null) ShowStmts.force(List(this)); _abbrev }
+
+    override def equals(o: Any) = o match {
+      case o:ShowStmts => ss == o.ss
+      case _ => false
+    }
+    override def hashCode = ss.hashCode
+    override def toString = s"ShowStmts($ss)"
+
     // Compare ignoring locations and whitespace
     def similar(ts: List[Loc[Token]]): Boolean = {
       def strip(ts: List[Loc[Token]]): List[Token] = ts collect { case Loc(t,_) if !isSpace(t) && t != HoleTok => t }
@@ -41,6 +63,23 @@ object Tarski {
     }
     def similar(ts: JList[Loc[Token]]): Boolean = similar(ts.asScala.toList)
   }
+  object ShowStmts {
+    // Format alternatives which haven't been yet, in one batch per kind of formatting.  Call this on the
+    // thread running the search, since format may need the IDE's read access.
+    def force(rs: List[ShowStmts]): Unit = rs filter (_._full == null) match {
+      case Nil => ()
+      case todo@(r::_) =>
+        val fulls = r.format(todo.map(_.fullText).asJava,fullShowFlags).asScala
+        val abbrevs = r.format(todo.map(_.sentinel).asJava,sentinelShowFlags).asScala
+        for ((s,(f,a)) <- todo zip (fulls zip abbrevs)) {
+          s._abbrev = ShowFlags.replaceSentinels(a).replaceAll("""\s+"""," ")
+          s._full = f
+        }
+    }
+  }
+
+  // Formats a batch of code strings, returning the results in order
+  type Format = (JList[String],ShowFlags) => JList[String]
 
   // Java and Scala result types
   type JList[A] = java.util.List[A]
@@ -54,19 +93,26 @@ object Tarski {
 
   // The toplevel compiler driver for use from Java.
   // Feed results to a take instance until it's satisfied.
-  def fixTake(tokens: java.util.List[Loc[Token]], env: Env,
-              format: (String,ShowFlags) => String, take: Take): Unit = {
+  def fixTake(tokens: java.util.List[Loc[Token]], env: Env, format: Format, take: Take): Unit = ArgMatching.withRun {
     val toks = tokens.asScala.toList
     val r = fix(toks)(env)
     val sp = spaces(toks)
 
     println("input: " + Tokens.print(toks map (_.x))(abbrevShowFlags))
 
-    // Take elements until we have enough, merging duplicates and adding their probabilities if found
-    def mergeTake(s: Scored[ShowStmts], m: Map[String,Alt[ShowStmts]]): Unit = {
+    // Format the alternatives delivered to take.  Different keys can still format identically, so merge again by abbrev.
+    def deliver(m: Map[List[Token],Alt[ShowStmts]]): JResults = {
+      val rs = m.values.toList sortBy (-_.p)
+      ShowStmts.force(rs map (_.x))
+      val seen = new java.util.HashSet[String]
+      (rs filter (r => seen.add(r.x.abbrev))).asJava
+    }
+
+    // Take elements until we have enough, merging duplicates if found
+    def mergeTake(s: Scored[ShowStmts], m: Map[List[Token],Alt[ShowStmts]]): Unit = {
       // Check interrupts (as the probabilities decline, we hardly ever do env lookups)
       if (Interrupts.pending != 0) Interrupts.checkInterrupts()
-      val cutoff = take.take((m.values.toList sortBy (-_.p)).asJava)
+      val cutoff = take.take(deliver(m))
       @tailrec def loop(s: Scored[ShowStmts]): Unit =
         if (s.p <= cutoff)
           println(s"stopping search: p ${s.p} <= cutoff $cutoff")
@@ -74,44 +120,39 @@ object Tarski {
           case s:LazyScored[ShowStmts] => loop(s.force(cutoff))
           case _:EmptyOrBad => ()
           case Best(p,b,s) =>
-            val a = b.abbrev
-            println(s"found in stream: $p: $a")
-            mergeTake(s, if (m contains a) m else m + ((a,Alt(p,b))))
+            val k = b.key
+            println(s"found in stream: $p: ${b.show}")
+            mergeTake(s, if (m contains k) m else m + ((k,Alt(p,b))))
         }
       loop(s)
     }
 
-    val sc = r map (ss => {
-      val abbrev   = show(ss)(Pretty.prettyStmts,abbrevShowFlags).trim
-      val sentinel = show(ss)(Pretty.prettyStmts,sentinelShowFlags).trim
-      val tokens   = insertSpaces(Pretty.tokens(ss)(Pretty.prettyStmts),sp)
-      val full     = Tokens.print(tokens map (_.x))(fullShowFlags)
-      ShowStmts(ss=ss,show=abbrev,den=ss.toString,
-        full=format(full,fullShowFlags),
-        abbrev=ShowFlags.replaceSentinels(format(sentinel,sentinelShowFlags)).replaceAll("""\s+"""," "),
-        fullTokens=tokens)
-    })
+    val sc = r map (new ShowStmts(_,sp,format))
     // Complain if there's an error
     if (Flags.trackErrors) sc.strict match {
       case e:EmptyOrBad => println("fixJava failed:\n"+e.error.prefixed("  error: "))
       case _:Best[_] => ()
     }
-    mergeTake(sc, Map.empty)
+    // Report how much inference the run's memo saved, even if the search was interrupted
+    try mergeTake(sc, Map.empty)
+    finally println(ArgMatching.runMemo)
   }
 
   // Toplevel compiler driver for use from Scala
+  // Scored results are lazy, so callers wanting the resolve memo should consume them inside ArgMatching.withRun.
   def fix(tokens: List[Loc[Token]])(implicit env: Env): Scored[List[Stmt]] = {
     val asts = Mismatch.repair(prepare(tokens)) flatMap (ts => {
-      val asts = ParseEddy.parse(ts)
+      val asts = ParseEddy.parseScored(ts)
       if (isDebug) {
-        println(s"asts ${asts.size} = ")
-        for (a <- asts) {
+        val all = asts.stream
+        println(s"asts ${all.size} = ")
+        for (Alt(p,a) <- all) {
           implicit val f = abbrevShowFlags
-          println(s"  ${show(a)}")
+          println(s"  ${pp(p)} : ${show(a)}")
           println(s"    $a")
         }
       }
-      uniform(Pr.parse,asts,"Parse failed")
+      orError(asts,"Parse failed")
     })
     asts flatMap (denoteStmts(_)(env)) flatMap Expand.expandStmts map (_ map Simplify.simplify)
   }
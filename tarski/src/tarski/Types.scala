@@ -15,6 +15,8 @@ import tarski.Items._
 import tarski.Operators._
 
 import scala.annotation.tailrec
+import scala.util.hashing.MurmurHash3
+import java.lang.ref.WeakReference
 
 object Types {
 
@@ -205,14 +207,22 @@ object Types {
     def captureAll = this
   }
   case class GenericType(item: ClassItem, args: List[TypeArg], parent: Parent) extends ClassType {
+    override val hashCode = MurmurHash3.productHash(this)
+    override def equals(o: Any) = o match {
+      case t:GenericType => (this eq t) || (hashCode == t.hashCode && item == t.item && parent == t.parent && args == t.args)
+      case _ => false
+    }
     def env() = capture(item.tparams,args,parent.env)._1
     def isRaw = parent.isRaw
     def isSimple = false
     def known(implicit env: Tenv) = args.forall(_.known) && parent.known
-    def substitute(implicit env: Tenv) = {
+    def substitute(implicit env: Tenv) = if (env.isEmpty && !parent.isRaw) this else {
       val p = parent.substitute
-      if (!p.isRaw && (args forall (_.known))) GenericType(item,args map (_.substitute),p)
-      else RawType(item,p)
+      if (!p.isRaw && (args forall (_.known))) {
+        val as = args map (_.substitute)
+        if ((p eq parent) && sameRefs(as,args)) this
+        else intern(GenericType(item,as,p))
+      } else RawType(item,p)
     }
     def safe = for (p <- parent.safe; a <- allSome(args map (_.safe))) yield GenericType(item,a,p)
     def raw = RawType(item,parent.raw)
@@ -292,17 +302,27 @@ object Types {
   }
   case class IntersectType(ts: Set[RefType]) extends RefType {
     if (false) assert(ts forall (x => ts.forall (y => x==y || !isSubitem(x.item,y.item))),s"Bad interface type $ts")
+    override val hashCode = MurmurHash3.productHash(this)
+    override def equals(o: Any) = o match {
+      case t:IntersectType => (this eq t) || (hashCode == t.hashCode && ts == t.ts)
+      case _ => false
+    }
     def item = NoTypeItem
     def supers = ts.toList flatMap (_.supers)
     def isFinal = false
     def isSimple = ts forall (_.isSimple)
     def known(implicit env: Tenv) = ts forall (_.known)
-    def substitute(implicit env: Tenv) = IntersectType(ts map (_.substitute))
+    def substitute(implicit env: Tenv) = intern(IntersectType(ts map (_.substitute)))
     def safe = allSome(ts map (_.safe)) map IntersectType
     def raw = IntersectType(ts map (_.raw))
     def captureAll = IntersectType(ts map (_.captureAll))
   }
   case class ArrayType(t: Type) extends ClassOrArrayType {
+    override val hashCode = MurmurHash3.productHash(this)
+    override def equals(o: Any) = o match {
+      case a:ArrayType => (this eq a) || (hashCode == a.hashCode && t == a.t)
+      case _ => false
+    }
     def env = Map.empty
     def item = ArrayItem
     def supers = CloneableItem.simple :: SerializableItem.simple :: (t match {
@@ -316,12 +336,34 @@ object Types {
       case _ => false
     }
     def known(implicit env: Tenv) = t.known
-    def substitute(implicit env: Tenv) = ArrayType(t.substitute)
+    def substitute(implicit env: Tenv) = {
+      val s = t.substitute
+      if (s eq t) this else intern(ArrayType(s))
+    }
     def safe = t.safe map ArrayType
     def raw = ArrayType(t.raw)
     def captureAll = ArrayType(t.captureAll)
   }
 
+  // Hash-consing for compound types.  Generic, array, and intersection types cache their hashes, and intern
+  // returns a canonical instance from a weak table, so that the copies made by substitution share memory and
+  // usually compare by eq.  Interning is an optimization only: equality is still structural.
+  private val interned = new java.util.WeakHashMap[RefType,WeakReference[RefType]]
+  def intern[T <: RefType](t: T): T = interned.synchronized {
+    val w = interned.get(t)
+    val c = if (w == null) null else w.get
+    if (c != null) c.asInstanceOf[T]
+    else {
+      interned.put(t,new WeakReference[RefType](t))
+      t
+    }
+  }
+  @tailrec private def sameRefs(xs: List[AnyRef], ys: List[AnyRef]): Boolean = (xs,ys) match {
+    case (Nil,Nil) => true
+    case (x::xs,y::ys) => (x eq y) && sameRefs(xs,ys)
+    case _ => false
+  }
+
   // Type environments
   // None means the type variable is "raw" and therefore unknown.
   type Tenv = Map[TypeVar,Option[RefType]]
@@ -380,7 +422,10 @@ object Types {
   // Is lo a subtype (or subitem) of hi?
   def isSubtype(lo: Type, hi: Type): Boolean = lo==hi || lo.subtypeOfHelper(hi)
   def isProperSubtype(lo: Type, hi: Type): Boolean = lo!=hi && lo.subtypeOfHelper(hi)
-  def isSubitem(lo: TypeItem, hi: TypeItem): Boolean = lo==hi || lo.superItems.exists(isSubitem(_,hi))
+  def isSubitem(lo: TypeItem, hi: TypeItem): Boolean = lo==hi || (lo match {
+    case lo:ClassItem => hi match { case hi:RefTypeItem => lo.allSuperItems contains hi; case _ => false }
+    case _ => lo.superItems.exists(isSubitem(_,hi))
+  })
 
   // Contains relation for type arguments, written lo <= hi in the spec.  4.5.1.
   def isSubTypeArg(lo: TypeArg, hi: TypeArg) = (lo,hi) match {
@@ -714,7 +759,7 @@ object Types {
   def strictCompatible(f: Signature, ts: List[Type], expects: Option[Type]): Option[List[TypeArg]] =
     compatible(f,ts,expects,Inference.strictBounds, strictInvokeContext)
   def looseCompatible (f: Signature, ts: List[Type], expects: Option[Type]): Option[List[TypeArg]] =
-    compatible(f,ts,expects,Inference.compatForm /* inlined looseBounds */, looseInvokeContext)
+    compatible(f,ts,expects,Inference.looseBounds, looseInvokeContext)
 
   // Given argument types ts, which signatures are still usable? ts is allowed to be shorter than f.params,
   // all signatures still possible after matching the prefix are returned.  If specified, ret constraints the
@@ -733,6 +778,16 @@ object Types {
   @inline def resolveOption(f: Signature, ts: List[Type], expects: Option[Type]): Option[List[TypeArg]] =
     looseCompatible(f,ts,expects)
 
+  // resolveOption for a generic f, through p, which keeps the bounds of the argument prefix f's type parameters were last
+  // resolved with.  Calls for growing prefixes of the same arguments only pay for the new ones.
+  def resolvePrefix(p: Inference.Prefixes, f: Signature, ts: List[Type], expects: Option[Type]): Option[List[TypeArg]] = {
+    val ps = f.params.slice(0,ts.size)
+    expects match {
+      case None => p(ps,ts)
+      case Some(t) => p(t::ps,f.result::ts)
+    }
+  }
+
   // Resolve an overloaded function
   def resolve[F <: Signature](fs: List[F], ts: List[Type], expects: Option[Type]): Option[(F,List[TypeArg])] = {
     def mostSpecific(fs: List[(F,List[TypeArg])]): Option[(F,List[TypeArg])] = fs match {
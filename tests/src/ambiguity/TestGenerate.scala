@@ -0,0 +1,26 @@
+/* TestGenerate: Check that the checked in parser matches its grammar
+ *
+ * ParseBench and the parser tests measure the compiled ParseEddy, so they only say something
+ * about eddy.gram if ParseEddy was regenerated after the last grammar edit.
+ */
+
+package ambiguity
+
+import ambiguity.Grammar._
+import org.testng.annotations.Test
+import org.testng.AssertJUnit._
+import scala.io.Source
+
+class TestGenerate {
+  val dir = "tarski/src/tarski/"
+  def grammar(binary: Boolean): Grammar = {
+    val G = complete(read(Source.fromFile(dir+"eddy.gram").mkString))
+    if (binary) binarize(G) else G
+  }
+  def current(file: String, code: => List[String]): Unit =
+    assertTrue(s"$file is stale: regenerate it from eddy.gram with make",
+      Source.fromFile(dir+file).mkString == code.mkString("\n")+"\n")
+
+  @Test def parser() = current("ParseEddy.java",Parse.parseGen(grammar(binary=true)))
+  @Test def actions() = current("ParseEddyActions.scala",Parse.actionGen(grammar(binary=true)))
+}
@@ -0,0 +1,62 @@
+/* ByItemBench: Engine cost of including nullary methods in byItem lookups
+ *
+ * Builds a synthetic project of classes whose nullary methods return other classes, plus
+ * locals of those classes, and times the same fixes with and without the methods in the
+ * environment.  Inputs of the form "Ck y =" need a byItem lookup of Ck, which with
+ * nullaryMethods includes x.f() for every local x whose class has a method f returning Ck.
+ * This is only tarski's side of the cost: items are in memory, so the plugin's lookups through
+ * ByItemIndex, JavaPsiFacade.findClasses and findMethodsByName are timed by Tests.testByItemBench
+ * in the plugin tests instead.
+ *
+ * Usage: ByItemBench [classes] [methods per class] [locals] [rounds]
+ */
+
+package tarski
+
+import tarski.Environment.Env
+import tarski.Items._
+import tarski.Lexer._
+import tarski.TestUtils._
+import tarski.Types._
+import scala.util.Random
+
+object ByItemBench {
+  case class Project(classes: Array[ClassItem], methods: Array[MethodItem], locals: Array[Local])
+
+  def project(classes: Int, methods: Int, locals: Int): Project = {
+    val random = new Random(3117)
+    val cs = Array.tabulate(classes)(k => NormalClassItem(s"C$k"))
+    val ms = for (c <- cs; k <- 0 until methods)
+      yield NormalMethodItem(s"get${c.name}_$k",c,Nil,cs(random.nextInt(classes)).simple,Nil,isStatic=false): MethodItem
+    val ls = Array.tabulate(locals)(k => NormalLocal(s"x$k",cs(random.nextInt(classes)).simple): Local)
+    Project(cs,ms,ls)
+  }
+
+  def env(p: Project, withMethods: Boolean): Env =
+    localEnvWithBase((p.classes ++ p.locals ++ (if (withMethods) p.methods else Array[Item]())): _*)
+
+  // Milliseconds per input and total alternatives, after a warmup pass
+  def time(inputs: List[String], rounds: Int)(implicit env: Env): (Double,Int) = {
+    def pass() = inputs.map(s => Tarski.fix(lex(s)).stream.size).sum
+    pass()
+    val start = System.nanoTime
+    var alts = 0
+    for (_ <- 0 until rounds)
+      alts = pass()
+    ((System.nanoTime-start)/1e6/rounds/inputs.size,alts)
+  }
+
+  def main(args: Array[String]): Unit = {
+    val Array(classes,methods,locals,rounds) = (args map (_.toInt)) ++ Array(200,5,50,10).drop(args.length)
+    if (!Flags.nullaryMethods)
+      println("warning: Flags.nullaryMethods is off, so both runs ignore methods")
+    val p = project(classes,methods,locals)
+    val inputs = List.tabulate(20)(k => s"C${k*classes/20} y =")
+    println(s"project: $classes classes, ${p.methods.length} nullary methods, $locals locals, ${inputs.size} inputs")
+    val (withoutMs,a0) = time(inputs,rounds)(env(p,withMethods=false))
+    println(f"without methods: $withoutMs%.2f ms per fix, $a0 alternatives")
+    val (withMs,a1) = time(inputs,rounds)(env(p,withMethods=true))
+    println(f"with methods: ${withMs}%.2f ms per fix, $a1 alternatives")
+    println(f"cost: ${withMs/withoutMs}%.2fx")
+  }
+}
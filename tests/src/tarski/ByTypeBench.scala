@@ -0,0 +1,74 @@
+/* ByTypeBench: Memory comparison of the byItem string maps
+ *
+ * Builds the same synthetic type -> member name relation twice: as the old
+ * Map[String,Set[String]] of hash sets, and as a compact ByTypeIndex.  Each type
+ * gets a chain of supertypes, and every member is added to its type and all
+ * supertypes, as JavaEnvironment's full scan does.  Retained heap is measured
+ * from Runtime after repeated collections, so run it with nothing else going on.
+ *
+ * Usage: ByTypeBench [types] [members per type] [supertype depth]
+ */
+
+package tarski
+
+import java.util.{HashMap => JHashMap, HashSet => JHashSet}
+import scala.util.Random
+
+object ByTypeBench {
+  case class Relation(edges: Array[(String,String)])
+
+  def relation(types: Int, members: Int, depth: Int): Relation = {
+    val random = new Random(1731)
+    val typeNames = Array.tabulate(types)(i => s"com.example.pkg${i%97}.Type$i")
+    // Member names repeat a lot in real code (getName, size, value, ...)
+    val memberNames = Array.tabulate(4*members)(i => s"member$i")
+    val edges = for (t <- 0 until types; m <- 0 until members;
+                     name = memberNames(random.nextInt(memberNames.length));
+                     s <- 0 to math.min(depth,t))
+      yield (typeNames(t-s),name)
+    Relation(edges.toArray)
+  }
+
+  def used(): Long = {
+    val rt = Runtime.getRuntime
+    for (_ <- 0 until 5) { System.gc(); Thread.sleep(50) }
+    rt.totalMemory - rt.freeMemory
+  }
+
+  def maps(r: Relation): JHashMap[String,JHashSet[String]] = {
+    val m = new JHashMap[String,JHashSet[String]]
+    for ((t,n) <- r.edges) {
+      var s = m.get(t)
+      if (s == null) { s = new JHashSet[String]; m.put(t,s) }
+      s.add(n)
+    }
+    m
+  }
+
+  def index(r: Relation): ByTypeIndex = {
+    val b = new ByTypeIndex.Builder
+    for ((t,n) <- r.edges) b.add(t,n,1)
+    b.build()
+  }
+
+  // Retained bytes of the structure built by make, beyond the relation itself
+  def measure[A](r: Relation, make: Relation => A): (A,Long) = {
+    val before = used()
+    val a = make(r)
+    val after = used()
+    (a,after-before)
+  }
+
+  def main(args: Array[String]): Unit = {
+    val Array(types,members,depth) = (args map (_.toInt)) ++ Array(50000,8,4).drop(args.length)
+    val r = relation(types,members,depth)
+    println(s"relation: $types types, $members members per type, depth $depth, ${r.edges.length} edges")
+    val (m,mb) = measure(r,maps)
+    println(f"Map[String,Set[String]]: ${m.size} types, ${mb/1e6}%.1f MB")
+    val (x,xb) = measure(r,index)
+    println(f"ByTypeIndex: ${x.types} types, ${x.edges} edges, ${xb/1e6}%.1f MB (${x.arrayBytes/1e6}%.1f MB arrays)")
+    println(f"ratio: ${mb.toDouble/xb}%.1fx")
+    // Keep both alive until measured
+    assert(m.size == x.types)
+  }
+}
@@ -0,0 +1,120 @@
+/* ParseBench: Cost and timing harness for the generated parser
+ *
+ * The corpus is fixed and checked in as test-data/parse-corpus.txt, one escaped input per line,
+ * so adding tests or test data doesn't change what is measured.  ParseBench -c regenerates it
+ * from the code lines in test-data plus the inputs of TestParse.  For each input we record tokens,
+ * chart cells visited, chart entries, values, ambiguous entries and wall time.  TestParse.cost
+ * fails if the deterministic counts regress past the totals recorded in test-data/parse-costs.txt;
+ * after an intended grammar change, rerun ParseBench -w to update it.
+ * TestParse.methodSizes checks that ParseEddy's methods are small enough for HotSpot to compile;
+ * to watch them actually get compiled, run the timing rounds with -XX:+PrintCompilation.
+ *
+ * Usage: ParseBench [rounds]  Time rounds over the corpus
+ *        ParseBench -v        Print the cost of each input, most expensive last
+ *        ParseBench -w        Rewrite test-data/parse-costs.txt from the current parser
+ *        ParseBench -c        Rewrite test-data/parse-corpus.txt, then rerun with -w
+ */
+
+package tarski
+
+import utility.Locations._
+import tarski.Lexer._
+import tarski.Tokens._
+import java.io.{File,PrintWriter}
+import scala.io.Source
+
+object ParseBench {
+  val baselinePath = "test-data/parse-costs.txt"
+  val corpusPath = "test-data/parse-corpus.txt"
+
+  // Code lines in test-data.  Comments are skipped: long runs of identifiers are
+  // juxtaposition bombs which would dominate the timings.
+  def testData: List[String] = {
+    val files = new File("test-data").listFiles.toList filter (_.getName.endsWith(".java")) sortBy (_.getName)
+    for (f <- files; line <- Source.fromFile(f).getLines().toList;
+         t = line.trim if t.nonEmpty && !t.startsWith("/") && !t.startsWith("*"))
+      yield line
+  }
+
+  // Inputs of the testAST-style cases in TestParse, found by scanning its source
+  def testParse: List[String] = {
+    val pat = """test(?:AST|ASTPossible|Best|Count)\((?:\d+,\s*)?"((?:[^"\\]|\\.)*)"""".r
+    val source = Source.fromFile("tests/src/tarski/TestParse.scala").mkString
+    (pat findAllMatchIn source map (m => StringContext.treatEscapes(m.group(1)))).toList
+  }
+
+  // The checked in corpus.  Backslashes and line breaks are escaped so each input fits on one line.
+  def fixed: List[String] = Source.fromFile(corpusPath).getLines().toList map StringContext.treatEscapes
+  def writeCorpus(inputs: List[String]): Unit = {
+    val out = new PrintWriter(corpusPath)
+    try inputs foreach (s => out.println(s.replace("\\","\\\\").replace("\n","\\n").replace("\r","\\r")))
+    finally out.close()
+  }
+
+  // Prepared token streams for all inputs that lex
+  lazy val corpus: List[(String,List[Loc[Token]])] =
+    for (s <- fixed;
+         ts <- (try Some(prepare(lex(s))) catch { case _:RuntimeException => None })) // Not every line lexes
+      yield (s,ts)
+
+  case class Cost(inputs: Long, tokens: Long, cells: Long, chart: Long, values: Long, ambiguous: Long, ms: Double) {
+    def +(c: Cost) = Cost(inputs+c.inputs,tokens+c.tokens,cells+c.cells,chart+c.chart,values+c.values,
+                          ambiguous+c.ambiguous,ms+c.ms)
+    // Rough chart memory: a hashed int key and long slice per entry, a reference and prior per value
+    def bytes: Long = 12*chart+12*values
+    def counts = List("inputs" -> inputs,"tokens" -> tokens,"cells" -> cells,"chart" -> chart,
+                      "values" -> values,"ambiguous" -> ambiguous)
+    override def toString = (counts map {case (n,c) => s"$n $c"} mkString ", ")+f", ${bytes/1024}kB, $ms%.1f ms"
+  }
+  val zero = Cost(0,0,0,0,0,0,0)
+
+  def cost(ts: List[Loc[Token]]): Cost = {
+    val start = System.nanoTime
+    val s = ParseEddy.stats(ts)
+    Cost(1,s(0),s(1),s(2),s(3),s(4),(System.nanoTime-start)/1e6)
+  }
+  def costs: List[(String,Cost)] = corpus map {case (s,ts) => (s,cost(ts))}
+  def total(cs: List[(String,Cost)]): Cost = cs.foldLeft(zero)(_ + _._2)
+
+  // Recorded totals, one "name count" pair per line
+  def baseline: Map[String,Long] =
+    (Source.fromFile(baselinePath).getLines().toList map (_.split(" ")) collect {
+      case Array(n,c) => (n,c.toLong) }).toMap
+  def writeBaseline(c: Cost): Unit = {
+    val out = new PrintWriter(baselinePath)
+    try c.counts foreach {case (n,c) => out.println(s"$n $c")}
+    finally out.close()
+  }
+
+  // Counts which grew by more than threshold relative to the baseline.  Wall time is too noisy to check.
+  def regressions(now: Cost, base: Map[String,Long], threshold: Double): List[String] =
+    now.counts collect { case (n,c) if n != "inputs" && base.contains(n) && c > base(n)*(1+threshold) =>
+      s"$n: $c > ${base(n)} by ${100*(c-base(n))/base(n)}%" }
+
+  // Time one pass over the corpus, in milliseconds
+  def round(): Double = {
+    val start = System.nanoTime
+    corpus foreach (c => ParseEddy.parse(c._2))
+    (System.nanoTime - start) / 1e6
+  }
+
+  def main(args: Array[String]): Unit = args match {
+    case Array("-v") =>
+      val cs = costs
+      for ((s,c) <- cs sortBy (_._2.cells)) println(s"$c: ${s.trim}")
+      println(s"total: ${total(cs)}")
+    case Array("-c") =>
+      val inputs = testData ++ testParse
+      writeCorpus(inputs)
+      println(s"wrote $corpusPath: ${inputs.size} inputs")
+    case Array("-w") =>
+      val c = total(costs)
+      writeBaseline(c)
+      println(s"wrote $baselinePath: $c")
+    case _ =>
+      val rounds = if (args.isEmpty) 20 else args(0).toInt
+      println(s"corpus: ${corpus.size} inputs")
+      for (i <- 0 until rounds)
+        println(s"round $i: ${round()} ms")
+  }
+}
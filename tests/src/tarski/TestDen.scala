@@ -39,6 +39,9 @@ class TestDen {
   implicit val env = localEnvWithBase()
   implicit val showFlags = abbrevShowFlags
 
+  // Check every inference against Inference.Slow
+  Inference.checkInfer = true
+
   // Dummy ranges
   val r = SRange.unknown
   val a = SGroup.unknown
@@ -661,6 +664,45 @@ class TestDen {
     }
   }
 
+  // Prefix resolution queries repeat across argument orders, so the run's memo should absorb some of them
+  @Test def resolveMemo() = {
+    val T = SimpleTypeVar("T")
+    val F = NormalClassItem("F")
+    val f = NormalMethodItem("f",F,List(T),VoidType,List(T,T,T),isStatic=true)
+    val x = NormalLocal("x",IntType.box,isFinal=true)
+    val y = NormalLocal("y",IntType.box,isFinal=true)
+    implicit val env = localEnv(F,f,x,y)
+    test("f(x,y,x)",ExpStmt(ApplyExp(TypeApply(f,List(IntType.box),a,hide=true),List(x,y,x),a,auto=false),env))
+    val (all,memo) = ArgMatching.withRun((Tarski.fix(lex("f(x,y,x)")).stream,ArgMatching.runMemo))
+    println(s"${all.size} fixes, $memo")
+    assertNull(ArgMatching.runMemo)
+    assertTrue(s"$memo",memo.hits > 0 && memo.inferences > 0)
+  }
+
+  // fixTake formats only the alternatives it hands to take
+  @Test def lazyFormat() = {
+    val x = NormalLocal("x",IntType,isFinal=false)
+    val y = NormalLocal("yy",IntType,isFinal=false)
+    val z = NormalLocal("yz",IntType,isFinal=false)
+    implicit val env = localEnv(x,y,z)
+    val input = lex("x = y")
+    var formats = 0
+    var batches = 0
+    var delivered = 0
+    var takes = 0
+    Tarski.fixTake(scala.collection.JavaConverters.seqAsJavaListConverter(input).asJava, env,
+      (ss: Tarski.JList[String], f: ShowFlags) => { formats += ss.size; batches += 1; ss },
+      new Tarski.Take { def take(rs: Tarski.JResults) = {
+        takes += 1
+        delivered = rs.size
+        if (rs.isEmpty) 0 else 1
+      }})
+    val total = Tarski.fix(input).stream.size
+    assertTrue(s"delivered $delivered of $total",0 < delivered && delivered < total)
+    assertEquals(2*delivered,formats)
+    assertTrue(s"$batches batches for $takes takes",batches <= 2*takes)
+  }
+
   // Mismatched parentheses
   @Test def mismatchedParens() = {
     lazy val X: ClassItem = NormalClassItem("X",constructors=Array(cons))
@@ -5,6 +5,7 @@ package tarski
 import utility.Locations.SRange
 import utility.Utility._
 import tarski.TestUtils._
+import tarski.Base.{ExceptionItem,ThrowableItem,SerializableItem,ubIntItem}
 import tarski.Environment._
 import tarski.Items._
 import tarski.JavaItems._
@@ -45,6 +46,43 @@ class TestEnvironment {
     assertEquals(tokens(tY) map (_.x), List(ThisTok))
   }
 
+  @Test def subitems(): Unit = {
+    val I = NormalInterfaceItem("I")
+    val J = NormalInterfaceItem("J",interfaces=List(I.simple))
+    val A = NormalClassItem("A",interfaces=List(J.simple))
+    val B = NormalClassItem("B",base=A.simple,interfaces=List(I.simple))
+    val E = NormalClassItem("E",base=ExceptionItem.simple)
+    val V = NormalTypeVar("V",B.simple,Nil)
+    val items: List[TypeItem] = List(I,J,A,B,E,V,ObjectItem,ThrowableItem,SerializableItem,ubIntItem,ArrayItem)
+    def slow(lo: TypeItem, hi: TypeItem): Boolean = lo==hi || lo.superItems.exists(slow(_,hi))
+    for (lo <- items; hi <- items)
+      assertEquals(s"$lo <: $hi",slow(lo,hi),isSubitem(lo,hi))
+    assertEquals(Set(A,J,I,ObjectItem),B.allSuperItems)
+    assertNull(NormalClassItem("C",base=B.simple).knownSuperItems)
+    assertSame(B.allSuperItems,B.knownSuperItems)
+    assertTrue(isThrowable(E))
+  }
+
+  @Test def internTypes(): Unit = {
+    val T = SimpleTypeVar("T")
+    val A = NormalClassItem("A",LocalPkg,List(T))
+    val B = NormalClassItem("B")
+    val AB = A.generic(List(B.simple))
+    // Equal types built separately are shared
+    assertSame(AB,A.generic(List(B.simple)))
+    assertSame(AB,A.inside.substitute(Map(T -> Some(B.simple))))
+    // Substitution which changes nothing returns the same type
+    val AT = A.inside
+    assertSame(AT,AT.substitute(Map.empty))
+    assertSame(intern(ArrayType(AB)),ArrayType(AT).substitute(Map(T -> Some(B.simple))))
+    // Equality is still structural, and hashes are cached consistently
+    val fresh = GenericType(A,List(B.simple),LocalPkg)
+    assertNotSame(AB,fresh)
+    assertEquals(AB,fresh)
+    assertEquals(AB.hashCode,fresh.hashCode)
+    assertFalse(AB == A.generic(List(ObjectType)))
+  }
+
   @Test def levenshteinDistance(): Unit = {
     val meant = "isInstanceOf"
     val typed = "isInstnaceof"
@@ -133,6 +171,27 @@ class TestEnvironment {
     assertEquals("Trie query failed to find high probability item(s).", qr, lr)
   }
 
+  @Test def trieQueryPrefetch(): Unit = {
+    val names = Array("processItem","processItems","processIter","processIden","processLine","verylongName")
+    val items = names.map(s => s -> NormalClassItem(s,LocalPkg)).toMap
+    class Gen extends JavaTrie.Generator[Item] {
+      def lookup(s: String): Array[Item] = Array(items(s))
+    }
+    var prefetched: List[String] = Nil
+    val gen = new Gen with JavaTrie.Prefetcher {
+      def prefetch(ss: Array[String]): Unit = prefetched = ss.toList
+    }
+    val plain = LazyTrie[Item](names,new Gen).typoQuery("processItex".toCharArray).stream.toList
+    val pre = LazyTrie[Item](names,gen).typoQuery("processItex".toCharArray).stream.toList
+    assertEquals(plain,pre)
+    // The most likely candidates are prefetched, best first
+    println(s"typo candidates: $pre, prefetched: $prefetched")
+    assertTrue(prefetched.nonEmpty)
+    val ps = prefetched.map(s => Pr.typoProbability(s,"processItex"): Double)
+    assertEquals(ps.sorted.reverse,ps)
+    assertEquals(pre.take(prefetched.size).map(_.x.name),prefetched)
+  }
+
   // Warn if exactOnly is true
   @Test def noExactOnly(): Unit = assertEquals(false,exactOnly)
 
@@ -173,9 +232,78 @@ class TestEnvironment {
     }
   }
 
+  @Test def byTypeIndex(): Unit = {
+    val random = new Random(7331)
+    val types = Array.tabulate(20)(i => s"T$i")
+    val names = Array.tabulate(50)(i => s"n$i")
+    for (round <- 0 until 20) {
+      val b = new ByTypeIndex.Builder
+      val counts = scala.collection.mutable.Map[(String,String),Int]().withDefaultValue(0)
+      for (k <- 0 until random.nextInt(500)) {
+        val t = types(random.nextInt(types.length))
+        val n = names(random.nextInt(names.length))
+        val c = if (counts((t,n)) > 0 && random.nextDouble < .3) -1 else 1
+        counts((t,n)) += c
+        b.add(t,n,c)
+      }
+      val x = b.build()
+      for (t <- types; n <- names)
+        assertEquals(s"$t $n",counts((t,n)),x.count(t,n))
+      for (t <- types) {
+        val expected = names.filter(n => counts((t,n)) > 0).toSet
+        assertEquals(t,expected,Option(x.get(t)).map(_.toSet).getOrElse(Set()))
+      }
+      assertEquals(counts.count(_._2 > 0),x.edges)
+      // Rebuilding from an index gives the same index
+      val b2 = new ByTypeIndex.Builder
+      b2.add(x)
+      val y = b2.build()
+      for (t <- types; n <- names)
+        assertEquals(x.count(t,n),y.count(t,n))
+      // So does a round trip through write and read
+      val bytes = new java.io.ByteArrayOutputStream
+      x.write(new java.io.DataOutputStream(bytes))
+      val z = ByTypeIndex.read(new java.io.DataInputStream(new java.io.ByteArrayInputStream(bytes.toByteArray)))
+      assertEquals(x.edges,z.edges)
+      for (t <- types; n <- names)
+        assertEquals(x.count(t,n),z.count(t,n))
+    }
+    assertEquals(0,ByTypeIndex.empty.count("T","n"))
+    assertNull(ByTypeIndex.empty.get("T"))
+  }
+
+  // Corrupt or truncated files must fail to read with IOException, which is all LibraryIndex.load catches
+  @Test def byTypeIndexCorrupt(): Unit = {
+    val b = new ByTypeIndex.Builder
+    for (t <- List("A","B","C"); n <- List("x","y","z") if t != "B" || n != "y")
+      b.add(t,n,1)
+    val bytes = new java.io.ByteArrayOutputStream
+    b.build().write(new java.io.DataOutputStream(bytes))
+    val good = bytes.toByteArray
+    def read(data: Array[Byte]): Unit =
+      try {
+        val x = ByTypeIndex.read(new java.io.DataInputStream(new java.io.ByteArrayInputStream(data)))
+        for (t <- List("A","B","C","D"); n <- List("x","y","z","w")) x.count(t,n) // Anything read must be usable
+      } catch { case _:java.io.IOException => () }
+    for (i <- good.indices; v <- List(0,1,0x7f,0x80,0xff)) {
+      val bad = good.clone
+      bad(i) = v.toByte
+      read(bad)
+    }
+    for (n <- 0 until good.length)
+      read(java.util.Arrays.copyOf(good,n))
+    // A huge length runs into the end of the data instead of allocating
+    val huge = new java.io.ByteArrayOutputStream
+    val out = new java.io.DataOutputStream(huge)
+    out.writeInt(1); out.writeInt(0); out.writeInt(0); out.writeInt(1); out.writeInt(0); out.writeInt(Int.MaxValue)
+    try { ByTypeIndex.read(new java.io.DataInputStream(new java.io.ByteArrayInputStream(huge.toByteArray))); fail() }
+    catch { case _:java.io.IOException => () }
+  }
+
   @Test def importTrie(): Unit = {
-    val it = new ImportTrie
-    splitWhitespace("com.eddy com.eddy.foo org.blah org.blah.*") foreach it.add
+    val b = new ImportTrie.Builder
+    splitWhitespace("com.eddy com.eddy.foo org.blah org.blah.*") foreach (b.add(_))
+    val it = b.build()
     def item(names: Array[String]): Item = names.tail.foldLeft(RootPackage(names(0)):Package)(ChildPackage)
     def check(n: Int, k: Int, qual: String): Unit = {
       val names = qual.split("""\.""")
@@ -193,4 +321,63 @@ class TestEnvironment {
     check(3,3,"org.blah.new")
     check(4,3,"org.blah.new.knew")
   }
+
+  @Test def importTrieFiles(): Unit = {
+    def item(qual: String): Item = {
+      val names = qual.split("""\.""")
+      names.tail.foldLeft(RootPackage(names(0)):Package)(ChildPackage)
+    }
+    def prefix(t: ImportTrie, qual: String) = ImportTrie.unpackPrefix(t.info(item(qual),0))
+    val fs = new ImportTrie.Files
+    assertEquals(2,prefix(fs.trie,"java.lang")) // Defaults are always there
+    fs.update("A.java",Array("com.eddy.foo","org.blah.*"))
+    fs.update("B.java",Array("com.eddy.foo"))
+    val t0 = fs.trie
+    assertSame(t0,fs.trie) // Not rebuilt without changes
+    fs.update("B.java",Array("com.eddy.foo"))
+    assertSame(t0,fs.trie)
+    assertEquals(-1,fs.stamp("B.java"))
+    fs.update("B.java",7,Array("com.eddy.foo"))
+    assertEquals(7,fs.stamp("B.java"))
+    assertSame(t0,fs.trie)
+    assertEquals(3,prefix(t0,"com.eddy.foo"))
+    assertEquals(3,prefix(t0,"org.blah.x"))
+
+    // Deltas: A's imports go away, but B still imports com.eddy.foo
+    fs.update("A.java",Array("com.eddy.bar"))
+    val t1 = fs.trie
+    assertEquals(3,prefix(t1,"com.eddy.foo"))
+    assertEquals(3,prefix(t1,"com.eddy.bar"))
+    assertEquals(0,prefix(t1,"org.blah.x"))
+    fs.retain(Set("A.java").asJava)
+    assertEquals(1,fs.size)
+    assertEquals(-1,fs.stamp("B.java"))
+    assertEquals(2,prefix(fs.trie,"com.eddy.foo"))
+    fs.remove("A.java")
+    assertEquals(0,prefix(fs.trie,"com.eddy.foo"))
+    assertEquals(Pr.defaultImports.nodes,fs.trie.nodes)
+    // Old snapshots are unaffected
+    assertEquals(3,prefix(t0,"org.blah.x"))
+
+    // latest doesn't build, and lags behind updates until someone calls trie
+    val t2 = fs.trie
+    fs.update("C.java",Array("net.c"))
+    assertTrue(fs.stale)
+    assertSame(t2,fs.latest)
+    assertEquals(2,prefix(fs.trie,"net.c"))
+    assertFalse(fs.stale)
+
+    // Concurrent readers agree with a single thread
+    val quals = Array.tabulate(200)(i => s"p${i%7}.q${i%13}.C$i")
+    for ((q,i) <- quals.zipWithIndex) fs.update(s"F$i.java",Array(q))
+    val t = fs.trie
+    val expected = (quals map (q => t.info(item(q+".m"),0))).toList
+    val pool = java.util.concurrent.Executors.newFixedThreadPool(4)
+    try {
+      val readers = List.fill(4)(pool.submit(new java.util.concurrent.Callable[List[List[Long]]] {
+        def call() = List.fill(100)((quals map (q => t.info(item(q+".m"),0))).toList) }))
+      // get rethrows anything a reader threw, here on the test thread
+      for (r <- readers; got <- r.get) assertEquals(expected,got)
+    } finally pool.shutdown()
+  }
 }
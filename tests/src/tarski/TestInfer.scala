@@ -9,7 +9,7 @@ package tarski
 
 import tarski.Base._
 import tarski.Flags.debugInfer
-import tarski.Inference.{InferError, Var, infer, looseBounds}
+import tarski.Inference._
 import tarski.Items._
 import tarski.TestUtils._
 import tarski.Types._
@@ -21,6 +21,9 @@ class TestInfer {
   // Force initialization of base to avoid weird exceptions
   Base.baseEnv.allItems
 
+  // Check every inference against Inference.Slow
+  Inference.checkInfer = true
+
   // A few convenience type variables
   val S = SimpleTypeVar("S")
   val T = SimpleTypeVar("T")
@@ -73,6 +76,46 @@ class TestInfer {
     testInferFail(U)(B.generic(List(U)))(A.generic(List(IntType.box,IntType.box)))
   }
 
+  // Undo restores the bounds as they were at the mark
+  @Test def trail() = {
+    val bs = new Store(Array(S,T))
+    val start = bs.toList
+    val m = bs.mark
+    bs(S) = Fixed(IntType.box)
+    subForm(bs,T,NumberItem.simple)
+    assertEquals(Fixed(IntType.box),bs(S))
+    assertEquals(Bounded(Set(),Set(ObjectType,NumberItem.simple)),bs(T))
+    bs.undo(m)
+    assertEquals(start,bs.toList)
+  }
+
+  // A spread of calls.  Capture makes fresh variables on every call, so wildcard arguments are kept apart.
+  val args: List[Type] = List(ObjectType,IntType,IntType.box,FloatType.box,NumberItem,StringType,NullType,
+    ArrayType(IntType),ArrayType(StringType),IterableItem.generic(List(IntType.box)),ComparableItem.generic(List(StringType)))
+  val wildArgs: List[Type] = List(IterableItem.generic(List(WildSub(NumberItem))),ComparableItem.generic(List(WildSuper(StringType))))
+  val params: List[Type] = List(T,ArrayType(T),IterableItem.generic(List(T)),ComparableItem.generic(List(T)),
+    IterableItem.generic(List(WildSub(T))),IterableItem.generic(List(WildSuper(T))))
+  def run(f: => Option[List[TypeArg]]): Either[Class[_],Option[List[TypeArg]]] =
+    try Right(f) catch { case e@(_:RuntimeException|_:NotImplementedError) => Left(e.getClass) } // Unhandled cases must match too
+
+  // The store and Slow's immutable bounds agree.  checkInfer makes infer throw InferMismatch if they don't.
+  @Test def differential() =
+    for (p0 <- params; p1 <- T::params; a0 <- args ::: wildArgs; a1 <- args ::: wildArgs; form <- List[Form](looseBounds,strictBounds))
+      run(infer(List(T),List(p0,p1),List(a0,a1))(form))
+
+  // Prefixes backs up along the trail between calls, but must answer exactly as infer does from scratch.
+  // With checkInfer on, each of its answers is also checked against Slow.
+  @Test def prefixes() = {
+    for (form <- List[Form](looseBounds,strictBounds)) {
+      val p = new Prefixes(List(T),form)
+      for (p0 <- params; p1 <- T::params; a0 <- args; a1 <- args; n <- List(1,2,0)) {
+        val ts = List(p0,p1) take n
+        val as = List(a0,a1) take n
+        assertEquals(s"ts $ts, as $as",run(infer(List(T),ts,as)(form)),run(p(ts,as)))
+      }
+    }
+  }
+
   // Warn if debugging is left on
   @Test def noDebugInfer() = assertEquals(false,debugInfer)
 }
@@ -74,6 +74,24 @@ class TestParse {
     com(""""/**/"""",StringLitTok(""""/**/""""))
   }
 
+  // The DFA lexer must agree with the regex lexer, including on which inputs fail
+  @Test def dfaLexer(): Unit = {
+    def same(s: String) = {
+      def run(f: String => List[Loc[Token]]) = try Some(f(s)) catch { case _:RuntimeException => None }
+      assertEquals(escape(s),run(slowLex),run(lex))
+    }
+    List("","09","09.5","09d","0x1.8p1","0x1.p2f","1e5","1e","1_000L","0_7","0b10_1","1__2",".5e-3d","x.1","'\\x'",
+         "'\\0133'","'\\n'","''","'ab'","\"a\\\"b\"","\"unterminated","/* a */ b */","/***/","/*/ x",
+         "// x \n y","a>>>=b","a->b::c...d","\u00e9t\u00e9","'\ud83d\ude00'","\"\ud83d\ude00\"") foreach same
+    val files = new java.io.File("test-data").listFiles.toList filter (_.getName.endsWith(".java"))
+    for (f <- files) {
+      val text = scala.io.Source.fromFile(f).mkString
+      text.split("\n") foreach same
+      // Whole files are now cheap, and lexing loses nothing
+      assertEquals(text,lex(text) map {case Loc(t,r) => text.substring(r.lo.raw,r.hi.raw)} mkString "")
+    }
+  }
+
   @Test def pretty(): Unit = {
     def check(s: String, e: AExp) = assertEquals(s,show(e))
     def add(x: AExp, y: AExp) = BinaryAExp(AddOp,r,x,y)
@@ -245,6 +263,114 @@ class TestParse {
   @Test def tryCatchFinallyStmt() = testAST("try x = 1 finally ",
     TryAStmt(r,AssignAExp(None,r,"x",1), Nil, Some(r,HoleAStmt(SRange.empty))))
 
+  // Production priors from eddy.gram order ambiguous parses
+  @Test def priors() = {
+    val x = AssignAExp(None,r,"x",1)
+    val asts = ParseEddy.parseScored(prep("(x = 1)")) flatMap (Expand.expand(_))
+    assertEquals(List(Alt(Pr.parse,List(ExpAStmt(ParenAExp(x,parens)))),
+                      Alt(Pr.parenStmt,List(ParenAStmt(ExpAStmt(x),parens)))),
+                 asts.stream.toList)
+  }
+
+  // Measure how many chart cells the first, last, and size guards let ParseEddy skip on real code
+  @Test def pruning(): Unit = {
+    import ambiguity.Grammar.{read,complete,binarize}
+    val G = binarize(complete(read(scala.io.Source.fromFile("tarski/src/tarski/eddy.gram").mkString)))
+    val nons = G.types.keys.toList
+    val files = new java.io.File("test-data").listFiles.toList filter (_.getName.endsWith(".java"))
+    var total = 0L
+    var kept = 0L
+    def tokens(line: String): List[Token] = try prepare(lex(line)) map (_.x) catch {
+      case _:RuntimeException => Nil // Comment lines don't always lex
+    }
+    for (f <- files; line <- scala.io.Source.fromFile(f).getLines()) {
+      val ts = tokens(line).toArray map (_.getClass.getSimpleName.stripSuffix("$"))
+      for (lo <- ts.indices; hi <- lo+1 to ts.length; n <- nons) {
+        total += 1
+        if (G.possible(n,ts(lo),ts(hi-1),hi-lo))
+          kept += 1
+      }
+    }
+    println(s"pruning: ${files.size} files, ${total-kept} of $total cell attempts skipped (${100*(total-kept)/total}%)")
+    assertTrue(kept < total)
+  }
+
+  // HotSpot never compiles methods over HugeMethodLimit (8000 bytes), so no generated parser method may reach it.
+  // Bytecode sizes are read straight from the class file, which doesn't depend on timing or JIT output.
+  @Test def methodSizes(): Unit = {
+    val limit = 8000
+    val sizes = codeSizes(Class.forName("tarski.ParseEddy$Parser"))
+    assertTrue("no parser methods found",sizes.nonEmpty)
+    val huge = sizes filter (_._2 >= limit)
+    assertTrue(s"ParseEddy.Parser methods over $limit bytes: ${huge mkString ", "}",huge.isEmpty)
+  }
+
+  // Bytecode length of each method with code in c's class file
+  def codeSizes(c: Class[_]): List[(String,Int)] = {
+    val in = new java.io.DataInputStream(new java.io.BufferedInputStream(
+      c.getResourceAsStream(c.getName.substring(c.getName.lastIndexOf('.')+1)+".class")))
+    try {
+      in.readInt(); in.readUnsignedShort(); in.readUnsignedShort() // magic, minor, major
+      val n = in.readUnsignedShort()
+      val utf = new Array[String](n)
+      var i = 1
+      while (i < n) {
+        in.readUnsignedByte() match {
+          case 1 => utf(i) = in.readUTF()
+          case 5|6 => in.skipBytes(8); i += 1 // Long and Double take two slots
+          case 3|4|9|10|11|12|17|18 => in.skipBytes(4)
+          case 15 => in.skipBytes(3)
+          case 7|8|16|19|20 => in.skipBytes(2)
+          case t => throw new RuntimeException(s"bad constant pool tag $t")
+        }
+        i += 1
+      }
+      in.skipBytes(6) // access, this, super
+      in.skipBytes(2*in.readUnsignedShort()) // interfaces
+      def skipAttrs(): Unit = for (_ <- 0 until in.readUnsignedShort()) { in.readUnsignedShort(); in.skipBytes(in.readInt()) }
+      for (_ <- 0 until in.readUnsignedShort()) { in.skipBytes(6); skipAttrs() } // fields
+      (for (_ <- 0 until in.readUnsignedShort()) yield {
+        in.readUnsignedShort()
+        val name = utf(in.readUnsignedShort())
+        in.readUnsignedShort()
+        var size = -1
+        for (_ <- 0 until in.readUnsignedShort()) {
+          val attr = utf(in.readUnsignedShort())
+          val len = in.readInt()
+          if (attr == "Code") {
+            in.skipBytes(4) // max_stack, max_locals
+            size = in.readInt()
+            in.skipBytes(len-8)
+          } else in.skipBytes(len)
+        }
+        (name,size)
+      }).toList filter (_._2 >= 0)
+    } finally in.close()
+  }
+
+  // The dynamic programming repair must produce exactly the repairs and scores of the enumerating one
+  @Test def repairs(): Unit = {
+    implicit val f = Flags(loc=true)
+    def alts(s: Scored[List[Loc[Token]]]) = s.stream.toList map (a => (a.p,a.x)) sortBy (a => (-a._1,a._2.toString))
+    for (s <- List("f(x","f(x))","((X()).f(","a[b(c]","if x) y","{ (x","((((","x)))","f(a, g(b, h(c)","}{",
+                   "if true)","while (x) { y(","a[i]]) + (b","x = (1 + 2"))
+      assertEquals(s,alts(Mismatch.slowRepair(prep(s))),alts(Mismatch.repair(prep(s))))
+    // Many groups make enumeration explode, but the best repair is still immediate
+    val many = prep("f(a[b], c(d), e[g], h(i), {j}, k(l), m[n], o(p), q[r], s(t), u[v], w(x)")
+    assertTrue(Mismatch.repair(many).best.isRight)
+  }
+
+  // Grammar changes must not make parsing much more expensive.  Rerun ParseBench -w if the increase is intended.
+  // The corpus is checked in, so new tests and test data don't count as regressions.
+  @Test def cost(): Unit = {
+    val now = ParseBench.total(ParseBench.costs)
+    println(s"cost: $now")
+    assertEquals(s"${ParseBench.corpusPath} changed without rerunning ParseBench -w",
+                 ParseBench.baseline("inputs"),now.inputs)
+    val bad = ParseBench.regressions(now,ParseBench.baseline,threshold=.05)
+    assertTrue(s"parse cost regressed (see ${ParseBench.baselinePath}):\n  "+bad.mkString("\n  "),bad.isEmpty)
+  }
+
   // A complicated example
   @Test def complicated() = {
     implicit val f = Flags(loc=true)